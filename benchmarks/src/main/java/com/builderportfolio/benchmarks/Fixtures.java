@@ -0,0 +1,72 @@
+package com.builderportfolio.benchmarks;
+
+import com.builderportfolio.dao.BuilderDao;
+import com.builderportfolio.dao.ManagerDao;
+import com.builderportfolio.dao.ProjectDao;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.service.ProjectService;
+
+import java.time.LocalDate;
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Shared data set used by the benchmarks.
+ * <p>
+ * The DAOs are static, so every benchmark state resets them before loading its own data.
+ * Application logging is switched off so that console output does not dominate the
+ * measured operations.
+ * </p>
+ */
+final class Fixtures {
+
+    /** Strong reference so the level set on the application logger is not lost to GC */
+    private static final Logger APPLICATION_LOGGER = Logger.getLogger("com.builderportfolio");
+
+    static final LocalDate START = LocalDate.of(2025, 1, 1);
+    static final LocalDate END = LocalDate.of(2025, 12, 31);
+
+    private Fixtures() {
+    }
+
+    /**
+     * Silences application logging and empties every DAO.
+     */
+    static void reset() {
+        APPLICATION_LOGGER.setLevel(Level.OFF);
+        ProjectDao.projectsList.clear();
+        ManagerDao.managerProjects.clear();
+        BuilderDao.builderProjects.clear();
+    }
+
+    static String managerId(int index) {
+        return "M-bench-" + index;
+    }
+
+    static String builderId(int index) {
+        return "B-bench-" + index;
+    }
+
+    /**
+     * Creates projects spread round-robin over the given managers and builders, so project
+     * {@code i} belongs to manager {@code i % managers} and builder {@code i % builders}.
+     *
+     * @return the ID of the first project created; the others follow consecutively
+     */
+    static long loadProjects(ProjectService service, int projects, int managers, int builders) {
+        for (int i = 0; i < managers; i++) {
+            ManagerDao.insertManager(managerId(i));
+        }
+        for (int i = 0; i < builders; i++) {
+            BuilderDao.insertBuilder(builderId(i));
+        }
+
+        Client client = new Client("Bench Client", "client@bench.test", "0000000000");
+        for (int i = 0; i < projects; i++) {
+            service.createProject("Project " + i, "Benchmark project", START, END, ProjectStatus.UPCOMING, client,
+                    builderId(i % builders), managerId(i % managers));
+        }
+        return ManagerDao.getSortedProjectIds(managerId(0))[0]; // manager 0 owns project 0
+    }
+}
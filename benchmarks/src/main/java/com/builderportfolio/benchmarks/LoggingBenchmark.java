@@ -0,0 +1,84 @@
+package com.builderportfolio.benchmarks;
+
+import com.builderportfolio.logging.AsyncLogger;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Measures the cost a log statement adds to the calling thread.
+ * <p>
+ * {@code julEager} is the previous style, a {@code java.util.logging} call with a message
+ * built by string concatenation; {@code asyncStructured} is the same event through
+ * {@link AsyncLogger}. With {@code level=OFF} the async call should cost about as much as
+ * {@code baseline}, since nothing is allocated or formatted. With {@code level=INFO} both
+ * write to a handler that discards records, so the difference is the work moved off the
+ * caller's thread; events the background thread cannot keep up with are dropped, as
+ * {@link AsyncLogger#droppedEvents()} reports. Run with {@code -prof gc} to see allocation
+ * per call.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class LoggingBenchmark {
+
+    @Param({"OFF", "INFO"})
+    public String level;
+
+    /** Strong reference so the level and handler set on the logger are not lost to GC */
+    private static final Logger JUL = Logger.getLogger(LoggingBenchmark.class.getName());
+
+    private static final AsyncLogger ASYNC = AsyncLogger.getLogger(LoggingBenchmark.class);
+
+    private final String userId = "M12345";
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        JUL.setUseParentHandlers(false);
+        for (Handler handler : JUL.getHandlers()) {
+            JUL.removeHandler(handler);
+        }
+        JUL.addHandler(new Handler() {
+            @Override
+            public void publish(LogRecord record) {
+                // discard; only the logging path itself is measured
+            }
+
+            @Override
+            public void flush() {
+            }
+
+            @Override
+            public void close() {
+            }
+        });
+        JUL.setLevel(java.util.logging.Level.parse(level));
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        AsyncLogger.flush();
+    }
+
+    @Benchmark
+    public String baseline() {
+        return userId;
+    }
+
+    @Benchmark
+    public void julEager() {
+        JUL.info("LoginView successful for userId: " + userId);
+    }
+
+    @Benchmark
+    public void asyncStructured() {
+        ASYNC.info("login.success", "userId", userId);
+    }
+}
@@ -0,0 +1,134 @@
+package com.builderportfolio.benchmarks;
+
+import com.builderportfolio.dao.ManagerDao;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.NewProject;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectPage;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.service.ProjectService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Measures the project service hot paths against a pre-loaded portfolio of
+ * {@code projects} projects spread evenly over {@code managers} managers and builders.
+ * <p>
+ * Creation and deletion run under a manager private to each benchmark thread, and the
+ * projects created during an iteration are deleted afterwards, so the portfolio size stays
+ * at the configured value. Run with {@code -t <threads>} to measure contention, e.g.
+ * {@code java -jar target/benchmarks.jar ProjectServiceBenchmark -p projects=1000000 -t 8}.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(value = 1, jvmArgsAppend = {"-Xms2g", "-Xmx8g"})
+public class ProjectServiceBenchmark {
+
+    @Param({"1000", "100000", "1000000", "10000000"})
+    public int projects;
+
+    @Param({"100"})
+    public int managers;
+
+    private static final ProjectStatus[] STATUSES = ProjectStatus.values();
+
+    /** Projects created per invocation by the one-by-one and batch creation benchmarks */
+    private static final int BATCH = 100;
+
+    private final ProjectService projectService = new ProjectService();
+    private final AtomicInteger threads = new AtomicInteger();
+    private long firstProjectId;
+
+    @Setup(Level.Trial)
+    public void setUp() {
+        Fixtures.reset();
+        firstProjectId = Fixtures.loadProjects(projectService, projects, managers, managers);
+    }
+
+    /**
+     * Per-thread manager and builder used for creation and deletion.
+     */
+    @State(Scope.Thread)
+    public static class Writer {
+
+        String managerId;
+        String builderId;
+        Client client;
+        List<NewProject> batch;
+
+        @Setup(Level.Trial)
+        public void setUp(ProjectServiceBenchmark benchmark) {
+            int thread = benchmark.threads.getAndIncrement();
+            managerId = "M-writer-" + thread;
+            builderId = "B-writer-" + thread;
+            ManagerDao.insertManager(managerId);
+            client = new Client("Writer Client", "writer" + thread + "@bench.test", "0000000000");
+            batch = new ArrayList<>(BATCH);
+            for (int i = 0; i < BATCH; i++) {
+                batch.add(new NewProject("New Project", "Benchmark project", Fixtures.START, Fixtures.END,
+                        ProjectStatus.UPCOMING, client, builderId, managerId));
+            }
+        }
+
+        @TearDown(Level.Iteration)
+        public void deleteCreated(ProjectServiceBenchmark benchmark) {
+            for (long id : ManagerDao.getSortedProjectIds(managerId)) {
+                benchmark.projectService.deleteProject(managerId, id);
+            }
+        }
+    }
+
+    @Benchmark
+    public List<Project> getManagerProjects() {
+        return projectService.getManagerProjects(Fixtures.managerId(ThreadLocalRandom.current().nextInt(managers)));
+    }
+
+    @Benchmark
+    public ProjectPage getManagerProjectsFirstPage() {
+        return projectService.getManagerProjectsPage(Fixtures.managerId(ThreadLocalRandom.current().nextInt(managers)), null, 20);
+    }
+
+    @Benchmark
+    public boolean updateProjectStatus() {
+        ThreadLocalRandom random = ThreadLocalRandom.current();
+        int i = random.nextInt(projects);
+        return projectService.updateProjectStatus(Fixtures.builderId(i % managers), firstProjectId + i,
+                STATUSES[random.nextInt(STATUSES.length)]);
+    }
+
+    @Benchmark
+    public void createProject(Writer writer) {
+        projectService.createProject("New Project", "Benchmark project", Fixtures.START, Fixtures.END,
+                ProjectStatus.UPCOMING, writer.client, writer.builderId, writer.managerId);
+    }
+
+    @Benchmark
+    public boolean createThenDeleteProject(Writer writer) {
+        createProject(writer);
+        long projectId = ManagerDao.getProjectIdsAfter(writer.managerId, Long.MIN_VALUE, 1)[0];
+        return projectService.deleteProject(writer.managerId, projectId);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public void createProjectsOneByOne(Writer writer) {
+        for (int i = 0; i < BATCH; i++) {
+            createProject(writer);
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(BATCH)
+    public List<Project> createProjectsBatch(Writer writer) {
+        return projectService.createProjects(writer.batch);
+    }
+}
@@ -0,0 +1,85 @@
+package com.builderportfolio.benchmarks;
+
+import com.builderportfolio.exception.UserAlreadyExistsException;
+import com.builderportfolio.exception.UserNotFoundException;
+import com.builderportfolio.model.User;
+import com.builderportfolio.security.PasswordHasher;
+import com.builderportfolio.security.PasswordVerifier;
+import com.builderportfolio.service.UserService;
+import org.openjdk.jmh.annotations.*;
+
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Measures registration and login throughput.
+ * <p>
+ * Login picks a random user from a pre-registered population of {@code users};
+ * registration always uses a fresh email so every call takes the success path.
+ * Passwords are hashed with {@code iterations} PBKDF2 iterations on the verifier's bounded
+ * pool. The population shares one pre-computed hash, registered with
+ * {@link UserService#registerHashed}, so that setup does not pay for a hash per user; the first login of each user still pays the full cost, and later logins within
+ * the cache's time to live are served by the verified-credential cache, which
+ * {@code cacheSize=0} disables. Run with {@code -t <threads>} to measure contention.
+ * </p>
+ */
+@State(Scope.Benchmark)
+@BenchmarkMode(Mode.Throughput)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 3, time = 2)
+@Measurement(iterations = 5, time = 2)
+@Fork(1)
+public class UserServiceBenchmark {
+
+    @Param({"1000", "100000"})
+    public int users;
+
+    @Param({"10000", "210000"})
+    public int iterations;
+
+    @Param({"0", "10000"})
+    public int cacheSize;
+
+    private PasswordVerifier passwords;
+    private UserService userService;
+    private final AtomicLong emails = new AtomicLong();
+    private String[] userIds;
+
+    @Setup(Level.Trial)
+    public void setUp() throws UserAlreadyExistsException, UserNotFoundException {
+        Fixtures.reset();
+        passwords = new PasswordVerifier(iterations, PasswordVerifier.DEFAULT_THREADS,
+                PasswordVerifier.DEFAULT_QUEUE_CAPACITY, cacheSize, PasswordVerifier.DEFAULT_CACHE_TTL_MILLIS);
+        userService = new UserService(passwords);
+
+        String sharedHash = new PasswordHasher(iterations).hash("secret"); // registered as a hash, not rehashed
+        userIds = new String[users];
+        for (int i = 0; i < users; i++) {
+            User user = new User("User " + i, "login" + i + "@bench.test", "0000000000", 5, sharedHash, 1 + (i & 1));
+            userService.registerHashed(user);
+            userIds[i] = user.getUserId();
+        }
+        if (userService.login(userIds[0], "secret") == null) {
+            throw new IllegalStateException("Pre-registered users cannot log in; login would measure only failures");
+        }
+    }
+
+    @TearDown(Level.Trial)
+    public void tearDown() {
+        passwords.shutdown();
+    }
+
+    @Benchmark
+    public User login() throws UserNotFoundException {
+        return userService.login(userIds[ThreadLocalRandom.current().nextInt(users)], "secret");
+    }
+
+    @Benchmark
+    public User register() throws UserAlreadyExistsException {
+        long n = emails.incrementAndGet();
+        User user = new User("New User", "register" + n + "@bench.test", "0000000000", 1, "secret", 1 + (int) (n & 1));
+        userService.register(user);
+        return user;
+    }
+}
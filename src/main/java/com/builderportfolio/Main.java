@@ -1,12 +1,46 @@
 package com.builderportfolio;
 
+import com.builderportfolio.api.ApiServer;
+import com.builderportfolio.bulk.BulkExporter;
+import com.builderportfolio.bulk.BulkFormat;
+import com.builderportfolio.bulk.BulkImporter;
+import com.builderportfolio.dao.MappedProjectStore;
+import com.builderportfolio.dao.ProjectDao;
+import com.builderportfolio.persistence.PersistenceManager;
+import com.builderportfolio.service.ProjectService;
+import com.builderportfolio.service.UserService;
 import com.builderportfolio.view.MainMenuView;
 
+import java.io.IOException;
+import java.net.InetSocketAddress;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+
 /**
  * Entry point of the Builder Portfolio Management application.
  * <p>
  * Initializes the main menu view and starts the application loop.
  * </p>
+ * <p>
+ * When the {@code builderportfolio.dataDir} system property is set, all data is recovered
+ * from and journaled to that directory. Group commit can be tuned with
+ * {@code builderportfolio.wal.groupCommitSize}, {@code builderportfolio.wal.groupCommitMillis}
+ * and {@code builderportfolio.wal.waitForSync}.
+ * </p>
+ * <p>
+ * When the {@code builderportfolio.http.port} system property is set, the JSON API of
+ * {@link ApiServer} is served on that port alongside the console.
+ * </p>
+ * <p>
+ * The {@code builderportfolio.import.users} and {@code builderportfolio.import.projects}
+ * system properties name CSV or JSON-lines files that {@link BulkImporter} loads at startup,
+ * users first, using {@code builderportfolio.import.threads} worker threads.
+ * </p>
+ * <p>
+ * When the {@code builderportfolio.export.projects} system property names a file, all
+ * projects are exported to it by {@link BulkExporter} every
+ * {@code builderportfolio.export.intervalMillis} milliseconds, a day by default.
+ * </p>
  */
 public class Main {
 
@@ -18,8 +52,55 @@ public class Main {
      * </p>
      *
      * @param args command-line arguments (not used)
+     * @throws IOException if the project store file cannot be opened, the data directory cannot be recovered
+     *                     the HTTP port cannot be bound or an import file cannot be read
      */
-    public static void main(String[] args) {
+    public static void main(String[] args) throws IOException {
+        String projectStore = System.getProperty("builderportfolio.projectStore");
+        if (projectStore != null) {
+            ProjectDao.useBackend(new MappedProjectStore(Paths.get(projectStore))); // keep projects off the heap
+        }
+
+        String dataDir = System.getProperty("builderportfolio.dataDir");
+        if (dataDir != null) {
+            PersistenceManager persistence = PersistenceManager.open(
+                    Paths.get(dataDir),
+                    Integer.getInteger("builderportfolio.wal.groupCommitSize", PersistenceManager.DEFAULT_GROUP_COMMIT_SIZE),
+                    Long.getLong("builderportfolio.wal.groupCommitMillis", PersistenceManager.DEFAULT_GROUP_COMMIT_MILLIS),
+                    Boolean.parseBoolean(System.getProperty("builderportfolio.wal.waitForSync", "true")),
+                    Long.getLong("builderportfolio.snapshot.intervalMillis", PersistenceManager.DEFAULT_SNAPSHOT_INTERVAL_MILLIS));
+            Runtime.getRuntime().addShutdownHook(new Thread(persistence::close)); // flush the log on exit
+        }
+
+        String userImport = System.getProperty("builderportfolio.import.users");
+        String projectImport = System.getProperty("builderportfolio.import.projects");
+        if (userImport != null || projectImport != null) {
+            BulkImporter importer = new BulkImporter(new UserService(), new ProjectService(),
+                    Integer.getInteger("builderportfolio.import.threads", BulkImporter.DEFAULT_THREADS),
+                    BulkImporter.DEFAULT_CHUNK_SIZE);
+            if (userImport != null) { // users first, so imported projects can reference them
+                Path file = Paths.get(userImport);
+                System.out.println("Imported users: " + importer.importUsers(file, BulkFormat.fromFileName(file)));
+            }
+            if (projectImport != null) {
+                Path file = Paths.get(projectImport);
+                System.out.println("Imported projects: " + importer.importProjects(file, BulkFormat.fromFileName(file)));
+            }
+        }
+
+        String projectExport = System.getProperty("builderportfolio.export.projects");
+        if (projectExport != null) {
+            new BulkExporter().schedule(Paths.get(projectExport),
+                    Long.getLong("builderportfolio.export.intervalMillis", BulkExporter.DEFAULT_INTERVAL_MILLIS));
+        }
+
+        Integer httpPort = Integer.getInteger("builderportfolio.http.port");
+        if (httpPort != null) {
+            ApiServer api = new ApiServer(new InetSocketAddress(httpPort));
+            api.start();
+            Runtime.getRuntime().addShutdownHook(new Thread(() -> api.stop(1)));
+        }
+
         MainMenuView mainMenuView = new MainMenuView();
         mainMenuView.show();
     }
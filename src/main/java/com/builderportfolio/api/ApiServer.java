@@ -0,0 +1,481 @@
+package com.builderportfolio.api;
+
+// Embedded HTTP/JSON front end to the user and project services
+
+import com.builderportfolio.exception.UserAlreadyExistsException;
+import com.builderportfolio.exception.UserNotFoundException;
+import com.builderportfolio.logging.AsyncLogger;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectPage;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.Role;
+import com.builderportfolio.model.User;
+import com.builderportfolio.service.ProjectService;
+import com.builderportfolio.service.UserService;
+import com.builderportfolio.session.SessionStore;
+import com.builderportfolio.view.util.ServiceFactory;
+import com.sun.net.httpserver.HttpExchange;
+import com.sun.net.httpserver.HttpServer;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.InetSocketAddress;
+import java.net.URLDecoder;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.time.format.DateTimeParseException;
+import java.util.ArrayList;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Embedded HTTP server exposing registration, login and project management as a JSON API.
+ * <p>
+ * Endpoints, all under {@code /api}:
+ * <ul>
+ *   <li>{@code POST /register}: register a user and start a session</li>
+ *   <li>{@code POST /login}: start a session for an existing user</li>
+ *   <li>{@code POST /logout}: end the caller's session</li>
+ *   <li>{@code GET /projects?after=&size=}: one page of the caller's projects</li>
+ *   <li>{@code POST /projects}: create a project (managers)</li>
+ *   <li>{@code PUT /projects/{id}/status}: change the status of an assigned project (builders)</li>
+ *   <li>{@code DELETE /projects/{id}}: delete a managed project (managers)</li>
+ * </ul>
+ * Authenticated calls send the token returned by register or login as
+ * {@code Authorization: Bearer <token>}; tokens are resolved through the {@link SessionStore}.
+ * Errors are answered with an HTTP status and a {@code {"error": "..."}} body.
+ * </p>
+ * <p>
+ * Each exchange runs on its own virtual thread when the runtime supports them (Java 21 and
+ * later), so a request blocked on password hashing or a slow client costs no platform
+ * thread and thousands of clients can be served at once. On older runtimes a fixed pool of
+ * platform threads is used instead.
+ * </p>
+ */
+public final class ApiServer {
+
+    /** Default number of request threads when virtual threads are not available */
+    public static final int DEFAULT_FALLBACK_THREADS = Math.max(16, Runtime.getRuntime().availableProcessors() * 8);
+
+    /** Largest request body accepted, in bytes */
+    static final int MAX_BODY_BYTES = 64 * 1024;
+
+    /** Default and largest page sizes of project listings */
+    static final int DEFAULT_PAGE_SIZE = 50;
+    static final int MAX_PAGE_SIZE = 500;
+
+    /** Answer to a registration with a taken email; never names the existing user */
+    static final String EMAIL_TAKEN = "A user with this email already exists";
+
+    private static final AsyncLogger logger = AsyncLogger.getLogger(ApiServer.class);
+
+    private final UserService users;
+    private final ProjectService projects;
+    private final SessionStore sessions;
+    private final HttpServer server;
+    private final ExecutorService executor;
+
+    /**
+     * Creates a server over the application's shared services and session store.
+     *
+     * @param address the address to listen on; port 0 picks a free port
+     * @throws IOException if the address cannot be bound
+     */
+    public ApiServer(InetSocketAddress address) throws IOException {
+        this(address, ServiceFactory.userService(), ServiceFactory.projectService(), SessionStore.shared());
+    }
+
+    /**
+     * Creates a server over the given services.
+     *
+     * @param address  the address to listen on; port 0 picks a free port
+     * @param users    the user service
+     * @param projects the project service
+     * @param sessions the store resolving tokens to users
+     * @throws IOException if the address cannot be bound
+     */
+    public ApiServer(InetSocketAddress address, UserService users, ProjectService projects, SessionStore sessions) throws IOException {
+        this.users = users;
+        this.projects = projects;
+        this.sessions = sessions;
+        this.server = HttpServer.create(address, 0);
+        this.executor = newRequestExecutor();
+        server.setExecutor(executor);
+        server.createContext("/api/register", exchange -> handle(exchange, this::register));
+        server.createContext("/api/login", exchange -> handle(exchange, this::login));
+        server.createContext("/api/logout", exchange -> handle(exchange, this::logout));
+        server.createContext("/api/projects", exchange -> handle(exchange, this::projects));
+    }
+
+    /**
+     * Starts accepting requests.
+     */
+    public void start() {
+        server.start();
+        logger.info("api.started", "port", port());
+    }
+
+    /**
+     * Returns the port the server listens on.
+     *
+     * @return the bound port
+     */
+    public int port() {
+        return server.getAddress().getPort();
+    }
+
+    /**
+     * Stops accepting requests, waits up to the given time for running exchanges and
+     * releases the request threads.
+     *
+     * @param delaySeconds the longest time to wait for running exchanges
+     */
+    public void stop(int delaySeconds) {
+        server.stop(delaySeconds);
+        executor.shutdown();
+    }
+
+    /**
+     * Returns a virtual-thread-per-task executor if the runtime has one, else a fixed pool.
+     * Looked up reflectively so the application still builds and runs on Java 8.
+     */
+    static ExecutorService newRequestExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            AtomicInteger count = new AtomicInteger();
+            ThreadFactory threads = runnable -> {
+                Thread thread = new Thread(runnable, "api-" + count.incrementAndGet());
+                thread.setDaemon(true);
+                return thread;
+            };
+            return Executors.newFixedThreadPool(Integer.getInteger("builderportfolio.http.threads", DEFAULT_FALLBACK_THREADS), threads);
+        }
+    }
+
+    private Response register(HttpExchange exchange) {
+        requireMethod(exchange, "POST");
+        Map<String, Object> body = readBody(exchange);
+
+        // validate everything before constructing the user, which allocates its ID
+        Role role = Role.valueOf(requireString(body, "role").toUpperCase());
+        String userName = requireString(body, "userName");
+        String userEmail = requireString(body, "userEmail");
+        String userPhNumber = requireString(body, "userPhNumber");
+        int userExperience = (int) requireLong(body, "userExperience");
+        String password = requireString(body, "password");
+        if (users.isEmailRegistered(userEmail)) throw new ApiException(409, EMAIL_TAKEN);
+
+        User user = new User(userName, userEmail, userPhNumber, userExperience, password,
+                role == Role.PROJECT_MANAGER ? 1 : 2);
+        try {
+            users.register(user);
+        } catch (UserAlreadyExistsException e) { // lost a race with a concurrent registration
+            throw new ApiException(409, EMAIL_TAKEN);
+        }
+        return new Response(201, session(user));
+    }
+
+    private Response login(HttpExchange exchange) {
+        requireMethod(exchange, "POST");
+        Map<String, Object> body = readBody(exchange);
+
+        User user;
+        try {
+            user = users.login(requireString(body, "userId"), requireString(body, "password"));
+        } catch (UserNotFoundException e) {
+            user = null; // same answer as a wrong password, so user IDs cannot be probed
+        }
+        if (user == null) throw new ApiException(401, "Invalid user ID or password");
+        return new Response(200, session(user));
+    }
+
+    private Response logout(HttpExchange exchange) {
+        requireMethod(exchange, "POST");
+        String token = bearerToken(exchange);
+        if (!sessions.invalidate(token)) throw new ApiException(401, "Not logged in");
+        return new Response(204, null);
+    }
+
+    private Response projects(HttpExchange exchange) {
+        User user = authenticate(exchange);
+        String path = exchange.getRequestURI().getPath();
+        String method = exchange.getRequestMethod();
+
+        if (path.equals("/api/projects") || path.equals("/api/projects/")) {
+            if (method.equals("GET")) return listProjects(exchange, user);
+            if (method.equals("POST")) return createProject(exchange, user);
+            throw new ApiException(405, "Method not allowed");
+        }
+
+        String rest = path.substring("/api/projects/".length());
+        if (rest.endsWith("/status")) {
+            long projectId = parseId(rest.substring(0, rest.length() - "/status".length()));
+            if (method.equals("PUT")) return updateStatus(exchange, user, projectId);
+            throw new ApiException(405, "Method not allowed");
+        }
+        long projectId = parseId(rest);
+        if (method.equals("DELETE")) return deleteProject(user, projectId);
+        throw new ApiException(405, "Method not allowed");
+    }
+
+    private Response listProjects(HttpExchange exchange, User user) {
+        Map<String, String> query = query(exchange);
+        Long after = query.containsKey("after") ? parseId(query.get("after")) : null;
+        int size = query.containsKey("size") ? (int) Math.min(MAX_PAGE_SIZE, parseId(query.get("size"))) : DEFAULT_PAGE_SIZE;
+        if (size < 1) throw new ApiException(400, "Page size must be positive");
+
+        ProjectPage page = user.getRole() == Role.PROJECT_MANAGER
+                ? projects.getManagerProjectsPage(user.getUserId(), after, size)
+                : projects.getBuilderProjectsPage(user.getUserId(), after, size);
+
+        List<Object> items = new ArrayList<>(page.getProjects().size());
+        for (Project project : page.getProjects()) {
+            items.add(toJson(project));
+        }
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("projects", items);
+        result.put("nextCursor", page.getNextCursor());
+        return new Response(200, result);
+    }
+
+    private Response createProject(HttpExchange exchange, User user) {
+        if (user.getRole() != Role.PROJECT_MANAGER) throw new ApiException(403, "Only project managers can create projects");
+        Map<String, Object> body = readBody(exchange);
+
+        String builderId = requireString(body, "builderId");
+        User builder = users.fetchDetails(builderId);
+        if (builder == null || builder.getRole() != Role.BUILDER) {
+            throw new ApiException(400, "Builder with id " + builderId + " does not exist");
+        }
+        String projectName = requireString(body, "projectName");
+        String description = optionalString(body, "description");
+        LocalDate startDate = LocalDate.parse(requireString(body, "startDate"));
+        LocalDate endDate = LocalDate.parse(requireString(body, "endDate"));
+        ProjectStatus status = ProjectStatus.valueOf(requireString(body, "status").toUpperCase());
+        String clientName = requireString(body, "clientName");
+        String clientEmail = requireString(body, "clientEmail");
+        String clientPhNumber = requireString(body, "clientPhNumber");
+
+        // only once the request is known to be valid, so a rejected one leaves no client behind
+        Client client = projects.findOrCreateClient(clientName, clientEmail, clientPhNumber);
+        Project project = projects.createProject(projectName, description, startDate, endDate, status,
+                client, builderId, user.getUserId());
+        return new Response(201, toJson(project));
+    }
+
+    private Response updateStatus(HttpExchange exchange, User user, long projectId) {
+        if (user.getRole() != Role.BUILDER) throw new ApiException(403, "Only builders can update project status");
+        Map<String, Object> body = readBody(exchange);
+        ProjectStatus status = ProjectStatus.valueOf(requireString(body, "status").toUpperCase());
+
+        if (!projects.updateProjectStatus(user.getUserId(), projectId, status)) {
+            throw new ApiException(404, "No project " + projectId + " assigned to you"); // absent or not assigned look alike
+        }
+        return new Response(204, null);
+    }
+
+    private Response deleteProject(User user, long projectId) {
+        if (user.getRole() != Role.PROJECT_MANAGER) throw new ApiException(403, "Only project managers can delete projects");
+        if (!projects.deleteProject(user.getUserId(), projectId)) {
+            throw new ApiException(404, "No project " + projectId + " managed by you");
+        }
+        return new Response(204, null);
+    }
+
+    /**
+     * Runs an endpoint and writes its response, turning failures into error responses.
+     */
+    private void handle(HttpExchange exchange, Endpoint endpoint) throws IOException {
+        Response response;
+        try {
+            response = endpoint.serve(exchange);
+        } catch (ApiException e) {
+            response = Response.error(e.getStatus(), e.getMessage());
+        } catch (IllegalArgumentException | DateTimeParseException e) { // bad enum name, date or JSON
+            response = Response.error(400, e.getMessage());
+        } catch (RuntimeException e) {
+            logger.warning("api.failed", "path", exchange.getRequestURI().getPath(), "error", e.toString());
+            response = Response.error(500, "Internal error");
+        }
+
+        try {
+            exchange.getResponseHeaders().set("Content-Type", "application/json; charset=utf-8");
+            if (response.body == null) {
+                exchange.sendResponseHeaders(response.status, -1);
+            } else {
+                byte[] bytes = Json.write(response.body).getBytes(StandardCharsets.UTF_8);
+                exchange.sendResponseHeaders(response.status, bytes.length);
+                try (OutputStream out = exchange.getResponseBody()) {
+                    out.write(bytes);
+                }
+            }
+        } finally {
+            exchange.close();
+        }
+    }
+
+    private User authenticate(HttpExchange exchange) {
+        User user = sessions.get(bearerToken(exchange));
+        if (user == null) throw new ApiException(401, "Not logged in or session expired");
+        return user;
+    }
+
+    private static String bearerToken(HttpExchange exchange) {
+        String header = exchange.getRequestHeaders().getFirst("Authorization");
+        if (header == null || !header.regionMatches(true, 0, "Bearer ", 0, 7)) return null;
+        return header.substring(7).trim();
+    }
+
+    private Map<String, Object> session(User user) {
+        Map<String, Object> result = new LinkedHashMap<>();
+        result.put("token", sessions.create(user));
+        result.put("user", toJson(user));
+        return result;
+    }
+
+    private static void requireMethod(HttpExchange exchange, String method) {
+        if (!exchange.getRequestMethod().equals(method)) throw new ApiException(405, "Method not allowed");
+    }
+
+    private static Map<String, Object> readBody(HttpExchange exchange) {
+        ByteArrayOutputStream body = new ByteArrayOutputStream();
+        byte[] buffer = new byte[4096];
+        try (InputStream in = exchange.getRequestBody()) {
+            for (int n; (n = in.read(buffer)) != -1; ) {
+                body.write(buffer, 0, n);
+                if (body.size() > MAX_BODY_BYTES) throw new ApiException(413, "Request body too large");
+            }
+        } catch (IOException e) {
+            throw new ApiException(400, "Could not read request body");
+        }
+        return Json.parseObject(new String(body.toByteArray(), StandardCharsets.UTF_8));
+    }
+
+    private static Map<String, String> query(HttpExchange exchange) {
+        Map<String, String> params = new LinkedHashMap<>();
+        String raw = exchange.getRequestURI().getRawQuery();
+        if (raw == null) return params;
+        for (String pair : raw.split("&")) {
+            int eq = pair.indexOf('=');
+            if (eq <= 0) continue;
+            try {
+                params.put(URLDecoder.decode(pair.substring(0, eq), "UTF-8"), URLDecoder.decode(pair.substring(eq + 1), "UTF-8"));
+            } catch (java.io.UnsupportedEncodingException e) {
+                throw new IllegalStateException(e); // UTF-8 is always supported
+            }
+        }
+        return params;
+    }
+
+    private static String requireString(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof String) || ((String) value).isEmpty()) {
+            throw new ApiException(400, "Missing or invalid field '" + name + "'");
+        }
+        return (String) value;
+    }
+
+    private static String optionalString(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (value != null && !(value instanceof String)) throw new ApiException(400, "Invalid field '" + name + "'");
+        return (String) value;
+    }
+
+    private static long requireLong(Map<String, Object> body, String name) {
+        Object value = body.get(name);
+        if (!(value instanceof Long)) throw new ApiException(400, "Missing or invalid field '" + name + "'");
+        return (Long) value;
+    }
+
+    private static long parseId(String text) {
+        try {
+            return Long.parseLong(text);
+        } catch (NumberFormatException e) {
+            throw new ApiException(400, "Invalid number '" + text + "'");
+        }
+    }
+
+    private static Map<String, Object> toJson(User user) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("userId", user.getUserId());
+        json.put("userName", user.getUserName());
+        json.put("userEmail", user.getUserEmail());
+        json.put("userPhNumber", user.getUserPhNumber());
+        json.put("userExperience", user.getUserExperience());
+        json.put("role", user.getRole().name()); // never the password hash
+        return json;
+    }
+
+    private static Map<String, Object> toJson(Project project) {
+        Map<String, Object> json = new LinkedHashMap<>();
+        json.put("projectId", project.getProjectId());
+        json.put("projectName", project.getProjectName());
+        json.put("description", project.getProjectDescription());
+        json.put("startDate", String.valueOf(project.getProjectStartDate()));
+        json.put("endDate", String.valueOf(project.getProjectEndDate()));
+        json.put("status", String.valueOf(project.getProjectStatus()));
+        json.put("builderId", project.getAssignedBuilder());
+        json.put("managerId", project.getAssignedProjectManager());
+        Client client = project.getAssignedClient();
+        if (client != null) {
+            Map<String, Object> clientJson = new LinkedHashMap<>();
+            clientJson.put("clientId", client.getClientId());
+            clientJson.put("clientName", client.getClientName());
+            clientJson.put("clientEmail", client.getClientEmail());
+            clientJson.put("clientPhNumber", client.getClientPhNumber());
+            json.put("client", clientJson);
+        }
+        return json;
+    }
+
+    /**
+     * Serves one endpoint.
+     */
+    private interface Endpoint {
+        Response serve(HttpExchange exchange);
+    }
+
+    /**
+     * Status and JSON body of a response; a null body sends no content.
+     */
+    private static final class Response {
+        final int status;
+        final Object body;
+
+        Response(int status, Object body) {
+            this.status = status;
+            this.body = body;
+        }
+
+        static Response error(int status, String message) {
+            Map<String, Object> body = new LinkedHashMap<>();
+            body.put("error", message);
+            return new Response(status, body);
+        }
+    }
+
+    /**
+     * Failure answered with a specific HTTP status.
+     */
+    private static final class ApiException extends RuntimeException {
+        private final int status;
+
+        ApiException(int status, String message) {
+            super(message);
+            this.status = status;
+        }
+
+        int getStatus() {
+            return status;
+        }
+    }
+}
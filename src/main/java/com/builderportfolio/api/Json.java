@@ -0,0 +1,252 @@
+package com.builderportfolio.api;
+
+// Minimal JSON reader and writer for the HTTP API and bulk files
+
+import java.util.ArrayList;
+import java.util.Collection;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+
+/**
+ * Reads and writes the small JSON documents exchanged by {@link ApiServer} and the
+ * JSON-lines records of bulk imports and exports.
+ * <p>
+ * Objects are read into insertion-ordered maps and arrays into lists; numbers without a
+ * fraction or exponent become {@link Long}, other numbers {@link Double}. Writing accepts
+ * maps, collections, strings, numbers, booleans and null. Malformed input is reported with
+ * an {@link IllegalArgumentException} naming the offending position.
+ * </p>
+ */
+public final class Json {
+
+    private final String text;
+    private int pos;
+
+    private Json(String text) {
+        this.text = text;
+    }
+
+    /**
+     * Parses a JSON object.
+     *
+     * @param text the document
+     * @return the object's members
+     * @throws IllegalArgumentException if the text is not a single well-formed JSON object
+     */
+    @SuppressWarnings("unchecked")
+    public static Map<String, Object> parseObject(String text) {
+        Json json = new Json(text);
+        json.skipWhitespace();
+        if (!json.peek('{')) throw json.error("Expected an object");
+        Object value = json.readValue();
+        json.skipWhitespace();
+        if (json.pos != text.length()) throw json.error("Unexpected trailing content");
+        return (Map<String, Object>) value;
+    }
+
+    /**
+     * Writes a value as JSON.
+     *
+     * @param value a map, collection, string, number, boolean or null
+     * @return the JSON text
+     * @throws IllegalArgumentException if the value, or a value inside it, has another type
+     */
+    public static String write(Object value) {
+        StringBuilder out = new StringBuilder();
+        write(value, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends a value as JSON to a buffer.
+     *
+     * @param value a map, collection, string, number, boolean or null
+     * @param out   the buffer to append to
+     * @throws IllegalArgumentException if the value, or a value inside it, has another type
+     */
+    public static void write(Object value, StringBuilder out) {
+        if (value == null) {
+            out.append("null");
+        } else if (value instanceof String) {
+            quote((String) value, out);
+        } else if (value instanceof Number || value instanceof Boolean) {
+            out.append(value);
+        } else if (value instanceof Map) {
+            out.append('{');
+            boolean first = true;
+            for (Map.Entry<?, ?> member : ((Map<?, ?>) value).entrySet()) {
+                if (!first) out.append(',');
+                first = false;
+                quote(String.valueOf(member.getKey()), out);
+                out.append(':');
+                write(member.getValue(), out);
+            }
+            out.append('}');
+        } else if (value instanceof Collection) {
+            out.append('[');
+            boolean first = true;
+            for (Object element : (Collection<?>) value) {
+                if (!first) out.append(',');
+                first = false;
+                write(element, out);
+            }
+            out.append(']');
+        } else {
+            throw new IllegalArgumentException("Cannot write " + value.getClass().getName() + " as JSON");
+        }
+    }
+
+    private static void quote(String s, StringBuilder out) {
+        out.append('"');
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            switch (c) {
+                case '"':  out.append("\\\""); break;
+                case '\\': out.append("\\\\"); break;
+                case '\n': out.append("\\n"); break;
+                case '\r': out.append("\\r"); break;
+                case '\t': out.append("\\t"); break;
+                default:
+                    if (c < 0x20) {
+                        out.append(String.format("\\u%04x", (int) c)); // remaining control characters
+                    } else {
+                        out.append(c);
+                    }
+            }
+        }
+        out.append('"');
+    }
+
+    private Object readValue() {
+        skipWhitespace();
+        if (pos >= text.length()) throw error("Unexpected end of input");
+        char c = text.charAt(pos);
+        switch (c) {
+            case '{': return readObject();
+            case '[': return readArray();
+            case '"': return readString();
+            case 't': return readLiteral("true", Boolean.TRUE);
+            case 'f': return readLiteral("false", Boolean.FALSE);
+            case 'n': return readLiteral("null", null);
+            default:
+                if (c == '-' || (c >= '0' && c <= '9')) return readNumber();
+                throw error("Unexpected character '" + c + "'");
+        }
+    }
+
+    private Map<String, Object> readObject() {
+        Map<String, Object> members = new LinkedHashMap<>();
+        pos++; // '{'
+        skipWhitespace();
+        if (consume('}')) return members;
+        do {
+            skipWhitespace();
+            if (!peek('"')) throw error("Expected a member name");
+            String name = readString();
+            skipWhitespace();
+            if (!consume(':')) throw error("Expected ':'");
+            members.put(name, readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume('}')) throw error("Expected ',' or '}'");
+        return members;
+    }
+
+    private List<Object> readArray() {
+        List<Object> elements = new ArrayList<>();
+        pos++; // '['
+        skipWhitespace();
+        if (consume(']')) return elements;
+        do {
+            elements.add(readValue());
+            skipWhitespace();
+        } while (consume(','));
+        if (!consume(']')) throw error("Expected ',' or ']'");
+        return elements;
+    }
+
+    private String readString() {
+        StringBuilder s = new StringBuilder();
+        pos++; // opening quote
+        while (pos < text.length()) {
+            char c = text.charAt(pos++);
+            if (c == '"') return s.toString();
+            if (c != '\\') {
+                s.append(c);
+                continue;
+            }
+            if (pos >= text.length()) break;
+            char escaped = text.charAt(pos++);
+            switch (escaped) {
+                case '"':  s.append('"'); break;
+                case '\\': s.append('\\'); break;
+                case '/':  s.append('/'); break;
+                case 'b':  s.append('\b'); break;
+                case 'f':  s.append('\f'); break;
+                case 'n':  s.append('\n'); break;
+                case 'r':  s.append('\r'); break;
+                case 't':  s.append('\t'); break;
+                case 'u':
+                    if (pos + 4 > text.length()) throw error("Truncated escape");
+                    try {
+                        s.append((char) Integer.parseInt(text.substring(pos, pos + 4), 16));
+                    } catch (NumberFormatException e) {
+                        throw error("Invalid escape");
+                    }
+                    pos += 4;
+                    break;
+                default:
+                    throw error("Invalid escape '\\" + escaped + "'");
+            }
+        }
+        throw error("Unterminated string");
+    }
+
+    private Object readNumber() {
+        int start = pos;
+        boolean integral = true;
+        if (peek('-')) pos++;
+        while (pos < text.length()) {
+            char c = text.charAt(pos);
+            if (c >= '0' && c <= '9') {
+                pos++;
+            } else if (c == '.' || c == 'e' || c == 'E' || c == '+' || c == '-') {
+                integral = false;
+                pos++;
+            } else {
+                break;
+            }
+        }
+        String number = text.substring(start, pos);
+        try {
+            return integral ? (Object) Long.valueOf(number) : (Object) Double.valueOf(number);
+        } catch (NumberFormatException e) {
+            throw error("Invalid number '" + number + "'");
+        }
+    }
+
+    private Object readLiteral(String literal, Object value) {
+        if (!text.startsWith(literal, pos)) throw error("Unexpected token");
+        pos += literal.length();
+        return value;
+    }
+
+    private void skipWhitespace() {
+        while (pos < text.length() && Character.isWhitespace(text.charAt(pos))) pos++;
+    }
+
+    private boolean peek(char c) {
+        return pos < text.length() && text.charAt(pos) == c;
+    }
+
+    private boolean consume(char c) {
+        if (!peek(c)) return false;
+        pos++;
+        return true;
+    }
+
+    private IllegalArgumentException error(String message) {
+        return new IllegalArgumentException(message + " at position " + pos);
+    }
+}
@@ -0,0 +1,563 @@
+package com.builderportfolio.bulk;
+
+import com.builderportfolio.api.Json;
+import com.builderportfolio.dao.ProjectDao;
+import com.builderportfolio.dao.UserDao;
+import com.builderportfolio.logging.AsyncLogger;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectSnapshot;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.User;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.io.InterruptedIOException;
+import java.nio.ByteBuffer;
+import java.nio.CharBuffer;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.CharsetEncoder;
+import java.nio.charset.CoderResult;
+import java.nio.charset.CodingErrorAction;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.concurrent.ArrayBlockingQueue;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.zip.GZIPOutputStream;
+
+/**
+ * Exports every project with its client and assigned builder and manager, for nightly
+ * exports of {@link ProjectDao#projectsList}.
+ * <p>
+ * Projects are streamed from the DAO one at a time and encoded into a reusable direct
+ * buffer, which is written to a {@link FileChannel} whenever it fills up, so memory use
+ * does not grow with the number of projects. With compression, the encoding thread hands
+ * full buffers to a separate thread that gzips them, and carries on filling a second
+ * buffer meanwhile. The file is written under a temporary name and moved into place when
+ * complete, so readers never see a partial export.
+ * </p>
+ * <p>
+ * Every format holds the fields {@code projectId}, {@code projectName},
+ * {@code description}, {@code startDate}, {@code endDate}, {@code status},
+ * {@code builderId}, {@code builderName}, {@code managerId}, {@code managerName},
+ * {@code clientId}, {@code clientName}, {@code clientEmail} and {@code clientPhNumber},
+ * so a CSV or JSON-lines export can be read back by {@link BulkImporter#importProjects}.
+ * </p>
+ * <p>
+ * A {@link BulkFormat#BINARY} export is big-endian. It starts with the int
+ * {@link #BINARY_MAGIC} and the int {@link #BINARY_VERSION}, and each project is a byte
+ * {@code 1} followed by the fields in the order above: the project ID as a long, dates as
+ * long epoch days ({@link Long#MIN_VALUE} if unset), the status as a byte ordinal
+ * ({@code -1} if unset), the client ID as a long ({@code -1} without a client) and strings
+ * as an int byte length ({@code -1} for null) followed by their UTF-8 bytes. A byte
+ * {@code 0} ends the file.
+ * </p>
+ */
+public class BulkExporter {
+
+    /** Default size of the direct buffers projects are encoded into */
+    public static final int DEFAULT_BUFFER_BYTES = 1 << 20;
+
+    /** Smallest accepted buffer size */
+    public static final int MIN_BUFFER_BYTES = 64;
+
+    /** Default time between scheduled exports */
+    public static final long DEFAULT_INTERVAL_MILLIS = TimeUnit.DAYS.toMillis(1);
+
+    /** First int of a binary export: "BPX1" */
+    public static final int BINARY_MAGIC = 0x42505831;
+
+    /** Second int of a binary export */
+    public static final int BINARY_VERSION = 1;
+
+    /** Header row of a CSV export */
+    static final String CSV_HEADER = "projectId,projectName,description,startDate,endDate,status,"
+            + "builderId,builderName,managerId,managerName,clientId,clientName,clientEmail,clientPhNumber";
+
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final AsyncLogger logger = AsyncLogger.getLogger(BulkExporter.class);
+
+    private final int bufferBytes;
+
+    /**
+     * Creates an exporter with {@link #DEFAULT_BUFFER_BYTES} buffers.
+     */
+    public BulkExporter() {
+        this(DEFAULT_BUFFER_BYTES);
+    }
+
+    /**
+     * Creates an exporter.
+     *
+     * @param bufferBytes the size of the direct buffers projects are encoded into
+     * @throws IllegalArgumentException if bufferBytes is below {@link #MIN_BUFFER_BYTES}
+     */
+    public BulkExporter(int bufferBytes) {
+        if (bufferBytes < MIN_BUFFER_BYTES) {
+            throw new IllegalArgumentException("bufferBytes must be at least " + MIN_BUFFER_BYTES);
+        }
+        this.bufferBytes = bufferBytes;
+    }
+
+    /**
+     * Exports all projects to a file, replacing it if it exists.
+     * <p>
+     * Projects changed or created while the export runs may or may not be included, but
+     * every exported project is a consistent state of that project.
+     * </p>
+     *
+     * @param file   the file to write
+     * @param format the format to write
+     * @param gzip   whether to gzip-compress the file on a separate thread
+     * @return the outcome of the export
+     * @throws IOException if writing fails, or the export is interrupted; the file is then left unchanged
+     */
+    public ExportReport exportProjects(Path file, BulkFormat format, boolean gzip) throws IOException {
+        long start = System.nanoTime();
+        Path temp = file.resolveSibling(file.getFileName() + TEMP_SUFFIX);
+        long projects = 0;
+        long bytes;
+        try {
+            try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                    StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+                try (Sink sink = gzip ? new GzipSink(channel, bufferBytes) : new ChannelSink(channel)) {
+                    Encoder out = new Encoder(sink, ByteBuffer.allocateDirect(bufferBytes));
+                    writeHeader(out, format);
+                    for (Project stored : ProjectDao.projectsList.values()) {
+                        writeProject(out, format, stored.snapshot()); // one consistent state per project
+                        projects++;
+                    }
+                    writeTrailer(out, format);
+                    bytes = out.finish();
+                }
+                channel.force(true);
+            }
+            moveIntoPlace(temp, file);
+        } catch (IOException | RuntimeException e) {
+            Files.deleteIfExists(temp);
+            throw e;
+        }
+
+        ExportReport report = new ExportReport(file, projects, bytes, System.nanoTime() - start);
+        logger.info("export.finished", "file", file, "report", report);
+        return report;
+    }
+
+    /**
+     * Exports all projects to a file at a fixed interval on a background thread, choosing
+     * the format and compression from the file name.
+     * <p>
+     * The first export runs one interval from now. A failed export is logged and retried
+     * at the next interval.
+     * </p>
+     *
+     * @param file           the file to write, named as {@link BulkFormat#fromFileName} expects
+     * @param intervalMillis the time between exports
+     * @return the scheduler; shut it down to stop exporting
+     * @throws IllegalArgumentException if the format cannot be told from the file name,
+     *                                  or intervalMillis is not positive
+     */
+    public ScheduledExecutorService schedule(Path file, long intervalMillis) {
+        BulkFormat format = BulkFormat.fromFileName(file);
+        boolean gzip = BulkFormat.isGzipped(file);
+        if (intervalMillis <= 0) throw new IllegalArgumentException("intervalMillis must be positive");
+        ScheduledExecutorService scheduler = Executors.newSingleThreadScheduledExecutor(task -> {
+            Thread thread = new Thread(task, "project-export");
+            thread.setDaemon(true);
+            return thread;
+        });
+        scheduler.scheduleWithFixedDelay(() -> {
+            try {
+                exportProjects(file, format, gzip);
+            } catch (IOException | RuntimeException e) {
+                logger.warning("export.failed", "file", file, "reason", e.toString()); // try again next time
+            }
+        }, intervalMillis, intervalMillis, TimeUnit.MILLISECONDS);
+        return scheduler;
+    }
+
+    private static void writeHeader(Encoder out, BulkFormat format) throws IOException {
+        if (format == BulkFormat.CSV) {
+            out.line().append(CSV_HEADER).append('\n');
+            out.writeLine();
+        } else if (format == BulkFormat.BINARY) {
+            out.ensure(8);
+            out.buffer.putInt(BINARY_MAGIC).putInt(BINARY_VERSION);
+        }
+    }
+
+    private static void writeTrailer(Encoder out, BulkFormat format) throws IOException {
+        if (format == BulkFormat.BINARY) {
+            out.ensure(1);
+            out.buffer.put((byte) 0);
+        }
+    }
+
+    private static void writeProject(Encoder out, BulkFormat format, ProjectSnapshot project) throws IOException {
+        User builder = project.getAssignedBuilder() == null ? null : UserDao.getUserbyId(project.getAssignedBuilder());
+        User manager = project.getAssignedProjectManager() == null ? null : UserDao.getUserbyId(project.getAssignedProjectManager());
+        Client client = project.getAssignedClient();
+        switch (format) {
+            case CSV:
+                writeCsv(out.line(), project, builder, manager, client);
+                out.writeLine();
+                break;
+            case JSON_LINES:
+                writeJson(out.line(), project, builder, manager, client);
+                out.writeLine();
+                break;
+            default:
+                writeBinary(out, project, builder, manager, client);
+        }
+    }
+
+    private static void writeCsv(StringBuilder line, ProjectSnapshot project, User builder, User manager, Client client) {
+        line.append(project.getProjectId()).append(',');
+        CsvLine.append(project.getProjectName(), line);
+        line.append(',');
+        CsvLine.append(project.getProjectDescription(), line);
+        line.append(',');
+        appendDate(project.getProjectStartDate(), line);
+        line.append(',');
+        appendDate(project.getProjectEndDate(), line);
+        line.append(',');
+        if (project.getProjectStatus() != null) line.append(project.getProjectStatus().name());
+        line.append(',');
+        CsvLine.append(project.getAssignedBuilder(), line);
+        line.append(',');
+        CsvLine.append(builder == null ? null : builder.getUserName(), line);
+        line.append(',');
+        CsvLine.append(project.getAssignedProjectManager(), line);
+        line.append(',');
+        CsvLine.append(manager == null ? null : manager.getUserName(), line);
+        line.append(',');
+        if (client != null) {
+            line.append(client.getClientId()).append(',');
+            CsvLine.append(client.getClientName(), line);
+            line.append(',');
+            CsvLine.append(client.getClientEmail(), line);
+            line.append(',');
+            CsvLine.append(client.getClientPhNumber(), line);
+        } else {
+            line.append(",,,");
+        }
+        line.append('\n');
+    }
+
+    private static void writeJson(StringBuilder line, ProjectSnapshot project, User builder, User manager, Client client) {
+        line.append("{\"projectId\":").append(project.getProjectId());
+        member(line, "projectName", project.getProjectName());
+        member(line, "description", project.getProjectDescription());
+        member(line, "startDate", dateString(project.getProjectStartDate()));
+        member(line, "endDate", dateString(project.getProjectEndDate()));
+        member(line, "status", project.getProjectStatus() == null ? null : project.getProjectStatus().name());
+        member(line, "builderId", project.getAssignedBuilder());
+        member(line, "builderName", builder == null ? null : builder.getUserName());
+        member(line, "managerId", project.getAssignedProjectManager());
+        member(line, "managerName", manager == null ? null : manager.getUserName());
+        line.append(",\"clientId\":");
+        if (client != null) {
+            line.append(client.getClientId());
+        } else {
+            line.append("null");
+        }
+        member(line, "clientName", client == null ? null : client.getClientName());
+        member(line, "clientEmail", client == null ? null : client.getClientEmail());
+        member(line, "clientPhNumber", client == null ? null : client.getClientPhNumber());
+        line.append("}\n");
+    }
+
+    private static void member(StringBuilder line, String name, String value) {
+        line.append(",\"").append(name).append("\":");
+        Json.write(value, line);
+    }
+
+    private static void writeBinary(Encoder out, ProjectSnapshot project, User builder, User manager, Client client) throws IOException {
+        ProjectStatus status = project.getProjectStatus();
+        out.ensure(1 + 8);
+        out.buffer.put((byte) 1).putLong(project.getProjectId());
+        out.writeString(project.getProjectName());
+        out.writeString(project.getProjectDescription());
+        out.ensure(8 + 8 + 1);
+        out.buffer.putLong(epochDay(project.getProjectStartDate()))
+                .putLong(epochDay(project.getProjectEndDate()))
+                .put((byte) (status == null ? -1 : status.ordinal()));
+        out.writeString(project.getAssignedBuilder());
+        out.writeString(builder == null ? null : builder.getUserName());
+        out.writeString(project.getAssignedProjectManager());
+        out.writeString(manager == null ? null : manager.getUserName());
+        out.ensure(8);
+        out.buffer.putLong(client == null ? -1 : client.getClientId());
+        out.writeString(client == null ? null : client.getClientName());
+        out.writeString(client == null ? null : client.getClientEmail());
+        out.writeString(client == null ? null : client.getClientPhNumber());
+    }
+
+    private static void appendDate(LocalDate date, StringBuilder line) {
+        if (date != null) line.append(date);
+    }
+
+    private static String dateString(LocalDate date) {
+        return date == null ? null : date.toString();
+    }
+
+    private static long epochDay(LocalDate date) {
+        return date == null ? Long.MIN_VALUE : date.toEpochDay();
+    }
+
+    private static void moveIntoPlace(Path temp, Path file) throws IOException {
+        try {
+            Files.move(temp, file, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, file, StandardCopyOption.REPLACE_EXISTING);
+        }
+    }
+
+    /**
+     * Number of bytes a string takes in UTF-8, counting an unpaired surrogate as the one
+     * byte of its replacement.
+     */
+    static int utf8Length(CharSequence s) {
+        int bytes = 0;
+        for (int i = 0; i < s.length(); i++) {
+            char c = s.charAt(i);
+            if (c < 0x80) {
+                bytes += 1;
+            } else if (c < 0x800) {
+                bytes += 2;
+            } else if (Character.isHighSurrogate(c) && i + 1 < s.length() && Character.isLowSurrogate(s.charAt(i + 1))) {
+                bytes += 4;
+                i++;
+            } else if (Character.isSurrogate(c)) {
+                bytes += 1;
+            } else {
+                bytes += 3;
+            }
+        }
+        return bytes;
+    }
+
+    /**
+     * Encodes records into the current buffer, handing it to the sink whenever it is full.
+     * The line builder and character buffer are reused for every record.
+     */
+    private static final class Encoder {
+
+        private final Sink sink;
+        private final CharsetEncoder utf8 = StandardCharsets.UTF_8.newEncoder()
+                .onMalformedInput(CodingErrorAction.REPLACE)
+                .onUnmappableCharacter(CodingErrorAction.REPLACE);
+        private final StringBuilder line = new StringBuilder(256);
+        private char[] chars = new char[256];
+        private CharBuffer charView = CharBuffer.wrap(chars);
+        private ByteBuffer buffer;
+        private long written;
+
+        Encoder(Sink sink, ByteBuffer buffer) {
+            this.sink = sink;
+            this.buffer = buffer;
+        }
+
+        /** Returns the line builder, emptied */
+        StringBuilder line() {
+            line.setLength(0);
+            return line;
+        }
+
+        void writeLine() throws IOException {
+            encode(line);
+        }
+
+        void writeString(String value) throws IOException {
+            ensure(4);
+            if (value == null) {
+                buffer.putInt(-1);
+                return;
+            }
+            buffer.putInt(utf8Length(value));
+            encode(value);
+        }
+
+        /** Makes room for a fixed-size field; the buffer is at least {@link #MIN_BUFFER_BYTES} */
+        void ensure(int bytes) throws IOException {
+            if (buffer.remaining() < bytes) drain();
+        }
+
+        /**
+         * Hands the remaining bytes to the sink.
+         *
+         * @return the total number of bytes encoded
+         */
+        long finish() throws IOException {
+            if (buffer.position() > 0) drain();
+            return written;
+        }
+
+        private void encode(CharSequence text) throws IOException {
+            if (chars.length < text.length()) {
+                chars = new char[Math.max(text.length(), chars.length * 2)];
+                charView = CharBuffer.wrap(chars);
+            }
+            for (int i = 0; i < text.length(); i++) {
+                chars[i] = text.charAt(i);
+            }
+            charView.clear();
+            charView.limit(text.length());
+            utf8.reset();
+            CoderResult result;
+            while ((result = utf8.encode(charView, buffer, true)).isOverflow()) {
+                drain();
+            }
+            if (result.isError()) result.throwException(); // not reached with REPLACE
+            while (utf8.flush(buffer).isOverflow()) {
+                drain();
+            }
+        }
+
+        private void drain() throws IOException {
+            written += buffer.position();
+            buffer = sink.write(buffer);
+        }
+    }
+
+    /**
+     * Destination of full buffers.
+     */
+    private interface Sink extends Closeable {
+
+        /**
+         * Takes a filled buffer and returns an empty one to fill next, possibly the same.
+         */
+        ByteBuffer write(ByteBuffer filled) throws IOException;
+    }
+
+    /**
+     * Writes buffers straight to the file channel.
+     */
+    private static final class ChannelSink implements Sink {
+
+        private final FileChannel channel;
+
+        ChannelSink(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        @Override
+        public ByteBuffer write(ByteBuffer filled) throws IOException {
+            filled.flip();
+            while (filled.hasRemaining()) {
+                channel.write(filled);
+            }
+            filled.clear();
+            return filled;
+        }
+
+        @Override
+        public void close() {
+            // the caller owns the channel
+        }
+    }
+
+    /**
+     * Gzips buffers on its own thread while the caller fills the other of two buffers.
+     */
+    private static final class GzipSink implements Sink {
+
+        private static final ByteBuffer END = ByteBuffer.allocate(0);
+
+        private final BlockingQueue<ByteBuffer> filled = new ArrayBlockingQueue<>(2);
+        private final BlockingQueue<ByteBuffer> free = new ArrayBlockingQueue<>(2);
+        private final Thread compressor;
+        private volatile IOException failure;
+        private boolean closed;
+
+        GzipSink(FileChannel channel, int bufferBytes) {
+            free.add(ByteBuffer.allocateDirect(bufferBytes));
+            compressor = new Thread(() -> compress(channel, bufferBytes), "export-gzip");
+            compressor.setDaemon(true);
+            compressor.start();
+        }
+
+        @Override
+        public ByteBuffer write(ByteBuffer buffer) throws IOException {
+            buffer.flip();
+            try {
+                filled.put(buffer);
+                ByteBuffer next = free.take(); // waits while the compressor is behind
+                if (failure != null) throw new IOException("Compressing the export failed", failure);
+                return next;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+                throw new InterruptedIOException("Export interrupted");
+            }
+        }
+
+        /**
+         * Waits for the compressor to write the gzip trailer and stop.
+         */
+        @Override
+        public void close() throws IOException {
+            if (closed) return;
+            closed = true;
+            boolean interrupted = false;
+            while (true) {
+                try {
+                    filled.put(END);
+                    compressor.join();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true; // the compressor must be stopped either way
+                }
+            }
+            if (interrupted) Thread.currentThread().interrupt();
+            if (failure != null) throw new IOException("Compressing the export failed", failure);
+        }
+
+        private void compress(FileChannel channel, int bufferBytes) {
+            byte[] chunk = new byte[Math.min(bufferBytes, 1 << 16)]; // deflate works on arrays
+            GZIPOutputStream gzip = null;
+            try {
+                gzip = new GZIPOutputStream(Channels.newOutputStream(channel), chunk.length);
+            } catch (IOException e) {
+                failure = e;
+            }
+            while (true) {
+                ByteBuffer buffer;
+                try {
+                    buffer = filled.take();
+                } catch (InterruptedException e) {
+                    continue; // only the END marker stops the compressor
+                }
+                if (buffer == END) break;
+                try {
+                    while (failure == null && buffer.hasRemaining()) {
+                        int length = Math.min(buffer.remaining(), chunk.length);
+                        buffer.get(chunk, 0, length);
+                        gzip.write(chunk, 0, length);
+                    }
+                } catch (IOException e) {
+                    failure = e;
+                }
+                buffer.clear();
+                free.add(buffer); // after a failure, keep recycling so the caller sees it
+            }
+            if (failure == null) {
+                try {
+                    gzip.finish(); // the caller closes the channel
+                } catch (IOException e) {
+                    failure = e;
+                }
+            }
+        }
+    }
+}
@@ -0,0 +1,48 @@
+package com.builderportfolio.bulk;
+
+import java.nio.file.Path;
+
+/**
+ * File formats of bulk imports and exports.
+ */
+public enum BulkFormat {
+
+    /** Comma-separated values with a header row naming the fields; one record per line */
+    CSV,
+
+    /** One JSON object per line */
+    JSON_LINES,
+
+    /** Length-prefixed binary records described by {@link BulkExporter}; export only */
+    BINARY;
+
+    /** Extension of gzip-compressed files, following the format's own extension */
+    public static final String GZIP_EXTENSION = ".gz";
+
+    /**
+     * Infers the format from a file name: {@code .csv}, {@code .jsonl} / {@code .ndjson} or
+     * {@code .bin}, optionally followed by {@value #GZIP_EXTENSION}.
+     *
+     * @param file the file
+     * @return the format
+     * @throws IllegalArgumentException if the extension is not recognised
+     */
+    public static BulkFormat fromFileName(Path file) {
+        String name = String.valueOf(file.getFileName()).toLowerCase();
+        if (name.endsWith(GZIP_EXTENSION)) name = name.substring(0, name.length() - GZIP_EXTENSION.length());
+        if (name.endsWith(".csv")) return CSV;
+        if (name.endsWith(".jsonl") || name.endsWith(".ndjson")) return JSON_LINES;
+        if (name.endsWith(".bin")) return BINARY;
+        throw new IllegalArgumentException("Cannot tell the format of " + file + " from its extension");
+    }
+
+    /**
+     * Tells whether a file name marks gzip-compressed content.
+     *
+     * @param file the file
+     * @return true if the name ends with {@value #GZIP_EXTENSION}
+     */
+    public static boolean isGzipped(Path file) {
+        return String.valueOf(file.getFileName()).toLowerCase().endsWith(GZIP_EXTENSION);
+    }
+}
@@ -0,0 +1,447 @@
+package com.builderportfolio.bulk;
+
+import com.builderportfolio.api.Json;
+import com.builderportfolio.exception.UserAlreadyExistsException;
+import com.builderportfolio.logging.AsyncLogger;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.NewProject;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.Role;
+import com.builderportfolio.model.User;
+import com.builderportfolio.service.ProjectService;
+import com.builderportfolio.service.UserService;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.InterruptedIOException;
+import java.io.Reader;
+import java.nio.channels.Channels;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.zip.GZIPInputStream;
+
+/**
+ * Imports users and projects from large CSV or JSON-lines files, for seeding environments.
+ * <p>
+ * The calling thread streams the file through a buffered channel reader and hands chunks of
+ * lines to a pool of worker threads, which parse the records and feed them to
+ * {@link UserService#register} or, a chunk at a time, to {@link ProjectService#createProjects}.
+ * At most two chunks per worker are in flight: once they are taken the reader waits, so
+ * memory stays bounded however large the file is.
+ * </p>
+ * <p>
+ * Every record is independent. One that cannot be parsed or is refused by the services is
+ * counted as rejected, with its line number, and the import carries on. Because chunks are
+ * processed in parallel, the IDs given to imported users and projects do not follow file
+ * order.
+ * </p>
+ * <p>
+ * A CSV file starts with a header row naming its fields; a JSON-lines file holds one object
+ * per line; either may be gzip-compressed, which is recognised by a {@code .gz} file name.
+ * Blank lines are skipped. Users have the fields {@code userName},
+ * {@code userEmail}, {@code userPhNumber}, {@code userExperience}, {@code password} (or
+ * {@code passwordHash}, an existing hash) and {@code role} ({@code PROJECT_MANAGER} or
+ * {@code BUILDER}); projects have
+ * {@code projectName}, {@code description} (optional), {@code startDate}, {@code endDate}
+ * (ISO dates), {@code status}, {@code builderId}, {@code managerId}, {@code clientName},
+ * {@code clientEmail} and {@code clientPhNumber}.
+ * </p>
+ */
+public class BulkImporter {
+
+    /** Default number of worker threads */
+    public static final int DEFAULT_THREADS = Runtime.getRuntime().availableProcessors();
+
+    /** Default number of records handed to a worker at a time */
+    public static final int DEFAULT_CHUNK_SIZE = 1000;
+
+    /** Number of rejected records described in an {@link ImportReport} */
+    public static final int MAX_REPORTED_REJECTIONS = 100;
+
+    private static final int READ_BUFFER_CHARS = 1 << 16;
+
+    private static final AsyncLogger logger = AsyncLogger.getLogger(BulkImporter.class);
+
+    private final UserService users;
+    private final ProjectService projects;
+    private final int threads;
+    private final int chunkSize;
+
+    /**
+     * Creates an importer with the default number of threads and chunk size.
+     *
+     * @param users    registers imported users
+     * @param projects creates imported projects
+     */
+    public BulkImporter(UserService users, ProjectService projects) {
+        this(users, projects, DEFAULT_THREADS, DEFAULT_CHUNK_SIZE);
+    }
+
+    /**
+     * Creates an importer.
+     *
+     * @param users     registers imported users
+     * @param projects  creates imported projects
+     * @param threads   the number of worker threads
+     * @param chunkSize the number of records handed to a worker at a time
+     * @throws IllegalArgumentException if threads or chunkSize is not positive
+     */
+    public BulkImporter(UserService users, ProjectService projects, int threads, int chunkSize) {
+        if (threads <= 0) throw new IllegalArgumentException("threads must be positive");
+        if (chunkSize <= 0) throw new IllegalArgumentException("chunkSize must be positive");
+        this.users = users;
+        this.projects = projects;
+        this.threads = threads;
+        this.chunkSize = chunkSize;
+    }
+
+    /**
+     * Imports users, registering each with {@link UserService#register}, or with
+     * {@link UserService#registerHashed} when the record has a {@code passwordHash}.
+     * <p>
+     * A {@code password} is always hashed on registration; a {@code passwordHash} is kept as
+     * it is if it is an accepted hash, and the record is rejected otherwise.
+     * A user whose email is already registered is rejected with the
+     * {@link UserAlreadyExistsException} message.
+     * </p>
+     *
+     * @param file   the file to read
+     * @param format the file's format
+     * @return the outcome of the import
+     * @throws IOException if the file cannot be read, or the import is interrupted
+     * @throws IllegalArgumentException if the format is {@link BulkFormat#BINARY}
+     */
+    public ImportReport importUsers(Path file, BulkFormat format) throws IOException {
+        return run(file, format, (chunk, run) -> {
+            for (int i = 0; i < chunk.records.size(); i++) {
+                try {
+                    Map<String, String> record = chunk.records.get(i);
+                    String hash = record.get("passwordHash");
+                    if (hash == null || hash.isEmpty()) {
+                        users.register(toUser(record, require(record, "password")));
+                    } else {
+                        users.registerHashed(toUser(record, hash));
+                    }
+                    run.imported.increment();
+                } catch (RuntimeException e) { // including UserAlreadyExistsException
+                    run.reject(chunk.lineNumbers[i], e);
+                }
+            }
+        });
+    }
+
+    /**
+     * Imports projects, creating each chunk's valid records with one
+     * {@link ProjectService#createProjects} call.
+     * <p>
+     * Every record is validated before anything is created: a project is rejected if a field
+     * is missing or malformed, or unless its builder and manager are registered with those
+     * roles, so a bad record never fails the rest of its chunk. Clients are created only for
+     * records that pass, and are matched by email or phone number, so repeat customers share
+     * one client. Should a chunk's batch still fail, its projects are retried one at a time
+     * and only those that fail again are rejected.
+     * </p>
+     *
+     * @param file   the file to read
+     * @param format the file's format
+     * @return the outcome of the import
+     * @throws IOException if the file cannot be read, or the import is interrupted
+     * @throws IllegalArgumentException if the format is {@link BulkFormat#BINARY}
+     */
+    public ImportReport importProjects(Path file, BulkFormat format) throws IOException {
+        return run(file, format, (chunk, run) -> {
+            List<ProjectRow> rows = new ArrayList<>(chunk.records.size());
+            for (int i = 0; i < chunk.records.size(); i++) {
+                try {
+                    rows.add(toProjectRow(chunk.records.get(i), chunk.lineNumbers[i]));
+                } catch (RuntimeException e) {
+                    run.reject(chunk.lineNumbers[i], e);
+                }
+            }
+
+            List<NewProject> batch = new ArrayList<>(rows.size());
+            List<Long> batchLines = new ArrayList<>(rows.size());
+            for (ProjectRow row : rows) { // clients only for records that passed validation
+                try {
+                    batch.add(toNewProject(row));
+                    batchLines.add(row.lineNumber);
+                } catch (RuntimeException e) {
+                    run.reject(row.lineNumber, e);
+                }
+            }
+            try {
+                projects.createProjects(batch);
+                run.imported.add(batch.size());
+            } catch (RuntimeException e) { // the batch is created completely or not at all
+                for (int i = 0; i < batch.size(); i++) {
+                    try {
+                        projects.createProjects(Collections.singletonList(batch.get(i)));
+                        run.imported.increment();
+                    } catch (RuntimeException rowFailure) {
+                        run.reject(batchLines.get(i), rowFailure);
+                    }
+                }
+            }
+        });
+    }
+
+    private User toUser(Map<String, String> record, String password) {
+        Role role = parseRole(require(record, "role"));
+        String userEmail = require(record, "userEmail");
+        if (users.isEmailRegistered(userEmail)) {
+            throw new UserAlreadyExistsException("User already exists with email: " + userEmail);
+        }
+        return new User(require(record, "userName"), userEmail, require(record, "userPhNumber"),
+                Integer.parseInt(require(record, "userExperience")), password,
+                role == Role.PROJECT_MANAGER ? 1 : 2);
+    }
+
+    /**
+     * Parses and checks every field of a project record without creating anything. The
+     * builder and manager IDs are non-null registered users, which is all
+     * {@link ProjectService#createProjects} requires of an entry.
+     */
+    private ProjectRow toProjectRow(Map<String, String> record, long lineNumber) {
+        ProjectRow row = new ProjectRow(lineNumber);
+        row.projectName = require(record, "projectName");
+        String description = record.get("description");
+        row.description = description == null || description.isEmpty() ? null : description;
+        row.startDate = LocalDate.parse(require(record, "startDate"));
+        row.endDate = LocalDate.parse(require(record, "endDate"));
+        row.status = ProjectStatus.valueOf(require(record, "status").toUpperCase());
+        row.builderId = require(record, "builderId");
+        row.managerId = require(record, "managerId");
+        requireUser(row.builderId, Role.BUILDER);
+        requireUser(row.managerId, Role.PROJECT_MANAGER);
+        row.clientName = require(record, "clientName");
+        row.clientEmail = require(record, "clientEmail");
+        row.clientPhNumber = require(record, "clientPhNumber");
+        return row;
+    }
+
+    private NewProject toNewProject(ProjectRow row) {
+        Client client = projects.findOrCreateClient(row.clientName, row.clientEmail, row.clientPhNumber);
+        return new NewProject(row.projectName, row.description, row.startDate, row.endDate, row.status,
+                client, row.builderId, row.managerId);
+    }
+
+    private void requireUser(String userId, Role role) {
+        User user = users.fetchDetails(userId);
+        if (user == null || user.getRole() != role) {
+            throw new IllegalArgumentException((role == Role.BUILDER ? "Builder" : "Manager")
+                    + " with id " + userId + " does not exist");
+        }
+    }
+
+    private static Role parseRole(String role) {
+        switch (role.trim().toUpperCase()) {
+            case "1":
+            case "PROJECT_MANAGER":
+                return Role.PROJECT_MANAGER;
+            case "2":
+            case "BUILDER":
+                return Role.BUILDER;
+            default:
+                throw new IllegalArgumentException("Unknown role '" + role + "'");
+        }
+    }
+
+    private static String require(Map<String, String> record, String field) {
+        String value = record.get(field);
+        if (value == null || value.isEmpty()) throw new IllegalArgumentException("Missing field '" + field + "'");
+        return value;
+    }
+
+    private ImportReport run(Path file, BulkFormat format, ImportTask task) throws IOException {
+        if (format == BulkFormat.BINARY) throw new IllegalArgumentException("Binary files cannot be imported");
+        long start = System.nanoTime();
+        Run run = new Run();
+        Semaphore inFlight = new Semaphore(threads * 2); // back-pressure: the reader waits for workers
+        AtomicInteger count = new AtomicInteger();
+        ThreadFactory factory = runnable -> {
+            Thread thread = new Thread(runnable, "import-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        };
+        ExecutorService workers = Executors.newFixedThreadPool(threads, factory);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ);
+             BufferedReader reader = new BufferedReader(open(file, channel), READ_BUFFER_CHARS)) {
+            List<String> header = null;
+            List<String> lines = new ArrayList<>(chunkSize);
+            long[] lineNumbers = new long[chunkSize];
+            long lineNumber = 0;
+            String line;
+            while ((line = reader.readLine()) != null) {
+                lineNumber++;
+                if (line.trim().isEmpty()) continue;
+                if (format == BulkFormat.CSV && header == null) {
+                    header = CsvLine.parse(line);
+                    continue;
+                }
+                lineNumbers[lines.size()] = lineNumber;
+                lines.add(line);
+                if (lines.size() == chunkSize) {
+                    submit(workers, inFlight, format, header, lines, lineNumbers, task, run);
+                    lines = new ArrayList<>(chunkSize);
+                    lineNumbers = new long[chunkSize];
+                }
+            }
+            if (!lines.isEmpty()) submit(workers, inFlight, format, header, lines, lineNumbers, task, run);
+            workers.shutdown();
+            while (!workers.awaitTermination(1, TimeUnit.SECONDS)) {
+                // keep waiting for the last chunks
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new InterruptedIOException("Import of " + file + " interrupted");
+        } finally {
+            workers.shutdownNow(); // a read failure leaves queued chunks behind
+        }
+
+        ImportReport report = new ImportReport(run.records.sum(), run.imported.sum(), run.rejected.sum(),
+                new ArrayList<>(run.rejections), System.nanoTime() - start);
+        logger.info("import.finished", "file", file, "report", report);
+        return report;
+    }
+
+    private static Reader open(Path file, FileChannel channel) throws IOException {
+        if (!BulkFormat.isGzipped(file)) return Channels.newReader(channel, "UTF-8");
+        return new InputStreamReader(new GZIPInputStream(Channels.newInputStream(channel), READ_BUFFER_CHARS),
+                StandardCharsets.UTF_8);
+    }
+
+    private void submit(ExecutorService workers, Semaphore inFlight, BulkFormat format, List<String> header,
+                        List<String> lines, long[] lineNumbers, ImportTask task, Run run) throws InterruptedException {
+        inFlight.acquire();
+        try {
+            workers.execute(() -> {
+                try {
+                    task.importChunk(parse(format, header, lines, lineNumbers, run), run);
+                } finally {
+                    inFlight.release();
+                }
+            });
+        } catch (RuntimeException e) {
+            inFlight.release();
+            throw e;
+        }
+    }
+
+    /**
+     * Parses a chunk's lines into records on a worker thread, rejecting malformed lines.
+     */
+    private static Chunk parse(BulkFormat format, List<String> header, List<String> lines, long[] lineNumbers, Run run) {
+        List<Map<String, String>> records = new ArrayList<>(lines.size());
+        long[] parsedLines = new long[lines.size()];
+        for (int i = 0; i < lines.size(); i++) {
+            run.records.increment();
+            try {
+                Map<String, String> record = format == BulkFormat.CSV
+                        ? csvRecord(header, lines.get(i))
+                        : jsonRecord(lines.get(i));
+                parsedLines[records.size()] = lineNumbers[i];
+                records.add(record);
+            } catch (RuntimeException e) {
+                run.reject(lineNumbers[i], e);
+            }
+        }
+        return new Chunk(records, parsedLines);
+    }
+
+    private static Map<String, String> csvRecord(List<String> header, String line) {
+        List<String> fields = CsvLine.parse(line);
+        if (fields.size() != header.size()) {
+            throw new IllegalArgumentException("Expected " + header.size() + " fields but found " + fields.size());
+        }
+        Map<String, String> record = new HashMap<>();
+        for (int i = 0; i < fields.size(); i++) {
+            record.put(header.get(i), fields.get(i));
+        }
+        return record;
+    }
+
+    private static Map<String, String> jsonRecord(String line) {
+        Map<String, String> record = new HashMap<>();
+        for (Map.Entry<String, Object> member : Json.parseObject(line).entrySet()) {
+            if (member.getValue() != null) record.put(member.getKey(), String.valueOf(member.getValue()));
+        }
+        return record;
+    }
+
+    /**
+     * Imports one chunk of parsed records.
+     */
+    private interface ImportTask {
+        void importChunk(Chunk chunk, Run run);
+    }
+
+    /**
+     * A validated project record, not yet created.
+     */
+    private static final class ProjectRow {
+        final long lineNumber;
+        String projectName;
+        String description;
+        LocalDate startDate;
+        LocalDate endDate;
+        ProjectStatus status;
+        String builderId;
+        String managerId;
+        String clientName;
+        String clientEmail;
+        String clientPhNumber;
+
+        ProjectRow(long lineNumber) {
+            this.lineNumber = lineNumber;
+        }
+    }
+
+    /**
+     * Parsed records with the line numbers they were read from.
+     */
+    private static final class Chunk {
+        final List<Map<String, String>> records;
+        final long[] lineNumbers;
+
+        Chunk(List<Map<String, String>> records, long[] lineNumbers) {
+            this.records = records;
+            this.lineNumbers = lineNumbers;
+        }
+    }
+
+    /**
+     * Counters of one import, shared by its workers.
+     */
+    private static final class Run {
+        final LongAdder records = new LongAdder();
+        final LongAdder imported = new LongAdder();
+        final LongAdder rejected = new LongAdder();
+        final Queue<String> rejections = new ConcurrentLinkedQueue<>();
+        final AtomicInteger reported = new AtomicInteger();
+
+        void reject(long lineNumber, Exception cause) {
+            rejected.increment();
+            if (reported.getAndIncrement() < MAX_REPORTED_REJECTIONS) {
+                rejections.add("line " + lineNumber + ": " + cause.getMessage());
+            }
+        }
+    }
+}
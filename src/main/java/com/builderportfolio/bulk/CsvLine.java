@@ -0,0 +1,80 @@
+package com.builderportfolio.bulk;
+
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Splits one CSV line into its fields, and writes fields in the same dialect.
+ * <p>
+ * Follows RFC 4180 within a line: fields are separated by commas, a field may be enclosed
+ * in double quotes to contain commas, and a double quote inside a quoted field is written
+ * twice. Quoted fields cannot span lines.
+ * </p>
+ */
+final class CsvLine {
+
+    private CsvLine() {
+    }
+
+    /**
+     * Parses a line into fields.
+     *
+     * @param line the line, without its line terminator
+     * @return the fields, at least one
+     * @throws IllegalArgumentException if a quoted field is not closed
+     */
+    static List<String> parse(String line) {
+        List<String> fields = new ArrayList<>();
+        StringBuilder field = new StringBuilder();
+        boolean quoted = false;
+        for (int i = 0; i < line.length(); i++) {
+            char c = line.charAt(i);
+            if (quoted) {
+                if (c != '"') {
+                    field.append(c);
+                } else if (i + 1 < line.length() && line.charAt(i + 1) == '"') {
+                    field.append('"'); // escaped quote
+                    i++;
+                } else {
+                    quoted = false;
+                }
+            } else if (c == ',') {
+                fields.add(field.toString());
+                field.setLength(0);
+            } else if (c == '"' && field.length() == 0) {
+                quoted = true;
+            } else {
+                field.append(c);
+            }
+        }
+        if (quoted) throw new IllegalArgumentException("Unterminated quoted field");
+        fields.add(field.toString());
+        return fields;
+    }
+
+    /**
+     * Appends a field, quoting it only if it contains a comma, a double quote or a line break.
+     *
+     * @param field the field, written as an empty field if null
+     * @param out   the line being built
+     */
+    static void append(String field, StringBuilder out) {
+        if (field == null) return;
+        boolean quote = false;
+        for (int i = 0; i < field.length() && !quote; i++) {
+            char c = field.charAt(i);
+            quote = c == ',' || c == '"' || c == '\n' || c == '\r';
+        }
+        if (!quote) {
+            out.append(field);
+            return;
+        }
+        out.append('"');
+        for (int i = 0; i < field.length(); i++) {
+            char c = field.charAt(i);
+            if (c == '"') out.append('"'); // doubled
+            out.append(c);
+        }
+        out.append('"');
+    }
+}
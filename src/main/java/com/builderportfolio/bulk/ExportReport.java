@@ -0,0 +1,82 @@
+package com.builderportfolio.bulk;
+
+import java.nio.file.Path;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a bulk export: where the projects went, how many there were and how fast they
+ * were written.
+ */
+public class ExportReport {
+
+    private final Path file;
+    private final long projects;
+    private final long bytes;
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a report.
+     *
+     * @param file         the written file
+     * @param projects     the number of projects exported
+     * @param bytes        the number of bytes encoded, before any compression
+     * @param elapsedNanos the duration of the export
+     */
+    public ExportReport(Path file, long projects, long bytes, long elapsedNanos) {
+        this.file = file;
+        this.projects = projects;
+        this.bytes = bytes;
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the written file.
+     *
+     * @return the file
+     */
+    public Path getFile() {
+        return file;
+    }
+
+    /**
+     * Gets the number of projects exported.
+     *
+     * @return the project count
+     */
+    public long getProjects() {
+        return projects;
+    }
+
+    /**
+     * Gets the number of bytes encoded, before any compression.
+     *
+     * @return the uncompressed size
+     */
+    public long getBytes() {
+        return bytes;
+    }
+
+    /**
+     * Gets the duration of the export in milliseconds.
+     *
+     * @return the elapsed time
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Gets the throughput of the export.
+     *
+     * @return projects written per second
+     */
+    public double getProjectsPerSecond() {
+        return elapsedNanos == 0 ? 0 : projects * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ExportReport{file=%s, projects=%d, bytes=%d, elapsedMillis=%d, projectsPerSecond=%.0f}",
+                file, projects, bytes, getElapsedMillis(), getProjectsPerSecond());
+    }
+}
@@ -0,0 +1,95 @@
+package com.builderportfolio.bulk;
+
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Outcome of a bulk import: how many records were read, imported and rejected, why the
+ * first rejected records failed, and how fast the file was processed.
+ */
+public class ImportReport {
+
+    private final long records;
+    private final long imported;
+    private final long rejected;
+    private final List<String> rejections;
+    private final long elapsedNanos;
+
+    /**
+     * Constructs a report.
+     *
+     * @param records      the number of records read, excluding a header row
+     * @param imported     the number of records imported
+     * @param rejected     the number of records rejected
+     * @param rejections   descriptions of the first rejected records, as {@code "line N: reason"}
+     * @param elapsedNanos the duration of the import
+     */
+    public ImportReport(long records, long imported, long rejected, List<String> rejections, long elapsedNanos) {
+        this.records = records;
+        this.imported = imported;
+        this.rejected = rejected;
+        this.rejections = Collections.unmodifiableList(rejections);
+        this.elapsedNanos = elapsedNanos;
+    }
+
+    /**
+     * Gets the number of records read.
+     *
+     * @return the record count
+     */
+    public long getRecords() {
+        return records;
+    }
+
+    /**
+     * Gets the number of records imported.
+     *
+     * @return the imported count
+     */
+    public long getImported() {
+        return imported;
+    }
+
+    /**
+     * Gets the number of records rejected.
+     *
+     * @return the rejected count
+     */
+    public long getRejected() {
+        return rejected;
+    }
+
+    /**
+     * Gets descriptions of the first rejected records, in no particular order.
+     *
+     * @return a read-only list of at most {@link BulkImporter#MAX_REPORTED_REJECTIONS} entries
+     */
+    public List<String> getRejections() {
+        return rejections;
+    }
+
+    /**
+     * Gets the duration of the import in milliseconds.
+     *
+     * @return the elapsed time
+     */
+    public long getElapsedMillis() {
+        return TimeUnit.NANOSECONDS.toMillis(elapsedNanos);
+    }
+
+    /**
+     * Gets the throughput of the import.
+     *
+     * @return records read per second
+     */
+    public double getRecordsPerSecond() {
+        return elapsedNanos == 0 ? 0 : records * 1e9 / elapsedNanos;
+    }
+
+    @Override
+    public String toString() {
+        return String.format("ImportReport{records=%d, imported=%d, rejected=%d, elapsedMillis=%d, recordsPerSecond=%.0f}",
+                records, imported, rejected, getElapsedMillis(), getRecordsPerSecond());
+    }
+}
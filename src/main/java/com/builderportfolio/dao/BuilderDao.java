@@ -2,11 +2,13 @@ package com.builderportfolio.dao;
 
 // DAO class responsible for maintaining builder-to-project mapping in memory
 
-import java.util.ArrayList;
+import com.builderportfolio.model.UserKeys;
+
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
 
 /**
  * Data Access Object (DAO) for managing the mapping between builders and their assigned projects.
@@ -16,14 +18,21 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * </p>
  * <p>
  * All methods are static and thread-safe to allow concurrent access from multiple threads.
+ * Every mutation is journaled before it is applied, under the builder's lock from
+ * {@link Journals}; a mutation the journal rejects is not applied.
  * </p>
  */
 public class BuilderDao {
 
     /**
      * Thread-safe map storing builder IDs as keys and a list of assigned project IDs as values.
+     * <p>
+     * Values are {@link LongIdList} instances, which keep the IDs as primitives and support
+     * O(1) add, contains and remove. The map is a {@link UserKeyedMap}, so entries are found
+     * by the builder's int key without hashing the ID.
+     * </p>
      */
-    public static Map<String, List<Long>> builderProjects = new ConcurrentHashMap<>();
+    public static Map<String, List<Long>> builderProjects = new UserKeyedMap<>();
 
     /**
      * Inserts a new builder entry into the system with an empty project list.
@@ -34,7 +43,14 @@ public class BuilderDao {
      * @param builderId the unique identifier of the builder to insert
      */
     public static void insertBuilder(String builderId) {
-        builderProjects.put(builderId, new CopyOnWriteArrayList<>());
+        ReentrantLock lock = Journals.lockFor(builderId);
+        lock.lock();
+        try {
+            Journals.current().builderInserted(builderId);
+            builderProjects.put(builderId, new LongIdList());
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -49,7 +65,53 @@ public class BuilderDao {
      */
     public static void addProjectToBuilder(String builderId, Long projectId) {
         if (builderId == null) throw new IllegalArgumentException("Builder ID cannot be null");
-        builderProjects.computeIfAbsent(builderId, k -> new CopyOnWriteArrayList<>()).add(projectId);
+        ReentrantLock lock = Journals.lockFor(builderId);
+        lock.lock();
+        try {
+            Journals.current().builderAssigned(builderId, projectId);
+            builderProjects.computeIfAbsent(builderId, k -> new LongIdList()).add(projectId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a run of project IDs to a builder's list in one step.
+     * <p>
+     * If the builder does not exist, a new entry is created. The list is locked once for
+     * the whole run instead of once per ID. If the journal rejects an ID, the IDs journaled
+     * before it are still assigned, and the rest are not.
+     * </p>
+     *
+     * @param builderId  the unique identifier of the builder
+     * @param projectIds the array holding the project IDs to assign
+     * @param from       the index of the first ID to assign
+     * @param count      the number of IDs to assign
+     * @throws IllegalArgumentException  if builderId is null
+     * @throws IndexOutOfBoundsException if the run lies outside the array
+     */
+    public static void addProjectsToBuilder(String builderId, long[] projectIds, int from, int count) {
+        if (builderId == null) throw new IllegalArgumentException("Builder ID cannot be null");
+        if (from < 0 || count < 0 || from + count > projectIds.length) {
+            throw new IndexOutOfBoundsException("Run " + from + "+" + count + " outside " + projectIds.length + " IDs");
+        }
+        ReentrantLock lock = Journals.lockFor(builderId);
+        lock.lock();
+        try {
+            DaoJournal journal = Journals.current();
+            int journaled = 0;
+            try {
+                for (; journaled < count; journaled++) {
+                    journal.builderAssigned(builderId, projectIds[from + journaled]);
+                }
+            } finally { // assign what was journaled, even if the journal then failed
+                if (journaled > 0) {
+                    appendIds(builderProjects.computeIfAbsent(builderId, k -> new LongIdList()), projectIds, from, journaled);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -59,7 +121,68 @@ public class BuilderDao {
      * @return a list of project IDs assigned to the builder; returns an empty list if the builder does not exist
      */
     public static List<Long> getProjectIds(String builderId) {
-        return builderProjects.getOrDefault(builderId, new CopyOnWriteArrayList<>());
+        return builderProjects.getOrDefault(builderId, Collections.<Long>emptyList());
+    }
+
+    /**
+     * Retrieves all project IDs assigned to a builder by the builder's surrogate key.
+     *
+     * @param builderKey the builder's key from {@link UserKeys}
+     * @return a list of project IDs assigned to the builder; returns an empty list if the builder does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Long> getProjectIds(int builderKey) {
+        Map<String, List<Long>> map = builderProjects;
+        List<Long> projects = null;
+        if (map instanceof UserKeyedMap) {
+            projects = ((UserKeyedMap<List<Long>>) map).getByKey(builderKey);
+        } else if (builderKey != UserKeys.NO_USER) {
+            projects = map.get(UserKeys.userIdOf(builderKey)); // map was replaced with a plain one
+        }
+        return projects != null ? projects : Collections.<Long>emptyList();
+    }
+
+    /**
+     * Passes every project ID assigned to a builder to the consumer without boxing.
+     * <p>
+     * Does nothing if the builder does not exist.
+     * </p>
+     *
+     * @param builderId the unique identifier of the builder
+     * @param action    the consumer invoked for each assigned project ID
+     */
+    public static void forEachProjectId(String builderId, LongConsumer action) {
+        List<Long> projects = builderProjects.get(builderId);
+        if (projects instanceof LongIdList) {
+            ((LongIdList) projects).forEachId(action);
+        } else if (projects != null) {
+            projects.forEach(action::accept);
+        }
+    }
+
+    /**
+     * Returns the smallest distinct project IDs assigned to a builder that are greater than
+     * the cursor, in ascending order, without copying or sorting the whole list.
+     *
+     * @param builderId the unique identifier of the builder
+     * @param cursor    exclusive lower bound, typically the last ID of the previous page
+     * @param limit     the maximum number of IDs to return
+     * @return at most {@code limit} project IDs; empty if the builder does not exist
+     */
+    public static long[] getProjectIdsAfter(String builderId, long cursor, int limit) {
+        List<Long> projects = builderProjects.get(builderId);
+        return projects == null ? new long[0] : LongIdList.asLongIdList(projects).idsAfter(cursor, limit);
+    }
+
+    /**
+     * Returns a sorted copy of the distinct project IDs assigned to a builder.
+     *
+     * @param builderId the unique identifier of the builder
+     * @return the project IDs in ascending order; empty if the builder does not exist
+     */
+    public static long[] getSortedProjectIds(String builderId) {
+        List<Long> projects = builderProjects.get(builderId);
+        return projects == null ? new long[0] : LongIdList.asLongIdList(projects).toSortedDistinctArray();
     }
 
     /**
@@ -74,7 +197,29 @@ public class BuilderDao {
     public static void removeProjectFromBuilder(String builderId, long projectId) {
         List<Long> projects = builderProjects.get(builderId);
         if (projects != null) {
-            projects.remove(Long.valueOf(projectId)); // CORRECTED
+            ReentrantLock lock = Journals.lockFor(builderId);
+            lock.lock();
+            try {
+                if (projects.contains(projectId)) {
+                    Journals.current().builderUnassigned(builderId, projectId);
+                    projects.remove(Long.valueOf(projectId)); // CORRECTED
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Appends a run of IDs to an assignment list, in one call if it is a {@link LongIdList}.
+     */
+    private static void appendIds(List<Long> projects, long[] projectIds, int from, int count) {
+        if (projects instanceof LongIdList) {
+            ((LongIdList) projects).addIds(projectIds, from, count);
+        } else {
+            for (int i = from; i < from + count; i++) {
+                projects.add(projectIds[i]);
+            }
         }
     }
 
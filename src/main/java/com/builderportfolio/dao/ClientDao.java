@@ -0,0 +1,171 @@
+package com.builderportfolio.dao;
+
+// DAO class responsible for keeping one shared Client instance per customer in memory
+
+import com.builderportfolio.model.Client;
+
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Data Access Object (DAO) for the registry of clients.
+ * <p>
+ * This class maintains a thread-safe map of clients by client ID, together with secondary
+ * indexes from normalized email and normalized phone number to the client, so that a
+ * repeat customer is recognised by either and all of their projects share one
+ * {@link Client} instance instead of a fresh copy per project.
+ * </p>
+ * <p>
+ * Lookups are lock-free. Creating a client is serialized so that two concurrent requests
+ * for the same customer can never create two clients; creations are rare compared with
+ * lookups. Every project saved through {@link ProjectDao} registers its client, so
+ * clients restored from persisted data are found here as well.
+ * </p>
+ * <p>
+ * All methods are static and thread-safe to allow concurrent access from multiple threads.
+ * </p>
+ */
+public class ClientDao {
+
+    /**
+     * Thread-safe map storing client IDs as keys and Client objects as values.
+     */
+    public static Map<Long, Client> clients = new ConcurrentHashMap<>();
+
+    /**
+     * Secondary index mapping normalized (trimmed, lower-case) emails to clients.
+     */
+    private static final Map<String, Client> emailIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Secondary index mapping normalized (digits only) phone numbers to clients.
+     */
+    private static final Map<String, Client> phoneIndex = new ConcurrentHashMap<>();
+
+    /**
+     * Returns the registered client with the given email or phone number, or registers a
+     * new client with the given details if there is none.
+     * <p>
+     * The email is matched first, then the phone number. An existing client is returned
+     * unchanged, so details that differ from the registered ones are ignored.
+     * </p>
+     *
+     * @param clientName     the name of the client
+     * @param clientEmail    the email of the client
+     * @param clientPhNumber the phone number of the client
+     * @return the existing client for this customer, or the newly registered one
+     */
+    public static Client findOrCreate(String clientName, String clientEmail, String clientPhNumber) {
+        Client existing = find(clientEmail, clientPhNumber);
+        if (existing != null) return existing;
+
+        synchronized (ClientDao.class) {
+            existing = find(clientEmail, clientPhNumber); // another thread may have just created it
+            if (existing != null) return existing;
+            Client client = new Client(clientName, clientEmail, clientPhNumber);
+            return register(client);
+        }
+    }
+
+    /**
+     * Registers a client created elsewhere, for example one restored from persisted data.
+     * <p>
+     * If a client with the same ID is already registered, that client is kept. Its email and
+     * phone number are only indexed if no other registered client holds them.
+     * </p>
+     *
+     * @param client the client to register
+     * @return the client registered under the client's ID
+     */
+    public static Client register(Client client) {
+        Client registered = clients.get(client.getClientId());
+        if (registered != null) return registered; // common case, every project save lands here
+
+        synchronized (ClientDao.class) {
+            registered = clients.putIfAbsent(client.getClientId(), client);
+            if (registered != null) return registered;
+            claim(emailIndex, normalizeEmail(client.getClientEmail()), client);
+            claim(phoneIndex, normalizePhone(client.getClientPhNumber()), client);
+            return client;
+        }
+    }
+
+    /**
+     * Retrieves a client by ID.
+     *
+     * @param clientId the unique identifier of the client
+     * @return the Client object if found; otherwise, returns null
+     */
+    public static Client getClientById(long clientId) {
+        return clients.get(clientId);
+    }
+
+    /**
+     * Retrieves the client registered with an email, ignoring case and surrounding spaces.
+     *
+     * @param clientEmail the email to look up
+     * @return the client if found; otherwise, returns null
+     */
+    public static Client findByEmail(String clientEmail) {
+        return lookup(emailIndex, normalizeEmail(clientEmail));
+    }
+
+    /**
+     * Retrieves the client registered with a phone number, ignoring everything but digits.
+     *
+     * @param clientPhNumber the phone number to look up
+     * @return the client if found; otherwise, returns null
+     */
+    public static Client findByPhone(String clientPhNumber) {
+        return lookup(phoneIndex, normalizePhone(clientPhNumber));
+    }
+
+    private static Client find(String clientEmail, String clientPhNumber) {
+        Client client = findByEmail(clientEmail);
+        return client != null ? client : findByPhone(clientPhNumber);
+    }
+
+    private static Client lookup(Map<String, Client> index, String key) {
+        if (key == null) return null; // null or blank values are never indexed
+        Client client = index.get(key);
+        if (client != null && clients.get(client.getClientId()) != client) {
+            index.remove(key, client); // client was removed from the store directly
+            return null;
+        }
+        return client;
+    }
+
+    private static void claim(Map<String, Client> index, String key, Client client) {
+        if (key == null) return;
+        Client holder = index.get(key);
+        if (holder == null || clients.get(holder.getClientId()) != holder) {
+            index.put(key, client); // free, or left behind by a removed client
+        }
+    }
+
+    /**
+     * Normalizes an email for use as an index key.
+     *
+     * @param clientEmail the email to normalize
+     * @return the trimmed, lower-case email, or null if the email is null or blank
+     */
+    static String normalizeEmail(String clientEmail) {
+        return UserDao.normalizeEmail(clientEmail);
+    }
+
+    /**
+     * Normalizes a phone number for use as an index key.
+     *
+     * @param clientPhNumber the phone number to normalize
+     * @return the digits of the phone number, or null if it has none
+     */
+    static String normalizePhone(String clientPhNumber) {
+        if (clientPhNumber == null) return null;
+        StringBuilder digits = new StringBuilder(clientPhNumber.length());
+        for (int i = 0; i < clientPhNumber.length(); i++) {
+            char c = clientPhNumber.charAt(i);
+            if (c >= '0' && c <= '9') digits.append(c);
+        }
+        return digits.length() == 0 ? null : digits.toString();
+    }
+}
@@ -0,0 +1,111 @@
+package com.builderportfolio.dao;
+
+// Callback interface through which the DAOs report every mutation
+
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.User;
+
+/**
+ * Receives every mutation applied to the in-memory DAOs.
+ * <p>
+ * A journal is installed with {@link Journals#install(DaoJournal)} and is invoked before
+ * the in-memory change is applied, while the changed key's lock is held (see
+ * {@link Journals}). If a method throws, the change is not applied and the exception
+ * reaches the caller, so memory never keeps a change the journal refused. A registration
+ * through {@link UserDao#insertIfAbsent} claims its email before it is journaled, and
+ * releases the claim if the journal throws. The write-ahead
+ * log implements this interface to make DAO state durable. All methods default to doing
+ * nothing.
+ * </p>
+ */
+public interface DaoJournal {
+
+    /** Journal that ignores every mutation; used when persistence is disabled */
+    DaoJournal NONE = new DaoJournal() {
+    };
+
+    /**
+     * Called before a user is stored in {@link UserDao}.
+     *
+     * @param user the user to insert
+     */
+    default void userInserted(User user) {
+    }
+
+    /**
+     * Called before a stored user's password is replaced in {@link UserDao}.
+     *
+     * @param userId   the user ID
+     * @param password the new stored password, normally a hash
+     */
+    default void passwordChanged(String userId, String password) {
+    }
+
+    /**
+     * Called before a project is saved or updated in {@link ProjectDao}.
+     *
+     * @param project the project in the state being saved
+     */
+    default void projectSaved(Project project) {
+    }
+
+    /**
+     * Called before a project is removed from {@link ProjectDao}.
+     *
+     * @param projectId the ID of the project to remove
+     */
+    default void projectRemoved(long projectId) {
+    }
+
+    /**
+     * Called before a builder entry is created in {@link BuilderDao}.
+     *
+     * @param builderId the builder ID to insert
+     */
+    default void builderInserted(String builderId) {
+    }
+
+    /**
+     * Called before a project is assigned to a builder.
+     *
+     * @param builderId the builder ID
+     * @param projectId the project ID to assign
+     */
+    default void builderAssigned(String builderId, long projectId) {
+    }
+
+    /**
+     * Called before a project is removed from a builder's list.
+     *
+     * @param builderId the builder ID
+     * @param projectId the project ID to remove
+     */
+    default void builderUnassigned(String builderId, long projectId) {
+    }
+
+    /**
+     * Called before a manager entry is created in {@link ManagerDao}.
+     *
+     * @param managerId the manager ID to insert
+     */
+    default void managerInserted(String managerId) {
+    }
+
+    /**
+     * Called before a project is assigned to a manager.
+     *
+     * @param managerId the manager ID
+     * @param projectId the project ID to assign
+     */
+    default void managerAssigned(String managerId, long projectId) {
+    }
+
+    /**
+     * Called before a project is removed from a manager's list.
+     *
+     * @param managerId the manager ID
+     * @param projectId the project ID to remove
+     */
+    default void managerUnassigned(String managerId, long projectId) {
+    }
+}
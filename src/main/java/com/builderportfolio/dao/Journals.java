@@ -0,0 +1,93 @@
+package com.builderportfolio.dao;
+
+import java.util.concurrent.locks.ReentrantLock;
+
+/**
+ * Holds the {@link DaoJournal} that the DAOs report their mutations to.
+ * <p>
+ * Until a journal is installed, mutations are only applied in memory.
+ * </p>
+ * <p>
+ * Each mutation holds one of a fixed set of striped locks, chosen by the key it changes
+ * (a project ID or user ID), while it is journaled and then applied. Mutations of the same
+ * key therefore reach the journal in the order they are applied in memory, and
+ * {@link #pause()} can wait for every mutation in progress to be applied.
+ * </p>
+ */
+public final class Journals {
+
+    /** Number of striped mutation locks; a power of two */
+    private static final int STRIPES = 256;
+
+    /** Currently installed journal */
+    private static volatile DaoJournal journal = DaoJournal.NONE;
+
+    private static final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    private Journals() {
+    }
+
+    /**
+     * Installs the journal that receives all subsequent DAO mutations.
+     *
+     * @param newJournal the journal to install
+     * @throws NullPointerException if newJournal is null
+     */
+    public static void install(DaoJournal newJournal) {
+        if (newJournal == null) throw new NullPointerException("Journal cannot be null");
+        journal = newJournal;
+    }
+
+    /**
+     * Removes the installed journal; later mutations are applied in memory only.
+     */
+    public static void uninstall() {
+        journal = DaoJournal.NONE;
+    }
+
+    /**
+     * Returns the currently installed journal.
+     *
+     * @return the installed journal, or {@link DaoJournal#NONE}
+     */
+    public static DaoJournal current() {
+        return journal;
+    }
+
+    /**
+     * Blocks new mutations and waits until every mutation in progress has been journaled and
+     * applied, so that each record already journaled is also visible in memory. Must be
+     * followed by {@link #resume()} on the same thread.
+     */
+    public static void pause() {
+        for (ReentrantLock lock : locks) { // always in index order, so two pauses cannot deadlock
+            lock.lock();
+        }
+    }
+
+    /**
+     * Lets mutations blocked by {@link #pause()} continue.
+     */
+    public static void resume() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    /**
+     * Returns the lock to hold while journaling and applying a mutation of the given key.
+     *
+     * @param key the project ID or user ID being changed
+     * @return the key's stripe lock
+     */
+    static ReentrantLock lockFor(Object key) {
+        int h = key.hashCode();
+        return locks[(h ^ (h >>> 16)) & (STRIPES - 1)];
+    }
+}
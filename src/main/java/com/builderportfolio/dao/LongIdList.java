@@ -0,0 +1,468 @@
+package com.builderportfolio.dao;
+
+// Primitive long storage used by the builder and manager assignment DAOs
+
+import java.util.AbstractList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.NoSuchElementException;
+import java.util.RandomAccess;
+import java.util.function.LongConsumer;
+
+/**
+ * Thread-safe list of project IDs stored as primitive {@code long} values.
+ * <p>
+ * IDs are kept in a growable {@code long[]} together with an open-addressing hash index
+ * from ID to position, so appending, membership checks and removal by value are O(1)
+ * and never box. Removal moves the last element into the freed slot, so element order
+ * is only preserved until the first removal.
+ * </p>
+ * <p>
+ * The same ID may be added more than once. The index tracks how many times each ID
+ * occurs; removing one occurrence of a duplicated ID falls back to a scan to locate the
+ * remaining copy.
+ * </p>
+ * <p>
+ * Every instance guards its state with its own monitor, so lists belonging to different
+ * builders or managers never contend with each other. {@link #forEachId(LongConsumer)}
+ * iterates without allocating; {@link #iterator()} works on a snapshot and never throws
+ * {@link java.util.ConcurrentModificationException}.
+ * </p>
+ * <p>
+ * For paging, the list also keeps its distinct IDs in ascending order. Project IDs are
+ * allocated in increasing order, so a new ID is normally appended to this view in O(1);
+ * an ID that arrives out of order marks the view stale, and the next page rebuilds it.
+ * A removed ID stays in the view until removed IDs make up half of it, and is then
+ * compacted away.
+ * </p>
+ */
+public final class LongIdList extends AbstractList<Long> implements RandomAccess {
+
+    private static final int INITIAL_CAPACITY = 8;
+
+    /** Stored IDs; only the first {@code size} entries are in use */
+    private long[] values = new long[INITIAL_CAPACITY];
+    private int size;
+
+    /** Hash index keys; a slot is in use when {@code slotPositions[i] != 0} */
+    private long[] slotKeys = new long[INITIAL_CAPACITY * 2];
+
+    /** Position of one occurrence of the key, plus one (0 marks an empty slot) */
+    private int[] slotPositions = new int[INITIAL_CAPACITY * 2];
+
+    /** Number of occurrences of the key in {@link #values} */
+    private int[] slotCounts = new int[INITIAL_CAPACITY * 2];
+
+    /** Number of slots in use */
+    private int distinctKeys;
+
+    /** Distinct IDs in ascending order; may still hold removed IDs, which are no longer in the index */
+    private long[] sorted = new long[INITIAL_CAPACITY];
+    private int sortedSize;
+
+    /** Number of IDs in {@link #sorted} that are no longer in the list */
+    private int sortedRemoved;
+
+    /** Whether {@link #sorted} holds every ID in the list; cleared by an out-of-order insert */
+    private boolean sortedValid = true;
+
+    /**
+     * Appends an ID to the list.
+     *
+     * @param projectId the ID to append
+     */
+    public synchronized void addId(long projectId) {
+        if (size == values.length) {
+            values = Arrays.copyOf(values, size * 2);
+        }
+        values[size] = projectId;
+
+        int slot = findSlot(projectId);
+        if (slotPositions[slot] == 0) {
+            insertKey(projectId, size);
+        } else {
+            slotCounts[slot]++;
+        }
+        size++;
+        modCount++;
+    }
+
+    /**
+     * Appends a run of IDs in one step, growing the storage and the hash index at most once.
+     *
+     * @param ids   the array holding the IDs
+     * @param from  the index of the first ID to append
+     * @param count the number of IDs to append
+     * @throws IndexOutOfBoundsException if the run lies outside the array
+     */
+    public synchronized void addIds(long[] ids, int from, int count) {
+        if (from < 0 || count < 0 || from > ids.length - count) {
+            throw new IndexOutOfBoundsException("Run " + from + "+" + count + " outside array of " + ids.length);
+        }
+        if (count == 0) return;
+        if (size + count > values.length) {
+            values = Arrays.copyOf(values, Math.max(values.length * 2, size + count));
+        }
+        int capacity = slotKeys.length;
+        while ((distinctKeys + count) * 2 > capacity) capacity *= 2;
+        if (capacity != slotKeys.length) rehash(capacity); // presize, so insertKey never rehashes below
+
+        for (int i = from; i < from + count; i++) {
+            long projectId = ids[i];
+            values[size] = projectId;
+            int slot = findSlot(projectId);
+            if (slotPositions[slot] == 0) {
+                insertKey(projectId, size);
+            } else {
+                slotCounts[slot]++;
+            }
+            size++;
+        }
+        modCount++;
+    }
+
+    /**
+     * Removes one occurrence of an ID from the list.
+     *
+     * @param projectId the ID to remove
+     * @return true if the ID was present
+     */
+    public synchronized boolean removeId(long projectId) {
+        int slot = findSlot(projectId);
+        if (slotPositions[slot] == 0) return false;
+
+        removeAt(slotPositions[slot] - 1);
+        return true;
+    }
+
+    /**
+     * Checks whether the list contains an ID.
+     *
+     * @param projectId the ID to look for
+     * @return true if the ID occurs at least once
+     */
+    public synchronized boolean containsId(long projectId) {
+        return slotPositions[findSlot(projectId)] != 0;
+    }
+
+    /**
+     * Returns the ID stored at a position.
+     *
+     * @param index the position to read
+     * @return the ID at that position
+     * @throws IndexOutOfBoundsException if the index is out of range
+     */
+    public synchronized long getId(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        return values[index];
+    }
+
+    /**
+     * Passes every ID to the consumer without boxing or copying.
+     * <p>
+     * The list is locked for the duration of the call, so the consumer must not
+     * modify this list.
+     * </p>
+     *
+     * @param action the consumer to invoke for every ID
+     */
+    public synchronized void forEachId(LongConsumer action) {
+        for (int i = 0; i < size; i++) {
+            action.accept(values[i]);
+        }
+    }
+
+    /**
+     * Returns a copy of the stored IDs.
+     *
+     * @return a new array holding the IDs currently in the list
+     */
+    public synchronized long[] toLongArray() {
+        return Arrays.copyOf(values, size);
+    }
+
+    /**
+     * Returns the distinct IDs in ascending order.
+     *
+     * @return a new sorted array with every ID once
+     */
+    public synchronized long[] toSortedDistinctArray() {
+        ensureSorted();
+        if (sortedRemoved == 0) return Arrays.copyOf(sorted, sortedSize);
+        long[] ids = new long[distinctKeys];
+        int n = 0;
+        for (int i = 0; i < sortedSize; i++) {
+            if (slotPositions[findSlot(sorted[i])] != 0) ids[n++] = sorted[i];
+        }
+        return ids;
+    }
+
+    /**
+     * Returns the smallest distinct IDs greater than a cursor, in ascending order.
+     * <p>
+     * Binary-searches the sorted view for the cursor and reads forward, so a page costs
+     * O(log n + limit) time, plus any removed IDs skipped on the way. The first page after
+     * an out-of-order insert rebuilds the view in O(n log n). Duplicates are never returned.
+     * </p>
+     *
+     * @param cursor exclusive lower bound; only IDs greater than it are returned
+     * @param limit  the maximum number of IDs to return
+     * @return at most {@code limit} IDs, sorted ascending
+     * @throws IllegalArgumentException if limit is negative
+     */
+    public synchronized long[] idsAfter(long cursor, int limit) {
+        if (limit < 0) throw new IllegalArgumentException("Limit cannot be negative");
+        ensureSorted();
+        int i = Arrays.binarySearch(sorted, 0, sortedSize, cursor);
+        i = i >= 0 ? i + 1 : -i - 1;
+
+        long[] page = new long[Math.min(limit, distinctKeys)];
+        int n = 0;
+        for (; i < sortedSize && n < page.length; i++) {
+            long id = sorted[i];
+            if (sortedRemoved == 0 || slotPositions[findSlot(id)] != 0) page[n++] = id;
+        }
+        return n == page.length ? page : Arrays.copyOf(page, n);
+    }
+
+    /**
+     * Returns a count that changes whenever an ID is added or removed, so a result derived
+     * from this list can tell cheaply whether it is still current.
+     *
+     * @return the number of structural modifications so far
+     */
+    public synchronized int modificationCount() {
+        return modCount;
+    }
+
+    @Override
+    public synchronized int size() {
+        return size;
+    }
+
+    @Override
+    public Long get(int index) {
+        return getId(index);
+    }
+
+    @Override
+    public boolean add(Long projectId) {
+        addId(projectId);
+        return true;
+    }
+
+    @Override
+    public synchronized Long remove(int index) {
+        if (index < 0 || index >= size) throw new IndexOutOfBoundsException("Index: " + index + ", Size: " + size);
+        long removed = values[index];
+        removeAt(index);
+        return removed;
+    }
+
+    @Override
+    public boolean remove(Object o) {
+        return o instanceof Long && removeId((Long) o);
+    }
+
+    @Override
+    public boolean contains(Object o) {
+        return o instanceof Long && containsId((Long) o);
+    }
+
+    @Override
+    public synchronized void clear() {
+        values = new long[INITIAL_CAPACITY];
+        slotKeys = new long[INITIAL_CAPACITY * 2];
+        slotPositions = new int[INITIAL_CAPACITY * 2];
+        slotCounts = new int[INITIAL_CAPACITY * 2];
+        distinctKeys = 0;
+        sorted = new long[INITIAL_CAPACITY];
+        sortedSize = 0;
+        sortedRemoved = 0;
+        sortedValid = true;
+        size = 0;
+        modCount++;
+    }
+
+    @Override
+    public Iterator<Long> iterator() {
+        final long[] snapshot = toLongArray();
+        return new Iterator<Long>() {
+            private int next;
+
+            @Override
+            public boolean hasNext() {
+                return next < snapshot.length;
+            }
+
+            @Override
+            public Long next() {
+                if (next >= snapshot.length) throw new NoSuchElementException();
+                return snapshot[next++];
+            }
+        };
+    }
+
+    /**
+     * Removes the element at a position by moving the last element into its place.
+     *
+     * @param index the position to clear
+     */
+    private void removeAt(int index) {
+        long removed = values[index];
+        int last = size - 1;
+        long moved = values[last];
+
+        values[index] = moved;
+        size--;
+        modCount++;
+
+        if (index != last && moved != removed) {
+            int movedSlot = findSlot(moved);
+            if (slotPositions[movedSlot] == last + 1) {
+                slotPositions[movedSlot] = index + 1; // keep the index pointing at the moved copy
+            }
+        }
+
+        int slot = findSlot(removed);
+        if (--slotCounts[slot] == 0) {
+            deleteSlot(slot);
+            if (sortedValid && ++sortedRemoved > sortedSize >>> 1) compactSorted();
+        } else {
+            slotPositions[slot] = indexOf(removed) + 1; // duplicated ID, locate a remaining copy
+        }
+    }
+
+    /**
+     * Linear search used only when a duplicated ID loses one of its copies.
+     */
+    private int indexOf(long projectId) {
+        for (int i = 0; i < size; i++) {
+            if (values[i] == projectId) return i;
+        }
+        throw new IllegalStateException("Index out of sync for id " + projectId);
+    }
+
+    /**
+     * Returns the slot holding the key, or the empty slot where it would be inserted.
+     */
+    private int findSlot(long key) {
+        int mask = slotKeys.length - 1;
+        int slot = hash(key) & mask;
+        while (slotPositions[slot] != 0 && slotKeys[slot] != key) {
+            slot = (slot + 1) & mask;
+        }
+        return slot;
+    }
+
+    private void insertKey(long key, int position) {
+        if ((distinctKeys + 1) * 2 > slotKeys.length) {
+            rehash(slotKeys.length * 2);
+        }
+        int slot = findSlot(key);
+        slotKeys[slot] = key;
+        slotPositions[slot] = position + 1;
+        slotCounts[slot] = 1;
+        distinctKeys++;
+
+        if (!sortedValid) return;
+        if (sortedSize == 0 || key > sorted[sortedSize - 1]) {
+            if (sortedSize == sorted.length) sorted = Arrays.copyOf(sorted, sortedSize * 2);
+            sorted[sortedSize++] = key;
+        } else if (Arrays.binarySearch(sorted, 0, sortedSize, key) >= 0) {
+            sortedRemoved--; // a removed ID came back
+        } else {
+            sortedValid = false; // out of order; rebuilt by the next page
+        }
+    }
+
+    /**
+     * Rebuilds the sorted view from the hash index if an out-of-order insert invalidated it.
+     */
+    private void ensureSorted() {
+        if (sortedValid) return;
+        long[] ids = new long[Math.max(INITIAL_CAPACITY, distinctKeys)];
+        int n = 0;
+        for (int slot = 0; slot < slotKeys.length; slot++) {
+            if (slotPositions[slot] != 0) ids[n++] = slotKeys[slot];
+        }
+        Arrays.sort(ids, 0, n);
+        sorted = ids;
+        sortedSize = n;
+        sortedRemoved = 0;
+        sortedValid = true;
+    }
+
+    /**
+     * Drops removed IDs from the sorted view, keeping the rest in order.
+     */
+    private void compactSorted() {
+        int n = 0;
+        for (int i = 0; i < sortedSize; i++) {
+            if (slotPositions[findSlot(sorted[i])] != 0) sorted[n++] = sorted[i];
+        }
+        sortedSize = n;
+        sortedRemoved = 0;
+    }
+
+    /**
+     * Deletes a slot using backward-shift deletion so probe chains stay intact.
+     */
+    private void deleteSlot(int slot) {
+        int mask = slotKeys.length - 1;
+        int hole = slot;
+        int next = (hole + 1) & mask;
+
+        while (slotPositions[next] != 0) {
+            int home = hash(slotKeys[next]) & mask;
+            // move the entry back if its home slot is not between the hole and its current slot
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                slotKeys[hole] = slotKeys[next];
+                slotPositions[hole] = slotPositions[next];
+                slotCounts[hole] = slotCounts[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        slotPositions[hole] = 0;
+        slotCounts[hole] = 0;
+        distinctKeys--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = slotKeys;
+        int[] oldPositions = slotPositions;
+        int[] oldCounts = slotCounts;
+
+        slotKeys = new long[capacity];
+        slotPositions = new int[capacity];
+        slotCounts = new int[capacity];
+
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldPositions[i] != 0) {
+                int slot = findSlot(oldKeys[i]);
+                slotKeys[slot] = oldKeys[i];
+                slotPositions[slot] = oldPositions[i];
+                slotCounts[slot] = oldCounts[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the list itself if it is a {@code LongIdList}, otherwise a copy of it.
+     */
+    static LongIdList asLongIdList(List<Long> ids) {
+        if (ids instanceof LongIdList) return (LongIdList) ids;
+        LongIdList copy = new LongIdList();
+        for (Long id : ids) {
+            copy.addId(id);
+        }
+        return copy;
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads sequential IDs
+        return (int) (h ^ (h >>> 32));
+    }
+}
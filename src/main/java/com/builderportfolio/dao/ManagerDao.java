@@ -2,10 +2,13 @@ package com.builderportfolio.dao;
 
 // DAO class responsible for maintaining manager-to-project mapping in memory
 
+import com.builderportfolio.model.UserKeys;
+
+import java.util.Collections;
 import java.util.List;
 import java.util.Map;
-import java.util.concurrent.ConcurrentHashMap;
-import java.util.concurrent.CopyOnWriteArrayList;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongConsumer;
 
 /**
  * Data Access Object (DAO) for managing the mapping between managers and their assigned projects.
@@ -15,14 +18,21 @@ import java.util.concurrent.CopyOnWriteArrayList;
  * </p>
  * <p>
  * All methods are static and thread-safe to allow concurrent access from multiple threads.
+ * Every mutation is journaled before it is applied, under the manager's lock from
+ * {@link Journals}; a mutation the journal rejects is not applied.
  * </p>
  */
 public class ManagerDao {
 
     /**
      * Thread-safe map storing manager IDs as keys and a list of assigned project IDs as values.
+     * <p>
+     * Values are {@link LongIdList} instances, which keep the IDs as primitives and support
+     * O(1) add, contains and remove. The map is a {@link UserKeyedMap}, so entries are found
+     * by the manager's int key without hashing the ID.
+     * </p>
      */
-    public static Map<String, List<Long>> managerProjects = new ConcurrentHashMap<>();
+    public static Map<String, List<Long>> managerProjects = new UserKeyedMap<>();
 
     /**
      * Inserts a new manager entry into the system with an empty project list.
@@ -33,7 +43,16 @@ public class ManagerDao {
      * @param managerId the unique identifier of the manager to insert
      */
     public static void insertManager(String managerId) {
-        managerProjects.putIfAbsent(managerId, new CopyOnWriteArrayList<>());
+        ReentrantLock lock = Journals.lockFor(managerId);
+        lock.lock();
+        try {
+            if (!managerProjects.containsKey(managerId)) {
+                Journals.current().managerInserted(managerId);
+                managerProjects.putIfAbsent(managerId, new LongIdList());
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -46,8 +65,54 @@ public class ManagerDao {
      * @param projectId the ID of the project to assign
      */
     public static void addProjectToManager(String managerId, Long projectId) {
-        managerProjects.computeIfAbsent(managerId, k -> new CopyOnWriteArrayList<>()) // ensures manager always has a project list
-                .add(projectId);
+        ReentrantLock lock = Journals.lockFor(managerId);
+        lock.lock();
+        try {
+            Journals.current().managerAssigned(managerId, projectId);
+            managerProjects.computeIfAbsent(managerId, k -> new LongIdList()) // ensures manager always has a project list
+                    .add(projectId);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Appends a run of project IDs to a manager's list in one step.
+     * <p>
+     * If the manager does not exist, a new entry is created. The list is locked once for
+     * the whole run instead of once per ID. If the journal rejects an ID, the IDs journaled
+     * before it are still assigned, and the rest are not.
+     * </p>
+     *
+     * @param managerId  the unique identifier of the manager
+     * @param projectIds the array holding the project IDs to assign
+     * @param from       the index of the first ID to assign
+     * @param count      the number of IDs to assign
+     * @throws NullPointerException      if managerId is null
+     * @throws IndexOutOfBoundsException if the run lies outside the array
+     */
+    public static void addProjectsToManager(String managerId, long[] projectIds, int from, int count) {
+        if (managerId == null) throw new NullPointerException("Manager ID cannot be null");
+        if (from < 0 || count < 0 || from + count > projectIds.length) {
+            throw new IndexOutOfBoundsException("Run " + from + "+" + count + " outside " + projectIds.length + " IDs");
+        }
+        ReentrantLock lock = Journals.lockFor(managerId);
+        lock.lock();
+        try {
+            DaoJournal journal = Journals.current();
+            int journaled = 0;
+            try {
+                for (; journaled < count; journaled++) {
+                    journal.managerAssigned(managerId, projectIds[from + journaled]);
+                }
+            } finally { // assign what was journaled, even if the journal then failed
+                if (journaled > 0) {
+                    appendIds(managerProjects.computeIfAbsent(managerId, k -> new LongIdList()), projectIds, from, journaled);
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -57,7 +122,68 @@ public class ManagerDao {
      * @return a list of project IDs assigned to the manager; returns an empty list if the manager does not exist
      */
     public static List<Long> getProjectIds(String managerId) {
-        return managerProjects.getOrDefault(managerId, new CopyOnWriteArrayList<>());
+        return managerProjects.getOrDefault(managerId, Collections.<Long>emptyList());
+    }
+
+    /**
+     * Retrieves all project IDs assigned to a manager by the manager's surrogate key.
+     *
+     * @param managerKey the manager's key from {@link UserKeys}
+     * @return a list of project IDs assigned to the manager; returns an empty list if the manager does not exist
+     */
+    @SuppressWarnings("unchecked")
+    public static List<Long> getProjectIds(int managerKey) {
+        Map<String, List<Long>> map = managerProjects;
+        List<Long> projects = null;
+        if (map instanceof UserKeyedMap) {
+            projects = ((UserKeyedMap<List<Long>>) map).getByKey(managerKey);
+        } else if (managerKey != UserKeys.NO_USER) {
+            projects = map.get(UserKeys.userIdOf(managerKey)); // map was replaced with a plain one
+        }
+        return projects != null ? projects : Collections.<Long>emptyList();
+    }
+
+    /**
+     * Passes every project ID assigned to a manager to the consumer without boxing.
+     * <p>
+     * Does nothing if the manager does not exist.
+     * </p>
+     *
+     * @param managerId the unique identifier of the manager
+     * @param action    the consumer invoked for each assigned project ID
+     */
+    public static void forEachProjectId(String managerId, LongConsumer action) {
+        List<Long> projects = managerProjects.get(managerId);
+        if (projects instanceof LongIdList) {
+            ((LongIdList) projects).forEachId(action);
+        } else if (projects != null) {
+            projects.forEach(action::accept);
+        }
+    }
+
+    /**
+     * Returns the smallest distinct project IDs assigned to a manager that are greater than
+     * the cursor, in ascending order, without copying or sorting the whole list.
+     *
+     * @param managerId the unique identifier of the manager
+     * @param cursor    exclusive lower bound, typically the last ID of the previous page
+     * @param limit     the maximum number of IDs to return
+     * @return at most {@code limit} project IDs; empty if the manager does not exist
+     */
+    public static long[] getProjectIdsAfter(String managerId, long cursor, int limit) {
+        List<Long> projects = managerProjects.get(managerId);
+        return projects == null ? new long[0] : LongIdList.asLongIdList(projects).idsAfter(cursor, limit);
+    }
+
+    /**
+     * Returns a sorted copy of the distinct project IDs assigned to a manager.
+     *
+     * @param managerId the unique identifier of the manager
+     * @return the project IDs in ascending order; empty if the manager does not exist
+     */
+    public static long[] getSortedProjectIds(String managerId) {
+        List<Long> projects = managerProjects.get(managerId);
+        return projects == null ? new long[0] : LongIdList.asLongIdList(projects).toSortedDistinctArray();
     }
 
     /**
@@ -72,7 +198,29 @@ public class ManagerDao {
     public static void removeProjectFromManager(String managerId, long projectId) {
         List<Long> projects = managerProjects.get(managerId); // fetches the project list for the manager
         if (projects != null) {                               // checks if manager exists before attempting removal
-            projects.remove(Long.valueOf(projectId));        // CORRECTED: properly removes from List<Long>
+            ReentrantLock lock = Journals.lockFor(managerId);
+            lock.lock();
+            try {
+                if (projects.contains(projectId)) {
+                    Journals.current().managerUnassigned(managerId, projectId);
+                    projects.remove(Long.valueOf(projectId));        // CORRECTED: properly removes from List<Long>
+                }
+            } finally {
+                lock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Appends a run of IDs to an assignment list, in one call if it is a {@link LongIdList}.
+     */
+    private static void appendIds(List<Long> projects, long[] projectIds, int from, int count) {
+        if (projects instanceof LongIdList) {
+            ((LongIdList) projects).addIds(projectIds, from, count);
+        } else {
+            for (int i = from; i < from + count; i++) {
+                projects.add(projectIds[i]);
+            }
         }
     }
 }
@@ -0,0 +1,587 @@
+package com.builderportfolio.dao;
+
+// Off-heap project storage backed by a memory-mapped file
+
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectSnapshot;
+import com.builderportfolio.model.ProjectStatus;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.HashMap;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.NoSuchElementException;
+import java.util.Set;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+
+/**
+ * Project store that keeps project data in a memory-mapped file instead of on the heap.
+ * <p>
+ * Every project occupies a fixed-width {@value #RECORD_BYTES}-byte record holding its ID,
+ * version, start and end dates as epoch days, a status byte, the builder and manager as
+ * ordinals into a small user ID dictionary, and references into a variable-length string
+ * region for the name, description and client details. The file is divided into equally sized
+ * chunks that are mapped on demand and assigned to either records or strings, so the
+ * dataset can grow well beyond the heap; the heap only holds a primitive ID-to-record
+ * index and the user ID dictionary.
+ * </p>
+ * <p>
+ * Reads are not zero-copy: {@link #get(Object)} decodes the record into a new
+ * {@link Project}, {@link Client} and strings on every call, trading allocation on reads
+ * for a small heap. Because each call returns a new object, a changed project must be
+ * saved again through {@link ProjectDao#saveProject(Project)} to reach the store, which
+ * the services already do.
+ * </p>
+ * <p>
+ * The file is scratch space: it is truncated when the store is opened and its contents
+ * are recovered through the persistence layer like any other backend. Strings replaced
+ * by an update are only reclaimed by {@link #clear()} or a restart; unchanged strings are
+ * reused, so status updates do not grow the file. The store is thread-safe; reads run
+ * concurrently and writes are exclusive.
+ * </p>
+ */
+public final class MappedProjectStore extends AbstractMap<Long, Project> implements Closeable {
+
+    /** Size of one project record */
+    static final int RECORD_BYTES = 88;
+
+    private static final int DEFAULT_CHUNK_BYTES = 64 << 20;
+
+    // record layout
+    private static final int ID = 0;
+    private static final int START_DATE = 8;
+    private static final int END_DATE = 16;
+    private static final int STATUS = 24;
+    private static final int FLAGS = 25;
+    private static final int BUILDER = 28;
+    private static final int MANAGER = 32;
+    private static final int CLIENT_ID = 40;
+    private static final int NAME = 48;
+    private static final int DESCRIPTION = 56;
+    private static final int CLIENT = 64;
+    private static final int VERSION = 72;
+
+    private static final byte HAS_CLIENT = 1;
+
+    /** Marker for a missing date, string, builder or manager */
+    private static final long NO_DATE = Long.MIN_VALUE;
+    private static final long NO_STRING = -1L;
+    private static final int NO_USER = -1;
+
+    private final FileChannel channel;
+    private final int chunkBytes;
+    private final int recordsPerChunk;
+    private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+
+    /** Every mapped chunk, in file order */
+    private final List<MappedByteBuffer> chunks = new ArrayList<>();
+    /** Chunks below this index are in use; mapped chunks beyond it are free after a clear */
+    private int nextUnusedChunk;
+    /** Chunk index of every record chunk, in slot order */
+    private int[] recordChunks = new int[4];
+    private int recordChunkCount;
+
+    /** Chunk holding new strings, and the next free byte in it */
+    private int stringChunk = -1;
+    private int stringPosition;
+
+    /** Slots below this have been handed out; freed slots are reused first */
+    private int slotsUsed;
+    private int[] freeSlots = new int[16];
+    private int freeCount;
+
+    /** Open-addressing index from project ID to slot + 1 (0 marks an empty entry) */
+    private long[] indexKeys = new long[64];
+    private int[] indexSlots = new int[64];
+    private int size;
+
+    /** Builder and manager IDs by ordinal, and the reverse mapping */
+    private final List<String> userIds = new ArrayList<>();
+    private final Map<String, Integer> userOrdinals = new HashMap<>();
+
+    /**
+     * Opens a store backed by the given file, discarding any previous contents.
+     *
+     * @param file the backing file; created if missing
+     * @throws IOException if the file cannot be opened
+     */
+    public MappedProjectStore(Path file) throws IOException {
+        this(file, DEFAULT_CHUNK_BYTES);
+    }
+
+    /**
+     * Opens a store with a custom chunk size, mainly so tests can exercise growth.
+     *
+     * @param file       the backing file; created if missing
+     * @param chunkBytes size of each mapped chunk; must hold at least one record
+     * @throws IOException if the file cannot be opened
+     */
+    MappedProjectStore(Path file, int chunkBytes) throws IOException {
+        if (chunkBytes < RECORD_BYTES) throw new IllegalArgumentException("Chunk must hold at least one record");
+        this.chunkBytes = chunkBytes;
+        this.recordsPerChunk = chunkBytes / RECORD_BYTES;
+        this.channel = FileChannel.open(file, StandardOpenOption.CREATE, StandardOpenOption.READ,
+                StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING);
+    }
+
+    // -------------------- Map --------------------
+
+    @Override
+    public Project get(Object key) {
+        if (!(key instanceof Long)) return null;
+        lock.readLock().lock();
+        try {
+            int slot = slotOf((Long) key);
+            return slot < 0 ? null : decode(slot);
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public boolean containsKey(Object key) {
+        if (!(key instanceof Long)) return false;
+        lock.readLock().lock();
+        try {
+            return slotOf((Long) key) >= 0;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    @Override
+    public Project put(Long projectId, Project project) {
+        if (projectId != project.getProjectId()) {
+            throw new IllegalArgumentException("Key " + projectId + " does not match project ID " + project.getProjectId());
+        }
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf(projectId);
+            if (slot >= 0) {
+                Project previous = decode(slot);
+                encode(slot, project, previous);
+                return previous;
+            }
+
+            slot = allocateSlot();
+            try {
+                encode(slot, project, null);
+            } catch (RuntimeException e) {
+                releaseSlot(slot); // keep the store unchanged when the project does not fit
+                throw e;
+            }
+            indexInsert(projectId, slot);
+            return null;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public Project remove(Object key) {
+        if (!(key instanceof Long)) return null;
+        lock.writeLock().lock();
+        try {
+            int slot = slotOf((Long) key);
+            if (slot < 0) return null;
+            Project previous = decode(slot);
+            indexDelete((Long) key);
+            releaseSlot(slot);
+            return previous;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    @Override
+    public int size() {
+        lock.readLock().lock();
+        try {
+            return size;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    /**
+     * Removes every project and reclaims all record and string space.
+     * The mapped chunks are kept for reuse.
+     */
+    @Override
+    public void clear() {
+        lock.writeLock().lock();
+        try {
+            Arrays.fill(indexSlots, 0);
+            size = 0;
+            slotsUsed = 0;
+            freeCount = 0;
+            stringChunk = -1;
+            stringPosition = 0;
+            recordChunkCount = 0; // chunks are handed out again in file order
+            nextUnusedChunk = 0;
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    /**
+     * Returns a view of the entries. Iteration works on a snapshot of the IDs taken when
+     * the iterator is created and decodes each project lazily; projects removed meanwhile
+     * are skipped.
+     *
+     * @return the entry set
+     */
+    @Override
+    public Set<Entry<Long, Project>> entrySet() {
+        return new AbstractSet<Entry<Long, Project>>() {
+            @Override
+            public Iterator<Entry<Long, Project>> iterator() {
+                return new EntryIterator(projectIds());
+            }
+
+            @Override
+            public int size() {
+                return MappedProjectStore.this.size();
+            }
+        };
+    }
+
+    /**
+     * Releases the backing file. The mapped memory itself is released once it is
+     * garbage collected.
+     *
+     * @throws IOException if closing the file fails
+     */
+    @Override
+    public void close() throws IOException {
+        lock.writeLock().lock();
+        try {
+            chunks.clear();
+            channel.close();
+        } finally {
+            lock.writeLock().unlock();
+        }
+    }
+
+    private long[] projectIds() {
+        lock.readLock().lock();
+        try {
+            long[] ids = new long[size];
+            int n = 0;
+            for (int i = 0; i < indexKeys.length; i++) {
+                if (indexSlots[i] != 0) ids[n++] = indexKeys[i];
+            }
+            return ids;
+        } finally {
+            lock.readLock().unlock();
+        }
+    }
+
+    // -------------------- Records --------------------
+
+    private void encode(int slot, Project stored, Project previous) {
+        ProjectSnapshot project = stored.snapshot();
+        ByteBuffer chunk = recordChunk(slot);
+        int at = recordOffset(slot);
+
+        // append the strings first, so a failure leaves the record as it was
+        boolean reuse = previous != null;
+        long name = reuse && equal(previous.getProjectName(), project.getProjectName())
+                ? chunk.getLong(at + NAME) : appendStrings(project.getProjectName());
+        long description = reuse && equal(previous.getProjectDescription(), project.getProjectDescription())
+                ? chunk.getLong(at + DESCRIPTION) : appendStrings(project.getProjectDescription());
+        Client client = project.getAssignedClient();
+        long clientStrings = NO_STRING;
+        if (client != null) {
+            Client old = reuse ? previous.getAssignedClient() : null;
+            boolean sameClient = old != null && old.getClientId().equals(client.getClientId())
+                    && equal(old.getClientName(), client.getClientName())
+                    && equal(old.getClientEmail(), client.getClientEmail())
+                    && equal(old.getClientPhNumber(), client.getClientPhNumber());
+            clientStrings = sameClient ? chunk.getLong(at + CLIENT)
+                    : appendStrings(client.getClientName(), client.getClientEmail(), client.getClientPhNumber());
+        }
+
+        chunk.putLong(at + ID, project.getProjectId());
+        chunk.putLong(at + START_DATE, epochDay(project.getProjectStartDate()));
+        chunk.putLong(at + END_DATE, epochDay(project.getProjectEndDate()));
+        ProjectStatus status = project.getProjectStatus();
+        chunk.put(at + STATUS, (byte) (status == null ? -1 : status.ordinal()));
+        chunk.putInt(at + BUILDER, ordinal(project.getAssignedBuilder()));
+        chunk.putInt(at + MANAGER, ordinal(project.getAssignedProjectManager()));
+        chunk.putLong(at + VERSION, stored.getVersion());
+        chunk.putLong(at + NAME, name);
+        chunk.putLong(at + DESCRIPTION, description);
+        chunk.put(at + FLAGS, client == null ? 0 : HAS_CLIENT);
+        chunk.putLong(at + CLIENT_ID, client == null ? 0L : client.getClientId());
+        chunk.putLong(at + CLIENT, clientStrings);
+    }
+
+    private Project decode(int slot) {
+        ByteBuffer chunk = recordChunk(slot);
+        int at = recordOffset(slot);
+
+        byte status = chunk.get(at + STATUS);
+        Client client = null;
+        if ((chunk.get(at + FLAGS) & HAS_CLIENT) != 0) {
+            String[] details = readStrings(chunk.getLong(at + CLIENT), 3);
+            client = new Client(chunk.getLong(at + CLIENT_ID), details[0], details[1], details[2]);
+        }
+        Project project = new Project(chunk.getLong(at + ID),
+                readStrings(chunk.getLong(at + NAME), 1)[0],
+                readStrings(chunk.getLong(at + DESCRIPTION), 1)[0],
+                date(chunk.getLong(at + START_DATE)),
+                date(chunk.getLong(at + END_DATE)),
+                status < 0 ? null : ProjectStatus.values()[status],
+                client,
+                userId(chunk.getInt(at + BUILDER)),
+                userId(chunk.getInt(at + MANAGER)));
+        project.restoreVersion(chunk.getLong(at + VERSION));
+        return project;
+    }
+
+    private int allocateSlot() {
+        if (freeCount > 0) return freeSlots[--freeCount];
+        int slot = slotsUsed++;
+        if (slot / recordsPerChunk == recordChunkCount) {
+            if (recordChunkCount == recordChunks.length) recordChunks = Arrays.copyOf(recordChunks, recordChunkCount * 2);
+            recordChunks[recordChunkCount++] = takeChunk();
+        }
+        return slot;
+    }
+
+    private void releaseSlot(int slot) {
+        if (freeCount == freeSlots.length) freeSlots = Arrays.copyOf(freeSlots, freeCount * 2);
+        freeSlots[freeCount++] = slot;
+    }
+
+    private ByteBuffer recordChunk(int slot) {
+        return chunks.get(recordChunks[slot / recordsPerChunk]);
+    }
+
+    private int recordOffset(int slot) {
+        return (slot % recordsPerChunk) * RECORD_BYTES;
+    }
+
+    private int ordinal(String userId) {
+        if (userId == null) return NO_USER;
+        Integer ordinal = userOrdinals.get(userId);
+        if (ordinal == null) {
+            ordinal = userIds.size();
+            userIds.add(userId);
+            userOrdinals.put(userId, ordinal);
+        }
+        return ordinal;
+    }
+
+    private String userId(int ordinal) {
+        return ordinal == NO_USER ? null : userIds.get(ordinal);
+    }
+
+    // -------------------- Strings --------------------
+
+    /**
+     * Appends one or more strings as consecutive {@code [int length][UTF-8 bytes]} entries
+     * (length -1 for null) that never cross a chunk boundary.
+     *
+     * @return the reference to the first entry, or {@link #NO_STRING} for a single null string
+     */
+    private long appendStrings(String... values) {
+        if (values.length == 1 && values[0] == null) return NO_STRING;
+
+        byte[][] encoded = new byte[values.length][];
+        int bytes = 0;
+        for (int i = 0; i < values.length; i++) {
+            encoded[i] = values[i] == null ? null : values[i].getBytes(StandardCharsets.UTF_8);
+            bytes += 4 + (encoded[i] == null ? 0 : encoded[i].length);
+        }
+        if (bytes > chunkBytes) throw new IllegalArgumentException("String data of " + bytes + " bytes exceeds the chunk size");
+
+        if (stringChunk < 0 || stringPosition + bytes > chunkBytes) {
+            stringChunk = takeChunk();
+            stringPosition = 0;
+        }
+        ByteBuffer chunk = chunks.get(stringChunk).duplicate();
+        chunk.position(stringPosition);
+        for (byte[] value : encoded) {
+            chunk.putInt(value == null ? -1 : value.length);
+            if (value != null) chunk.put(value);
+        }
+
+        long reference = ((long) stringChunk << 32) | stringPosition;
+        stringPosition += bytes;
+        return reference;
+    }
+
+    private String[] readStrings(long reference, int count) {
+        String[] values = new String[count];
+        if (reference == NO_STRING) return values;
+
+        ByteBuffer chunk = chunks.get((int) (reference >>> 32)).duplicate();
+        chunk.position((int) reference);
+        for (int i = 0; i < count; i++) {
+            int length = chunk.getInt();
+            if (length < 0) continue;
+            byte[] bytes = new byte[length];
+            chunk.get(bytes);
+            values[i] = new String(bytes, StandardCharsets.UTF_8);
+        }
+        return values;
+    }
+
+    // -------------------- Chunks --------------------
+
+    /**
+     * Hands out the next chunk of the file, mapping it if it has never been used.
+     */
+    private int takeChunk() {
+        int index = nextUnusedChunk++;
+        if (index == chunks.size()) {
+            try {
+                chunks.add(channel.map(FileChannel.MapMode.READ_WRITE, (long) index * chunkBytes, chunkBytes));
+            } catch (IOException e) {
+                nextUnusedChunk--;
+                throw new IllegalStateException("Failed to grow project store file", e);
+            }
+        }
+        return index;
+    }
+
+    // -------------------- Index --------------------
+
+    private int slotOf(long projectId) {
+        int entry = findEntry(projectId);
+        return indexSlots[entry] - 1;
+    }
+
+    private int findEntry(long key) {
+        int mask = indexKeys.length - 1;
+        int entry = hash(key) & mask;
+        while (indexSlots[entry] != 0 && indexKeys[entry] != key) {
+            entry = (entry + 1) & mask;
+        }
+        return entry;
+    }
+
+    private void indexInsert(long key, int slot) {
+        if ((size + 1) * 2 > indexKeys.length) {
+            rehash(indexKeys.length * 2);
+        }
+        int entry = findEntry(key);
+        indexKeys[entry] = key;
+        indexSlots[entry] = slot + 1;
+        size++;
+    }
+
+    /**
+     * Deletes an index entry using backward-shift deletion so probe chains stay intact.
+     */
+    private void indexDelete(long key) {
+        int mask = indexKeys.length - 1;
+        int hole = findEntry(key);
+        int next = (hole + 1) & mask;
+
+        while (indexSlots[next] != 0) {
+            int home = hash(indexKeys[next]) & mask;
+            if (((next - home) & mask) >= ((next - hole) & mask)) {
+                indexKeys[hole] = indexKeys[next];
+                indexSlots[hole] = indexSlots[next];
+                hole = next;
+            }
+            next = (next + 1) & mask;
+        }
+        indexSlots[hole] = 0;
+        size--;
+    }
+
+    private void rehash(int capacity) {
+        long[] oldKeys = indexKeys;
+        int[] oldSlots = indexSlots;
+        indexKeys = new long[capacity];
+        indexSlots = new int[capacity];
+        for (int i = 0; i < oldKeys.length; i++) {
+            if (oldSlots[i] != 0) {
+                int entry = findEntry(oldKeys[i]);
+                indexKeys[entry] = oldKeys[i];
+                indexSlots[entry] = oldSlots[i];
+            }
+        }
+    }
+
+    private static int hash(long key) {
+        long h = key * 0x9E3779B97F4A7C15L; // Fibonacci hashing spreads sequential IDs
+        return (int) (h ^ (h >>> 32));
+    }
+
+    private static long epochDay(LocalDate date) {
+        return date == null ? NO_DATE : date.toEpochDay();
+    }
+
+    private static LocalDate date(long epochDay) {
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+
+    private static boolean equal(String a, String b) {
+        return a == null ? b == null : a.equals(b);
+    }
+
+    /**
+     * Iterates over a snapshot of project IDs, decoding each project when reached.
+     */
+    private final class EntryIterator implements Iterator<Entry<Long, Project>> {
+
+        private final long[] ids;
+        private int position;
+        private Entry<Long, Project> next;
+        private Long lastKey;
+
+        EntryIterator(long[] ids) {
+            this.ids = ids;
+            advance();
+        }
+
+        private void advance() {
+            next = null;
+            while (next == null && position < ids.length) {
+                long id = ids[position++];
+                Project project = get(id);
+                if (project != null) next = new SimpleImmutableEntry<>(id, project);
+            }
+        }
+
+        @Override
+        public boolean hasNext() {
+            return next != null;
+        }
+
+        @Override
+        public Entry<Long, Project> next() {
+            if (next == null) throw new NoSuchElementException();
+            Entry<Long, Project> current = next;
+            lastKey = current.getKey();
+            advance();
+            return current;
+        }
+
+        @Override
+        public void remove() {
+            if (lastKey == null) throw new IllegalStateException();
+            MappedProjectStore.this.remove(lastKey);
+            lastKey = null;
+        }
+    }
+}
@@ -0,0 +1,104 @@
+package com.builderportfolio.dao;
+
+// Secondary index from client ID to project IDs, maintained by ProjectDao
+
+import java.util.Collections;
+import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Thread-safe reverse index from a client ID to the IDs of the projects commissioned by
+ * that client.
+ * <p>
+ * Like {@link ProjectStatusIndex}, it remembers the client each project had when it was
+ * last indexed, so a project whose client was changed in place moves to the new client on
+ * its next save. The move for one project is atomic. A client's set is dropped once its
+ * last project leaves it, so the index never grows with clients that have no projects.
+ * Projects without a client are not indexed.
+ * </p>
+ */
+public final class ProjectClientIndex {
+
+    /** Client each project had when it was last indexed */
+    private final Map<Long, Long> indexedClient = new ConcurrentHashMap<>();
+
+    private final Map<Long, Set<Long>> idsByClient = new ConcurrentHashMap<>();
+
+    /**
+     * Records the current client of a project, moving it away from its previous client if it changed.
+     *
+     * @param projectId the project ID
+     * @param clientId  the ID of the project's client; null removes the project from the index
+     */
+    public void update(long projectId, Long clientId) {
+        indexedClient.compute(projectId, (id, previous) -> {
+            if (!Objects.equals(previous, clientId)) {
+                if (previous != null) unindex(id, previous);
+                if (clientId != null) {
+                    idsByClient.compute(clientId, (client, ids) -> {
+                        Set<Long> set = ids != null ? ids : ConcurrentHashMap.<Long>newKeySet();
+                        set.add(id);
+                        return set;
+                    });
+                }
+            }
+            return clientId; // null removes the entry
+        });
+    }
+
+    /**
+     * Removes a project from the index.
+     *
+     * @param projectId the project ID
+     */
+    public void remove(long projectId) {
+        indexedClient.computeIfPresent(projectId, (id, previous) -> {
+            unindex(id, previous);
+            return null;
+        });
+    }
+
+    /**
+     * Removes a project only if it is still indexed under the given client. Used to drop
+     * entries whose project is no longer stored.
+     *
+     * @param projectId the project ID
+     * @param clientId  the client the caller found the project under
+     */
+    void removeIfIndexedAs(long projectId, long clientId) {
+        indexedClient.computeIfPresent(projectId, (id, previous) -> {
+            if (previous != clientId) return previous;
+            unindex(id, previous);
+            return null;
+        });
+    }
+
+    /**
+     * Returns a live, read-only view of the IDs of the projects of a client.
+     *
+     * @param clientId the client ID to look up
+     * @return the project IDs; empty if the client has none. Iteration is weakly consistent
+     */
+    public Set<Long> projectIds(long clientId) {
+        Set<Long> ids = idsByClient.get(clientId);
+        return ids == null ? Collections.<Long>emptySet() : Collections.unmodifiableSet(ids);
+    }
+
+    /**
+     * Removes every project from the index.
+     */
+    public void clear() {
+        for (Long id : indexedClient.keySet()) {
+            remove(id);
+        }
+    }
+
+    private void unindex(Long projectId, Long clientId) {
+        idsByClient.computeIfPresent(clientId, (client, ids) -> {
+            ids.remove(projectId);
+            return ids.isEmpty() ? null : ids; // drop clients without projects
+        });
+    }
+}
@@ -2,10 +2,23 @@ package com.builderportfolio.dao;
 
 // DAO class responsible for storing and managing Project entities in memory
 
+import com.builderportfolio.model.Client;
 import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectSnapshot;
+import com.builderportfolio.model.ProjectStatus;
 
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.EnumMap;
+import java.util.List;
 import java.util.Map;
+import java.util.Objects;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
 
 /**
  * Data Access Object (DAO) for managing Project entities in memory.
@@ -15,22 +28,158 @@ import java.util.concurrent.ConcurrentHashMap;
  * </p>
  * <p>
  * All methods are static and thread-safe to allow concurrent access from multiple threads.
+ * Every mutation is journaled before it is applied, under the project's lock from
+ * {@link Journals}; a mutation the journal rejects is not applied.
  * </p>
  */
 public class ProjectDao {
 
     /**
      * Thread-safe map storing project IDs as keys and Project objects as values.
+     * <p>
+     * This is the storage backend of the DAO. It is an on-heap {@link ConcurrentHashMap}
+     * by default and can be replaced through {@link #useBackend(Map)}, for example with a
+     * {@link MappedProjectStore} to keep projects off the heap. Clearing the default map
+     * also clears the secondary indexes.
+     * </p>
+     */
+    public static volatile Map<Long, Project> projectsList = new HeapProjectMap();
+
+    /**
+     * Secondary index of project IDs by status, kept up to date by every save and removal.
+     */
+    private static final ProjectStatusIndex statusIndex = new ProjectStatusIndex();
+
+    /**
+     * Secondary index of project IDs by start and end date, kept up to date by every save and removal.
+     */
+    private static final ProjectDateIndex dateIndex = new ProjectDateIndex();
+
+    /**
+     * Reverse index of project IDs by client ID, kept up to date by every save and removal.
      */
-    public static Map<Long, Project> projectsList = new ConcurrentHashMap<>();
+    private static final ProjectClientIndex clientIndex = new ProjectClientIndex();
+
+    /**
+     * Replaces the storage backend of the DAO.
+     * <p>
+     * The backend must be thread-safe. Projects held by the previous backend are not
+     * copied, so this is meant to be called at startup before any project is saved.
+     * </p>
+     *
+     * @param backend the map that stores projects from now on
+     * @throws NullPointerException if backend is null
+     */
+    public static void useBackend(Map<Long, Project> backend) {
+        projectsList = Objects.requireNonNull(backend, "Project backend cannot be null");
+        statusIndex.clear();
+        dateIndex.clear();
+        clientIndex.clear();
+    }
 
     /**
      * Saves a new project or updates an existing project in the in-memory store.
+     * <p>
+     * Also records the project's current status, dates and client in the secondary indexes,
+     * so a project whose status, dates or client were changed in place must be saved again to
+     * be found under the new values. The client is registered with {@link ClientDao}.
+     * </p>
      *
      * @param project the Project object to save or update
      */
     public static void saveProject(Project project) {
-        projectsList.put(project.getProjectId(), project);
+        ReentrantLock lock = Journals.lockFor(project.getProjectId());
+        lock.lock();
+        try {
+            Journals.current().projectSaved(project);
+            projectsList.put(project.getProjectId(), project);
+            index(project.snapshot());
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Journals a change made by {@link ProjectTransactions#update} and publishes it to the
+     * stored project while its version claim is still held.
+     * <p>
+     * A backend that keeps its own copy of each project, such as {@link MappedProjectStore},
+     * stores {@code committed}: the new state at the version the claim is about to commit.
+     * Other backends keep the claimed instance itself. If the journal rejects the change,
+     * the project keeps its previous state.
+     * </p>
+     *
+     * @param project   the stored project, claimed
+     * @param committed a copy holding the new state at the next version
+     */
+    static void saveClaimed(Project project, Project committed) {
+        ReentrantLock lock = Journals.lockFor(project.getProjectId());
+        lock.lock();
+        try {
+            Journals.current().projectSaved(committed);
+            ProjectSnapshot next = committed.snapshot();
+            project.replaceState(next);
+            Map<Long, Project> store = projectsList;
+            store.put(project.getProjectId(), store instanceof MappedProjectStore ? committed : project);
+            index(next);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Applies an in-place change to a stored project only if it is still at the expected
+     * version, then saves it and advances the version.
+     * <p>
+     * On heap backends this is lock-free: the project is claimed with a compare-and-set on
+     * its version, so a concurrent update of the same project makes this call return false
+     * rather than block, and the caller can re-read and retry. A {@link MappedProjectStore}
+     * returns a new copy on every read, leaving no shared instance to claim, so there the
+     * check and write run under the project's lock in {@link ProjectTransactions}.
+     * </p>
+     *
+     * @param projectId       the ID of the project to change
+     * @param expectedVersion the version the caller based the change on
+     * @param change          mutates a private copy of the project, which is then published
+     *                        to the stored project in one step
+     * @return true if the change was applied; false if the project is missing, was updated
+     *         since the expected version, or is being updated right now
+     */
+    public static boolean updateIfVersion(long projectId, long expectedVersion, Consumer<Project> change) {
+        Map<Long, Project> store = projectsList;
+        if (store instanceof MappedProjectStore) {
+            return ProjectTransactions.update(projectId, project -> {
+                if (project.getVersion() != expectedVersion) return false;
+                change.accept(project);
+                return true;
+            });
+        }
+
+        Project project = store.get(projectId);
+        if (project == null || !project.tryBeginUpdate(expectedVersion)) return false;
+
+        boolean committed = false;
+        try {
+            Project draft = ProjectTransactions.draftOf(project); // copy-on-write: readers never see a half-applied change
+            change.accept(draft);
+            ProjectSnapshot next = draft.snapshot();
+
+            ReentrantLock lock = Journals.lockFor(projectId);
+            lock.lock();
+            try {
+                if (store.get(projectId) == project) { // never resurrect a removed project
+                    Journals.current().projectSaved(draft);
+                    project.replaceState(next);
+                    index(next);
+                    committed = true;
+                }
+            } finally {
+                lock.unlock();
+            }
+        } finally {
+            project.endUpdate(committed);
+        }
+        return committed;
     }
 
     /**
@@ -43,6 +192,18 @@ public class ProjectDao {
         return projectsList.get(projectId);
     }
 
+    /**
+     * Retrieves an immutable snapshot of a project, for readers that need several fields
+     * from one consistent state.
+     *
+     * @param projectId the unique identifier of the project
+     * @return the project's current snapshot if found; otherwise, returns null
+     */
+    public static ProjectSnapshot getProjectSnapshot(Long projectId) {
+        Project project = projectsList.get(projectId);
+        return project == null ? null : project.snapshot();
+    }
+
     /**
      * Removes a project from the in-memory store.
      * <p>
@@ -52,8 +213,211 @@ public class ProjectDao {
      * @param projectId the unique identifier of the project to remove
      */
     public static void removeProject(Long projectId) {
-        projectsList.remove(projectId);
+        ReentrantLock lock = Journals.lockFor(projectId);
+        lock.lock();
+        try {
+            if (projectsList.containsKey(projectId)) {
+                Journals.current().projectRemoved(projectId);
+                projectsList.remove(projectId);
+                statusIndex.remove(projectId);
+                dateIndex.remove(projectId);
+                clientIndex.remove(projectId);
+            }
+        } finally {
+            lock.unlock();
+        }
     }
 
-}
+    /**
+     * Retrieves all projects in the given status without scanning the store.
+     * <p>
+     * Projects are reported under the status they had when they were last saved.
+     * </p>
+     *
+     * @param status the status to look up
+     * @return the projects in that status; empty if there are none
+     * @throws NullPointerException if status is null
+     */
+    public static List<Project> getProjectsByStatus(ProjectStatus status) {
+        Objects.requireNonNull(status, "Status cannot be null");
+        List<Project> projects = new ArrayList<>();
+        for (Long projectId : statusIndex.projectIds(status)) {
+            Project project = projectsList.get(projectId);
+            if (project != null) {
+                projects.add(project);
+            } else {
+                statusIndex.removeIfIndexedAs(projectId, status); // store was cleared behind the DAO's back
+            }
+        }
+        return projects;
+    }
+
+    /**
+     * Returns the IDs of the projects in the given status without scanning the store.
+     *
+     * @param status the status to look up
+     * @return a new array of the IDs indexed under that status when the call started
+     * @throws NullPointerException if status is null
+     */
+    public static long[] getProjectIdsByStatus(ProjectStatus status) {
+        Set<Long> ids = statusIndex.projectIds(Objects.requireNonNull(status, "Status cannot be null"));
+        long[] result = new long[ids.size()];
+        int n = 0;
+        for (Long id : ids) {
+            if (n == result.length) result = Arrays.copyOf(result, n * 2 + 1); // grew while copying
+            result[n++] = id;
+        }
+        return n == result.length ? result : Arrays.copyOf(result, n);
+    }
+
+    /**
+     * Returns the number of projects in the given status in constant time.
+     *
+     * @param status the status to count
+     * @return the number of projects whose last saved status is {@code status}
+     * @throws NullPointerException if status is null
+     */
+    public static long countProjectsByStatus(ProjectStatus status) {
+        return statusIndex.count(Objects.requireNonNull(status, "Status cannot be null"));
+    }
+
+    /**
+     * Returns the number of projects in every status.
+     *
+     * @return a new map from each status to its project count
+     */
+    public static EnumMap<ProjectStatus, Long> getStatusCounts() {
+        return statusIndex.counts();
+    }
+
+    /**
+     * Retrieves all projects commissioned by a client without scanning the store.
+     * <p>
+     * Projects are reported under the client they had when they were last saved.
+     * </p>
+     *
+     * @param clientId the ID of the client
+     * @return the client's projects; empty if there are none
+     */
+    public static List<Project> getProjectsByClient(long clientId) {
+        List<Project> projects = new ArrayList<>();
+        for (Long projectId : clientIndex.projectIds(clientId)) {
+            Project project = projectsList.get(projectId);
+            if (project != null) {
+                projects.add(project);
+            } else {
+                clientIndex.removeIfIndexedAs(projectId, clientId); // store was cleared behind the DAO's back
+            }
+        }
+        return projects;
+    }
+
+    /**
+     * Retrieves all projects whose {@code [start, end]} interval overlaps the given range,
+     * ordered by start date.
+     * <p>
+     * Projects missing either date are not included.
+     * </p>
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return the projects active at some point within the range
+     * @throws NullPointerException     if either date is null
+     * @throws IllegalArgumentException if from is after to
+     */
+    public static List<Project> getProjectsActiveBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        List<Project> projects = new ArrayList<>();
+        dateIndex.forEachActiveBetween(from, to, id -> addIfMatching(projects, id, project -> {
+            ProjectSnapshot dates = project.snapshot(); // both dates from the same state
+            return dates.getProjectStartDate() != null && dates.getProjectEndDate() != null
+                    && !dates.getProjectStartDate().isAfter(to) && !dates.getProjectEndDate().isBefore(from);
+        }));
+        return projects;
+    }
+
+    /**
+     * Retrieves all projects starting within the given range, ordered by start date.
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return the projects whose start date lies within the range
+     * @throws NullPointerException     if either date is null
+     * @throws IllegalArgumentException if from is after to
+     */
+    public static List<Project> getProjectsStartingBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        List<Project> projects = new ArrayList<>();
+        dateIndex.forEachStartingBetween(from, to, id -> addIfMatching(projects, id, project ->
+                isWithin(project.getProjectStartDate(), from, to)));
+        return projects;
+    }
+
+    /**
+     * Retrieves all projects ending within the given range, ordered by end date.
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return the projects whose end date lies within the range
+     * @throws NullPointerException     if either date is null
+     * @throws IllegalArgumentException if from is after to
+     */
+    public static List<Project> getProjectsEndingBetween(LocalDate from, LocalDate to) {
+        checkRange(from, to);
+        List<Project> projects = new ArrayList<>();
+        dateIndex.forEachEndingBetween(from, to, id -> addIfMatching(projects, id, project ->
+                isWithin(project.getProjectEndDate(), from, to)));
+        return projects;
+    }
+
+    private static void checkRange(LocalDate from, LocalDate to) {
+        Objects.requireNonNull(from, "Range start cannot be null");
+        Objects.requireNonNull(to, "Range end cannot be null");
+        if (from.isAfter(to)) throw new IllegalArgumentException("Range start " + from + " is after range end " + to);
+    }
+
+    /**
+     * Adds the project with the given ID if it still exists and still matches; the check
+     * guards against dates changed in place since the project was last saved.
+     */
+    private static void addIfMatching(List<Project> projects, long projectId, Predicate<Project> matches) {
+        Project project = projectsList.get(projectId);
+        if (project == null) {
+            dateIndex.removeIf(projectId, id -> !projectsList.containsKey(id)); // removed behind the DAO's back
+        } else if (matches.test(project)) {
+            projects.add(project);
+        }
+    }
 
+    private static boolean isWithin(LocalDate date, LocalDate from, LocalDate to) {
+        return date != null && !date.isBefore(from) && !date.isAfter(to);
+    }
+
+    /**
+     * Records one consistent state of a project in the secondary indexes.
+     */
+    private static void index(ProjectSnapshot project) {
+        statusIndex.update(project.getProjectId(), project.getProjectStatus());
+        dateIndex.update(project.getProjectId(), project.getProjectStartDate(), project.getProjectEndDate());
+        Client client = project.getAssignedClient();
+        if (client != null) ClientDao.register(client);
+        clientIndex.update(project.getProjectId(), client == null ? null : client.getClientId());
+    }
+
+    /**
+     * Default on-heap backend; resets the secondary indexes when cleared.
+     */
+    private static final class HeapProjectMap extends ConcurrentHashMap<Long, Project> {
+
+        private static final long serialVersionUID = 1L;
+
+        @Override
+        public void clear() {
+            super.clear();
+            statusIndex.clear();
+            dateIndex.clear();
+            clientIndex.clear();
+        }
+    }
+
+}
@@ -0,0 +1,356 @@
+package com.builderportfolio.dao;
+
+// Secondary index over project start and end dates, maintained by ProjectDao
+
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ConcurrentSkipListSet;
+import java.util.concurrent.locks.ReentrantReadWriteLock;
+import java.util.function.LongConsumer;
+import java.util.function.LongPredicate;
+
+/**
+ * Thread-safe index of project IDs ordered by start and end date (as epoch days).
+ * <p>
+ * Starts-within and ends-within queries are range scans of a skip list, so they take
+ * O(log n + k) time for k results. Overlap queries ("active between A and B") use an
+ * interval tree: a balanced search tree ordered by start date in which every node also
+ * records the latest end date in its subtree. Subtrees that end before A or start after
+ * B are skipped whole, so a query costs O((k + 1) log n) however long the longest
+ * project is.
+ * </p>
+ * <p>
+ * Like {@link ProjectStatusIndex}, the index remembers the dates each project had when
+ * it was last indexed, so a project whose dates were changed in place is moved on its
+ * next save. A project without a start date is not found by start or overlap queries,
+ * and one without an end date is not found by end or overlap queries.
+ * </p>
+ */
+public final class ProjectDateIndex {
+
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    /** Dates each project had when it was last indexed: {start, end} epoch days */
+    private final Map<Long, long[]> indexedDates = new ConcurrentHashMap<>();
+
+    /** Projects ordered by (start day, ID) and by (end day, ID) */
+    private final ConcurrentSkipListSet<DayKey> byStart = new ConcurrentSkipListSet<>();
+    private final ConcurrentSkipListSet<DayKey> byEnd = new ConcurrentSkipListSet<>();
+
+    /** Projects with both dates, for overlap queries */
+    private final IntervalTree intervals = new IntervalTree();
+
+    /**
+     * Records the current dates of a project, moving it if they changed.
+     *
+     * @param projectId the project ID
+     * @param start     the start date, may be null
+     * @param end       the end date, may be null
+     */
+    public void update(long projectId, LocalDate start, LocalDate end) {
+        long startDay = epochDay(start);
+        long endDay = epochDay(end);
+        indexedDates.compute(projectId, (id, previous) -> {
+            if (previous != null && previous[0] == startDay && previous[1] == endDay) return previous;
+            if (previous != null) unindex(id, previous);
+            if (startDay == NO_DATE && endDay == NO_DATE) return null;
+
+            long[] dates = {startDay, endDay};
+            index(id, dates);
+            return dates;
+        });
+    }
+
+    /**
+     * Removes a project from the index.
+     *
+     * @param projectId the project ID
+     */
+    public void remove(long projectId) {
+        removeIf(projectId, id -> true);
+    }
+
+    /**
+     * Removes a project if the predicate, evaluated atomically with respect to other
+     * updates of the same project, accepts its ID.
+     *
+     * @param projectId the project ID
+     * @param condition decides whether the entry is removed
+     */
+    void removeIf(long projectId, LongPredicate condition) {
+        indexedDates.computeIfPresent(projectId, (id, previous) -> {
+            if (!condition.test(id)) return previous;
+            unindex(id, previous);
+            return null;
+        });
+    }
+
+    /**
+     * Passes the ID of every project starting within {@code [from, to]} to the consumer.
+     *
+     * @param from   first day of the range, inclusive
+     * @param to     last day of the range, inclusive
+     * @param action receives matching project IDs
+     */
+    public void forEachStartingBetween(LocalDate from, LocalDate to, LongConsumer action) {
+        forEachIn(byStart, from.toEpochDay(), to.toEpochDay(), action);
+    }
+
+    /**
+     * Passes the ID of every project ending within {@code [from, to]} to the consumer.
+     *
+     * @param from   first day of the range, inclusive
+     * @param to     last day of the range, inclusive
+     * @param action receives matching project IDs
+     */
+    public void forEachEndingBetween(LocalDate from, LocalDate to, LongConsumer action) {
+        forEachIn(byEnd, from.toEpochDay(), to.toEpochDay(), action);
+    }
+
+    /**
+     * Passes the ID of every project whose {@code [start, end]} interval overlaps
+     * {@code [from, to]} to the consumer.
+     *
+     * @param from   first day of the range, inclusive
+     * @param to     last day of the range, inclusive
+     * @param action receives matching project IDs
+     */
+    public void forEachActiveBetween(LocalDate from, LocalDate to, LongConsumer action) {
+        long fromDay = from.toEpochDay();
+        long toDay = to.toEpochDay();
+        if (fromDay > toDay) return;
+        for (long id : intervals.overlapping(fromDay, toDay)) { // collected first: the action runs unlocked
+            action.accept(id);
+        }
+    }
+
+    /**
+     * Removes every project from the index.
+     */
+    public void clear() {
+        for (Long id : indexedDates.keySet()) {
+            remove(id);
+        }
+    }
+
+    private void index(Long id, long[] dates) {
+        if (dates[0] != NO_DATE) byStart.add(new DayKey(dates[0], id));
+        if (dates[1] != NO_DATE) byEnd.add(new DayKey(dates[1], id));
+        if (dates[0] != NO_DATE && dates[1] != NO_DATE) {
+            intervals.insert(dates[0], dates[1], id);
+        }
+    }
+
+    private void unindex(Long id, long[] dates) {
+        if (dates[0] != NO_DATE) byStart.remove(new DayKey(dates[0], id));
+        if (dates[1] != NO_DATE) byEnd.remove(new DayKey(dates[1], id));
+        if (dates[0] != NO_DATE && dates[1] != NO_DATE) {
+            intervals.delete(dates[0], id);
+        }
+    }
+
+    private static void forEachIn(ConcurrentSkipListSet<DayKey> tree, long from, long to, LongConsumer action) {
+        if (from > to) return;
+        for (DayKey key : tree.subSet(new DayKey(from, Long.MIN_VALUE), true, new DayKey(to, Long.MAX_VALUE), true)) {
+            action.accept(key.projectId);
+        }
+    }
+
+    private static long epochDay(LocalDate date) {
+        return date == null ? NO_DATE : date.toEpochDay();
+    }
+
+    /**
+     * Treap of {@code [start, end]} intervals ordered by (start day, project ID), where each
+     * node also holds the latest end day of its subtree. Node priorities are derived from the
+     * project ID, which keeps the tree balanced in expectation without a random source.
+     * Guarded by a read-write lock; callers already serialize updates of the same project.
+     */
+    private static final class IntervalTree {
+
+        private final ReentrantReadWriteLock lock = new ReentrantReadWriteLock();
+        private Node root;
+
+        void insert(long start, long end, long projectId) {
+            lock.writeLock().lock();
+            try {
+                root = insert(root, new Node(start, end, projectId));
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        void delete(long start, long projectId) {
+            lock.writeLock().lock();
+            try {
+                root = delete(root, start, projectId);
+            } finally {
+                lock.writeLock().unlock();
+            }
+        }
+
+        /**
+         * Returns the IDs of all intervals with {@code start <= to} and {@code end >= from},
+         * ordered by start day, then ID.
+         */
+        long[] overlapping(long from, long to) {
+            lock.readLock().lock();
+            try {
+                Hits hits = new Hits();
+                collect(root, from, to, hits);
+                return Arrays.copyOf(hits.ids, hits.size);
+            } finally {
+                lock.readLock().unlock();
+            }
+        }
+
+        private static void collect(Node node, long from, long to, Hits hits) {
+            while (node != null && node.maxEnd >= from) { // otherwise the whole subtree ended before the range
+                collect(node.left, from, to, hits);
+                if (node.start > to) return; // so does everything to the right
+                if (node.end >= from) hits.add(node.projectId);
+                node = node.right;
+            }
+        }
+
+        private static Node insert(Node node, Node added) {
+            if (node == null) return added;
+            if (compare(added.start, added.projectId, node) < 0) {
+                node.left = insert(node.left, added);
+                if (node.left.priority > node.priority) return rotateRight(node);
+            } else {
+                node.right = insert(node.right, added);
+                if (node.right.priority > node.priority) return rotateLeft(node);
+            }
+            node.update();
+            return node;
+        }
+
+        private static Node delete(Node node, long start, long projectId) {
+            if (node == null) return null;
+            int c = compare(start, projectId, node);
+            if (c == 0) return merge(node.left, node.right);
+            if (c < 0) {
+                node.left = delete(node.left, start, projectId);
+            } else {
+                node.right = delete(node.right, start, projectId);
+            }
+            node.update();
+            return node;
+        }
+
+        /** Joins two treaps where every key of the left one precedes every key of the right one */
+        private static Node merge(Node left, Node right) {
+            if (left == null) return right;
+            if (right == null) return left;
+            if (left.priority > right.priority) {
+                left.right = merge(left.right, right);
+                left.update();
+                return left;
+            }
+            right.left = merge(left, right.left);
+            right.update();
+            return right;
+        }
+
+        private static Node rotateRight(Node node) {
+            Node top = node.left;
+            node.left = top.right;
+            top.right = node;
+            node.update();
+            top.update();
+            return top;
+        }
+
+        private static Node rotateLeft(Node node) {
+            Node top = node.right;
+            node.right = top.left;
+            top.left = node;
+            node.update();
+            top.update();
+            return top;
+        }
+
+        private static int compare(long start, long projectId, Node node) {
+            int byStart = Long.compare(start, node.start);
+            return byStart != 0 ? byStart : Long.compare(projectId, node.projectId);
+        }
+    }
+
+    private static final class Node {
+
+        final long start;
+        final long end;
+        final long projectId;
+        final long priority;
+        long maxEnd;
+        Node left;
+        Node right;
+
+        Node(long start, long end, long projectId) {
+            this.start = start;
+            this.end = end;
+            this.projectId = projectId;
+            this.priority = mix(projectId);
+            this.maxEnd = end;
+        }
+
+        void update() {
+            long max = end;
+            if (left != null && left.maxEnd > max) max = left.maxEnd;
+            if (right != null && right.maxEnd > max) max = right.maxEnd;
+            maxEnd = max;
+        }
+
+        private static long mix(long z) { // SplitMix64 finalizer
+            z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+            z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+            return z ^ (z >>> 31);
+        }
+    }
+
+    private static final class Hits {
+
+        long[] ids = new long[16];
+        int size;
+
+        void add(long id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+    }
+
+    /**
+     * Index entry ordered by day, then project ID.
+     */
+    private static final class DayKey implements Comparable<DayKey> {
+
+        private final long day;
+        private final long projectId;
+
+        DayKey(long day, long projectId) {
+            this.day = day;
+            this.projectId = projectId;
+        }
+
+        @Override
+        public int compareTo(DayKey other) {
+            int byDay = Long.compare(day, other.day);
+            return byDay != 0 ? byDay : Long.compare(projectId, other.projectId);
+        }
+
+        @Override
+        public boolean equals(Object o) {
+            if (!(o instanceof DayKey)) return false;
+            DayKey other = (DayKey) o;
+            return day == other.day && projectId == other.projectId;
+        }
+
+        @Override
+        public int hashCode() {
+            return Long.hashCode(day * 31 + projectId);
+        }
+    }
+}
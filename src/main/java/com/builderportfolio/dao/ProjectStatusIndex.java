@@ -0,0 +1,136 @@
+package com.builderportfolio.dao;
+
+// Secondary index from project status to project IDs, maintained by ProjectDao
+
+import com.builderportfolio.model.ProjectStatus;
+
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Thread-safe index from {@link ProjectStatus} to the IDs of the projects in that status,
+ * with a live counter per status.
+ * <p>
+ * Because {@link com.builderportfolio.model.Project#setProjectStatus(ProjectStatus)}
+ * mutates a project in place, the index remembers the status each project had when it was
+ * last indexed and moves the ID between sets when a save reports a different one. The
+ * move for one project is atomic, so the per-status counters always agree with the sets.
+ * Projects without a status are not indexed.
+ * </p>
+ */
+public final class ProjectStatusIndex {
+
+    /** Status each project had when it was last indexed */
+    private final Map<Long, ProjectStatus> indexedStatus = new ConcurrentHashMap<>();
+
+    private final EnumMap<ProjectStatus, Set<Long>> idsByStatus = new EnumMap<>(ProjectStatus.class);
+    private final EnumMap<ProjectStatus, AtomicLong> counts = new EnumMap<>(ProjectStatus.class);
+
+    /**
+     * Creates an empty index.
+     */
+    public ProjectStatusIndex() {
+        for (ProjectStatus status : ProjectStatus.values()) {
+            idsByStatus.put(status, ConcurrentHashMap.<Long>newKeySet());
+            counts.put(status, new AtomicLong());
+        }
+    }
+
+    /**
+     * Records the current status of a project, moving it out of its previous status if it changed.
+     *
+     * @param projectId the project ID
+     * @param status    the project's status; null removes the project from the index
+     */
+    public void update(long projectId, ProjectStatus status) {
+        indexedStatus.compute(projectId, (id, previous) -> {
+            if (previous != status) {
+                if (previous != null) unindex(id, previous);
+                if (status != null) {
+                    idsByStatus.get(status).add(id);
+                    counts.get(status).incrementAndGet();
+                }
+            }
+            return status; // null removes the entry
+        });
+    }
+
+    /**
+     * Removes a project from the index.
+     *
+     * @param projectId the project ID
+     */
+    public void remove(long projectId) {
+        indexedStatus.computeIfPresent(projectId, (id, previous) -> {
+            unindex(id, previous);
+            return null;
+        });
+    }
+
+    /**
+     * Removes a project only if it is still indexed under the given status. Used to drop
+     * entries whose project is no longer stored.
+     *
+     * @param projectId the project ID
+     * @param status    the status the caller found the project under
+     */
+    void removeIfIndexedAs(long projectId, ProjectStatus status) {
+        indexedStatus.computeIfPresent(projectId, (id, previous) -> {
+            if (previous != status) return previous;
+            unindex(id, previous);
+            return null;
+        });
+    }
+
+    /**
+     * Returns a live, read-only view of the IDs of projects in the given status.
+     *
+     * @param status the status to look up
+     * @return the project IDs; iteration is weakly consistent
+     */
+    public Set<Long> projectIds(ProjectStatus status) {
+        return Collections.unmodifiableSet(idsByStatus.get(status));
+    }
+
+    /**
+     * Returns the number of projects in the given status in O(1).
+     *
+     * @param status the status to count
+     * @return the number of indexed projects in that status
+     */
+    public long count(ProjectStatus status) {
+        return counts.get(status).get();
+    }
+
+    /**
+     * Returns the current count of every status.
+     *
+     * @return a new map from each status to its count
+     */
+    public EnumMap<ProjectStatus, Long> counts() {
+        EnumMap<ProjectStatus, Long> snapshot = new EnumMap<>(ProjectStatus.class);
+        for (Map.Entry<ProjectStatus, AtomicLong> entry : counts.entrySet()) {
+            snapshot.put(entry.getKey(), entry.getValue().get());
+        }
+        return snapshot;
+    }
+
+    /**
+     * Removes every project from the index.
+     */
+    public void clear() {
+        for (Long id : indexedStatus.keySet()) {
+            remove(id);
+        }
+    }
+
+    private void unindex(Long projectId, ProjectStatus status) {
+        if (idsByStatus.get(status).remove(projectId)) {
+            counts.get(status).decrementAndGet();
+        }
+    }
+}
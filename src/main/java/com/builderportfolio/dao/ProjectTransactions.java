@@ -0,0 +1,302 @@
+package com.builderportfolio.dao;
+
+// Atomic multi-DAO writes for projects and their manager/builder assignments
+
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.UserKeys;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.Function;
+import java.util.function.Predicate;
+
+/**
+ * Applies changes that span {@link ProjectDao}, {@link ManagerDao} and {@link BuilderDao}
+ * as a single step.
+ * <p>
+ * Creation, deletion and locked updates of a project run under one of a fixed set of
+ * striped locks chosen by the project ID, so they never interleave for the same project,
+ * while different projects almost never contend. Deletion also takes the project's
+ * version claim for good, which excludes lock-free versioned updates. Within a transaction the stores are
+ * written in an order that keeps one invariant visible to lock-free readers at all times:
+ * every ID in an assignment list refers to a stored project. Creation stores the project
+ * before assigning it and deletion unassigns it before removing it. If any step fails, the
+ * steps already applied are undone before the exception is rethrown.
+ * </p>
+ */
+public final class ProjectTransactions {
+
+    private static final int STRIPE_BITS = 6;
+    private static final int STRIPES = 1 << STRIPE_BITS;
+
+    private static final ReentrantLock[] locks = new ReentrantLock[STRIPES];
+
+    static {
+        for (int i = 0; i < STRIPES; i++) {
+            locks[i] = new ReentrantLock();
+        }
+    }
+
+    private ProjectTransactions() {
+    }
+
+    /**
+     * Stores a new project and assigns it to its manager and builder atomically.
+     *
+     * @param project the project to create; its assigned manager and builder receive it
+     * @throws NullPointerException     if the project or its manager ID is null
+     * @throws IllegalArgumentException if the project's builder ID is null
+     */
+    public static void create(Project project) {
+        String managerId = Objects.requireNonNull(project.getAssignedProjectManager(), "Manager ID cannot be null");
+        String builderId = project.getAssignedBuilder();
+        if (builderId == null) throw new IllegalArgumentException("Builder ID cannot be null");
+        long projectId = project.getProjectId();
+
+        ReentrantLock lock = lockFor(projectId);
+        lock.lock();
+        try {
+            ProjectDao.saveProject(project);
+            try {
+                ManagerDao.addProjectToManager(managerId, projectId);
+                try {
+                    BuilderDao.addProjectToBuilder(builderId, projectId);
+                } catch (RuntimeException e) {
+                    undo(e, () -> ManagerDao.removeProjectFromManager(managerId, projectId));
+                    throw e;
+                }
+            } catch (RuntimeException e) {
+                undo(e, () -> ProjectDao.removeProject(projectId));
+                throw e;
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Stores a batch of new projects and assigns them to their managers and builders as one step.
+     * <p>
+     * The assignments are grouped by manager and by builder, and each group is appended to
+     * its list in a single call, so a list is locked once per batch rather than once per
+     * project. The batch holds every stripe lock, taken in a fixed order, for its duration.
+     * All projects are stored before any is assigned. If a step fails, everything applied so
+     * far is undone before the exception is rethrown.
+     * </p>
+     *
+     * @param projects the projects to create, with distinct IDs not yet stored
+     * @throws NullPointerException     if a project or its manager ID is null; nothing is stored
+     * @throws IllegalArgumentException if a project's builder ID is null; nothing is stored
+     */
+    public static void createAll(List<Project> projects) {
+        for (Project project : projects) { // validate the whole batch before writing anything
+            Objects.requireNonNull(project.getAssignedProjectManager(), "Manager ID cannot be null");
+            if (project.getAssignedBuilder() == null) throw new IllegalArgumentException("Builder ID cannot be null");
+        }
+        if (projects.isEmpty()) return;
+        Map<String, IdRun> byManager = groupIds(projects, Project::getAssignedProjectManager);
+        Map<String, IdRun> byBuilder = groupIds(projects, Project::getAssignedBuilder);
+
+        lockAll();
+        int saved = 0;
+        int managersDone = 0;
+        int buildersDone = 0;
+        try {
+            for (Project project : projects) {
+                ProjectDao.saveProject(project);
+                saved++;
+            }
+            for (Map.Entry<String, IdRun> group : byManager.entrySet()) {
+                managersDone++; // a failed group may be partly assigned, so it is undone too
+                ManagerDao.addProjectsToManager(group.getKey(), group.getValue().ids, 0, group.getValue().size);
+            }
+            for (Map.Entry<String, IdRun> group : byBuilder.entrySet()) {
+                buildersDone++;
+                BuilderDao.addProjectsToBuilder(group.getKey(), group.getValue().ids, 0, group.getValue().size);
+            }
+        } catch (RuntimeException e) {
+            int managers = managersDone;
+            int builders = buildersDone;
+            int stored = saved;
+            undo(e, () -> {
+                undoGroups(byBuilder, builders, BuilderDao::removeProjectFromBuilder);
+                undoGroups(byManager, managers, ManagerDao::removeProjectFromManager);
+                for (int i = 0; i < stored; i++) {
+                    ProjectDao.removeProject(projects.get(i).getProjectId());
+                }
+            });
+            throw e;
+        } finally {
+            unlockAll();
+        }
+    }
+
+    /**
+     * Applies an in-place change to a stored project and saves it, unless the project
+     * is missing or the change declines.
+     * <p>
+     * The change runs under the project's lock, so it cannot resurrect a project that is
+     * being deleted concurrently, and holds the project's version claim, so it never
+     * interleaves with a lock-free {@link ProjectDao#updateIfVersion} either. The change is
+     * journaled, stored and indexed while the claim is held; releasing the claim then
+     * advances the version.
+     * </p>
+     *
+     * @param projectId the ID of the project to change
+     * @param change    checks and mutates a private copy of the project, which is then
+     *                  published in one step; returns false to leave the project untouched
+     * @return true if the project was changed and saved
+     */
+    public static boolean update(long projectId, Predicate<Project> change) {
+        ReentrantLock lock = lockFor(projectId);
+        lock.lock();
+        try {
+            Project project = ProjectDao.getProjectById(projectId);
+            if (project == null) return false;
+
+            claim(project);
+            boolean changed = false;
+            try {
+                Project draft = draftOf(project); // copy-on-write: readers never see a half-applied change
+                if (change.test(draft)) {
+                    draft.restoreVersion(project.getVersion() + 1);
+                    ProjectDao.saveClaimed(project, draft); // journaled, published and indexed before the claim is released
+                    changed = true;
+                }
+            } finally {
+                project.endUpdate(changed);
+            }
+            return changed;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Unassigns a project from its builder and manager and removes it atomically, if the
+     * given manager owns it.
+     *
+     * @param projectId the ID of the project to delete
+     * @param managerId the ID of the manager requesting the deletion
+     * @return true if the project was deleted; false if it does not exist or belongs to another manager
+     */
+    public static boolean delete(long projectId, String managerId) {
+        ReentrantLock lock = lockFor(projectId);
+        lock.lock();
+        try {
+            Project project = ProjectDao.getProjectById(projectId);
+            if (project == null) return false;
+            int managerKey = UserKeys.lookup(managerId);
+            if (managerKey == UserKeys.NO_USER || managerKey != project.snapshot().getManagerKey()) return false;
+
+            claim(project); // wait out an in-flight versioned update; the claim is never released
+
+            String builderId = project.getAssignedBuilder();
+            if (builderId != null) {
+                BuilderDao.removeProjectFromBuilder(builderId, projectId);
+            }
+            ManagerDao.removeProjectFromManager(managerId, projectId);
+            ProjectDao.removeProject(projectId);
+            return true;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Returns a private copy of a project, at the same version, for a change to be applied to
+     * before it is published with {@link Project#replaceState}.
+     */
+    static Project draftOf(Project project) {
+        Project draft = new Project(project.snapshot());
+        draft.restoreVersion(project.getVersion());
+        return draft;
+    }
+
+    /**
+     * Claims a project at whatever version it has, retrying while another update holds it.
+     */
+    private static void claim(Project project) {
+        while (!project.tryBeginUpdate(project.getVersion())) {
+            Thread.yield();
+        }
+    }
+
+    /**
+     * Collects the project IDs of a batch per owner, in batch order.
+     */
+    private static Map<String, IdRun> groupIds(List<Project> projects, Function<Project, String> owner) {
+        Map<String, IdRun> groups = new LinkedHashMap<>();
+        for (Project project : projects) {
+            groups.computeIfAbsent(owner.apply(project), k -> new IdRun()).add(project.getProjectId());
+        }
+        return groups;
+    }
+
+    /**
+     * Runs an undo step, recording its failure, such as a journal that has stopped accepting
+     * records, on the exception being rethrown instead of replacing it.
+     */
+    private static void undo(RuntimeException cause, Runnable step) {
+        try {
+            step.run();
+        } catch (RuntimeException e) {
+            cause.addSuppressed(e);
+        }
+    }
+
+    /**
+     * Unassigns the IDs of the first {@code done} groups; IDs that were never assigned are skipped.
+     */
+    private static void undoGroups(Map<String, IdRun> groups, int done, Unassign unassign) {
+        int n = 0;
+        for (Map.Entry<String, IdRun> group : groups.entrySet()) {
+            if (n++ == done) return;
+            IdRun run = group.getValue();
+            for (int i = 0; i < run.size; i++) {
+                unassign.remove(group.getKey(), run.ids[i]);
+            }
+        }
+    }
+
+    private static void lockAll() {
+        for (ReentrantLock lock : locks) { // always in index order, so two batches cannot deadlock
+            lock.lock();
+        }
+    }
+
+    private static void unlockAll() {
+        for (int i = STRIPES - 1; i >= 0; i--) {
+            locks[i].unlock();
+        }
+    }
+
+    private static ReentrantLock lockFor(long projectId) {
+        long h = projectId * 0x9E3779B97F4A7C15L; // spread sequential IDs across stripes
+        return locks[(int) (h >>> (64 - STRIPE_BITS))];
+    }
+
+    /**
+     * Removes one project ID from an owner's assignment list.
+     */
+    private interface Unassign {
+        void remove(String ownerId, long projectId);
+    }
+
+    /**
+     * Growable run of project IDs belonging to one owner.
+     */
+    private static final class IdRun {
+        long[] ids = new long[8];
+        int size;
+
+        void add(long id) {
+            if (size == ids.length) ids = Arrays.copyOf(ids, size * 2);
+            ids[size++] = id;
+        }
+    }
+}
@@ -3,26 +3,52 @@ package com.builderportfolio.dao;
 // DAO class responsible for storing and retrieving User entities in memory
 
 import com.builderportfolio.model.User;
+import com.builderportfolio.model.UserKeys;
 
+import java.util.Locale;
 import java.util.Map;
+import java.util.Set;
 import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.locks.ReentrantLock;
 
 /**
  * Data Access Object (DAO) for managing User entities in memory.
  * <p>
  * This class maintains a thread-safe map of users where each user ID
- * is associated with its corresponding User object.
+ * is associated with its corresponding User object, together with a
+ * secondary index from normalized email to user ID so that existence
+ * checks do not need to scan every user.
  * </p>
  * <p>
  * All methods are static and thread-safe to allow concurrent access from multiple threads.
+ * Every mutation is journaled before it is applied, under the user's lock from
+ * {@link Journals}; a mutation the journal rejects is not applied, and a registration that
+ * already claimed its email releases it.
  * </p>
  */
 public class UserDao {
 
     /**
      * Thread-safe map storing user IDs as keys and User objects as values.
+     * <p>
+     * The map is a {@link UserKeyedMap}, so a user is found by its int key without hashing the ID.
+     * </p>
+     */
+    public static Map<String, User> users = new UserKeyedMap<>();
+
+    /**
+     * Secondary index mapping normalized (trimmed, lower-case) emails to user IDs.
+     * <p>
+     * Entries are claimed with {@code putIfAbsent} before the user is stored, which makes
+     * the existence check and the insert a single atomic step for concurrent registrations.
+     * </p>
      */
-    public static Map<String, User> users = new ConcurrentHashMap<>();
+    private static final Map<String, String> emailIndex = new ConcurrentHashMap<>();
+
+    /**
+     * IDs of users whose email is claimed but who are not stored yet.
+     */
+    private static final Set<String> pending = ConcurrentHashMap.newKeySet();
 
     /**
      * Checks if a user already exists based on their email.
@@ -31,27 +57,117 @@ public class UserDao {
      * @return the userId if a user with the given email exists; otherwise, returns null
      */
     public static String exists(String userEmail) {
+        String key = normalizeEmail(userEmail);
+        if (key == null) return null; // null or blank emails are never indexed
 
-        // Iterates through all users to find a matching email
-        for (User user : users.values()) {
-            if (user.getUserEmail().equals(userEmail)) {
-                return user.getUserId();    // returns existing userId if email is already registered
-            }
+        String userId = emailIndex.get(key);
+        if (userId == null) return null;
+
+        if (isStale(key, userId)) {            // user was removed from the store directly
+            emailIndex.remove(key, userId);
+            return null;
         }
-        return null; // returns null when no user with the given email exists
+        return userId; // returns existing userId if email is already registered
     }
 
     /**
      * Inserts a new user into the in-memory store.
      * <p>
-     * The user is only added if the userId is not already present.
+     * The user is only added if the userId is not already present. Storing the user
+     * assigns its key in {@link UserKeys} and records its role.
      * </p>
      *
      * @param userId the unique identifier of the user
      * @param user   the User object to insert
      */
     public static void insertUser(String userId, User user) {
-        users.putIfAbsent(user.getUserId(), user);
+        ReentrantLock lock = Journals.lockFor(user.getUserId());
+        lock.lock();
+        try {
+            if (!users.containsKey(user.getUserId())) {
+                Journals.current().userInserted(user);
+                store(user);
+                String key = normalizeEmail(user.getUserEmail());
+                if (key != null) {
+                    emailIndex.putIfAbsent(key, user.getUserId());
+                }
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Inserts a user only if no other user is registered with the same email.
+     * <p>
+     * The user first claims its email in the index and is stored only once the claim
+     * succeeds, so two concurrent registrations with the same email can never both
+     * succeed, and a rejected user is never given a key in {@link UserKeys}. The insert is
+     * journaled once the email is claimed; if the journal rejects it, the claim is released.
+     * </p>
+     *
+     * @param user the User object to insert
+     * @return null if the user was inserted; otherwise the userId already registered with the email
+     *         (or the user's own ID if that ID is already taken)
+     */
+    public static String insertIfAbsent(User user) {
+        String key = normalizeEmail(user.getUserEmail());
+        if (key == null) {
+            insertUser(user.getUserId(), user);
+            return null;
+        }
+
+        String userId = user.getUserId();
+        ReentrantLock lock = Journals.lockFor(userId);
+        lock.lock();
+        try {
+            if (users.containsKey(userId)) {
+                return userId; // userId already taken, nothing was inserted
+            }
+
+            pending.add(userId); // the claim must not look stale before the user is stored
+            try {
+                while (true) {
+                    String existingId = emailIndex.putIfAbsent(key, userId);
+                    if (existingId == null) break; // email claimed
+                    if (!isStale(key, existingId)) return existingId; // email belongs to another user
+                    emailIndex.remove(key, existingId); // reclaim entry left behind by a removed user and retry
+                }
+                try {
+                    Journals.current().userInserted(user);
+                } catch (RuntimeException e) {
+                    emailIndex.remove(key, userId); // release the claim, the log never saw the user
+                    throw e;
+                }
+                store(user);
+                return null; // registration complete
+            } finally {
+                pending.remove(userId);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Replaces the stored password of a user.
+     *
+     * @param userId   the unique identifier of the user
+     * @param password the new stored password, normally a hash
+     * @return true if the user exists and was updated; false otherwise
+     */
+    public static boolean updatePassword(String userId, String password) {
+        ReentrantLock lock = Journals.lockFor(userId);
+        lock.lock();
+        try {
+            User user = users.get(userId);
+            if (user == null) return false;
+            Journals.current().passwordChanged(userId, password);
+            user.setPassword(password);
+            return true;
+        } finally {
+            lock.unlock();
+        }
     }
 
     /**
@@ -64,4 +180,50 @@ public class UserDao {
         return users.get(userId);
     }
 
+    /**
+     * Retrieves a user by the surrogate key of its user ID.
+     *
+     * @param userKey the user's key, as returned by {@link User#getUserKey()}
+     * @return the User object if found; otherwise, returns null
+     */
+    @SuppressWarnings("unchecked")
+    public static User getUserByKey(int userKey) {
+        Map<String, User> map = users;
+        if (map instanceof UserKeyedMap) return ((UserKeyedMap<User>) map).getByKey(userKey);
+        return userKey == UserKeys.NO_USER ? null : map.get(UserKeys.userIdOf(userKey)); // map was replaced with a plain one
+    }
+
+    /**
+     * Assigns the user's key and role in {@link UserKeys} and stores it.
+     */
+    private static void store(User user) {
+        UserKeys.register(user.getUserId(), user.getRole());
+        users.put(user.getUserId(), user);
+    }
+
+    /**
+     * Normalizes an email for use as an index key.
+     *
+     * @param userEmail the email to normalize
+     * @return the trimmed, lower-case email, or null if the email is null or blank
+     */
+    static String normalizeEmail(String userEmail) {
+        if (userEmail == null) return null;
+        String key = userEmail.trim().toLowerCase(Locale.ROOT);
+        return key.isEmpty() ? null : key;
+    }
+
+    /**
+     * Checks whether an index entry no longer points at a stored user with that email.
+     *
+     * @param key    the normalized email
+     * @param userId the user ID recorded in the index
+     * @return true if the entry should be discarded
+     */
+    private static boolean isStale(String key, String userId) {
+        if (pending.contains(userId)) return false; // checked first: a pending user is stored before it leaves the set
+        User user = users.get(userId);
+        return user == null || !key.equals(normalizeEmail(user.getUserEmail()));
+    }
+
 }
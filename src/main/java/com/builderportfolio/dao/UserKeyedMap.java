@@ -0,0 +1,275 @@
+package com.builderportfolio.dao;
+
+// Concurrent map from user ID to value, stored in arrays indexed by the user's int key
+
+import com.builderportfolio.model.UserKeys;
+
+import java.util.AbstractMap;
+import java.util.AbstractSet;
+import java.util.Iterator;
+import java.util.NoSuchElementException;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.ConcurrentMap;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicReferenceArray;
+
+/**
+ * Thread-safe map keyed by user ID whose values live in slots indexed by the ID's
+ * {@link UserKeys} surrogate key.
+ * <p>
+ * Since keys are dense, a lookup by key is two array reads, with no hashing or string
+ * comparison, and callers that already hold a key use {@link #getByKey(int)} directly.
+ * Lookups by ID go through {@link UserKeys#lookup(String)} and never assign a key for an
+ * unknown ID. Slots are allocated in chunks on first use, so the map never copies its
+ * contents to grow. All single-key operations are atomic compare-and-set updates of one
+ * slot; iteration is in key order and weakly consistent, like {@code ConcurrentHashMap}.
+ * Null keys and values are rejected.
+ * </p>
+ *
+ * @param <V> the type of the values
+ */
+final class UserKeyedMap<V> extends AbstractMap<String, V> implements ConcurrentMap<String, V> {
+
+    private static final int CHUNK_BITS = 12;
+    private static final int CHUNK_SIZE = 1 << CHUNK_BITS;
+    private static final int CHUNK_MASK = CHUNK_SIZE - 1;
+    private static final int CHUNKS = 1 << 12;
+
+    private final AtomicReferenceArray<AtomicReferenceArray<V>> chunks = new AtomicReferenceArray<>(CHUNKS);
+
+    private final AtomicInteger size = new AtomicInteger();
+
+    /**
+     * Returns the value stored under a user key.
+     *
+     * @param userKey the user's key from {@link UserKeys}
+     * @return the value, or null if there is none or the key is {@link UserKeys#NO_USER}
+     */
+    V getByKey(int userKey) {
+        if (userKey < 0) return null;
+        AtomicReferenceArray<V> chunk = chunkOf(userKey, false);
+        return chunk == null ? null : chunk.get(userKey & CHUNK_MASK);
+    }
+
+    @Override
+    public V get(Object userId) {
+        return getByKey(UserKeys.lookup(userIdOf(userId)));
+    }
+
+    @Override
+    public boolean containsKey(Object userId) {
+        return get(userId) != null;
+    }
+
+    @Override
+    public V put(String userId, V value) {
+        Objects.requireNonNull(value);
+        int key = UserKeys.keyOf(Objects.requireNonNull(userId));
+        V previous = chunkOf(key, true).getAndSet(key & CHUNK_MASK, value);
+        if (previous == null) size.incrementAndGet();
+        return previous;
+    }
+
+    @Override
+    public V putIfAbsent(String userId, V value) {
+        Objects.requireNonNull(value);
+        int key = UserKeys.keyOf(Objects.requireNonNull(userId));
+        AtomicReferenceArray<V> chunk = chunkOf(key, true);
+        int slot = key & CHUNK_MASK;
+        while (true) {
+            V current = chunk.get(slot);
+            if (current != null) return current;
+            if (chunk.compareAndSet(slot, null, value)) {
+                size.incrementAndGet();
+                return null;
+            }
+        }
+    }
+
+    @Override
+    public V remove(Object userId) {
+        int key = UserKeys.lookup(userIdOf(userId));
+        AtomicReferenceArray<V> chunk = key < 0 ? null : chunkOf(key, false);
+        if (chunk == null) return null;
+        V previous = chunk.getAndSet(key & CHUNK_MASK, null);
+        if (previous != null) size.decrementAndGet();
+        return previous;
+    }
+
+    @Override
+    public boolean remove(Object userId, Object value) {
+        int key = UserKeys.lookup(userIdOf(userId));
+        AtomicReferenceArray<V> chunk = key < 0 ? null : chunkOf(key, false);
+        return chunk != null && value != null && removeSlot(chunk, key & CHUNK_MASK, value);
+    }
+
+    @Override
+    public boolean replace(String userId, V oldValue, V newValue) {
+        Objects.requireNonNull(oldValue);
+        Objects.requireNonNull(newValue);
+        int key = UserKeys.lookup(Objects.requireNonNull(userId));
+        AtomicReferenceArray<V> chunk = key < 0 ? null : chunkOf(key, false);
+        if (chunk == null) return false;
+        int slot = key & CHUNK_MASK;
+        while (true) {
+            V current = chunk.get(slot);
+            if (current == null || !current.equals(oldValue)) return false;
+            if (chunk.compareAndSet(slot, current, newValue)) return true;
+        }
+    }
+
+    @Override
+    public V replace(String userId, V value) {
+        Objects.requireNonNull(value);
+        int key = UserKeys.lookup(Objects.requireNonNull(userId));
+        AtomicReferenceArray<V> chunk = key < 0 ? null : chunkOf(key, false);
+        if (chunk == null) return null;
+        int slot = key & CHUNK_MASK;
+        while (true) {
+            V current = chunk.get(slot);
+            if (current == null) return null;
+            if (chunk.compareAndSet(slot, current, value)) return current;
+        }
+    }
+
+    @Override
+    public int size() {
+        return size.get();
+    }
+
+    @Override
+    public boolean isEmpty() {
+        return size.get() == 0;
+    }
+
+    @Override
+    public void clear() {
+        for (int c = 0; c < CHUNKS; c++) {
+            AtomicReferenceArray<V> chunk = chunks.get(c);
+            if (chunk == null) continue;
+            for (int slot = 0; slot < CHUNK_SIZE; slot++) {
+                if (chunk.getAndSet(slot, null) != null) size.decrementAndGet();
+            }
+        }
+    }
+
+    @Override
+    public Set<Entry<String, V>> entrySet() {
+        return new AbstractSet<Entry<String, V>>() {
+            @Override
+            public Iterator<Entry<String, V>> iterator() {
+                return new EntryIterator();
+            }
+
+            @Override
+            public int size() {
+                return UserKeyedMap.this.size();
+            }
+
+            @Override
+            public void clear() {
+                UserKeyedMap.this.clear();
+            }
+        };
+    }
+
+    private boolean removeSlot(AtomicReferenceArray<V> chunk, int slot, Object value) {
+        while (true) {
+            V current = chunk.get(slot);
+            if (current == null || !current.equals(value)) return false;
+            if (chunk.compareAndSet(slot, current, null)) {
+                size.decrementAndGet();
+                return true;
+            }
+        }
+    }
+
+    /**
+     * Returns the chunk holding a key's slot, allocating it if asked to.
+     */
+    private AtomicReferenceArray<V> chunkOf(int userKey, boolean create) {
+        int index = userKey >>> CHUNK_BITS;
+        if (index >= CHUNKS) {
+            if (!create) return null;
+            throw new IllegalStateException("User key " + userKey + " exceeds the capacity of the map");
+        }
+        AtomicReferenceArray<V> chunk = chunks.get(index);
+        if (chunk == null && create) {
+            chunks.compareAndSet(index, null, new AtomicReferenceArray<V>(CHUNK_SIZE));
+            chunk = chunks.get(index);
+        }
+        return chunk;
+    }
+
+    /**
+     * Returns the user ID to look up; like {@code ConcurrentHashMap}, null is rejected and a
+     * key of another type is simply never found.
+     */
+    private static String userIdOf(Object userId) {
+        Objects.requireNonNull(userId);
+        return userId instanceof String ? (String) userId : null;
+    }
+
+    /**
+     * Walks the slots in key order up to the keys assigned when iteration started.
+     */
+    private final class EntryIterator implements Iterator<Entry<String, V>> {
+
+        private final int limit = UserKeys.size();
+        private int nextKey = -1;
+        private V nextValue;
+        private int lastKey = -1;
+        private V lastValue;
+
+        EntryIterator() {
+            advance();
+        }
+
+        @Override
+        public boolean hasNext() {
+            return nextValue != null;
+        }
+
+        @Override
+        public Entry<String, V> next() {
+            if (nextValue == null) throw new NoSuchElementException();
+            lastKey = nextKey;
+            lastValue = nextValue;
+            advance();
+            final int key = lastKey;
+            return new SimpleEntry<String, V>(UserKeys.userIdOf(key), lastValue) {
+                private static final long serialVersionUID = 1L;
+
+                @Override
+                public V setValue(V value) {
+                    put(getKey(), value);
+                    return super.setValue(value);
+                }
+            };
+        }
+
+        @Override
+        public void remove() {
+            if (lastValue == null) throw new IllegalStateException();
+            removeSlot(chunkOf(lastKey, false), lastKey & CHUNK_MASK, lastValue);
+            lastValue = null;
+        }
+
+        private void advance() {
+            nextValue = null;
+            while (++nextKey < limit) {
+                AtomicReferenceArray<V> chunk = chunkOf(nextKey, false);
+                if (chunk == null) {
+                    nextKey |= CHUNK_MASK; // skip the whole unallocated chunk
+                    continue;
+                }
+                V value = chunk.get(nextKey & CHUNK_MASK);
+                if (value != null) {
+                    nextValue = value;
+                    return;
+                }
+            }
+        }
+    }
+}
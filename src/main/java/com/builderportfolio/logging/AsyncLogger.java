@@ -0,0 +1,145 @@
+package com.builderportfolio.logging;
+
+// Structured, asynchronous front end to java.util.logging for hot paths
+
+import java.util.logging.Level;
+import java.util.logging.Logger;
+
+/**
+ * Logger for hot paths that records structured events asynchronously through
+ * {@code java.util.logging}.
+ * <p>
+ * An event is a short name such as {@code "login.success"} plus up to two key/value fields.
+ * The level check is a single read of the underlying {@link Logger}'s level, so a disabled
+ * level costs no allocation and no formatting; callers pass the values as they are instead
+ * of concatenating a message. Enabled events are queued in a lock-free ring and formatted
+ * as {@code "login.success userId=M1"} on a background thread, which then passes them to
+ * the {@code java.util.logging} logger of the same name, so levels, handlers and
+ * configuration work as for any other logger.
+ * </p>
+ * <p>
+ * Because formatting is deferred, field values should be immutable, such as strings and
+ * numbers; a mutable object is formatted in whatever state it has when the event is
+ * written. If the ring is full the event is dropped rather than blocking the caller, and
+ * the number of dropped events is logged later.
+ * </p>
+ */
+public final class AsyncLogger {
+
+    private final Logger logger;
+
+    private AsyncLogger(Logger logger) {
+        this.logger = logger;
+    }
+
+    /**
+     * Returns an asynchronous logger writing to the {@code java.util.logging} logger named
+     * after the given class.
+     *
+     * @param type the class whose name is used as the logger name
+     * @return the asynchronous logger
+     */
+    public static AsyncLogger getLogger(Class<?> type) {
+        return new AsyncLogger(Logger.getLogger(type.getName()));
+    }
+
+    /**
+     * Waits until every event logged so far has been handed to {@code java.util.logging}.
+     *
+     * @return true if all events were delivered; false if that took longer than about a second
+     */
+    public static boolean flush() {
+        return LogRing.INSTANCE.flush();
+    }
+
+    /**
+     * Returns the number of events dropped since startup because the ring was full.
+     *
+     * @return the number of dropped events
+     */
+    public static long droppedEvents() {
+        return LogRing.INSTANCE.droppedCount();
+    }
+
+    /**
+     * Checks whether events at the given level would be logged.
+     *
+     * @param level the level to check
+     * @return true if the level is enabled
+     */
+    public boolean isLoggable(Level level) {
+        return logger.isLoggable(level);
+    }
+
+    /**
+     * Logs an event without fields at {@link Level#INFO}.
+     *
+     * @param event the event name
+     */
+    public void info(String event) {
+        log(Level.INFO, event, null, null, null, null);
+    }
+
+    /**
+     * Logs an event with one field at {@link Level#INFO}.
+     *
+     * @param event the event name
+     * @param key   the field name
+     * @param value the field value
+     */
+    public void info(String event, String key, Object value) {
+        log(Level.INFO, event, key, value, null, null);
+    }
+
+    /**
+     * Logs an event with two fields at {@link Level#INFO}.
+     *
+     * @param event  the event name
+     * @param key1   the first field name
+     * @param value1 the first field value
+     * @param key2   the second field name
+     * @param value2 the second field value
+     */
+    public void info(String event, String key1, Object value1, String key2, Object value2) {
+        log(Level.INFO, event, key1, value1, key2, value2);
+    }
+
+    /**
+     * Logs an event with one field at {@link Level#WARNING}.
+     *
+     * @param event the event name
+     * @param key   the field name
+     * @param value the field value
+     */
+    public void warning(String event, String key, Object value) {
+        log(Level.WARNING, event, key, value, null, null);
+    }
+
+    /**
+     * Logs an event with two fields at {@link Level#WARNING}.
+     *
+     * @param event  the event name
+     * @param key1   the first field name
+     * @param value1 the first field value
+     * @param key2   the second field name
+     * @param value2 the second field value
+     */
+    public void warning(String event, String key1, Object value1, String key2, Object value2) {
+        log(Level.WARNING, event, key1, value1, key2, value2);
+    }
+
+    /**
+     * Logs an event with up to two fields at the given level; unused keys are null.
+     *
+     * @param level  the level of the event
+     * @param event  the event name
+     * @param key1   the first field name, or null
+     * @param value1 the first field value
+     * @param key2   the second field name, or null
+     * @param value2 the second field value
+     */
+    public void log(Level level, String event, String key1, Object value1, String key2, Object value2) {
+        if (!logger.isLoggable(level)) return; // disabled levels stop here, before any allocation
+        LogRing.INSTANCE.publish(logger, level, event, key1, value1, key2, value2);
+    }
+}
@@ -0,0 +1,195 @@
+package com.builderportfolio.logging;
+
+// Bounded multi-producer ring of log events drained by one background thread
+
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+import java.util.concurrent.locks.LockSupport;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+/**
+ * Fixed-size ring of preallocated event slots shared by every {@link AsyncLogger}.
+ * <p>
+ * Producers claim a sequence number with a compare-and-set, fill the slot for it and then
+ * publish it by writing the sequence into the slot, so logging allocates nothing and never
+ * takes a lock. A single daemon thread consumes slots in sequence order, formats them into
+ * {@link LogRecord}s and hands those to {@code java.util.logging}, so formatting and handler
+ * I/O happen off the caller's thread. When the ring is full the event is dropped rather
+ * than blocking the caller; drops are counted and reported once there is room again.
+ * The consumer parks while the ring is empty and is woken by the next publish.
+ * </p>
+ */
+final class LogRing {
+
+    /** Number of slots; a power of two */
+    static final int CAPACITY = 1 << 13;
+
+    private static final int MASK = CAPACITY - 1;
+
+    /** Longest the consumer sleeps before re-checking, in case a wake-up was missed */
+    private static final long MAX_PARK_NANOS = TimeUnit.MILLISECONDS.toNanos(100);
+
+    static final LogRing INSTANCE = new LogRing();
+
+    private final Slot[] slots = new Slot[CAPACITY];
+
+    /** Next sequence number to claim */
+    private final AtomicLong claimed = new AtomicLong();
+
+    /** Next sequence number to consume; every lower one has been handed to its logger */
+    private volatile long consumed;
+
+    private final AtomicLong dropped = new AtomicLong();
+
+    /** Drops already reported; only touched by the consumer */
+    private long reportedDrops;
+
+    private volatile boolean consumerParked;
+
+    private final Thread consumer;
+
+    private LogRing() {
+        for (int i = 0; i < CAPACITY; i++) {
+            slots[i] = new Slot();
+            slots[i].published = i - CAPACITY; // no slot holds sequence 0 yet
+        }
+        consumer = new Thread(this::drain, "async-log");
+        consumer.setDaemon(true);
+        consumer.start();
+        Runtime.getRuntime().addShutdownHook(new Thread(this::flush, "async-log-flush"));
+    }
+
+    /**
+     * Publishes an event, or drops it if the ring is full.
+     *
+     * @return true if the event was queued
+     */
+    boolean publish(Logger target, Level level, String event, String key1, Object value1,
+                    String key2, Object value2) {
+        long sequence;
+        do {
+            sequence = claimed.get();
+            if (sequence - consumed >= CAPACITY) {
+                dropped.incrementAndGet();
+                return false;
+            }
+        } while (!claimed.compareAndSet(sequence, sequence + 1));
+
+        Slot slot = slots[(int) sequence & MASK];
+        slot.target = target;
+        slot.level = level;
+        slot.event = event;
+        slot.key1 = key1;
+        slot.value1 = value1;
+        slot.key2 = key2;
+        slot.value2 = value2;
+        slot.millis = System.currentTimeMillis();
+        slot.threadId = Thread.currentThread().getId();
+        slot.published = sequence; // volatile write makes the fields above visible to the consumer
+
+        if (consumerParked) LockSupport.unpark(consumer);
+        return true;
+    }
+
+    /**
+     * Waits until every event published before this call has been handed to its logger.
+     *
+     * @return true if the ring caught up; false if it did not within about a second
+     */
+    boolean flush() {
+        long target = claimed.get();
+        long deadline = System.nanoTime() + TimeUnit.SECONDS.toNanos(1);
+        while (consumed < target) {
+            if (System.nanoTime() - deadline > 0) return false;
+            LockSupport.unpark(consumer);
+            Thread.yield();
+        }
+        return true;
+    }
+
+    /**
+     * Returns the number of events dropped because the ring was full.
+     */
+    long droppedCount() {
+        return dropped.get();
+    }
+
+    private void drain() {
+        long sequence = consumed;
+        while (true) {
+            Slot slot = slots[(int) sequence & MASK];
+            if (slot.published != sequence) {
+                consumerParked = true;
+                if (slot.published != sequence) LockSupport.parkNanos(this, MAX_PARK_NANOS);
+                consumerParked = false;
+                continue;
+            }
+
+            Logger target = slot.target;
+            LogRecord record = slot.toRecord();
+            slot.clear();
+            consumed = ++sequence; // frees the slot for producers
+            try {
+                target.log(record);
+            } catch (RuntimeException e) {
+                // a failing handler must not stop the consumer
+            }
+            reportDrops();
+        }
+    }
+
+    private void reportDrops() {
+        long drops = dropped.get();
+        if (drops != reportedDrops) {
+            Logger.getLogger(LogRing.class.getName()).warning("async log ring full, dropped=" + (drops - reportedDrops));
+            reportedDrops = drops;
+        }
+    }
+
+    /**
+     * One preallocated event. Fields are written by the producer that claimed the slot and
+     * read by the consumer after it sees {@link #published} equal to the slot's sequence.
+     */
+    private static final class Slot {
+        volatile long published;
+        Logger target;
+        Level level;
+        String event;
+        String key1;
+        Object value1;
+        String key2;
+        Object value2;
+        long millis;
+        long threadId;
+
+        /**
+         * Formats the event as {@code "event key1=value1 key2=value2"}.
+         */
+        @SuppressWarnings("deprecation") // setInstant and setLongThreadID need Java 9 and 16; the target is 8
+        LogRecord toRecord() {
+            StringBuilder message = new StringBuilder(event);
+            if (key1 != null) message.append(' ').append(key1).append('=').append(value1);
+            if (key2 != null) message.append(' ').append(key2).append('=').append(value2);
+
+            LogRecord record = new LogRecord(level, message.toString());
+            record.setLoggerName(target.getName());
+            record.setSourceClassName(target.getName()); // the caller's stack is gone; don't let JUL infer it
+            record.setSourceMethodName(event);
+            record.setMillis(millis);
+            record.setThreadID((int) threadId);
+            return record;
+        }
+
+        void clear() {
+            target = null;
+            level = null;
+            event = null;
+            key1 = null;
+            value1 = null;
+            key2 = null;
+            value2 = null;
+        }
+    }
+}
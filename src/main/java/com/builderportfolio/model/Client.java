@@ -9,8 +9,8 @@ package com.builderportfolio.model;
  */
 public class Client {
 
-    /** Tracks the last assigned client ID for auto-increment purposes */
-    static long clientLastId = 0;
+    /** Allocates client IDs for auto-increment purposes */
+    private static final IdSequence clientIds = new IdSequence();
 
     private Long clientId;
     private String clientName;
@@ -20,7 +20,7 @@ public class Client {
     /**
      * Constructs a new Client with the specified name, email, and phone number.
      * <p>
-     * The client ID is automatically assigned by incrementing the last generated ID.
+     * The client ID is automatically assigned from the client {@link IdSequence}.
      * </p>
      *
      * @param clientName   the name of the client
@@ -28,19 +28,57 @@ public class Client {
      * @param clientPhNumber the phone number of the client
      */
     public Client(String clientName, String clientEmail, String clientPhNumber) {
-        clientId = ++clientLastId; // auto-increment client ID
+        clientId = clientIds.next(); // auto-increment client ID
         this.clientName = clientName;
         this.clientEmail = clientEmail;
         this.clientPhNumber = clientPhNumber;
     }
 
+    /**
+     * Constructs a Client with a known ID, typically when restoring persisted data.
+     * <p>
+     * The client ID sequence is advanced past the given ID so that clients created
+     * afterwards never reuse it.
+     * </p>
+     *
+     * @param clientId       the persisted ID of the client
+     * @param clientName     the name of the client
+     * @param clientEmail    the email of the client
+     * @param clientPhNumber the phone number of the client
+     */
+    public Client(long clientId, String clientName, String clientEmail, String clientPhNumber) {
+        this.clientId = clientId;
+        this.clientName = clientName;
+        this.clientEmail = clientEmail;
+        this.clientPhNumber = clientPhNumber;
+        clientIds.advanceTo(clientId);
+    }
+
+    /**
+     * Returns the unique ID of this client.
+     *
+     * @return the client ID
+     */
+    public Long getClientId() {
+        return clientId;
+    }
+
     /**
      * Returns the latest generated client ID.
      *
      * @return the most recent client ID
      */
     public static Long getclientId() {
-        return clientLastId;
+        return clientIds.current();
+    }
+
+    /**
+     * Returns the sequence used to allocate client IDs.
+     *
+     * @return the client ID sequence
+     */
+    public static IdSequence idSequence() {
+        return clientIds;
     }
 
     /**
@@ -0,0 +1,61 @@
+package com.builderportfolio.model;
+
+import java.util.concurrent.atomic.AtomicLong;
+
+/**
+ * Lock-free generator of increasing numeric IDs.
+ * <p>
+ * Each model type that auto-assigns IDs owns one sequence. IDs are handed out with an
+ * atomic increment, so concurrent constructors never receive the same value. Bulk
+ * loaders can {@link #reserve(int) reserve} a contiguous block with a single atomic
+ * operation, and recovery code can {@link #advanceTo(long) advance} the sequence past
+ * a persisted high-water mark so new IDs never collide with restored ones.
+ * </p>
+ */
+public final class IdSequence {
+
+    /** Last ID handed out; the next call to {@link #next()} returns this value plus one */
+    private final AtomicLong lastId = new AtomicLong();
+
+    /**
+     * Allocates the next ID.
+     *
+     * @return a new ID, greater than every ID previously allocated by this sequence
+     */
+    public long next() {
+        return lastId.incrementAndGet();
+    }
+
+    /**
+     * Reserves a contiguous block of IDs in one atomic step.
+     *
+     * @param count the number of IDs to reserve
+     * @return the first ID of the block; the block covers {@code first .. first + count - 1}
+     * @throws IllegalArgumentException if count is not positive
+     */
+    public long reserve(int count) {
+        if (count <= 0) throw new IllegalArgumentException("Count must be positive: " + count);
+        return lastId.getAndAdd(count) + 1;
+    }
+
+    /**
+     * Returns the last ID handed out, which is also the high-water mark to persist.
+     *
+     * @return the most recently allocated ID, or 0 if none has been allocated
+     */
+    public long current() {
+        return lastId.get();
+    }
+
+    /**
+     * Moves the sequence forward so that the next ID is greater than the given value.
+     * <p>
+     * Has no effect if the sequence is already past that value.
+     * </p>
+     *
+     * @param highWaterMark an ID that must never be handed out again
+     */
+    public void advanceTo(long highWaterMark) {
+        lastId.accumulateAndGet(highWaterMark, Math::max);
+    }
+}
@@ -0,0 +1,74 @@
+package com.builderportfolio.model;
+
+import java.time.LocalDate;
+
+/**
+ * Details of a project to be created in bulk, before it has an ID.
+ * <p>
+ * Batch creation reserves one block of IDs for all requested projects and then turns
+ * each request into a {@link Project} with {@link #toProject(long)}.
+ * </p>
+ */
+public class NewProject {
+
+    private final String projectName;
+    private final String projectDescription;
+    private final LocalDate projectStartDate;
+    private final LocalDate projectEndDate;
+    private final ProjectStatus projectStatus;
+    private final Client assignedClient;
+    private final String assignedBuilder;
+    private final String assignedProjectManager;
+
+    /**
+     * Constructs a project request.
+     *
+     * @param projectName            the name of the project
+     * @param projectDescription     the description of the project
+     * @param projectStartDate       the start date of the project
+     * @param projectEndDate         the end date of the project
+     * @param projectStatus          the initial status of the project
+     * @param assignedClient         the client associated with the project
+     * @param assignedBuilder        the builder assigned to the project
+     * @param assignedProjectManager the project manager assigned to the project
+     */
+    public NewProject(String projectName, String projectDescription, LocalDate projectStartDate, LocalDate projectEndDate, ProjectStatus projectStatus, Client assignedClient, String assignedBuilder, String assignedProjectManager) {
+        this.projectName = projectName;
+        this.projectDescription = projectDescription;
+        this.projectStartDate = projectStartDate;
+        this.projectEndDate = projectEndDate;
+        this.projectStatus = projectStatus;
+        this.assignedClient = assignedClient;
+        this.assignedBuilder = assignedBuilder;
+        this.assignedProjectManager = assignedProjectManager;
+    }
+
+    /**
+     * Gets the builder the project will be assigned to.
+     *
+     * @return the builder ID
+     */
+    public String getAssignedBuilder() {
+        return assignedBuilder;
+    }
+
+    /**
+     * Gets the project manager the project will be assigned to.
+     *
+     * @return the manager ID
+     */
+    public String getAssignedProjectManager() {
+        return assignedProjectManager;
+    }
+
+    /**
+     * Creates the project with an ID reserved for it.
+     *
+     * @param projectId the reserved project ID
+     * @return the new project
+     */
+    public Project toProject(long projectId) {
+        return new Project(projectId, projectName, projectDescription, projectStartDate, projectEndDate,
+                projectStatus, assignedClient, assignedBuilder, assignedProjectManager);
+    }
+}
@@ -1,6 +1,8 @@
 package com.builderportfolio.model;
 
 import java.time.LocalDate;
+import java.util.concurrent.atomic.AtomicLongFieldUpdater;
+import java.util.concurrent.atomic.AtomicReferenceFieldUpdater;
 
 /**
  * Represents a project with its details, including associated client,
@@ -8,26 +10,41 @@ import java.time.LocalDate;
  * <p>
  * Each project has a unique project ID that is auto-incremented for every new instance.
  * </p>
+ * <p>
+ * The fields are held in an immutable {@link ProjectSnapshot} that is swapped atomically
+ * on every change, so a project can be shared between threads: each setter publishes a
+ * new snapshot with a compare-and-set, and {@link #snapshot()} gives readers all fields
+ * from one consistent state without locking.
+ * </p>
+ * <p>
+ * Each project also carries a version that grows by one with every committed update made
+ * through {@link com.builderportfolio.dao.ProjectDao#updateIfVersion}. An update first
+ * claims the project with a compare-and-set on the expected version, so concurrent
+ * updaters never interleave and a caller holding an outdated version is refused instead
+ * of silently overwriting a newer change. Versions are not persisted; they restart at 0
+ * when data is recovered.
+ * </p>
  */
 public class Project {
 
-    /** Tracks the last assigned project ID for auto-increment purposes */
-    static long lastProjectId = 0;
+    /** Allocates project IDs for auto-increment purposes */
+    private static final IdSequence projectIds = new IdSequence();
+
+    /** Current field values, replaced as a whole on every change */
+    private volatile ProjectSnapshot state;
 
-    private long projectId;
-    private String projectName;
-    private String projectDescription;
-    private LocalDate projectStartDate;
-    private LocalDate projectEndDate;
-    private ProjectStatus projectStatus;
-    private Client assignedClient;
-    private String assignedBuilder;
-    private String assignedProjectManager;
+    private static final AtomicReferenceFieldUpdater<Project, ProjectSnapshot> STATE =
+            AtomicReferenceFieldUpdater.newUpdater(Project.class, ProjectSnapshot.class, "state");
+
+    /** Twice the version, plus one while an update holds the project */
+    private volatile long stamp;
+
+    private static final AtomicLongFieldUpdater<Project> STAMP = AtomicLongFieldUpdater.newUpdater(Project.class, "stamp");
 
     /**
      * Constructs a new Project with the specified details.
      * <p>
-     * The project ID is automatically assigned by incrementing the last generated ID.
+     * The project ID is automatically assigned from the project {@link IdSequence}.
      * </p>
      *
      * @param projectName            the name of the project
@@ -40,15 +57,54 @@ public class Project {
      * @param assignedProjectManager the project manager assigned to the project
      */
     public Project(String projectName, String projectDescription, LocalDate projectStartDate, LocalDate projectEndDate, ProjectStatus projectStatus, Client assignedClient, String assignedBuilder, String assignedProjectManager) {
-        projectId = ++lastProjectId; // auto-increment project ID
-        this.projectName = projectName;
-        this.projectDescription = projectDescription;
-        this.projectStartDate = projectStartDate;
-        this.projectEndDate = projectEndDate;
-        this.projectStatus = projectStatus;
-        this.assignedClient = assignedClient;
-        this.assignedBuilder = assignedBuilder;
-        this.assignedProjectManager = assignedProjectManager;
+        state = new ProjectSnapshot(projectIds.next(), // auto-increment project ID
+                projectName, projectDescription, projectStartDate, projectEndDate, projectStatus,
+                assignedClient, assignedBuilder, assignedProjectManager);
+    }
+
+    /**
+     * Constructs a Project with a known ID, typically when restoring persisted data.
+     * <p>
+     * The project ID sequence is advanced past the given ID so that projects created
+     * afterwards never reuse it.
+     * </p>
+     *
+     * @param projectId              the persisted ID of the project
+     * @param projectName            the name of the project
+     * @param projectDescription     the description of the project
+     * @param projectStartDate       the start date of the project
+     * @param projectEndDate         the end date of the project
+     * @param projectStatus          the current status of the project
+     * @param assignedClient         the client associated with the project
+     * @param assignedBuilder        the builder assigned to the project
+     * @param assignedProjectManager the project manager assigned to the project
+     */
+    public Project(long projectId, String projectName, String projectDescription, LocalDate projectStartDate, LocalDate projectEndDate, ProjectStatus projectStatus, Client assignedClient, String assignedBuilder, String assignedProjectManager) {
+        this(new ProjectSnapshot(projectId, projectName, projectDescription, projectStartDate, projectEndDate,
+                projectStatus, assignedClient, assignedBuilder, assignedProjectManager));
+    }
+
+    /**
+     * Constructs a Project holding the given snapshot, typically when restoring persisted data
+     * or preparing a change to be published with {@link #replaceState(ProjectSnapshot)}.
+     * <p>
+     * The project ID sequence is advanced past the snapshot's ID.
+     * </p>
+     *
+     * @param snapshot the field values of the project
+     */
+    public Project(ProjectSnapshot snapshot) {
+        state = snapshot;
+        projectIds.advanceTo(snapshot.getProjectId());
+    }
+
+    /**
+     * Returns the sequence used to allocate project IDs.
+     *
+     * @return the project ID sequence
+     */
+    public static IdSequence idSequence() {
+        return projectIds;
     }
 
     /**
@@ -57,7 +113,7 @@ public class Project {
      * @return the project ID
      */
     public long getProjectId() {
-        return projectId;
+        return state.getProjectId();
     }
 
     /**
@@ -66,7 +122,7 @@ public class Project {
      * @return the project name
      */
     public String getProjectName() {
-        return projectName;
+        return state.getProjectName();
     }
 
     /**
@@ -75,7 +131,7 @@ public class Project {
      * @param projectName the new project name
      */
     public void setProjectName(String projectName) {
-        this.projectName = projectName;
+        STATE.getAndUpdate(this, current -> current.withProjectName(projectName));
     }
 
     /**
@@ -84,7 +140,7 @@ public class Project {
      * @return the project description
      */
     public String getProjectDescription() {
-        return projectDescription;
+        return state.getProjectDescription();
     }
 
     /**
@@ -93,7 +149,7 @@ public class Project {
      * @param projectDescription the new project description
      */
     public void setProjectDescription(String projectDescription) {
-        this.projectDescription = projectDescription;
+        STATE.getAndUpdate(this, current -> current.withProjectDescription(projectDescription));
     }
 
     /**
@@ -102,7 +158,7 @@ public class Project {
      * @return the project start date
      */
     public LocalDate getProjectStartDate() {
-        return projectStartDate;
+        return state.getProjectStartDate();
     }
 
     /**
@@ -111,7 +167,7 @@ public class Project {
      * @param projectStartDate the new start date
      */
     public void setProjectStartDate(LocalDate projectStartDate) {
-        this.projectStartDate = projectStartDate;
+        STATE.getAndUpdate(this, current -> current.withProjectStartDate(projectStartDate));
     }
 
     /**
@@ -120,7 +176,7 @@ public class Project {
      * @return the project end date
      */
     public LocalDate getProjectEndDate() {
-        return projectEndDate;
+        return state.getProjectEndDate();
     }
 
     /**
@@ -129,7 +185,7 @@ public class Project {
      * @param projectEndDate the new end date
      */
     public void setProjectEndDate(LocalDate projectEndDate) {
-        this.projectEndDate = projectEndDate;
+        STATE.getAndUpdate(this, current -> current.withProjectEndDate(projectEndDate));
     }
 
     /**
@@ -138,7 +194,7 @@ public class Project {
      * @return the project status
      */
     public ProjectStatus getProjectStatus() {
-        return projectStatus;
+        return state.getProjectStatus();
     }
 
     /**
@@ -147,7 +203,7 @@ public class Project {
      * @param projectStatus the new project status
      */
     public void setProjectStatus(ProjectStatus projectStatus) {
-        this.projectStatus = projectStatus;
+        STATE.getAndUpdate(this, current -> current.withProjectStatus(projectStatus));
     }
 
     /**
@@ -156,7 +212,7 @@ public class Project {
      * @return the assigned client
      */
     public Client getAssignedClient() {
-        return assignedClient;
+        return state.getAssignedClient();
     }
 
     /**
@@ -165,7 +221,7 @@ public class Project {
      * @param assignedClient the new client
      */
     public void setAssignedClient(Client assignedClient) {
-        this.assignedClient = assignedClient;
+        STATE.getAndUpdate(this, current -> current.withAssignedClient(assignedClient));
     }
 
     /**
@@ -174,7 +230,7 @@ public class Project {
      * @return the assigned builder
      */
     public String getAssignedBuilder() {
-        return assignedBuilder;
+        return state.getAssignedBuilder();
     }
 
     /**
@@ -183,7 +239,7 @@ public class Project {
      * @param assignedBuilder the new builder
      */
     public void setAssignedBuilder(String assignedBuilder) {
-        this.assignedBuilder = assignedBuilder;
+        STATE.getAndUpdate(this, current -> current.withAssignedBuilder(assignedBuilder));
     }
 
     /**
@@ -192,7 +248,7 @@ public class Project {
      * @return the assigned project manager
      */
     public String getAssignedProjectManager() {
-        return assignedProjectManager;
+        return state.getAssignedProjectManager();
     }
 
     /**
@@ -201,7 +257,71 @@ public class Project {
      * @param assignedProjectManager the new project manager
      */
     public void setAssignedProjectManager(String assignedProjectManager) {
-        this.assignedProjectManager = assignedProjectManager;
+        STATE.getAndUpdate(this, current -> current.withAssignedProjectManager(assignedProjectManager));
+    }
+
+    /**
+     * Returns all fields of the project as one consistent, immutable snapshot.
+     *
+     * @return the current snapshot
+     */
+    public ProjectSnapshot snapshot() {
+        return state;
+    }
+
+    /**
+     * Replaces all fields of the project at once, so readers see either the old or the
+     * new values and never a mix of both.
+     *
+     * @param snapshot the new field values
+     * @throws IllegalArgumentException if the snapshot belongs to a different project
+     */
+    public void replaceState(ProjectSnapshot snapshot) {
+        if (snapshot.getProjectId() != state.getProjectId()) {
+            throw new IllegalArgumentException("Snapshot of project " + snapshot.getProjectId() + " cannot replace project " + state.getProjectId());
+        }
+        state = snapshot;
+    }
+
+    /**
+     * Returns the number of committed updates to the project.
+     * <p>
+     * While an update is in progress this still returns the version it started from.
+     * </p>
+     *
+     * @return the current version
+     */
+    public long getVersion() {
+        return stamp >>> 1;
+    }
+
+    /**
+     * Claims the project for an update if it is still at the expected version and no other
+     * update holds it. Every successful claim must be followed by {@link #endUpdate(boolean)}.
+     *
+     * @param expectedVersion the version the caller read
+     * @return true if the claim succeeded
+     */
+    public boolean tryBeginUpdate(long expectedVersion) {
+        return STAMP.compareAndSet(this, expectedVersion << 1, (expectedVersion << 1) | 1);
+    }
+
+    /**
+     * Releases a claim taken with {@link #tryBeginUpdate(long)}.
+     *
+     * @param committed true to advance the version, false to leave it unchanged
+     */
+    public void endUpdate(boolean committed) {
+        stamp = committed ? stamp + 1 : stamp - 1; // only the claim holder writes an odd stamp
+    }
+
+    /**
+     * Sets the version of a project rebuilt from stored data.
+     *
+     * @param version the stored version
+     */
+    public void restoreVersion(long version) {
+        stamp = version << 1;
     }
 
     /**
@@ -212,17 +332,6 @@ public class Project {
      */
     @Override
     public String toString() {
-        return "Project{" +
-                "projectId=" + projectId +
-                ", projectName='" + projectName + '\'' +
-                ", projectDescription='" + projectDescription + '\'' +
-                ", projectStartDate=" + projectStartDate +
-                ", projectEndDate=" + projectEndDate +
-                ", projectStatus=" + projectStatus +
-                ", assignedClient=" + assignedClient +
-                ", assignedBuilder=" + assignedBuilder +
-                ", assignedProjectManager=" + assignedProjectManager +
-                '}';
+        return state.toString();
     }
 }
-
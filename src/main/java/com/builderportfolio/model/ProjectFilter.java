@@ -0,0 +1,110 @@
+package com.builderportfolio.model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable selection of projects by status, start date and builder, used by bulk updates.
+ * <p>
+ * {@link #any()} matches every project; each {@code with...} method returns a copy that
+ * additionally requires one condition. The builder is resolved to its surrogate key when
+ * the condition is added, so matching compares ints only.
+ * </p>
+ */
+public final class ProjectFilter {
+
+    private static final ProjectFilter ANY = new ProjectFilter(null, null, null, null, UserKeys.NO_USER);
+
+    private final ProjectStatus status;
+    private final LocalDate startFrom;
+    private final LocalDate startTo;
+    private final String builderId;
+    private final int builderKey;
+
+    private ProjectFilter(ProjectStatus status, LocalDate startFrom, LocalDate startTo, String builderId, int builderKey) {
+        this.status = status;
+        this.startFrom = startFrom;
+        this.startTo = startTo;
+        this.builderId = builderId;
+        this.builderKey = builderKey;
+    }
+
+    /**
+     * Returns the filter matching every project.
+     *
+     * @return the empty filter
+     */
+    public static ProjectFilter any() {
+        return ANY;
+    }
+
+    /**
+     * Returns a copy that also requires the given status.
+     *
+     * @param status the required status
+     * @return the narrowed filter
+     * @throws NullPointerException if status is null
+     */
+    public ProjectFilter withStatus(ProjectStatus status) {
+        return new ProjectFilter(Objects.requireNonNull(status, "Status cannot be null"), startFrom, startTo, builderId, builderKey);
+    }
+
+    /**
+     * Returns a copy that also requires a start date within the given range; projects
+     * without a start date no longer match.
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return the narrowed filter
+     * @throws NullPointerException     if either date is null
+     * @throws IllegalArgumentException if from is after to
+     */
+    public ProjectFilter withStartBetween(LocalDate from, LocalDate to) {
+        Objects.requireNonNull(from, "From date cannot be null");
+        Objects.requireNonNull(to, "To date cannot be null");
+        if (from.isAfter(to)) throw new IllegalArgumentException("From date " + from + " is after to date " + to);
+        return new ProjectFilter(status, from, to, builderId, builderKey);
+    }
+
+    /**
+     * Returns a copy that also requires the given assigned builder.
+     *
+     * @param builderId the required builder's ID
+     * @return the narrowed filter; matches nothing if the builder has no projects
+     * @throws NullPointerException if builderId is null
+     */
+    public ProjectFilter withBuilder(String builderId) {
+        Objects.requireNonNull(builderId, "Builder ID cannot be null");
+        return new ProjectFilter(status, startFrom, startTo, builderId, UserKeys.lookup(builderId));
+    }
+
+    /**
+     * Gets the required status.
+     *
+     * @return the status, or null if any status matches
+     */
+    public ProjectStatus getStatus() {
+        return status;
+    }
+
+    /**
+     * Checks whether a project state satisfies every condition.
+     *
+     * @param project the project state to test
+     * @return true if it matches
+     */
+    public boolean matches(ProjectSnapshot project) {
+        if (status != null && project.getProjectStatus() != status) return false;
+        if (builderId != null && (builderKey == UserKeys.NO_USER || project.getBuilderKey() != builderKey)) return false;
+        if (startFrom != null) {
+            LocalDate start = project.getProjectStartDate();
+            if (start == null || start.isBefore(startFrom) || start.isAfter(startTo)) return false;
+        }
+        return true;
+    }
+
+    @Override
+    public String toString() {
+        return "ProjectFilter{status=" + status + ", start=" + startFrom + ".." + startTo + ", builderId=" + builderId + "}";
+    }
+}
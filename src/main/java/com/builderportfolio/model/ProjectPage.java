@@ -0,0 +1,55 @@
+package com.builderportfolio.model;
+
+import java.util.Collections;
+import java.util.List;
+
+/**
+ * One page of projects returned by a cursor-based listing.
+ * <p>
+ * Pages are ordered by project ID. The next page is requested by passing
+ * {@link #getNextCursor()} back as the cursor; it is null on the last page.
+ * </p>
+ */
+public class ProjectPage {
+
+    private final List<Project> projects;
+    private final Long nextCursor;
+
+    /**
+     * Constructs a page.
+     *
+     * @param projects   the projects on this page, in ascending ID order
+     * @param nextCursor the cursor of the following page, or null if this is the last page
+     */
+    public ProjectPage(List<Project> projects, Long nextCursor) {
+        this.projects = Collections.unmodifiableList(projects);
+        this.nextCursor = nextCursor;
+    }
+
+    /**
+     * Gets the projects on this page.
+     *
+     * @return a read-only list of projects
+     */
+    public List<Project> getProjects() {
+        return projects;
+    }
+
+    /**
+     * Gets the cursor to pass when requesting the following page.
+     *
+     * @return the ID of the last project considered, or null if there are no more pages
+     */
+    public Long getNextCursor() {
+        return nextCursor;
+    }
+
+    /**
+     * Checks whether another page follows this one.
+     *
+     * @return true if {@link #getNextCursor()} is not null
+     */
+    public boolean hasNext() {
+        return nextCursor != null;
+    }
+}
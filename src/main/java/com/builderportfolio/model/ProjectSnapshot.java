@@ -0,0 +1,337 @@
+package com.builderportfolio.model;
+
+import java.time.LocalDate;
+import java.util.Objects;
+
+/**
+ * Immutable view of all fields of a {@link Project} at one point in time.
+ * <p>
+ * Snapshots are stored compactly because one exists per project: dates are kept as
+ * epoch-day {@code int}s, the status as a {@code byte} ordinal, and the builder and
+ * manager as {@code int} keys into the shared {@link UserKeys} table, so the only
+ * per-project objects besides the snapshot itself are its name and description. The
+ * getters rebuild the usual types on demand.
+ * </p>
+ * <p>
+ * Keys are only looked up, never assigned: a snapshot naming a user ID that no
+ * {@link User} has registered keeps that ID as a string instead, so unvalidated input
+ * cannot grow the key table. Such a snapshot resolves its key again when asked, so it
+ * matches the user once they are registered.
+ * </p>
+ * <p>
+ * A {@link Project} publishes its fields as a single snapshot and replaces it as a whole
+ * on every change, so a reader holding a snapshot sees one consistent state however many
+ * fields are updated meanwhile, without taking a lock. Snapshots compare by value, which
+ * makes them safe keys for caches of derived data. Changes are made by deriving a new
+ * snapshot with one of the {@code with...} methods.
+ * </p>
+ */
+public final class ProjectSnapshot {
+
+    /** Stored day for a missing date */
+    private static final int NO_DATE = Integer.MIN_VALUE;
+
+    /** Stored ordinal for a missing status */
+    private static final byte NO_STATUS = -1;
+
+    private static final ProjectStatus[] STATUSES = ProjectStatus.values();
+
+    private final long projectId;
+    private final String projectName;
+    private final String projectDescription;
+    private final Client assignedClient;
+
+    /** Dates as epoch days, or {@link #NO_DATE} */
+    private final int startDay;
+    private final int endDay;
+
+    /** Builder and manager as {@link UserKeys} surrogate keys, or {@link UserKeys#NO_USER} */
+    private final int builderKey;
+    private final int managerKey;
+
+    /** Builder and manager IDs that had no key yet, otherwise null */
+    private final String unkeyedBuilder;
+    private final String unkeyedManager;
+
+    /** Status ordinal, or {@link #NO_STATUS} */
+    private final byte status;
+
+    /**
+     * Constructs a snapshot holding the given field values.
+     *
+     * @param projectId              the ID of the project
+     * @param projectName            the name of the project
+     * @param projectDescription     the description of the project
+     * @param projectStartDate       the start date of the project
+     * @param projectEndDate         the end date of the project
+     * @param projectStatus          the current status of the project
+     * @param assignedClient         the client associated with the project
+     * @param assignedBuilder        the builder assigned to the project
+     * @param assignedProjectManager the project manager assigned to the project
+     * @throws IllegalArgumentException if a date is too far from 1970 to be stored as an int day
+     */
+    public ProjectSnapshot(long projectId, String projectName, String projectDescription, LocalDate projectStartDate, LocalDate projectEndDate, ProjectStatus projectStatus, Client assignedClient, String assignedBuilder, String assignedProjectManager) {
+        this(projectId, projectName, projectDescription, assignedClient, day(projectStartDate), day(projectEndDate),
+                UserKeys.lookup(assignedBuilder), assignedBuilder, UserKeys.lookup(assignedProjectManager), assignedProjectManager,
+                projectStatus == null ? NO_STATUS : (byte) projectStatus.ordinal());
+    }
+
+    private ProjectSnapshot(long projectId, String projectName, String projectDescription, Client assignedClient, int startDay, int endDay,
+                            int builderKey, String builderId, int managerKey, String managerId, byte status) {
+        this.projectId = projectId;
+        this.projectName = projectName;
+        this.projectDescription = projectDescription;
+        this.assignedClient = assignedClient;
+        this.startDay = startDay;
+        this.endDay = endDay;
+        this.builderKey = builderKey;
+        this.managerKey = managerKey;
+        this.unkeyedBuilder = builderKey == UserKeys.NO_USER ? builderId : null;
+        this.unkeyedManager = managerKey == UserKeys.NO_USER ? managerId : null;
+        this.status = status;
+    }
+
+    /**
+     * Returns the ID of the project.
+     *
+     * @return the project ID
+     */
+    public long getProjectId() {
+        return projectId;
+    }
+
+    /**
+     * Returns the name of the project.
+     *
+     * @return the project name
+     */
+    public String getProjectName() {
+        return projectName;
+    }
+
+    /**
+     * Returns the description of the project.
+     *
+     * @return the project description
+     */
+    public String getProjectDescription() {
+        return projectDescription;
+    }
+
+    /**
+     * Returns the start date of the project.
+     *
+     * @return the project start date
+     */
+    public LocalDate getProjectStartDate() {
+        return date(startDay);
+    }
+
+    /**
+     * Returns the end date of the project.
+     *
+     * @return the project end date
+     */
+    public LocalDate getProjectEndDate() {
+        return date(endDay);
+    }
+
+    /**
+     * Returns the status of the project.
+     *
+     * @return the project status
+     */
+    public ProjectStatus getProjectStatus() {
+        return status == NO_STATUS ? null : STATUSES[status];
+    }
+
+    /**
+     * Returns the client assigned to the project.
+     *
+     * @return the assigned client
+     */
+    public Client getAssignedClient() {
+        return assignedClient;
+    }
+
+    /**
+     * Returns the builder assigned to the project.
+     *
+     * @return the assigned builder
+     */
+    public String getAssignedBuilder() {
+        return builderKey == UserKeys.NO_USER ? unkeyedBuilder : UserKeys.userIdOf(builderKey);
+    }
+
+    /**
+     * Returns the project manager assigned to the project.
+     *
+     * @return the assigned project manager
+     */
+    public String getAssignedProjectManager() {
+        return managerKey == UserKeys.NO_USER ? unkeyedManager : UserKeys.userIdOf(managerKey);
+    }
+
+    /**
+     * Returns the {@link UserKeys} key of the builder assigned to the project.
+     *
+     * @return the builder's key, or {@link UserKeys#NO_USER} if there is none or it is not registered
+     */
+    public int getBuilderKey() {
+        return unkeyedBuilder == null ? builderKey : UserKeys.lookup(unkeyedBuilder);
+    }
+
+    /**
+     * Returns the {@link UserKeys} key of the project manager assigned to the project.
+     *
+     * @return the manager's key, or {@link UserKeys#NO_USER} if there is none or it is not registered
+     */
+    public int getManagerKey() {
+        return unkeyedManager == null ? managerKey : UserKeys.lookup(unkeyedManager);
+    }
+
+    /**
+     * Returns a copy of this snapshot with a different name.
+     *
+     * @param projectName the new value
+     * @return the new snapshot
+     */
+    public ProjectSnapshot withProjectName(String projectName) {
+        return new ProjectSnapshot(projectId, projectName, projectDescription, assignedClient, startDay, endDay, builderKey, unkeyedBuilder, managerKey, unkeyedManager, status);
+    }
+
+    /**
+     * Returns a copy of this snapshot with a different description.
+     *
+     * @param projectDescription the new value
+     * @return the new snapshot
+     */
+    public ProjectSnapshot withProjectDescription(String projectDescription) {
+        return new ProjectSnapshot(projectId, projectName, projectDescription, assignedClient, startDay, endDay, builderKey, unkeyedBuilder, managerKey, unkeyedManager, status);
+    }
+
+    /**
+     * Returns a copy of this snapshot with a different start date.
+     *
+     * @param projectStartDate the new value
+     * @return the new snapshot
+     */
+    public ProjectSnapshot withProjectStartDate(LocalDate projectStartDate) {
+        return new ProjectSnapshot(projectId, projectName, projectDescription, assignedClient, day(projectStartDate), endDay, builderKey, unkeyedBuilder, managerKey, unkeyedManager, status);
+    }
+
+    /**
+     * Returns a copy of this snapshot with a different end date.
+     *
+     * @param projectEndDate the new value
+     * @return the new snapshot
+     */
+    public ProjectSnapshot withProjectEndDate(LocalDate projectEndDate) {
+        return new ProjectSnapshot(projectId, projectName, projectDescription, assignedClient, startDay, day(projectEndDate), builderKey, unkeyedBuilder, managerKey, unkeyedManager, status);
+    }
+
+    /**
+     * Returns a copy of this snapshot with a different status.
+     *
+     * @param projectStatus the new value
+     * @return the new snapshot
+     */
+    public ProjectSnapshot withProjectStatus(ProjectStatus projectStatus) {
+        return new ProjectSnapshot(projectId, projectName, projectDescription, assignedClient, startDay, endDay, builderKey, unkeyedBuilder, managerKey, unkeyedManager,
+                projectStatus == null ? NO_STATUS : (byte) projectStatus.ordinal());
+    }
+
+    /**
+     * Returns a copy of this snapshot with a different client.
+     *
+     * @param assignedClient the new value
+     * @return the new snapshot
+     */
+    public ProjectSnapshot withAssignedClient(Client assignedClient) {
+        return new ProjectSnapshot(projectId, projectName, projectDescription, assignedClient, startDay, endDay, builderKey, unkeyedBuilder, managerKey, unkeyedManager, status);
+    }
+
+    /**
+     * Returns a copy of this snapshot with a different builder.
+     *
+     * @param assignedBuilder the new value
+     * @return the new snapshot
+     */
+    public ProjectSnapshot withAssignedBuilder(String assignedBuilder) {
+        return new ProjectSnapshot(projectId, projectName, projectDescription, assignedClient, startDay, endDay,
+                UserKeys.lookup(assignedBuilder), assignedBuilder, managerKey, unkeyedManager, status);
+    }
+
+    /**
+     * Returns a copy of this snapshot with a different project manager.
+     *
+     * @param assignedProjectManager the new value
+     * @return the new snapshot
+     */
+    public ProjectSnapshot withAssignedProjectManager(String assignedProjectManager) {
+        return new ProjectSnapshot(projectId, projectName, projectDescription, assignedClient, startDay, endDay,
+                builderKey, unkeyedBuilder, UserKeys.lookup(assignedProjectManager), assignedProjectManager, status);
+    }
+
+    @Override
+    public boolean equals(Object o) {
+        if (this == o) return true;
+        if (!(o instanceof ProjectSnapshot)) return false;
+        ProjectSnapshot other = (ProjectSnapshot) o;
+        return projectId == other.projectId
+                && startDay == other.startDay
+                && endDay == other.endDay
+                && Objects.equals(getAssignedBuilder(), other.getAssignedBuilder())
+                && Objects.equals(getAssignedProjectManager(), other.getAssignedProjectManager())
+                && status == other.status
+                && Objects.equals(projectName, other.projectName)
+                && Objects.equals(projectDescription, other.projectDescription)
+                && Objects.equals(assignedClient, other.assignedClient);
+    }
+
+    @Override
+    public int hashCode() {
+        int h = Long.hashCode(projectId);
+        h = 31 * h + Objects.hashCode(projectName);
+        h = 31 * h + Objects.hashCode(projectDescription);
+        h = 31 * h + Objects.hashCode(assignedClient);
+        h = 31 * h + startDay;
+        h = 31 * h + endDay;
+        h = 31 * h + Objects.hashCode(getAssignedBuilder());
+        h = 31 * h + Objects.hashCode(getAssignedProjectManager());
+        return 31 * h + status;
+    }
+
+    /**
+     * Returns a string representation in the same format as {@link Project#toString()}.
+     *
+     * @return string representation of the snapshot
+     */
+    @Override
+    public String toString() {
+        return "Project{" +
+                "projectId=" + projectId +
+                ", projectName='" + projectName + '\'' +
+                ", projectDescription='" + projectDescription + '\'' +
+                ", projectStartDate=" + getProjectStartDate() +
+                ", projectEndDate=" + getProjectEndDate() +
+                ", projectStatus=" + getProjectStatus() +
+                ", assignedClient=" + assignedClient +
+                ", assignedBuilder=" + getAssignedBuilder() +
+                ", assignedProjectManager=" + getAssignedProjectManager() +
+                '}';
+    }
+
+    private static int day(LocalDate date) {
+        if (date == null) return NO_DATE;
+        long day = date.toEpochDay();
+        if (day <= NO_DATE || day > Integer.MAX_VALUE) {
+            throw new IllegalArgumentException("Date " + date + " is outside the supported range");
+        }
+        return (int) day;
+    }
+
+    private static LocalDate date(int day) {
+        return day == NO_DATE ? null : LocalDate.ofEpochDay(day);
+    }
+}
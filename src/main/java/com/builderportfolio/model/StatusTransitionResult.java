@@ -0,0 +1,49 @@
+package com.builderportfolio.model;
+
+/**
+ * Outcome of a bulk status transition.
+ * <p>
+ * A project counts as matched if it belonged to the manager and satisfied the filter when
+ * examined. Matched projects that were already in the target status are not updated, and
+ * neither are those a concurrent change moved out of the filter before the transition.
+ * </p>
+ */
+public class StatusTransitionResult {
+
+    private final long matched;
+    private final long updated;
+
+    /**
+     * Constructs a result.
+     *
+     * @param matched the number of projects that matched the filter
+     * @param updated the number of projects whose status was changed
+     */
+    public StatusTransitionResult(long matched, long updated) {
+        this.matched = matched;
+        this.updated = updated;
+    }
+
+    /**
+     * Gets the number of projects that matched the filter.
+     *
+     * @return the matched count
+     */
+    public long getMatched() {
+        return matched;
+    }
+
+    /**
+     * Gets the number of projects whose status was changed.
+     *
+     * @return the updated count
+     */
+    public long getUpdated() {
+        return updated;
+    }
+
+    @Override
+    public String toString() {
+        return "StatusTransitionResult{matched=" + matched + ", updated=" + updated + "}";
+    }
+}
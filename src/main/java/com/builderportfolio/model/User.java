@@ -11,15 +11,19 @@ package com.builderportfolio.model;
  * </p>
  * <p>
  * The class stores user details such as name, email, phone number, experience, password, and selected role.
+ * Once stored, every user also has a dense {@code int} key from {@link UserKeys}, under which
+ * the DAOs store it and its role can be looked up without parsing the ID. The key is
+ * assigned when the user is stored, not when it is constructed, so a user that is rejected
+ * never takes up a key.
  * </p>
  */
 public class User {
 
-    /** Tracks the last assigned Project Manager ID for auto-increment purposes */
-    static long managerLastId = 0;
+    /** Allocates Project Manager IDs for auto-increment purposes */
+    private static final IdSequence managerIds = new IdSequence();
 
-    /** Tracks the last assigned Builder ID for auto-increment purposes */
-    static long builderLastId = 0;
+    /** Allocates Builder IDs for auto-increment purposes */
+    private static final IdSequence builderIds = new IdSequence();
 
     private String userId;
     private String userName;
@@ -53,13 +57,85 @@ public class User {
         // Auto-generate userId based on role
         if (selectedRole == 1) {
             String id = "M"; // Project Manager prefix
-            this.userId = id + (++managerLastId); // e.g., M1, M2
+            this.userId = id + managerIds.next(); // e.g., M1, M2
         } else {
             String id = "B"; // Builder prefix
-            this.userId = id + (++builderLastId); // e.g., B1, B2
+            this.userId = id + builderIds.next(); // e.g., B1, B2
         }
     }
 
+    /**
+     * Constructs a User with a known userId, typically when restoring persisted data.
+     * <p>
+     * If the userId follows the generated "M"/"B" format, the matching ID sequence is
+     * advanced past it so that users registered afterwards never reuse it.
+     * </p>
+     *
+     * @param userId         the persisted ID of the user
+     * @param userName       the name of the user
+     * @param userEmail      the email of the user
+     * @param userPhNumber   the phone number of the user
+     * @param userExperience the experience of the user in years
+     * @param password       the password for the user account
+     * @param selectedRole   the role of the user (1 = Manager, 2 = Builder)
+     */
+    public User(String userId, String userName, String userEmail, String userPhNumber, int userExperience, String password, int selectedRole) {
+        this.userId = userId;
+        this.userName = userName;
+        this.userEmail = userEmail;
+        this.userPhNumber = userPhNumber;
+        this.userExperience = userExperience;
+        this.password = password;
+        this.selectedRole = selectedRole;
+
+        long number = parseIdNumber(userId);
+        if (number > 0) {
+            (userId.charAt(0) == 'M' ? managerIds : builderIds).advanceTo(number);
+        }
+    }
+
+    /**
+     * Extracts the numeric part of a generated user ID such as "M12".
+     *
+     * @param userId the user ID to parse
+     * @return the numeric part, or -1 if the ID does not follow the generated format
+     */
+    static long parseIdNumber(String userId) {
+        if (userId == null || userId.length() < 2) return -1;
+        char prefix = userId.charAt(0);
+        if (prefix != 'M' && prefix != 'B') return -1;
+        try {
+            return Long.parseLong(userId.substring(1));
+        } catch (NumberFormatException e) {
+            return -1;
+        }
+    }
+
+    /**
+     * Maps a selected role number to its role, the same way IDs are generated.
+     */
+    private static Role roleOf(int selectedRole) {
+        return selectedRole == 1 ? Role.PROJECT_MANAGER : Role.BUILDER;
+    }
+
+    /**
+     * Returns the sequence used to allocate Project Manager IDs.
+     *
+     * @return the manager ID sequence
+     */
+    public static IdSequence managerIdSequence() {
+        return managerIds;
+    }
+
+    /**
+     * Returns the sequence used to allocate Builder IDs.
+     *
+     * @return the builder ID sequence
+     */
+    public static IdSequence builderIdSequence() {
+        return builderIds;
+    }
+
     /**
      * Returns the unique user ID.
      *
@@ -69,6 +145,24 @@ public class User {
         return userId;
     }
 
+    /**
+     * Returns the surrogate key of the user ID in {@link UserKeys}.
+     *
+     * @return the userKey, or {@link UserKeys#NO_USER} if the user has not been stored
+     */
+    public int getUserKey() {
+        return UserKeys.lookup(userId);
+    }
+
+    /**
+     * Returns the user's role.
+     *
+     * @return {@link Role#PROJECT_MANAGER} for selected role 1, otherwise {@link Role#BUILDER}
+     */
+    public Role getRole() {
+        return roleOf(selectedRole);
+    }
+
     /**
      * Returns the user's name.
      *
@@ -175,6 +269,9 @@ public class User {
      */
     public void setSelectedRole(int selectedRole) {
         this.selectedRole = selectedRole;
+        if (UserKeys.lookup(userId) != UserKeys.NO_USER) {
+            UserKeys.register(userId, roleOf(selectedRole)); // keep a stored user's recorded role current
+        }
     }
 
     /**
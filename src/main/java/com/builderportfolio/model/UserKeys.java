@@ -0,0 +1,146 @@
+package com.builderportfolio.model;
+
+import java.util.Arrays;
+import java.util.Map;
+import java.util.Objects;
+import java.util.concurrent.ConcurrentHashMap;
+
+/**
+ * Table of dense {@code int} surrogate keys for user IDs such as "B12" or "M3", with the
+ * role of each user.
+ * <p>
+ * Projects store their builder and manager as keys from this table instead of holding
+ * their own copies of the ID strings, so each user ID is kept in memory once however many
+ * projects refer to it, and the user DAOs keep their entries in arrays indexed by key.
+ * Keys are assigned on first use, starting at 0 with no gaps, are never reused, and stay
+ * valid for the life of the process; the table only grows with the number of distinct
+ * users. Lookups in both directions are lock-free; only assigning a new key is serialized.
+ * </p>
+ * <p>
+ * The role of a user is recorded when the user is stored in the user DAO, so it can be
+ * read by key instead of being derived from the ID's prefix.
+ * </p>
+ */
+public final class UserKeys {
+
+    /** Key used for a missing user ID */
+    public static final int NO_USER = -1;
+
+    private static final Map<String, Integer> keys = new ConcurrentHashMap<>();
+
+    private static final Role[] ROLES = Role.values();
+
+    /** Stored ordinal for an unknown role */
+    private static final byte NO_ROLE = -1;
+
+    /** User IDs by key; replaced with a larger copy when full */
+    private static volatile String[] userIds = new String[64];
+
+    /** Role ordinals by key, or {@link #NO_ROLE}; grown together with {@link #userIds} */
+    private static volatile byte[] roles = newRoles(64);
+
+    private static volatile int size;
+
+    private UserKeys() {
+    }
+
+    /**
+     * Returns the key of a user ID, assigning the next free key on first use.
+     *
+     * @param userId the user ID, may be null
+     * @return the key, or {@link #NO_USER} if userId is null
+     */
+    public static int keyOf(String userId) {
+        if (userId == null) return NO_USER;
+        Integer key = keys.get(userId);
+        return key != null ? key : assign(userId);
+    }
+
+    /**
+     * Returns the key of a user ID without assigning one.
+     *
+     * @param userId the user ID, may be null
+     * @return the key, or {@link #NO_USER} if userId is null or has no key yet
+     */
+    public static int lookup(String userId) {
+        if (userId == null) return NO_USER;
+        Integer key = keys.get(userId);
+        return key != null ? key : NO_USER;
+    }
+
+    /**
+     * Returns the key of a user ID, assigning one if needed, and records the user's role.
+     *
+     * @param userId the user ID, may be null
+     * @param role   the role of the user
+     * @return the key of the user ID, or {@link #NO_USER} if userId is null
+     * @throws NullPointerException if role is null
+     */
+    public static int register(String userId, Role role) {
+        Objects.requireNonNull(role, "Role cannot be null");
+        if (userId == null) return NO_USER;
+        int key = keyOf(userId);
+        synchronized (UserKeys.class) {
+            byte[] table = roles;
+            table[key] = (byte) role.ordinal();
+            roles = table; // publish the role
+        }
+        return key;
+    }
+
+    /**
+     * Returns the role recorded for a key.
+     *
+     * @param key a key returned by {@link #keyOf(String)}
+     * @return the role, or null for {@link #NO_USER} or a key whose role was never recorded
+     */
+    public static Role roleOf(int key) {
+        if (key < 0 || key >= size) return null;
+        byte role = roles[key];
+        return role == NO_ROLE ? null : ROLES[role];
+    }
+
+    /**
+     * Returns the number of keys assigned so far; every key is below this bound.
+     *
+     * @return the number of keys
+     */
+    public static int size() {
+        return size;
+    }
+
+    /**
+     * Returns the user ID a key was assigned to.
+     *
+     * @param key a key returned by {@link #keyOf(String)}
+     * @return the user ID, or null for {@link #NO_USER}
+     */
+    public static String userIdOf(int key) {
+        return key == NO_USER ? null : userIds[key];
+    }
+
+    private static synchronized int assign(String userId) {
+        Integer existing = keys.get(userId);
+        if (existing != null) return existing;
+
+        String[] table = userIds;
+        if (size == table.length) {
+            table = Arrays.copyOf(table, size * 2);
+            byte[] grown = newRoles(table.length);
+            System.arraycopy(roles, 0, grown, 0, size);
+            roles = grown;
+        }
+        int key = size;
+        table[key] = userId;
+        userIds = table;        // publish the slot before the key can be looked up
+        size = key + 1;
+        keys.put(userId, key);
+        return key;
+    }
+
+    private static byte[] newRoles(int length) {
+        byte[] table = new byte[length];
+        Arrays.fill(table, NO_ROLE);
+        return table;
+    }
+}
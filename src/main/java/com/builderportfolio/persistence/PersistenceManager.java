@@ -0,0 +1,178 @@
+package com.builderportfolio.persistence;
+
+import com.builderportfolio.dao.Journals;
+
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Logger;
+
+/**
+ * Makes the in-memory DAOs durable by recovering them from disk at startup and
+ * journaling every later mutation to a {@link WriteAheadLog}.
+ * <p>
+ * Recovery loads the newest {@link Snapshot}, decoding its sections in parallel, and then
+ * replays only the log segments written after it. While running, a background thread
+ * periodically writes a new snapshot and deletes the segments it covers, so startup time
+ * does not grow with the length of the history.
+ * </p>
+ * <p>
+ * Typical usage is to call {@link #open(Path)} once before any DAO is used and
+ * {@link #close()} on shutdown.
+ * </p>
+ */
+public final class PersistenceManager implements Closeable {
+
+    private static final Logger logger = Logger.getLogger(PersistenceManager.class.getName());
+
+    /** Default number of records that triggers an immediate group commit */
+    public static final int DEFAULT_GROUP_COMMIT_SIZE = 64;
+
+    /** Default longest time a record waits for its group commit */
+    public static final long DEFAULT_GROUP_COMMIT_MILLIS = 5;
+
+    /** Default time between two background snapshots */
+    public static final long DEFAULT_SNAPSHOT_INTERVAL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final Path directory;
+    private final WriteAheadLog wal;
+    private final ScheduledExecutorService snapshotter;
+
+    private PersistenceManager(Path directory, WriteAheadLog wal, long snapshotIntervalMillis) {
+        this.directory = directory;
+        this.wal = wal;
+        if (snapshotIntervalMillis > 0) {
+            snapshotter = Executors.newSingleThreadScheduledExecutor(task -> {
+                Thread thread = new Thread(task, "snapshot-writer");
+                thread.setDaemon(true);
+                return thread;
+            });
+            snapshotter.scheduleWithFixedDelay(this::scheduledSnapshot,
+                    snapshotIntervalMillis, snapshotIntervalMillis, TimeUnit.MILLISECONDS);
+        } else {
+            snapshotter = null;
+        }
+    }
+
+    /**
+     * Recovers the DAOs from the given directory using the default group commit and
+     * snapshot settings and starts journaling new mutations.
+     *
+     * @param directory the data directory
+     * @return the running persistence manager
+     * @throws IOException if recovery or opening the log fails
+     */
+    public static PersistenceManager open(Path directory) throws IOException {
+        return open(directory, DEFAULT_GROUP_COMMIT_SIZE, DEFAULT_GROUP_COMMIT_MILLIS, true);
+    }
+
+    /**
+     * Recovers the DAOs from the given directory and starts journaling new mutations,
+     * taking snapshots at the default interval.
+     *
+     * @param directory         the data directory
+     * @param groupCommitSize   number of records that triggers an immediate fsync
+     * @param groupCommitMillis longest time a record waits before its batch is fsynced
+     * @param waitForSync       whether mutations block until their record is durable
+     * @return the running persistence manager
+     * @throws IOException if recovery or opening the log fails
+     */
+    public static PersistenceManager open(Path directory, int groupCommitSize, long groupCommitMillis, boolean waitForSync) throws IOException {
+        return open(directory, groupCommitSize, groupCommitMillis, waitForSync, DEFAULT_SNAPSHOT_INTERVAL_MILLIS);
+    }
+
+    /**
+     * Recovers the DAOs from the given directory and starts journaling new mutations.
+     *
+     * @param directory              the data directory
+     * @param groupCommitSize        number of records that triggers an immediate fsync
+     * @param groupCommitMillis      longest time a record waits before its batch is fsynced
+     * @param waitForSync            whether mutations block until their record is durable
+     * @param snapshotIntervalMillis time between background snapshots; 0 disables them
+     * @return the running persistence manager
+     * @throws IOException if recovery or opening the log fails
+     */
+    public static PersistenceManager open(Path directory, int groupCommitSize, long groupCommitMillis,
+                                          boolean waitForSync, long snapshotIntervalMillis) throws IOException {
+        if (snapshotIntervalMillis < 0) throw new IllegalArgumentException("Snapshot interval cannot be negative");
+        Journals.uninstall(); // replayed mutations must not be journaled again
+
+        long start = System.nanoTime();
+        Snapshot.Restored snapshot = Snapshot.restoreLatest(directory, Runtime.getRuntime().availableProcessors());
+        if (snapshot.found()) {
+            logger.info("Restored " + snapshot.records() + " snapshot records in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        }
+
+        start = System.nanoTime();
+        long records = WriteAheadLog.replay(directory, snapshot.walSegment(), snapshot.found(), snapshot.clients());
+        logger.info("Replayed " + records + " WAL records in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+
+        WriteAheadLog wal = new WriteAheadLog(directory, groupCommitSize, groupCommitMillis, waitForSync);
+        Journals.install(wal);
+        return new PersistenceManager(directory, wal, snapshotIntervalMillis);
+    }
+
+    /**
+     * Returns the write-ahead log receiving DAO mutations.
+     *
+     * @return the active log
+     */
+    public WriteAheadLog writeAheadLog() {
+        return wal;
+    }
+
+    /**
+     * Writes a snapshot of the current DAO contents and deletes the older snapshots and
+     * log segments it makes redundant.
+     * <p>
+     * Writers are only paused while the log moves on to a new segment, so that every change
+     * journaled in an earlier segment is already applied and captured by the snapshot; every
+     * change made while the snapshot is being written is recorded in the new segment.
+     * </p>
+     *
+     * @return the first log segment not covered by the new snapshot
+     * @throws IOException if the snapshot cannot be written
+     */
+    public synchronized long snapshot() throws IOException {
+        long walSegment;
+        Journals.pause(); // records are journaled before they are applied; let those in flight land
+        try {
+            walSegment = wal.rotate();
+        } finally {
+            Journals.resume();
+        }
+        long start = System.nanoTime();
+        Snapshot.write(directory, walSegment);
+        Snapshot.deleteObsolete(directory, walSegment);
+        logger.info("Wrote snapshot " + walSegment + " in " + (System.nanoTime() - start) / 1_000_000 + " ms");
+        return walSegment;
+    }
+
+    private void scheduledSnapshot() {
+        try {
+            snapshot();
+        } catch (IOException | RuntimeException e) {
+            logger.warning("Background snapshot failed: " + e.getMessage()); // the log still holds every change
+        }
+    }
+
+    /**
+     * Stops background snapshots and journaling and flushes the log.
+     */
+    @Override
+    public void close() {
+        if (snapshotter != null) {
+            snapshotter.shutdown();
+            try {
+                snapshotter.awaitTermination(1, TimeUnit.MINUTES); // let a running snapshot finish
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }
+        Journals.uninstall();
+        wal.close();
+    }
+}
@@ -0,0 +1,250 @@
+package com.builderportfolio.persistence;
+
+// Binary encoding of model objects shared by the write-ahead log and snapshots
+
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectSnapshot;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.User;
+
+import java.io.DataInput;
+import java.io.DataOutput;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.time.LocalDate;
+import java.util.Map;
+
+/**
+ * Encodes and decodes model objects in a compact binary form.
+ * <p>
+ * Nullable strings are written as a presence flag followed by length-prefixed UTF-8, dates
+ * as epoch days and enums as ordinals, so every field of the model round-trips exactly,
+ * including {@code null} values. Unlike {@link DataOutput#writeUTF(String)}, strings have
+ * no 64 KB limit, so encoding a value the DAOs accepted can never fail.
+ * </p>
+ */
+final class RecordCodec {
+
+    /** Marker written in place of a missing date */
+    private static final long NO_DATE = Long.MIN_VALUE;
+
+    private RecordCodec() {
+    }
+
+    /**
+     * Writes every field of a user.
+     *
+     * @param out  the destination
+     * @param user the user to encode
+     * @throws IOException if writing fails
+     */
+    static void writeUser(DataOutput out, User user) throws IOException {
+        writeString(out, user.getUserId());
+        writeString(out, user.getUserName());
+        writeString(out, user.getUserEmail());
+        writeString(out, user.getUserPhNumber());
+        out.writeInt(user.getUserExperience());
+        writeString(out, user.getPassword());
+        out.writeInt(user.getSelectedRole());
+    }
+
+    /**
+     * Reads a user written by {@link #writeUser(DataOutput, User)}.
+     *
+     * @param in the source
+     * @return the decoded user, keeping its original userId
+     * @throws IOException if reading fails
+     */
+    static User readUser(DataInput in) throws IOException {
+        String userId = readString(in);
+        String userName = readString(in);
+        String userEmail = readString(in);
+        String userPhNumber = readString(in);
+        int userExperience = in.readInt();
+        String password = readString(in);
+        int selectedRole = in.readInt();
+        return new User(userId, userName, userEmail, userPhNumber, userExperience, password, selectedRole);
+    }
+
+    /**
+     * Writes every field of a project, including its client.
+     *
+     * @param out     the destination
+     * @param project the project to encode
+     * @throws IOException if writing fails
+     */
+    static void writeProject(DataOutput out, Project project) throws IOException {
+        writeProject(out, project.snapshot(), false); // one consistent state even while the project changes
+    }
+
+    /**
+     * Writes every field of a project, referring to its client by ID only.
+     * <p>
+     * Used by snapshots, which store each client once in a separate section.
+     * </p>
+     *
+     * @param out     the destination
+     * @param project the project state to encode
+     * @throws IOException if writing fails
+     */
+    static void writeProjectClientRef(DataOutput out, ProjectSnapshot project) throws IOException {
+        writeProject(out, project, true);
+    }
+
+    private static void writeProject(DataOutput out, ProjectSnapshot project, boolean clientRef) throws IOException {
+        out.writeLong(project.getProjectId());
+        writeString(out, project.getProjectName());
+        writeString(out, project.getProjectDescription());
+        writeDate(out, project.getProjectStartDate());
+        writeDate(out, project.getProjectEndDate());
+        ProjectStatus status = project.getProjectStatus();
+        out.writeByte(status == null ? -1 : status.ordinal());
+        Client client = project.getAssignedClient();
+        if (clientRef) {
+            out.writeBoolean(client != null);
+            if (client != null) out.writeLong(client.getClientId());
+        } else {
+            writeClient(out, client);
+        }
+        writeString(out, project.getAssignedBuilder());
+        writeString(out, project.getAssignedProjectManager());
+    }
+
+    /**
+     * Reads a project written by {@link #writeProject(DataOutput, Project)}.
+     *
+     * @param in the source
+     * @return the decoded project, keeping its original project ID
+     * @throws IOException if reading fails
+     */
+    static Project readProject(DataInput in) throws IOException {
+        return readProject(in, null);
+    }
+
+    /**
+     * Reads a project written by {@link #writeProjectClientRef(DataOutput, ProjectSnapshot)}.
+     *
+     * @param in      the source
+     * @param clients the already decoded clients, by client ID
+     * @return the decoded project, keeping its original project ID
+     * @throws IOException if reading fails or the referenced client is unknown
+     */
+    static Project readProjectClientRef(DataInput in, Map<Long, Client> clients) throws IOException {
+        return readProject(in, clients);
+    }
+
+    private static Project readProject(DataInput in, Map<Long, Client> clients) throws IOException {
+        long projectId = in.readLong();
+        String projectName = readString(in);
+        String projectDescription = readString(in);
+        LocalDate startDate = readDate(in);
+        LocalDate endDate = readDate(in);
+        byte statusOrdinal = in.readByte();
+        ProjectStatus status = statusOrdinal < 0 ? null : ProjectStatus.values()[statusOrdinal];
+        Client client;
+        if (clients == null) {
+            client = readClient(in);
+        } else if (in.readBoolean()) {
+            long clientId = in.readLong();
+            client = clients.get(clientId);
+            if (client == null) throw new IOException("Project " + projectId + " refers to unknown client " + clientId);
+        } else {
+            client = null;
+        }
+        String builderId = readString(in);
+        String managerId = readString(in);
+        return new Project(projectId, projectName, projectDescription, startDate, endDate, status, client, builderId, managerId);
+    }
+
+    /**
+     * Writes a nullable client.
+     *
+     * @param out    the destination
+     * @param client the client to encode, may be null
+     * @throws IOException if writing fails
+     */
+    static void writeClient(DataOutput out, Client client) throws IOException {
+        out.writeBoolean(client != null);
+        if (client == null) return;
+        out.writeLong(client.getClientId());
+        writeString(out, client.getClientName());
+        writeString(out, client.getClientEmail());
+        writeString(out, client.getClientPhNumber());
+    }
+
+    /**
+     * Reads a client written by {@link #writeClient(DataOutput, Client)}.
+     *
+     * @param in the source
+     * @return the decoded client, or null if none was written
+     * @throws IOException if reading fails
+     */
+    static Client readClient(DataInput in) throws IOException {
+        if (!in.readBoolean()) return null;
+        long clientId = in.readLong();
+        return new Client(clientId, readString(in), readString(in), readString(in));
+    }
+
+    /**
+     * Writes a nullable string.
+     *
+     * @param out   the destination
+     * @param value the string to write, may be null
+     * @throws IOException if writing fails
+     */
+    static void writeString(DataOutput out, String value) throws IOException {
+        out.writeBoolean(value != null);
+        if (value != null) {
+            writeUtf8(out, value);
+        }
+    }
+
+    /**
+     * Reads a string written by {@link #writeString(DataOutput, String)}.
+     *
+     * @param in the source
+     * @return the decoded string, may be null
+     * @throws IOException if reading fails
+     */
+    static String readString(DataInput in) throws IOException {
+        return in.readBoolean() ? readUtf8(in) : null;
+    }
+
+    /**
+     * Writes a non-null string as its UTF-8 byte length followed by the bytes.
+     *
+     * @param out   the destination
+     * @param value the string to write
+     * @throws IOException if writing fails
+     */
+    static void writeUtf8(DataOutput out, String value) throws IOException {
+        byte[] bytes = value.getBytes(StandardCharsets.UTF_8);
+        out.writeInt(bytes.length);
+        out.write(bytes);
+    }
+
+    /**
+     * Reads a string written by {@link #writeUtf8(DataOutput, String)}.
+     *
+     * @param in the source
+     * @return the decoded string
+     * @throws IOException if reading fails or the length is corrupt
+     */
+    static String readUtf8(DataInput in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) throw new IOException("Corrupt string length " + length);
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+
+    private static void writeDate(DataOutput out, LocalDate date) throws IOException {
+        out.writeLong(date == null ? NO_DATE : date.toEpochDay());
+    }
+
+    private static LocalDate readDate(DataInput in) throws IOException {
+        long epochDay = in.readLong();
+        return epochDay == NO_DATE ? null : LocalDate.ofEpochDay(epochDay);
+    }
+}
@@ -0,0 +1,560 @@
+package com.builderportfolio.persistence;
+
+// Compact binary image of the in-memory DAOs, restored in parallel at startup
+
+import com.builderportfolio.dao.BuilderDao;
+import com.builderportfolio.dao.LongIdList;
+import com.builderportfolio.dao.ManagerDao;
+import com.builderportfolio.dao.ProjectDao;
+import com.builderportfolio.dao.UserDao;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectSnapshot;
+import com.builderportfolio.model.User;
+
+import java.io.ByteArrayOutputStream;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.AtomicMoveNotSupportedException;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardCopyOption;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.Callable;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.ThreadFactory;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Writes and restores binary snapshots of users, projects, clients and the builder and
+ * manager assignment maps.
+ * <p>
+ * A snapshot file ({@code snapshot-0000000042.snap}) is named after the first write-ahead
+ * log segment it does not cover. It starts with a header holding the ID sequence
+ * high-water marks, followed by independent sections of at most {@link #SECTION_RECORDS}
+ * records, each framed as {@code [byte kind][int records][int length][int crc32][payload]}
+ * and terminated by an end marker. Projects refer to their client by ID; every client is
+ * stored once in a client section.
+ * </p>
+ * <p>
+ * Snapshots are written while writers keep running: the maps are iterated with their weakly
+ * consistent iterators and changes made meanwhile are recovered from the log segments that
+ * follow. Because sections do not depend on each other (apart from projects needing their
+ * clients), restoring maps the file and decodes all sections in parallel.
+ * </p>
+ */
+public final class Snapshot {
+
+    private static final Logger logger = Logger.getLogger(Snapshot.class.getName());
+
+    private static final String FILE_PREFIX = "snapshot-";
+    private static final String FILE_SUFFIX = ".snap";
+    private static final String TEMP_SUFFIX = ".tmp";
+
+    private static final int MAGIC = 0x42505331; // "BPS1"
+    private static final int VERSION = 2; // 2: length-prefixed UTF-8 strings
+
+    /** Largest number of records in one section, and so the unit of parallel decoding */
+    static final int SECTION_RECORDS = 16_384;
+
+    private static final byte END = 0;
+    private static final byte CLIENTS = 1;
+    private static final byte USERS = 2;
+    private static final byte PROJECTS = 3;
+    private static final byte BUILDER_PROJECTS = 4;
+    private static final byte MANAGER_PROJECTS = 5;
+
+    /** Bytes of a section frame before its payload */
+    private static final int SECTION_HEADER_BYTES = 1 + 4 + 4 + 4;
+
+    private Snapshot() {
+    }
+
+    // -------------------- Writing --------------------
+
+    /**
+     * Writes a snapshot of the current DAO contents.
+     * <p>
+     * The caller must have rotated the write-ahead log to {@code walSegment} beforehand, so
+     * that every change missing from the snapshot is in that segment or a later one. The
+     * file is fsynced and then atomically renamed into place, so a crash never leaves a
+     * partial snapshot behind.
+     * </p>
+     *
+     * @param directory  the data directory
+     * @param walSegment the first log segment that must be replayed on top of this snapshot
+     * @return the path of the written snapshot
+     * @throws IOException if writing fails
+     */
+    public static Path write(Path directory, long walSegment) throws IOException {
+        Files.createDirectories(directory);
+        Path target = snapshotPath(directory, walSegment);
+        Path temp = target.resolveSibling(target.getFileName() + TEMP_SUFFIX);
+
+        try (FileChannel channel = FileChannel.open(temp, StandardOpenOption.CREATE,
+                StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.WRITE)) {
+            SectionWriter writer = new SectionWriter(channel);
+            writer.writeHeader(walSegment);
+
+            Map<Long, Client> clients = new HashMap<>();
+            writer.begin(PROJECTS);
+            for (Project stored : ProjectDao.projectsList.values()) {
+                ProjectSnapshot project = stored.snapshot(); // the client written below must be the one referenced
+                Client client = project.getAssignedClient();
+                if (client != null) clients.put(client.getClientId(), client);
+                RecordCodec.writeProjectClientRef(writer.out, project);
+                writer.recordWritten();
+            }
+            writer.end();
+
+            writer.begin(CLIENTS);
+            for (Client client : clients.values()) {
+                RecordCodec.writeClient(writer.out, client);
+                writer.recordWritten();
+            }
+            writer.end();
+
+            writer.begin(USERS);
+            for (User user : UserDao.users.values()) {
+                RecordCodec.writeUser(writer.out, user);
+                writer.recordWritten();
+            }
+            writer.end();
+
+            writeAssignments(writer, BUILDER_PROJECTS, BuilderDao.builderProjects);
+            writeAssignments(writer, MANAGER_PROJECTS, ManagerDao.managerProjects);
+
+            writer.finish();
+            channel.force(true);
+        }
+
+        try {
+            Files.move(temp, target, StandardCopyOption.ATOMIC_MOVE, StandardCopyOption.REPLACE_EXISTING);
+        } catch (AtomicMoveNotSupportedException e) {
+            Files.move(temp, target, StandardCopyOption.REPLACE_EXISTING);
+        }
+        return target;
+    }
+
+    private static void writeAssignments(SectionWriter writer, byte kind, Map<String, List<Long>> assignments) throws IOException {
+        writer.begin(kind);
+        for (Map.Entry<String, List<Long>> entry : assignments.entrySet()) {
+            List<Long> projects = entry.getValue();
+            long[] ids;
+            if (projects instanceof LongIdList) {
+                ids = ((LongIdList) projects).toLongArray(); // consistent copy of one list
+            } else {
+                Long[] boxed = projects.toArray(new Long[0]);
+                ids = new long[boxed.length];
+                for (int i = 0; i < boxed.length; i++) ids[i] = boxed[i];
+            }
+            RecordCodec.writeUtf8(writer.out, entry.getKey());
+            writer.out.writeInt(ids.length);
+            for (long id : ids) {
+                writer.out.writeLong(id);
+            }
+            writer.recordWritten();
+        }
+        writer.end();
+    }
+
+    /**
+     * Deletes snapshots older than the given one together with the log segments it covers.
+     *
+     * @param directory  the data directory
+     * @param walSegment the log segment of the newest durable snapshot
+     * @throws IOException if the directory cannot be listed
+     */
+    static void deleteObsolete(Path directory, long walSegment) throws IOException {
+        for (long number : listSnapshots(directory)) {
+            if (number < walSegment) Files.deleteIfExists(snapshotPath(directory, number));
+        }
+        for (long number : WriteAheadLog.listSegments(directory)) {
+            if (number < walSegment) Files.deleteIfExists(WriteAheadLog.segmentPath(directory, number));
+        }
+    }
+
+    // -------------------- Restoring --------------------
+
+    /**
+     * Loads the newest snapshot in the directory into the DAOs, decoding its sections on
+     * the given number of threads.
+     *
+     * @param directory the data directory
+     * @param threads   number of decoding threads
+     * @return what was restored; {@link Restored#walSegment()} is 1 if there was no snapshot
+     * @throws IOException if the snapshot is corrupt or cannot be read
+     */
+    public static Restored restoreLatest(Path directory, int threads) throws IOException {
+        if (threads <= 0) throw new IllegalArgumentException("Thread count must be positive");
+
+        List<Long> snapshots = listSnapshots(directory);
+        Map<Long, Client> clients = new ConcurrentHashMap<>();
+        if (snapshots.isEmpty()) return new Restored(false, 1, 0, clients);
+
+        long walSegment = snapshots.get(snapshots.size() - 1);
+        Path file = snapshotPath(directory, walSegment);
+        try (FileChannel channel = FileChannel.open(file, StandardOpenOption.READ)) {
+            MappedByteBuffer mapped = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+            long records = restore(mapped, walSegment, threads, clients, file);
+            return new Restored(true, walSegment, records, clients);
+        }
+    }
+
+    private static long restore(ByteBuffer buffer, long walSegment, int threads,
+                                Map<Long, Client> clients, Path file) throws IOException {
+        if (buffer.remaining() < 4 + 4 + 8 * 5 || buffer.getInt() != MAGIC) {
+            throw new IOException("Not a snapshot file: " + file);
+        }
+        int version = buffer.getInt();
+        if (version != VERSION) throw new IOException("Unsupported snapshot version " + version + " in " + file);
+        if (buffer.getLong() != walSegment) throw new IOException("Snapshot header does not match its name: " + file);
+        Project.idSequence().advanceTo(buffer.getLong());
+        Client.idSequence().advanceTo(buffer.getLong());
+        User.managerIdSequence().advanceTo(buffer.getLong());
+        User.builderIdSequence().advanceTo(buffer.getLong());
+
+        List<Section> clientSections = new ArrayList<>();
+        List<Section> otherSections = new ArrayList<>();
+        while (true) {
+            if (!buffer.hasRemaining()) throw new IOException("Snapshot is truncated: " + file);
+            byte kind = buffer.get();
+            if (kind == END) break;
+            if (buffer.remaining() < SECTION_HEADER_BYTES - 1) throw new IOException("Snapshot is truncated: " + file);
+            int records = buffer.getInt();
+            int length = buffer.getInt();
+            int checksum = buffer.getInt();
+            if (length < 0 || length > buffer.remaining()) throw new IOException("Snapshot is truncated: " + file);
+
+            ByteBuffer payload = buffer.slice();
+            payload.limit(length);
+            buffer.position(buffer.position() + length);
+
+            Section section = new Section(kind, records, checksum, payload);
+            (kind == CLIENTS ? clientSections : otherSections).add(section);
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads, new RestoreThreadFactory());
+        try {
+            long restored = decodeAll(pool, clientSections, clients); // projects need their clients
+            restored += decodeAll(pool, otherSections, clients);
+            return restored;
+        } finally {
+            pool.shutdownNow();
+        }
+    }
+
+    private static long decodeAll(ExecutorService pool, List<Section> sections, Map<Long, Client> clients) throws IOException {
+        List<Callable<Integer>> tasks = new ArrayList<>(sections.size());
+        for (Section section : sections) {
+            tasks.add(() -> section.decode(clients));
+        }
+
+        long records = 0;
+        try {
+            for (Future<Integer> result : pool.invokeAll(tasks)) {
+                records += result.get();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IOException("Interrupted while restoring snapshot", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof IOException) throw (IOException) cause;
+            throw new IOException("Failed to decode snapshot section", cause);
+        }
+        return records;
+    }
+
+    // -------------------- Files --------------------
+
+    /**
+     * Lists the log segment numbers of the snapshots in a directory, in ascending order.
+     * Leftover temporary files from an interrupted snapshot are deleted.
+     *
+     * @param directory the data directory
+     * @return the sorted snapshot numbers
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Long> listSnapshots(Path directory) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return numbers;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, FILE_PREFIX + "*")) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                if (name.endsWith(TEMP_SUFFIX)) {
+                    Files.deleteIfExists(file);
+                    continue;
+                }
+                if (!name.endsWith(FILE_SUFFIX)) continue;
+                String digits = name.substring(FILE_PREFIX.length(), name.length() - FILE_SUFFIX.length());
+                try {
+                    numbers.add(Long.parseLong(digits));
+                } catch (NumberFormatException e) {
+                    logger.warning("Ignoring unexpected file in data directory: " + name);
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    static Path snapshotPath(Path directory, long walSegment) {
+        return directory.resolve(String.format("%s%010d%s", FILE_PREFIX, walSegment, FILE_SUFFIX));
+    }
+
+    /**
+     * Result of {@link #restoreLatest(Path, int)}.
+     */
+    public static final class Restored {
+
+        private final boolean found;
+        private final long walSegment;
+        private final long records;
+        private final Map<Long, Client> clients;
+
+        Restored(boolean found, long walSegment, long records, Map<Long, Client> clients) {
+            this.found = found;
+            this.walSegment = walSegment;
+            this.records = records;
+            this.clients = clients;
+        }
+
+        /**
+         * Returns the first write-ahead log segment to replay on top of the snapshot.
+         *
+         * @return the segment number; 1 if no snapshot was found
+         */
+        public long walSegment() {
+            return walSegment;
+        }
+
+        /**
+         * Returns whether a snapshot was loaded.
+         *
+         * @return true if a snapshot file was found and restored
+         */
+        public boolean found() {
+            return found;
+        }
+
+        /**
+         * Returns the number of records restored.
+         *
+         * @return the number of users, clients, projects and assignment lists loaded
+         */
+        public long records() {
+            return records;
+        }
+
+        /**
+         * Returns the restored clients by ID, so replayed projects can share the same instances.
+         *
+         * @return the restored clients
+         */
+        Map<Long, Client> clients() {
+            return clients;
+        }
+    }
+
+    /**
+     * One framed section of a snapshot file.
+     */
+    private static final class Section {
+
+        private final byte kind;
+        private final int records;
+        private final int checksum;
+        private final ByteBuffer payload;
+
+        Section(byte kind, int records, int checksum, ByteBuffer payload) {
+            this.kind = kind;
+            this.records = records;
+            this.checksum = checksum;
+            this.payload = payload;
+        }
+
+        int decode(Map<Long, Client> clients) throws IOException {
+            CRC32 crc = new CRC32();
+            crc.update(payload.duplicate());
+            if ((int) crc.getValue() != checksum) {
+                throw new IOException("Checksum mismatch in snapshot section of kind " + kind);
+            }
+
+            DataInputStream in = new DataInputStream(new BufferInputStream(payload.duplicate()));
+            for (int i = 0; i < records; i++) {
+                switch (kind) {
+                    case CLIENTS:
+                        Client client = RecordCodec.readClient(in);
+                        clients.put(client.getClientId(), client);
+                        break;
+                    case USERS:
+                        User user = RecordCodec.readUser(in);
+                        UserDao.insertUser(user.getUserId(), user);
+                        break;
+                    case PROJECTS:
+                        ProjectDao.saveProject(RecordCodec.readProjectClientRef(in, clients));
+                        break;
+                    case BUILDER_PROJECTS:
+                        BuilderDao.builderProjects.put(RecordCodec.readUtf8(in), readIds(in));
+                        break;
+                    case MANAGER_PROJECTS:
+                        ManagerDao.managerProjects.put(RecordCodec.readUtf8(in), readIds(in));
+                        break;
+                    default:
+                        throw new IOException("Unknown snapshot section kind " + kind);
+                }
+            }
+            return records;
+        }
+
+        private static LongIdList readIds(DataInputStream in) throws IOException {
+            int count = in.readInt();
+            LongIdList ids = new LongIdList();
+            for (int i = 0; i < count; i++) {
+                ids.addId(in.readLong());
+            }
+            return ids;
+        }
+    }
+
+    /**
+     * Frames records into sections of at most {@link #SECTION_RECORDS} records and writes
+     * them to the snapshot file.
+     */
+    private static final class SectionWriter {
+
+        private final FileChannel channel;
+        private final SectionBuffer bytes = new SectionBuffer();
+        private final DataOutputStream out = new DataOutputStream(bytes);
+        private final CRC32 crc = new CRC32();
+        private byte kind;
+        private int records;
+
+        SectionWriter(FileChannel channel) {
+            this.channel = channel;
+        }
+
+        void writeHeader(long walSegment) throws IOException {
+            ByteBuffer header = ByteBuffer.allocate(4 + 4 + 8 * 5);
+            header.putInt(MAGIC).putInt(VERSION).putLong(walSegment);
+            header.putLong(Project.idSequence().current());
+            header.putLong(Client.idSequence().current());
+            header.putLong(User.managerIdSequence().current());
+            header.putLong(User.builderIdSequence().current());
+            header.flip();
+            writeFully(header);
+        }
+
+        void begin(byte sectionKind) {
+            kind = sectionKind;
+            records = 0;
+            bytes.reset();
+        }
+
+        void recordWritten() throws IOException {
+            if (++records == SECTION_RECORDS) {
+                end();
+                begin(kind);
+            }
+        }
+
+        void end() throws IOException {
+            if (records == 0) return;
+            out.flush();
+            crc.reset();
+            crc.update(bytes.array(), 0, bytes.size());
+
+            ByteBuffer header = ByteBuffer.allocate(SECTION_HEADER_BYTES);
+            header.put(kind).putInt(records).putInt(bytes.size()).putInt((int) crc.getValue());
+            header.flip();
+            writeFully(header);
+            writeFully(ByteBuffer.wrap(bytes.array(), 0, bytes.size()));
+            records = 0;
+            bytes.reset();
+        }
+
+        void finish() throws IOException {
+            writeFully(ByteBuffer.wrap(new byte[]{END}));
+        }
+
+        private void writeFully(ByteBuffer buffer) throws IOException {
+            while (buffer.hasRemaining()) {
+                channel.write(buffer);
+            }
+        }
+    }
+
+    /**
+     * Byte buffer that exposes its backing array so a section can be written without copying.
+     */
+    private static final class SectionBuffer extends ByteArrayOutputStream {
+
+        SectionBuffer() {
+            super(1 << 20);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+    }
+
+    /**
+     * Input stream reading from a (memory-mapped) byte buffer.
+     */
+    private static final class BufferInputStream extends InputStream {
+
+        private final ByteBuffer buffer;
+
+        BufferInputStream(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        @Override
+        public int read() {
+            return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
+        }
+
+        @Override
+        public int read(byte[] b, int off, int len) {
+            if (len == 0) return 0;
+            if (!buffer.hasRemaining()) return -1;
+            int n = Math.min(len, buffer.remaining());
+            buffer.get(b, off, n);
+            return n;
+        }
+    }
+
+    /**
+     * Creates the daemon threads that decode snapshot sections.
+     */
+    private static final class RestoreThreadFactory implements ThreadFactory {
+
+        private final AtomicInteger count = new AtomicInteger();
+
+        @Override
+        public Thread newThread(Runnable task) {
+            Thread thread = new Thread(task, "snapshot-restore-" + count.incrementAndGet());
+            thread.setDaemon(true);
+            return thread;
+        }
+    }
+}
@@ -0,0 +1,697 @@
+package com.builderportfolio.persistence;
+
+// Append-only, group-committed log of every DAO mutation
+
+import com.builderportfolio.dao.BuilderDao;
+import com.builderportfolio.dao.DaoJournal;
+import com.builderportfolio.dao.ManagerDao;
+import com.builderportfolio.dao.ProjectDao;
+import com.builderportfolio.dao.UserDao;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.User;
+
+import java.io.BufferedInputStream;
+import java.io.ByteArrayInputStream;
+import java.io.ByteArrayOutputStream;
+import java.io.Closeable;
+import java.io.DataInputStream;
+import java.io.DataOutputStream;
+import java.io.EOFException;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.UncheckedIOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.DirectoryStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.Condition;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.logging.Logger;
+import java.util.zip.CRC32;
+
+/**
+ * Durable, append-only log of every mutation applied to the in-memory DAOs.
+ * <p>
+ * The DAOs append each record before they apply its change, holding the changed key's lock
+ * from {@link com.builderportfolio.dao.Journals}, so the log holds each key's changes in the
+ * order they were applied, and a change whose record is refused because the log has failed
+ * or is closed is never applied. With {@code waitForSync} a change becomes visible only
+ * once its record is on disk.
+ * </p>
+ * <p>
+ * The log is a sequence of numbered segment files ({@code wal-0000000001.log}, ...) in a
+ * directory. Each process writes to a fresh segment. Every record is framed as
+ * {@code [int length][int crc32][payload]}, so a record torn by a crash is detected on
+ * replay and ignored.
+ * </p>
+ * <p>
+ * Writes are group-committed: callers append encoded records to an in-memory batch and a
+ * single background thread writes and fsyncs the batch once it holds
+ * {@code groupCommitSize} records or {@code groupCommitMillis} have passed. When
+ * {@code waitForSync} is true a caller returns only after its record is on disk, but one
+ * fsync still covers every record that arrived in the same batch; when false, callers
+ * return immediately and at most one batch can be lost on a crash.
+ * </p>
+ * <p>
+ * {@link #rotate()} closes the active segment and continues in a new one, which lets a
+ * {@link Snapshot} record the first segment that is not yet covered by its contents.
+ * </p>
+ */
+public final class WriteAheadLog implements DaoJournal, Closeable {
+
+    private static final Logger logger = Logger.getLogger(WriteAheadLog.class.getName());
+
+    private static final String SEGMENT_PREFIX = "wal-";
+    private static final String SEGMENT_SUFFIX = ".log";
+
+    static final byte USER_INSERTED = 1;
+    static final byte PROJECT_SAVED = 2;
+    static final byte PROJECT_REMOVED = 3;
+    static final byte BUILDER_INSERTED = 4;
+    static final byte BUILDER_ASSIGNED = 5;
+    static final byte BUILDER_UNASSIGNED = 6;
+    static final byte MANAGER_INSERTED = 7;
+    static final byte MANAGER_ASSIGNED = 8;
+    static final byte MANAGER_UNASSIGNED = 9;
+    static final byte PASSWORD_CHANGED = 10;
+
+    private final Path directory;
+    private final int groupCommitSize;
+    private final long groupCommitNanos;
+    private final boolean waitForSync;
+
+    private final ReentrantLock lock = new ReentrantLock();
+    private final Condition batchReady = lock.newCondition();
+    private final Condition batchSynced = lock.newCondition();
+
+    /**
+     * Serializes batch writes and segment rotation, so batches reach the segments in the
+     * order they were taken from {@link #pending}. Acquired before {@link #lock}.
+     */
+    private final ReentrantLock ioLock = new ReentrantLock();
+
+    /** Records appended but not yet handed to the flusher; guarded by {@link #lock} */
+    private BatchBuffer pending = new BatchBuffer();
+    /** Buffer being written by the flusher; swapped with {@link #pending} for every batch */
+    private BatchBuffer flushing = new BatchBuffer();
+    private int pendingRecords;
+    private long appendedSeq;
+    private long syncedSeq;
+    private IOException failure;
+    private boolean closed;
+
+    /** Active segment; guarded by {@link #ioLock} */
+    private FileChannel channel;
+    /** Number of the active segment; guarded by {@link #lock} */
+    private long segmentNumber;
+    private final Thread flusher;
+
+    /**
+     * Opens a log that appends to a new segment in the given directory.
+     *
+     * @param directory         the directory holding the log segments; created if missing
+     * @param groupCommitSize   number of records that triggers an immediate flush
+     * @param groupCommitMillis longest time a record waits before its batch is flushed
+     * @param waitForSync       whether appends block until their record has been fsynced
+     * @throws IOException if the directory or segment cannot be created
+     */
+    public WriteAheadLog(Path directory, int groupCommitSize, long groupCommitMillis, boolean waitForSync) throws IOException {
+        if (groupCommitSize <= 0) throw new IllegalArgumentException("Group commit size must be positive");
+        if (groupCommitMillis < 0) throw new IllegalArgumentException("Group commit delay cannot be negative");
+
+        this.directory = Files.createDirectories(directory);
+        this.groupCommitSize = groupCommitSize;
+        this.groupCommitNanos = TimeUnit.MILLISECONDS.toNanos(groupCommitMillis);
+        this.waitForSync = waitForSync;
+
+        List<Long> existing = listSegments(directory);
+        openSegment(existing.isEmpty() ? 1 : existing.get(existing.size() - 1) + 1);
+
+        flusher = new Thread(this::flushLoop, "wal-flusher");
+        flusher.setDaemon(true);
+        flusher.start();
+    }
+
+    // -------------------- DaoJournal --------------------
+
+    @Override
+    public void userInserted(User user) {
+        append(USER_INSERTED, out -> RecordCodec.writeUser(out, user));
+    }
+
+    @Override
+    public void passwordChanged(String userId, String password) {
+        append(PASSWORD_CHANGED, out -> {
+            RecordCodec.writeUtf8(out, userId);
+            RecordCodec.writeString(out, password);
+        });
+    }
+
+    @Override
+    public void projectSaved(Project project) {
+        append(PROJECT_SAVED, out -> RecordCodec.writeProject(out, project));
+    }
+
+    @Override
+    public void projectRemoved(long projectId) {
+        append(PROJECT_REMOVED, out -> out.writeLong(projectId));
+    }
+
+    @Override
+    public void builderInserted(String builderId) {
+        append(BUILDER_INSERTED, out -> RecordCodec.writeUtf8(out, builderId));
+    }
+
+    @Override
+    public void builderAssigned(String builderId, long projectId) {
+        append(BUILDER_ASSIGNED, out -> writeAssignment(out, builderId, projectId));
+    }
+
+    @Override
+    public void builderUnassigned(String builderId, long projectId) {
+        append(BUILDER_UNASSIGNED, out -> writeAssignment(out, builderId, projectId));
+    }
+
+    @Override
+    public void managerInserted(String managerId) {
+        append(MANAGER_INSERTED, out -> RecordCodec.writeUtf8(out, managerId));
+    }
+
+    @Override
+    public void managerAssigned(String managerId, long projectId) {
+        append(MANAGER_ASSIGNED, out -> writeAssignment(out, managerId, projectId));
+    }
+
+    @Override
+    public void managerUnassigned(String managerId, long projectId) {
+        append(MANAGER_UNASSIGNED, out -> writeAssignment(out, managerId, projectId));
+    }
+
+    // -------------------- Writing --------------------
+
+    /**
+     * Returns the number of the segment currently being written.
+     *
+     * @return the active segment number
+     */
+    public long currentSegment() {
+        lock.lock();
+        try {
+            return segmentNumber;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Blocks until every record appended so far has been written and fsynced.
+     *
+     * @throws UncheckedIOException if the log failed to write
+     */
+    public void sync() {
+        lock.lock();
+        try {
+            awaitSynced(appendedSeq);
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    /**
+     * Writes all pending records to the active segment, closes it and continues in a new
+     * segment.
+     * <p>
+     * Every record appended before this call is in a segment numbered below the returned
+     * one. Appends are not blocked except while the pending batch is handed over.
+     * </p>
+     *
+     * @return the number of the new active segment
+     * @throws IOException if the new segment cannot be created
+     * @throws IllegalStateException if the log is closed
+     */
+    public long rotate() throws IOException {
+        ioLock.lock();
+        try {
+            lock.lock();
+            try {
+                if (closed) throw new IllegalStateException("Write-ahead log is closed");
+            } finally {
+                lock.unlock();
+            }
+            if (!writePending()) {
+                throw new UncheckedIOException("Write-ahead log failed", failure());
+            }
+
+            FileChannel previous = channel;
+            long next;
+            lock.lock();
+            try {
+                next = segmentNumber + 1;
+            } finally {
+                lock.unlock();
+            }
+            FileChannel created = FileChannel.open(segmentPath(directory, next),
+                    StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+            channel = created;
+            lock.lock();
+            try {
+                segmentNumber = next;
+            } finally {
+                lock.unlock();
+            }
+            previous.close();
+            return next;
+        } finally {
+            ioLock.unlock();
+        }
+    }
+
+    /**
+     * Flushes all pending records and closes the log.
+     * <p>
+     * Calling close more than once has no further effect.
+     * </p>
+     */
+    @Override
+    public void close() {
+        lock.lock();
+        try {
+            if (closed) return;
+            closed = true;
+            batchReady.signalAll();
+        } finally {
+            lock.unlock();
+        }
+
+        try {
+            flusher.join();
+            ioLock.lock();
+            try {
+                channel.close();
+            } finally {
+                ioLock.unlock();
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        } catch (IOException e) {
+            logger.warning("Failed to close write-ahead log: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Encodes a record on the calling thread and adds it to the pending batch.
+     */
+    private void append(byte type, RecordWriter writer) {
+        byte[] payload = encode(type, writer);
+
+        CRC32 crc = new CRC32();
+        crc.update(payload, 0, payload.length);
+
+        lock.lock();
+        try {
+            if (closed) throw new IllegalStateException("Write-ahead log is closed");
+            if (failure != null) throw new UncheckedIOException("Write-ahead log failed", failure);
+
+            pending.writeInt(payload.length);
+            pending.writeInt((int) crc.getValue());
+            pending.write(payload, 0, payload.length);
+            long seq = ++appendedSeq;
+
+            if (++pendingRecords >= groupCommitSize || pendingRecords == 1) {
+                batchReady.signal(); // wake the flusher for a full batch or to start the delay timer
+            }
+            if (waitForSync) {
+                awaitSynced(seq);
+            }
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void awaitSynced(long seq) {
+        boolean interrupted = false;
+        while (syncedSeq < seq && failure == null && !(closed && !flusher.isAlive())) {
+            try {
+                batchSynced.await();
+            } catch (InterruptedException e) {
+                interrupted = true; // the record is already queued, so keep waiting for its outcome
+            }
+        }
+        if (interrupted) Thread.currentThread().interrupt();
+        if (syncedSeq < seq && failure != null) {
+            throw new UncheckedIOException("Write-ahead log failed", failure);
+        }
+    }
+
+    /**
+     * Background loop that writes and fsyncs one batch at a time.
+     */
+    private void flushLoop() {
+        while (true) {
+            lock.lock();
+            try {
+                while (pendingRecords == 0 && !closed) {
+                    batchReady.awaitUninterruptibly();
+                }
+                if (pendingRecords == 0) {
+                    return; // closed and fully flushed
+                }
+
+                long deadline = System.nanoTime() + groupCommitNanos;
+                long remaining;
+                while (pendingRecords < groupCommitSize && !closed && (remaining = deadline - System.nanoTime()) > 0) {
+                    batchReady.awaitNanos(remaining); // wait for the batch to fill or the delay to pass
+                }
+            } catch (InterruptedException e) {
+                continue; // daemon thread; nothing to clean up, re-check state
+            } finally {
+                lock.unlock();
+            }
+
+            ioLock.lock();
+            try {
+                if (!writePending()) return;
+            } finally {
+                ioLock.unlock();
+            }
+        }
+    }
+
+    /**
+     * Takes the pending batch, writes it to the active segment and fsyncs it.
+     * The caller must hold {@link #ioLock} but not {@link #lock}.
+     *
+     * @return false if the write failed and the log can no longer be used
+     */
+    private boolean writePending() {
+        long batchSeq;
+        lock.lock();
+        try {
+            if (failure != null) return false;
+            if (pendingRecords == 0) return true; // already written by a rotation
+
+            BatchBuffer full = pending;
+            pending = flushing;
+            flushing = full;
+            pendingRecords = 0;
+            batchSeq = appendedSeq;
+        } finally {
+            lock.unlock();
+        }
+
+        IOException error = null;
+        try {
+            ByteBuffer batch = ByteBuffer.wrap(flushing.array(), 0, flushing.size());
+            while (batch.hasRemaining()) {
+                channel.write(batch);
+            }
+            channel.force(false);
+        } catch (IOException e) {
+            error = e;
+            logger.severe("Write-ahead log write failed: " + e.getMessage());
+        }
+        flushing.reset();
+
+        lock.lock();
+        try {
+            if (error != null) {
+                failure = error;
+            } else {
+                syncedSeq = batchSeq;
+            }
+            batchSynced.signalAll();
+            return error == null;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private IOException failure() {
+        lock.lock();
+        try {
+            return failure;
+        } finally {
+            lock.unlock();
+        }
+    }
+
+    private void openSegment(long number) throws IOException {
+        channel = FileChannel.open(segmentPath(directory, number),
+                StandardOpenOption.CREATE_NEW, StandardOpenOption.WRITE);
+        segmentNumber = number;
+    }
+
+    private static byte[] encode(byte type, RecordWriter writer) {
+        try {
+            ByteArrayOutputStream bytes = new ByteArrayOutputStream(128);
+            DataOutputStream out = new DataOutputStream(bytes);
+            out.writeByte(type);
+            writer.write(out);
+            out.flush();
+            return bytes.toByteArray();
+        } catch (IOException e) {
+            throw new UncheckedIOException(e); // cannot happen for an in-memory stream
+        }
+    }
+
+    private static void writeAssignment(DataOutputStream out, String userId, long projectId) throws IOException {
+        RecordCodec.writeUtf8(out, userId);
+        out.writeLong(projectId);
+    }
+
+    // -------------------- Replay --------------------
+
+    /**
+     * Replays every segment in the directory, in order, into the DAOs.
+     * <p>
+     * Each segment is read until its end or until the first truncated or corrupt record,
+     * which can only be the tail of a segment interrupted by a crash.
+     * </p>
+     *
+     * @param directory the directory holding the log segments
+     * @return the number of records applied
+     * @throws IOException if a segment cannot be read
+     */
+    public static long replay(Path directory) throws IOException {
+        return replay(directory, 1);
+    }
+
+    /**
+     * Replays the segments numbered {@code fromSegment} and above into the DAOs.
+     *
+     * @param directory   the directory holding the log segments
+     * @param fromSegment the first segment to replay
+     * @return the number of records applied
+     * @throws IOException if a segment cannot be read
+     */
+    public static long replay(Path directory, long fromSegment) throws IOException {
+        return replay(directory, fromSegment, false, new HashMap<Long, Client>());
+    }
+
+    /**
+     * Replays the segments numbered {@code fromSegment} and above on top of a restored snapshot.
+     * <p>
+     * A snapshot is taken while writers keep running, so it may already contain some of the
+     * changes recorded in its first segment. When {@code overlapsSnapshot} is set, records of
+     * that segment which would otherwise be applied twice (builder and manager inserts and
+     * assignments) are skipped if their effect is already present.
+     * </p>
+     *
+     * @param directory        the directory holding the log segments
+     * @param fromSegment      the first segment to replay
+     * @param overlapsSnapshot whether the first segment overlaps the loaded snapshot
+     * @param clients          client instances already loaded, by client ID; shared with replayed projects
+     * @return the number of records applied
+     * @throws IOException if a segment cannot be read
+     */
+    static long replay(Path directory, long fromSegment, boolean overlapsSnapshot, Map<Long, Client> clients) throws IOException {
+        if (!Files.isDirectory(directory)) return 0;
+
+        long applied = 0;
+        for (long number : listSegments(directory)) {
+            if (number < fromSegment) continue;
+            boolean idempotent = overlapsSnapshot && number == fromSegment;
+            Path segment = segmentPath(directory, number);
+            try (InputStream in = Files.newInputStream(segment)) {
+                applied += replaySegment(new DataInputStream(new BufferedInputStream(in, 1 << 16)), Files.size(segment),
+                        number, idempotent, clients);
+            }
+        }
+        return applied;
+    }
+
+    private static long replaySegment(DataInputStream in, long remaining, long number, boolean idempotent,
+                                      Map<Long, Client> clients) throws IOException {
+        long applied = 0;
+        CRC32 crc = new CRC32();
+        while (true) {
+            int length;
+            int checksum;
+            byte[] payload;
+            try {
+                length = in.readInt();
+                checksum = in.readInt();
+                remaining -= 8;
+                if (length <= 0 || length > remaining) { // a corrupt prefix, or a record torn by a crash
+                    logger.warning("Corrupt record length in WAL segment " + number + ", ignoring the rest of it");
+                    return applied;
+                }
+                remaining -= length;
+                payload = new byte[length];
+                in.readFully(payload);
+            } catch (EOFException e) {
+                return applied; // clean end of segment, or a record torn by a crash
+            }
+
+            crc.reset();
+            crc.update(payload, 0, payload.length);
+            if ((int) crc.getValue() != checksum) {
+                logger.warning("Checksum mismatch in WAL segment " + number + ", ignoring the rest of it");
+                return applied;
+            }
+
+            apply(new DataInputStream(new ByteArrayInputStream(payload)), idempotent, clients);
+            applied++;
+        }
+    }
+
+    private static void apply(DataInputStream in, boolean idempotent, Map<Long, Client> clients) throws IOException {
+        byte type = in.readByte();
+        String userId;
+        long projectId;
+        switch (type) {
+            case USER_INSERTED:
+                User user = RecordCodec.readUser(in);
+                UserDao.insertUser(user.getUserId(), user);
+                break;
+            case PASSWORD_CHANGED:
+                userId = RecordCodec.readUtf8(in);
+                UserDao.updatePassword(userId, RecordCodec.readString(in)); // ignored if the user is gone
+                break;
+            case PROJECT_SAVED:
+                ProjectDao.saveProject(shareClient(RecordCodec.readProject(in), clients));
+                break;
+            case PROJECT_REMOVED:
+                ProjectDao.removeProject(in.readLong());
+                break;
+            case BUILDER_INSERTED:
+                userId = RecordCodec.readUtf8(in);
+                if (!idempotent || !BuilderDao.builderProjects.containsKey(userId)) {
+                    BuilderDao.insertBuilder(userId);
+                }
+                break;
+            case BUILDER_ASSIGNED:
+                userId = RecordCodec.readUtf8(in);
+                projectId = in.readLong();
+                if (!idempotent || !BuilderDao.getProjectIds(userId).contains(projectId)) {
+                    BuilderDao.addProjectToBuilder(userId, projectId);
+                }
+                break;
+            case BUILDER_UNASSIGNED:
+                BuilderDao.removeProjectFromBuilder(RecordCodec.readUtf8(in), in.readLong());
+                break;
+            case MANAGER_INSERTED:
+                ManagerDao.insertManager(RecordCodec.readUtf8(in)); // already keeps an existing entry
+                break;
+            case MANAGER_ASSIGNED:
+                userId = RecordCodec.readUtf8(in);
+                projectId = in.readLong();
+                if (!idempotent || !ManagerDao.getProjectIds(userId).contains(projectId)) {
+                    ManagerDao.addProjectToManager(userId, projectId);
+                }
+                break;
+            case MANAGER_UNASSIGNED:
+                ManagerDao.removeProjectFromManager(RecordCodec.readUtf8(in), in.readLong());
+                break;
+            default:
+                throw new IOException("Unknown WAL record type " + type);
+        }
+    }
+
+    /**
+     * Makes projects of the same client share one Client instance, updated to the latest record.
+     */
+    private static Project shareClient(Project project, Map<Long, Client> clients) {
+        Client decoded = project.getAssignedClient();
+        if (decoded == null) return project;
+
+        Client shared = clients.putIfAbsent(decoded.getClientId(), decoded);
+        if (shared != null) {
+            shared.setClientName(decoded.getClientName());
+            shared.setClientEmail(decoded.getClientEmail());
+            shared.setClientPhNumber(decoded.getClientPhNumber());
+            project.setAssignedClient(shared);
+        }
+        return project;
+    }
+
+    // -------------------- Segments --------------------
+
+    /**
+     * Lists the segment numbers present in a directory, in ascending order.
+     *
+     * @param directory the log directory
+     * @return the sorted segment numbers
+     * @throws IOException if the directory cannot be listed
+     */
+    static List<Long> listSegments(Path directory) throws IOException {
+        List<Long> numbers = new ArrayList<>();
+        if (!Files.isDirectory(directory)) return numbers;
+
+        try (DirectoryStream<Path> files = Files.newDirectoryStream(directory, SEGMENT_PREFIX + "*" + SEGMENT_SUFFIX)) {
+            for (Path file : files) {
+                String name = file.getFileName().toString();
+                String digits = name.substring(SEGMENT_PREFIX.length(), name.length() - SEGMENT_SUFFIX.length());
+                try {
+                    numbers.add(Long.parseLong(digits));
+                } catch (NumberFormatException e) {
+                    logger.warning("Ignoring unexpected file in WAL directory: " + name);
+                }
+            }
+        }
+        Collections.sort(numbers);
+        return numbers;
+    }
+
+    static Path segmentPath(Path directory, long number) {
+        return directory.resolve(String.format("%s%010d%s", SEGMENT_PREFIX, number, SEGMENT_SUFFIX));
+    }
+
+    /**
+     * Writes the fields of one record.
+     */
+    @FunctionalInterface
+    private interface RecordWriter {
+        void write(DataOutputStream out) throws IOException;
+    }
+
+    /**
+     * Byte buffer that exposes its backing array so a batch can be written without copying.
+     */
+    private static final class BatchBuffer extends ByteArrayOutputStream {
+
+        BatchBuffer() {
+            super(1 << 16);
+        }
+
+        byte[] array() {
+            return buf;
+        }
+
+        void writeInt(int value) {
+            write(value >>> 24);
+            write(value >>> 16);
+            write(value >>> 8);
+            write(value);
+        }
+    }
+}
@@ -0,0 +1,189 @@
+package com.builderportfolio.security;
+
+// Salted PBKDF2 password hashes in a self-describing text format
+
+import javax.crypto.SecretKeyFactory;
+import javax.crypto.spec.PBEKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Arrays;
+import java.util.Base64;
+
+/**
+ * Hashes and verifies passwords with PBKDF2-HMAC-SHA256 and a random salt per password.
+ * <p>
+ * A hash is stored as {@code pbkdf2-sha256:<iterations>:<salt>:<hash>} with Base64 salt and
+ * hash, so it records the cost it was made with and can still be verified after the
+ * configured cost changes; {@link #needsRehash(String)} tells when a stored value should
+ * be replaced. A stored cost above the hasher's maximum is rejected without hashing, so a
+ * crafted hash cannot make each verification arbitrarily slow. Stored values not in this
+ * format are treated as legacy plain-text passwords
+ * and compared in constant time, so accounts created before hashing keep working until
+ * they are rehashed. Instances are immutable and thread-safe.
+ * </p>
+ */
+public final class PasswordHasher {
+
+    private static final String PREFIX = "pbkdf2-sha256:";
+    private static final String ALGORITHM = "PBKDF2WithHmacSHA256";
+    private static final int SALT_BYTES = 16;
+    private static final int HASH_BITS = 256;
+
+    private static final SecureRandom random = new SecureRandom();
+
+    private final int iterations;
+    private final int maxIterations;
+
+    /**
+     * Creates a hasher producing hashes with the given cost, accepting stored hashes up to
+     * {@link PasswordVerifier#DEFAULT_MAX_ITERATIONS} or the given cost, whichever is higher.
+     *
+     * @param iterations the PBKDF2 iteration count; higher is slower for callers and attackers alike
+     * @throws IllegalArgumentException if iterations is less than 1
+     */
+    public PasswordHasher(int iterations) {
+        this(iterations, Math.max(iterations, PasswordVerifier.DEFAULT_MAX_ITERATIONS));
+    }
+
+    /**
+     * Creates a hasher producing hashes with the given cost.
+     *
+     * @param iterations    the PBKDF2 iteration count of new hashes
+     * @param maxIterations the highest iteration count accepted from a stored hash
+     * @throws IllegalArgumentException if iterations is less than 1 or above maxIterations
+     */
+    public PasswordHasher(int iterations, int maxIterations) {
+        if (iterations < 1) throw new IllegalArgumentException("Iterations must be positive: " + iterations);
+        if (maxIterations < iterations) {
+            throw new IllegalArgumentException("Maximum iterations " + maxIterations + " are below the iteration count " + iterations);
+        }
+        this.iterations = iterations;
+        this.maxIterations = maxIterations;
+    }
+
+    /**
+     * Returns the iteration count of new hashes.
+     *
+     * @return the iteration count
+     */
+    public int getIterations() {
+        return iterations;
+    }
+
+    /**
+     * Returns the highest iteration count accepted from a stored hash.
+     *
+     * @return the maximum iteration count
+     */
+    public int getMaxIterations() {
+        return maxIterations;
+    }
+
+    /**
+     * Hashes a password with a fresh random salt.
+     *
+     * @param password the plain-text password
+     * @return the encoded hash
+     * @throws NullPointerException if password is null
+     */
+    public String hash(String password) {
+        byte[] salt = new byte[SALT_BYTES];
+        random.nextBytes(salt);
+        Base64.Encoder base64 = Base64.getEncoder().withoutPadding();
+        return PREFIX + iterations + ':' + base64.encodeToString(salt) + ':'
+                + base64.encodeToString(derive(password, salt, iterations));
+    }
+
+    /**
+     * Checks a password against a stored hash, or against a legacy plain-text value.
+     *
+     * @param password the password to check
+     * @param stored   the stored hash or legacy plain-text password
+     * @return true if the password matches; false if it does not, either value is null, or
+     *         the stored hash is malformed or costs more than the maximum iteration count
+     */
+    public boolean verify(String password, String stored) {
+        if (password == null || stored == null) return false;
+        if (!isHash(stored)) {
+            return MessageDigest.isEqual(password.getBytes(StandardCharsets.UTF_8), stored.getBytes(StandardCharsets.UTF_8));
+        }
+
+        String[] parts = stored.substring(PREFIX.length()).split(":");
+        if (parts.length != 3) return false;
+        try {
+            int cost = Integer.parseInt(parts[0]);
+            if (cost < 1 || cost > maxIterations) return false; // never spend more than the ceiling
+            byte[] salt = Base64.getDecoder().decode(parts[1]);
+            byte[] expected = Base64.getDecoder().decode(parts[2]);
+            return MessageDigest.isEqual(expected, derive(password, salt, cost));
+        } catch (IllegalArgumentException e) { // malformed number or Base64
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a stored value should be replaced by a new hash, because it is a legacy
+     * plain-text password or was hashed with fewer iterations than this hasher uses, or more
+     * than it accepts.
+     *
+     * @param stored the stored hash or legacy plain-text password
+     * @return true if the value should be rehashed after the next successful verification
+     */
+    public boolean needsRehash(String stored) {
+        if (stored == null) return false;
+        if (!isHash(stored)) return true;
+        int end = stored.indexOf(':', PREFIX.length());
+        try {
+            int cost = end < 0 ? -1 : Integer.parseInt(stored.substring(PREFIX.length(), end));
+            return cost < iterations || cost > maxIterations;
+        } catch (NumberFormatException e) {
+            return true;
+        }
+    }
+
+    /**
+     * Checks whether a value is a well-formed hash that this hasher would verify, with a
+     * cost no higher than the maximum iteration count.
+     *
+     * @param stored the value to check
+     * @return true if it can be stored as a password hash
+     */
+    public boolean isAcceptedHash(String stored) {
+        if (!isHash(stored)) return false;
+        String[] parts = stored.substring(PREFIX.length()).split(":");
+        if (parts.length != 3) return false;
+        try {
+            int cost = Integer.parseInt(parts[0]);
+            return cost >= 1 && cost <= maxIterations
+                    && Base64.getDecoder().decode(parts[1]).length > 0
+                    && Base64.getDecoder().decode(parts[2]).length == HASH_BITS / 8;
+        } catch (IllegalArgumentException e) { // malformed number or Base64
+            return false;
+        }
+    }
+
+    /**
+     * Checks whether a stored value is a hash produced by this class.
+     *
+     * @param stored the stored value
+     * @return true if it is in the hash format
+     */
+    public static boolean isHash(String stored) {
+        return stored != null && stored.startsWith(PREFIX);
+    }
+
+    private static byte[] derive(String password, byte[] salt, int iterations) {
+        char[] chars = password.toCharArray();
+        PBEKeySpec spec = new PBEKeySpec(chars, salt, iterations, HASH_BITS);
+        try {
+            return SecretKeyFactory.getInstance(ALGORITHM).generateSecret(spec).getEncoded();
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(ALGORITHM + " is not available", e); // required of every Java 8+ runtime
+        } finally {
+            spec.clearPassword();
+            Arrays.fill(chars, '\0');
+        }
+    }
+}
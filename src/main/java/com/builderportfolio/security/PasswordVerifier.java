@@ -0,0 +1,232 @@
+package com.builderportfolio.security;
+
+// Runs password hashing on a bounded pool, short-circuited by a cache of recent logins
+
+import java.util.concurrent.Callable;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Future;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.ThreadPoolExecutor;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Hashes and verifies user passwords without letting a burst of logins take over the CPU.
+ * <p>
+ * All hashing runs on a fixed pool of worker threads, and at most as many requests as the
+ * pool has threads plus its queue capacity are admitted at once; further callers wait for a
+ * free place instead of queueing without bound. Request threads therefore keep running
+ * other work, such as project queries, however many logins arrive together. A successful
+ * verification is remembered in a {@link VerifiedCredentialCache} for a short time, so a
+ * user logging in again within that time is checked with one HMAC instead of a full hash.
+ * </p>
+ * <p>
+ * The shared instance used by the services is configured from the system properties
+ * {@code builderportfolio.password.iterations}, {@code builderportfolio.password.maxIterations},
+ * {@code builderportfolio.password.threads},
+ * {@code builderportfolio.password.queue}, {@code builderportfolio.password.cacheSize} and
+ * {@code builderportfolio.password.cacheTtlMillis}, read when it is first used.
+ * </p>
+ */
+public final class PasswordVerifier {
+
+    /** Default PBKDF2 iteration count for new hashes */
+    public static final int DEFAULT_ITERATIONS = 210_000;
+
+    /** Default highest PBKDF2 iteration count accepted from a stored hash */
+    public static final int DEFAULT_MAX_ITERATIONS = 10 * DEFAULT_ITERATIONS;
+
+    /** Default number of hashing threads: half the processors, at least one */
+    public static final int DEFAULT_THREADS = Math.max(1, Runtime.getRuntime().availableProcessors() / 2);
+
+    /** Default number of requests that may wait for a hashing thread */
+    public static final int DEFAULT_QUEUE_CAPACITY = 256;
+
+    /** Default maximum number of users remembered by the verified-credential cache */
+    public static final int DEFAULT_CACHE_SIZE = 10_000;
+
+    /** Default time a successful verification is remembered */
+    public static final long DEFAULT_CACHE_TTL_MILLIS = TimeUnit.MINUTES.toMillis(5);
+
+    private final PasswordHasher hasher;
+    private final VerifiedCredentialCache cache;
+    private final ExecutorService pool;
+
+    /** Places for running or queued hashing requests */
+    private final Semaphore admissions;
+
+    /**
+     * Creates a verifier with its own hashing pool, accepting stored hashes up to
+     * {@link #DEFAULT_MAX_ITERATIONS} or the given cost, whichever is higher.
+     *
+     * @param iterations     the PBKDF2 iteration count of new hashes
+     * @param threads        the number of hashing threads
+     * @param queueCapacity  the number of requests that may wait for a thread before callers block
+     * @param cacheSize      the maximum number of users remembered; 0 disables the cache
+     * @param cacheTtlMillis how long a successful verification is remembered
+     * @throws IllegalArgumentException if a size or count is out of range
+     */
+    public PasswordVerifier(int iterations, int threads, int queueCapacity, int cacheSize, long cacheTtlMillis) {
+        this(iterations, Math.max(iterations, DEFAULT_MAX_ITERATIONS), threads, queueCapacity, cacheSize, cacheTtlMillis);
+    }
+
+    /**
+     * Creates a verifier with its own hashing pool.
+     *
+     * @param iterations     the PBKDF2 iteration count of new hashes
+     * @param maxIterations  the highest iteration count accepted from a stored hash
+     * @param threads        the number of hashing threads
+     * @param queueCapacity  the number of requests that may wait for a thread before callers block
+     * @param cacheSize      the maximum number of users remembered; 0 disables the cache
+     * @param cacheTtlMillis how long a successful verification is remembered
+     * @throws IllegalArgumentException if a size or count is out of range
+     */
+    public PasswordVerifier(int iterations, int maxIterations, int threads, int queueCapacity, int cacheSize, long cacheTtlMillis) {
+        if (threads < 1) throw new IllegalArgumentException("Threads must be positive: " + threads);
+        if (queueCapacity < 0) throw new IllegalArgumentException("Queue capacity cannot be negative: " + queueCapacity);
+        this.hasher = new PasswordHasher(iterations, maxIterations);
+        this.cache = new VerifiedCredentialCache(cacheSize, cacheTtlMillis);
+        this.admissions = new Semaphore(threads + queueCapacity, true);
+
+        AtomicInteger count = new AtomicInteger();
+        ThreadPoolExecutor executor = new ThreadPoolExecutor(threads, threads, 30, TimeUnit.SECONDS,
+                new LinkedBlockingQueue<Runnable>(), runnable -> {
+                    Thread thread = new Thread(runnable, "password-hash-" + count.incrementAndGet());
+                    thread.setDaemon(true);
+                    return thread;
+                });
+        executor.allowCoreThreadTimeOut(true); // idle between bursts costs no threads
+        this.pool = executor;
+    }
+
+    /**
+     * Returns the verifier shared by the services, creating it from the system properties on first use.
+     *
+     * @return the shared verifier
+     */
+    public static PasswordVerifier shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Hashes a password on the hashing pool.
+     *
+     * @param password the plain-text password
+     * @return the encoded hash
+     * @throws NullPointerException  if password is null
+     * @throws IllegalStateException if the calling thread is interrupted while waiting
+     */
+    public String hash(String password) {
+        if (password == null) throw new NullPointerException("Password cannot be null");
+        return run(() -> hasher.hash(password));
+    }
+
+    /**
+     * Checks a user's password against the stored hash, consulting the cache of recent
+     * successful verifications first.
+     *
+     * @param userId   the user ID, used as the cache key
+     * @param password the password entered by the user
+     * @param stored   the user's stored hash, or a legacy plain-text password
+     * @return true if the password matches
+     * @throws IllegalStateException if the calling thread is interrupted while waiting
+     */
+    public boolean verify(String userId, String password, String stored) {
+        if (password == null || stored == null) return false;
+        if (cache.isVerified(userId, password, stored)) return true;
+
+        boolean verified = PasswordHasher.isHash(stored)
+                ? run(() -> hasher.verify(password, stored))
+                : hasher.verify(password, stored); // legacy plain text needs no worker
+        if (verified) cache.remember(userId, password, stored);
+        return verified;
+    }
+
+    /**
+     * Checks whether a value is a well-formed hash within the configured maximum cost, and so
+     * may be stored as a password without hashing it again.
+     *
+     * @param stored the value to check
+     * @return true if it is an accepted hash
+     */
+    public boolean isAcceptedHash(String stored) {
+        return hasher.isAcceptedHash(stored);
+    }
+
+    /**
+     * Checks whether a stored value should be replaced by a fresh hash after a successful login.
+     *
+     * @param stored the stored hash or legacy plain-text password
+     * @return true if it is plain text or weaker than the configured cost
+     */
+    public boolean needsRehash(String stored) {
+        return hasher.needsRehash(stored);
+    }
+
+    /**
+     * Forgets any cached verification for a user, for example after a password change.
+     *
+     * @param userId the user ID
+     */
+    public void forget(String userId) {
+        cache.forget(userId);
+    }
+
+    /**
+     * Stops the hashing threads once queued requests finish; later requests are rejected.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Runs a hashing task on the pool once a place is free and waits for its result.
+     */
+    private <T> T run(Callable<T> task) {
+        try {
+            admissions.acquire();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while waiting to hash a password", e);
+        }
+
+        Future<T> result;
+        try {
+            result = pool.submit(task);
+        } catch (RuntimeException e) {
+            admissions.release();
+            throw e;
+        }
+        try {
+            return result.get();
+        } catch (InterruptedException e) {
+            result.cancel(true);
+            Thread.currentThread().interrupt();
+            throw new IllegalStateException("Interrupted while hashing a password", e);
+        } catch (ExecutionException e) {
+            Throwable cause = e.getCause();
+            if (cause instanceof RuntimeException) throw (RuntimeException) cause;
+            if (cause instanceof Error) throw (Error) cause;
+            throw new IllegalStateException(cause);
+        } finally {
+            admissions.release();
+        }
+    }
+
+    /**
+     * Lazily created shared instance.
+     */
+    private static final class Shared {
+        static final int ITERATIONS = Integer.getInteger("builderportfolio.password.iterations", DEFAULT_ITERATIONS);
+
+        static final PasswordVerifier INSTANCE = new PasswordVerifier(
+                ITERATIONS,
+                Integer.getInteger("builderportfolio.password.maxIterations", Math.max(ITERATIONS, DEFAULT_MAX_ITERATIONS)),
+                Integer.getInteger("builderportfolio.password.threads", DEFAULT_THREADS),
+                Integer.getInteger("builderportfolio.password.queue", DEFAULT_QUEUE_CAPACITY),
+                Integer.getInteger("builderportfolio.password.cacheSize", DEFAULT_CACHE_SIZE),
+                Long.getLong("builderportfolio.password.cacheTtlMillis", DEFAULT_CACHE_TTL_MILLIS));
+    }
+}
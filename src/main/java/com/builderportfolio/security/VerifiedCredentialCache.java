@@ -0,0 +1,141 @@
+package com.builderportfolio.security;
+
+// Short-lived, size-bounded record of recently verified logins
+
+import javax.crypto.Mac;
+import javax.crypto.spec.SecretKeySpec;
+import java.nio.charset.StandardCharsets;
+import java.security.GeneralSecurityException;
+import java.security.MessageDigest;
+import java.security.SecureRandom;
+import java.util.Iterator;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Remembers, for a short time, which password last verified successfully for each user, so
+ * that repeated logins skip the deliberately slow password hash.
+ * <p>
+ * Neither passwords nor password hashes are kept. Each entry holds an HMAC-SHA256 digest of
+ * the stored hash and the password under a random key that only exists in this process, so
+ * a matching digest proves the same password was verified against the same stored hash.
+ * Changing a user's stored hash therefore invalidates the entry without any explicit call.
+ * Entries expire after a fixed time to live, and once the cache holds its maximum number of
+ * entries, expired entries and then arbitrary ones are evicted to make room. Only
+ * successful verifications are recorded, so wrong passwords always pay the full cost.
+ * </p>
+ */
+final class VerifiedCredentialCache {
+
+    private static final String MAC_ALGORITHM = "HmacSHA256";
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final int maxEntries;
+    private final long ttlNanos;
+
+    /** Per-instance secret; digests are meaningless outside this process */
+    private final SecretKeySpec key;
+
+    private final ThreadLocal<Mac> macs;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries the maximum number of users remembered; 0 disables the cache
+     * @param ttlMillis  how long a verification is remembered, in milliseconds
+     */
+    VerifiedCredentialCache(int maxEntries, long ttlMillis) {
+        if (maxEntries < 0) throw new IllegalArgumentException("Cache size cannot be negative: " + maxEntries);
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        byte[] secret = new byte[32];
+        new SecureRandom().nextBytes(secret);
+        this.key = new SecretKeySpec(secret, MAC_ALGORITHM);
+        this.macs = ThreadLocal.withInitial(this::newMac);
+    }
+
+    /**
+     * Checks whether this password was recently verified against this stored hash.
+     *
+     * @param userId   the user ID
+     * @param password the password being checked
+     * @param stored   the user's current stored hash
+     * @return true if a live entry matches
+     */
+    boolean isVerified(String userId, String password, String stored) {
+        Entry entry = entries.get(userId);
+        if (entry == null) return false;
+        if (System.nanoTime() - entry.expiresAt > 0) {
+            entries.remove(userId, entry);
+            return false;
+        }
+        return MessageDigest.isEqual(entry.digest, digest(password, stored));
+    }
+
+    /**
+     * Records a successful verification.
+     *
+     * @param userId   the user ID
+     * @param password the verified password
+     * @param stored   the stored hash it was verified against
+     */
+    void remember(String userId, String password, String stored) {
+        if (maxEntries == 0) return;
+        if (entries.size() >= maxEntries && !entries.containsKey(userId)) makeRoom();
+        entries.put(userId, new Entry(digest(password, stored), System.nanoTime() + ttlNanos));
+    }
+
+    /**
+     * Forgets any verification recorded for a user.
+     *
+     * @param userId the user ID
+     */
+    void forget(String userId) {
+        entries.remove(userId);
+    }
+
+    /**
+     * Returns the number of users currently remembered, including expired entries not yet evicted.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    private void makeRoom() {
+        long now = System.nanoTime();
+        entries.values().removeIf(entry -> now - entry.expiresAt > 0);
+        Iterator<String> users = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && users.hasNext()) { // still full: drop arbitrary entries
+            users.next();
+            users.remove();
+        }
+    }
+
+    private byte[] digest(String password, String stored) {
+        Mac mac = macs.get();
+        mac.update(stored.getBytes(StandardCharsets.UTF_8));
+        mac.update((byte) 0); // separator, so the two inputs cannot be shifted into each other
+        return mac.doFinal(password.getBytes(StandardCharsets.UTF_8));
+    }
+
+    private Mac newMac() {
+        try {
+            Mac mac = Mac.getInstance(MAC_ALGORITHM);
+            mac.init(key);
+            return mac;
+        } catch (GeneralSecurityException e) {
+            throw new IllegalStateException(MAC_ALGORITHM + " is not available", e); // required of every Java runtime
+        }
+    }
+
+    private static final class Entry {
+        final byte[] digest;
+        final long expiresAt;
+
+        Entry(byte[] digest, long expiresAt) {
+            this.digest = digest;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
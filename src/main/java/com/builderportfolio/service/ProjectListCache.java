@@ -0,0 +1,185 @@
+package com.builderportfolio.service;
+
+// Size- and time-bounded cache of each user's resolved project list
+
+import com.builderportfolio.dao.LongIdList;
+import com.builderportfolio.dao.ProjectDao;
+import com.builderportfolio.model.Project;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLongArray;
+import java.util.function.LongSupplier;
+
+/**
+ * Remembers the projects last resolved for each manager and builder, so that re-reading an
+ * unchanged project list does not look up every project ID again.
+ * <p>
+ * {@link ProjectService} invalidates a user's entry whenever one of its operations changes a
+ * project of that user. As a safeguard against changes made around the service, such as
+ * recovery or direct DAO writes, an entry also records the assignment list it was built
+ * from and that list's {@link LongIdList#modificationCount()}, and is ignored once the user
+ * has a different list, the list was modified, or the project backend was replaced.
+ * </p>
+ * <p>
+ * A load that overlaps an invalidation of the same user is not stored, so a result read
+ * before a change can never be cached after it. Entries expire after a fixed time to live,
+ * and once the cache holds its maximum number of entries, expired entries and then
+ * arbitrary ones are evicted to make room.
+ * </p>
+ */
+final class ProjectListCache {
+
+    /** Stamp of assignment lists whose modifications cannot be tracked; never cached */
+    static final int UNTRACKED = -1;
+
+    /** Number of invalidation counters shared between users; a power of two */
+    private static final int GENERATION_STRIPES = 64;
+
+    private final Map<String, Entry> entries = new ConcurrentHashMap<>();
+    private final AtomicLongArray generations = new AtomicLongArray(GENERATION_STRIPES);
+    private final int maxEntries;
+    private final long ttlNanos;
+    private final LongSupplier clock;
+
+    /**
+     * Creates an empty cache.
+     *
+     * @param maxEntries the maximum number of users remembered; 0 disables the cache
+     * @param ttlMillis  how long a project list is remembered, in milliseconds
+     * @throws IllegalArgumentException if maxEntries is negative or ttlMillis is not positive
+     */
+    ProjectListCache(int maxEntries, long ttlMillis) {
+        this(maxEntries, ttlMillis, System::nanoTime);
+    }
+
+    ProjectListCache(int maxEntries, long ttlMillis, LongSupplier clock) {
+        if (maxEntries < 0) throw new IllegalArgumentException("Cache size cannot be negative: " + maxEntries);
+        if (ttlMillis <= 0) throw new IllegalArgumentException("Cache TTL must be positive: " + ttlMillis);
+        this.maxEntries = maxEntries;
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.clock = clock;
+    }
+
+    /**
+     * Returns the stamp to record with a list loaded from the given assignments.
+     *
+     * @param assignments the user's assignment list, read before loading
+     * @return the list's modification count, or {@link #UNTRACKED}
+     */
+    static int stampOf(List<Long> assignments) {
+        return assignments instanceof LongIdList ? ((LongIdList) assignments).modificationCount() : UNTRACKED;
+    }
+
+    /**
+     * Returns the user's cached projects if they are still current.
+     *
+     * @param userId      the manager or builder ID
+     * @param assignments the user's current assignment list
+     * @return a new list of the cached projects, or null if there is no current entry
+     */
+    List<Project> get(String userId, List<Long> assignments) {
+        Entry entry = entries.get(userId);
+        if (entry == null) return null;
+        if (clock.getAsLong() - entry.expiresAt > 0) {
+            entries.remove(userId, entry);
+            return null;
+        }
+        if (entry.assignments != assignments || entry.backend != ProjectDao.projectsList
+                || entry.stamp != stampOf(assignments)) {
+            return null; // changed around the service; the next load replaces the entry
+        }
+        return new ArrayList<>(Arrays.asList(entry.projects));
+    }
+
+    /**
+     * Returns the user's invalidation generation, to be read before loading and passed to
+     * {@link #put}.
+     *
+     * @param userId the manager or builder ID
+     * @return the current generation
+     */
+    long generation(String userId) {
+        return generations.get(stripe(userId));
+    }
+
+    /**
+     * Stores a loaded project list unless the user was invalidated since the load began.
+     *
+     * @param userId      the manager or builder ID
+     * @param assignments the assignment list the projects were resolved from
+     * @param stamp       {@link #stampOf} the assignments, read before loading
+     * @param projects    the resolved projects; copied
+     * @param generation  {@link #generation} of the user, read before loading
+     */
+    void put(String userId, List<Long> assignments, int stamp, List<Project> projects, long generation) {
+        if (maxEntries == 0 || stamp == UNTRACKED) return;
+        if (entries.size() >= maxEntries && !entries.containsKey(userId)) makeRoom();
+        Entry loaded = new Entry(assignments, stamp, ProjectDao.projectsList,
+                projects.toArray(new Project[0]), clock.getAsLong() + ttlNanos);
+        entries.compute(userId, (id, current) -> generations.get(stripe(id)) == generation ? loaded : current);
+    }
+
+    /**
+     * Drops the user's entry and any load of it in progress.
+     *
+     * @param userId the manager or builder ID; ignored if null
+     */
+    void invalidate(String userId) {
+        if (userId == null) return;
+        entries.compute(userId, (id, current) -> {
+            generations.incrementAndGet(stripe(id)); // under the entry's lock, so no load can slip in between
+            return null;
+        });
+    }
+
+    /**
+     * Returns the number of users currently remembered, including expired entries not yet evicted.
+     */
+    int size() {
+        return entries.size();
+    }
+
+    /**
+     * Tells whether a user has an entry, current or not.
+     */
+    boolean contains(String userId) {
+        return entries.containsKey(userId);
+    }
+
+    private void makeRoom() {
+        long now = clock.getAsLong();
+        entries.values().removeIf(entry -> now - entry.expiresAt > 0);
+        Iterator<String> users = entries.keySet().iterator();
+        while (entries.size() >= maxEntries && users.hasNext()) { // still full: drop arbitrary entries
+            users.next();
+            users.remove();
+        }
+    }
+
+    private static int stripe(String userId) {
+        int h = userId.hashCode();
+        return (h ^ (h >>> 16)) & (GENERATION_STRIPES - 1);
+    }
+
+    private static final class Entry {
+        final List<Long> assignments;
+        final int stamp;
+        final Map<Long, Project> backend;
+        final Project[] projects;
+        final long expiresAt;
+
+        Entry(List<Long> assignments, int stamp, Map<Long, Project> backend, Project[] projects, long expiresAt) {
+            this.assignments = assignments;
+            this.stamp = stamp;
+            this.backend = backend;
+            this.projects = projects;
+            this.expiresAt = expiresAt;
+        }
+    }
+}
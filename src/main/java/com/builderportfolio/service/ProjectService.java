@@ -1,15 +1,36 @@
 package com.builderportfolio.service;
 
+import com.builderportfolio.dao.ClientDao;
+import com.builderportfolio.dao.LongIdList;
 import com.builderportfolio.dao.ProjectDao;
+import com.builderportfolio.dao.ProjectTransactions;
 import com.builderportfolio.model.Client;
+import com.builderportfolio.model.NewProject;
 import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectFilter;
+import com.builderportfolio.model.ProjectPage;
+import com.builderportfolio.model.ProjectSnapshot;
 import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.StatusTransitionResult;
+import com.builderportfolio.model.UserKeys;
 import com.builderportfolio.dao.BuilderDao;
 import com.builderportfolio.dao.ManagerDao;
 
 import java.time.LocalDate;
 import java.util.ArrayList;
+import java.util.Collections;
+import java.util.EnumMap;
+import java.util.LinkedHashSet;
 import java.util.List;
+import java.util.Objects;
+import java.util.Set;
+import java.util.concurrent.atomic.LongAdder;
+import java.util.function.Consumer;
+import java.util.function.LongConsumer;
+import java.util.function.Predicate;
+import java.util.stream.IntStream;
+import java.util.stream.LongStream;
+import java.util.stream.Stream;
 
 /**
  * Service class responsible for handling project-related business logic.
@@ -17,12 +38,51 @@ import java.util.List;
  * This class interacts with DAO classes to create, retrieve, update, and delete projects,
  * as well as manage project assignments to builders and managers.
  * </p>
+ * <p>
+ * The full project lists of managers and builders are cached per user, since they are
+ * re-read far more often than they change. Every operation here that creates, deletes or
+ * changes a project invalidates the lists of that project's manager and builder only. All
+ * instances created with {@link #ProjectService()} share one cache, sized by
+ * {@code builderportfolio.projectCache.size} and expiring entries after
+ * {@code builderportfolio.projectCache.ttlMillis}.
+ * </p>
  */
 public class ProjectService {
 
+    /** Default number of users whose project lists are cached; 0 disables the cache */
+    public static final int DEFAULT_PROJECT_CACHE_SIZE = 10_000;
+
+    /** Default time a cached project list is served before it is resolved again */
+    public static final long DEFAULT_PROJECT_CACHE_TTL_MILLIS = 60_000;
+
+    /** Number of candidate projects handled by one parallel task of {@link #transitionStatus} */
+    static final int TRANSITION_PARTITION = 1024;
+
+    private final ProjectListCache projectLists;
+
+    /**
+     * Creates a project service using the shared project list cache.
+     */
+    public ProjectService() {
+        this(Shared.PROJECT_LISTS);
+    }
+
+    /**
+     * Creates a project service using the given project list cache.
+     *
+     * @param projectLists caches the project lists of managers and builders
+     */
+    ProjectService(ProjectListCache projectLists) {
+        this.projectLists = projectLists;
+    }
+
     /**
      * Creates a new project, persists it in the ProjectDao, and assigns it to
      * the specified manager and builder.
+     * <p>
+     * The three writes are applied atomically by {@link ProjectTransactions}: readers never
+     * see the project assigned without being stored, and a failed assignment leaves no trace.
+     * </p>
      *
      * @param projectName the name of the project
      * @param description the project description
@@ -32,56 +92,167 @@ public class ProjectService {
      * @param client      the client associated with the project
      * @param builderId   the ID of the builder assigned to the project
      * @param managerId   the ID of the manager assigned to the project
+     * @return the created project
+     * @throws NullPointerException     if managerId is null
+     * @throws IllegalArgumentException if builderId is null
      */
-    public void createProject(String projectName, String description, LocalDate startDate, LocalDate endDate, ProjectStatus status, Client client, String builderId, String managerId) {
+    public Project createProject(String projectName, String description, LocalDate startDate, LocalDate endDate, ProjectStatus status, Client client, String builderId, String managerId) {
         Project project = new Project(projectName, description, startDate, endDate, status, client, builderId, managerId);
 
-        ProjectDao.saveProject(project); // persist project
+        ProjectTransactions.create(project); // persist and assign to manager and builder in one step
+        invalidateOwners(project.snapshot());
+        return project;
+    }
+
+    /**
+     * Creates a batch of projects, for example when onboarding a manager's existing portfolio.
+     * <p>
+     * IDs are reserved for the whole batch in one step, in list order. All projects are then
+     * stored and assigned with {@link ProjectTransactions#createAll}, which appends each
+     * manager's and builder's projects to their list in a single call. The batch is created
+     * completely or, if any entry lacks a manager or builder, not at all.
+     * </p>
+     *
+     * @param newProjects the details of the projects to create
+     * @return the created projects, in the same order
+     * @throws NullPointerException     if an entry's manager ID is null
+     * @throws IllegalArgumentException if an entry's builder ID is null
+     */
+    public List<Project> createProjects(List<NewProject> newProjects) {
+        if (newProjects.isEmpty()) return Collections.emptyList();
+        for (NewProject newProject : newProjects) { // before reserving IDs, so a bad batch wastes none
+            Objects.requireNonNull(newProject.getAssignedProjectManager(), "Manager ID cannot be null");
+            if (newProject.getAssignedBuilder() == null) throw new IllegalArgumentException("Builder ID cannot be null");
+        }
+
+        long firstId = Project.idSequence().reserve(newProjects.size());
+        List<Project> projects = new ArrayList<>(newProjects.size());
+        for (int i = 0; i < newProjects.size(); i++) {
+            projects.add(newProjects.get(i).toProject(firstId + i));
+        }
+        ProjectTransactions.createAll(projects);
+
+        Set<String> owners = new LinkedHashSet<>(); // invalidate each manager and builder once
+        for (Project project : projects) {
+            owners.add(project.getAssignedProjectManager());
+            owners.add(project.getAssignedBuilder());
+        }
+        owners.forEach(projectLists::invalidate);
+        return projects;
+    }
+
+    /**
+     * Returns the registered client with the given email or phone number, registering a new
+     * client only for a customer not seen before, so repeat customers share one client.
+     *
+     * @param clientName     the name of the client
+     * @param clientEmail    the email of the client
+     * @param clientPhNumber the phone number of the client
+     * @return the existing or newly registered client
+     */
+    public Client findOrCreateClient(String clientName, String clientEmail, String clientPhNumber) {
+        return ClientDao.findOrCreate(clientName, clientEmail, clientPhNumber);
+    }
 
-        ManagerDao.addProjectToManager(managerId, project.getProjectId()); // assign project to manager
-        BuilderDao.addProjectToBuilder(builderId, project.getProjectId()); // assign project to builder
+    /**
+     * Retrieves all projects commissioned by a client using the client index.
+     *
+     * @param clientId the ID of the client
+     * @return the client's projects
+     */
+    public List<Project> getProjectsByClient(long clientId) {
+        return ProjectDao.getProjectsByClient(clientId);
     }
 
     /**
      * Retrieves all projects assigned to a specific manager.
+     * <p>
+     * The list is served from the project list cache while none of the manager's projects
+     * has changed; otherwise every assigned ID is resolved against {@link ProjectDao} and the
+     * result cached.
+     * </p>
      *
      * @param managerId the ID of the manager
-     * @return a list of projects assigned to the manager; skips projects that were deleted
+     * @return a new list of projects assigned to the manager; skips projects deleted while the list is built
      */
     public List<Project> getManagerProjects(String managerId) {
-        List<Long> projectIds = ManagerDao.getProjectIds(managerId);
-        List<Project> projects = new ArrayList<>();
-
-        for (Long id : projectIds) {
-            Project project = ProjectDao.getProjectById(id);
-            if (project != null) { // skip if project was deleted
-                projects.add(project);
-            }
-        }
-        return projects;
+        return cachedProjects(managerId, ManagerDao.getProjectIds(managerId));
     }
 
     /**
      * Retrieves all projects assigned to a specific builder.
      *
      * @param builderId the ID of the builder
-     * @return a list of projects assigned to the builder; skips projects that were deleted
+     * @return a new list of projects assigned to the builder; skips projects deleted while the list is built
+     * @see #getManagerProjects(String)
      */
     public List<Project> getBuilderProjects(String builderId) {
-        List<Long> projectIds = BuilderDao.getProjectIds(builderId);
-        List<Project> projects = new ArrayList<>();
+        return cachedProjects(builderId, BuilderDao.getProjectIds(builderId));
+    }
 
-        for (Long id : projectIds) {
-            Project project = ProjectDao.getProjectById(id);
-            if (project != null) { // skip if project was deleted
-                projects.add(project);
-            }
-        }
-        return projects;
+    /**
+     * Retrieves one page of the projects assigned to a specific manager, ordered by project ID.
+     * <p>
+     * The IDs after the cursor are read from the assignment list's sorted view in
+     * O(log n + pageSize) time, and only those are resolved against {@link ProjectDao}.
+     * Projects deleted since assignment are skipped without shortening the page.
+     * </p>
+     *
+     * @param managerId      the ID of the manager
+     * @param afterProjectId the cursor returned with the previous page, or null for the first page
+     * @param pageSize       the maximum number of projects on the page
+     * @return the page of projects
+     * @throws IllegalArgumentException if pageSize is not positive
+     */
+    public ProjectPage getManagerProjectsPage(String managerId, Long afterProjectId, int pageSize) {
+        return page((cursor, limit) -> ManagerDao.getProjectIdsAfter(managerId, cursor, limit), afterProjectId, pageSize);
+    }
+
+    /**
+     * Retrieves one page of the projects assigned to a specific builder, ordered by project ID.
+     *
+     * @param builderId      the ID of the builder
+     * @param afterProjectId the cursor returned with the previous page, or null for the first page
+     * @param pageSize       the maximum number of projects on the page
+     * @return the page of projects
+     * @throws IllegalArgumentException if pageSize is not positive
+     * @see #getManagerProjectsPage(String, Long, int)
+     */
+    public ProjectPage getBuilderProjectsPage(String builderId, Long afterProjectId, int pageSize) {
+        return page((cursor, limit) -> BuilderDao.getProjectIdsAfter(builderId, cursor, limit), afterProjectId, pageSize);
+    }
+
+    /**
+     * Streams the projects assigned to a specific manager in ascending ID order.
+     * <p>
+     * Only the IDs are copied up front; each project is looked up as the stream reaches it,
+     * so a consumer that stops early never touches the rest.
+     * </p>
+     *
+     * @param managerId the ID of the manager
+     * @return a lazy stream of projects; skips projects deleted while the list is built
+     */
+    public Stream<Project> streamManagerProjects(String managerId) {
+        return resolve(ManagerDao.getSortedProjectIds(managerId));
+    }
+
+    /**
+     * Streams the projects assigned to a specific builder in ascending ID order.
+     *
+     * @param builderId the ID of the builder
+     * @return a lazy stream of projects; skips projects deleted while the list is built
+     * @see #streamManagerProjects(String)
+     */
+    public Stream<Project> streamBuilderProjects(String builderId) {
+        return resolve(BuilderDao.getSortedProjectIds(builderId));
     }
 
     /**
      * Updates the status of a project if the specified builder is authorized to do so.
+     * <p>
+     * The update is an optimistic compare-and-set on the project's version; when another
+     * update of the same project commits first, the project is re-read and the update retried.
+     * </p>
      *
      * @param builderId the ID of the builder attempting to update the project
      * @param projectId the ID of the project to update
@@ -89,25 +260,127 @@ public class ProjectService {
      * @return true if the update was successful; false if the project does not exist or the builder is unauthorized
      */
     public boolean updateProjectStatus(String builderId, long projectId, ProjectStatus newStatus) {
-        Project project = ProjectDao.getProjectById(projectId);
+        int builderKey = UserKeys.lookup(builderId); // compare int keys instead of ID strings
+        return updateWithRetry(projectId,
+                project -> builderKey != UserKeys.NO_USER && builderKey == project.snapshot().getBuilderKey(), // builder authorized
+                project -> project.setProjectStatus(newStatus));
+    }
 
-        if (project == null) { // project does not exist
-            return false;
-        }
+    /**
+     * Updates the start and end dates of a project if the specified manager is authorized to do so.
+     *
+     * @param managerId the ID of the manager attempting to update the project
+     * @param projectId the ID of the project to update
+     * @param startDate the new start date
+     * @param endDate   the new end date
+     * @return true if the update was successful; false if the project does not exist or the manager is unauthorized
+     */
+    public boolean updateProjectDates(String managerId, long projectId, LocalDate startDate, LocalDate endDate) {
+        int managerKey = UserKeys.lookup(managerId);
+        return updateWithRetry(projectId,
+                project -> managerKey != UserKeys.NO_USER && managerKey == project.snapshot().getManagerKey(), // manager authorized
+                project -> {
+                    project.setProjectStartDate(startDate);
+                    project.setProjectEndDate(endDate);
+                });
+    }
 
-        if (!builderId.equals(project.getAssignedBuilder())) { // builder not authorized
-            return false;
-        }
+    /**
+     * Retrieves all projects active at some point between two dates, using the date index.
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return the projects whose start-to-end interval overlaps the range, ordered by start date
+     * @throws NullPointerException     if either date is null
+     * @throws IllegalArgumentException if from is after to
+     */
+    public List<Project> getProjectsActiveBetween(LocalDate from, LocalDate to) {
+        return ProjectDao.getProjectsActiveBetween(from, to);
+    }
 
-        project.setProjectStatus(newStatus); // update status
-        return true;
+    /**
+     * Retrieves all projects ending between two dates, for example this week, using the date index.
+     *
+     * @param from first day of the range, inclusive
+     * @param to   last day of the range, inclusive
+     * @return the projects ending within the range, ordered by end date
+     * @throws NullPointerException     if either date is null
+     * @throws IllegalArgumentException if from is after to
+     */
+    public List<Project> getProjectsEndingBetween(LocalDate from, LocalDate to) {
+        return ProjectDao.getProjectsEndingBetween(from, to);
+    }
+
+    /**
+     * Retrieves all projects currently in the given status using the status index.
+     *
+     * @param status the status to look up
+     * @return the projects in that status
+     * @throws NullPointerException if status is null
+     */
+    public List<Project> getProjectsByStatus(ProjectStatus status) {
+        return ProjectDao.getProjectsByStatus(status);
+    }
+
+    /**
+     * Returns the number of projects in every status, for dashboards.
+     * <p>
+     * Counts are maintained on every save, so this does not scan the projects.
+     * </p>
+     *
+     * @return a map from each status to its project count
+     */
+    public EnumMap<ProjectStatus, Long> getStatusCounts() {
+        return ProjectDao.getStatusCounts();
+    }
+
+    /**
+     * Moves every project of a manager that matches a filter to a new status, for example
+     * all UPCOMING projects that have started to IN_PROGRESS.
+     * <p>
+     * Candidates come from the manager's assignment list or, when the filter names a status
+     * with fewer projects, from the status index. They are split into partitions of
+     * {@value #TRANSITION_PARTITION} IDs that are processed in parallel. Each project is
+     * re-checked against the manager and the filter on its current state and changed with the
+     * same versioned compare-and-set as {@link #updateProjectStatus}, so indexes and the
+     * journal stay up to date and concurrent edits are never overwritten: a project that a
+     * concurrent change moved out of the filter is left alone.
+     * </p>
+     *
+     * @param managerId the ID of the manager whose projects are transitioned
+     * @param filter    selects the projects to transition
+     * @param newStatus the status to set
+     * @return how many projects matched and how many were changed
+     * @throws NullPointerException if filter or newStatus is null
+     */
+    public StatusTransitionResult transitionStatus(String managerId, ProjectFilter filter, ProjectStatus newStatus) {
+        Objects.requireNonNull(filter, "Filter cannot be null");
+        Objects.requireNonNull(newStatus, "Status cannot be null");
+        int managerKey = UserKeys.lookup(managerId);
+        if (managerKey == UserKeys.NO_USER) return new StatusTransitionResult(0, 0);
+
+        long[] candidates = filter.getStatus() != null
+                && ProjectDao.countProjectsByStatus(filter.getStatus()) < ManagerDao.getProjectIds(managerKey).size()
+                ? ProjectDao.getProjectIdsByStatus(filter.getStatus())
+                : ManagerDao.getSortedProjectIds(managerId);
+
+        LongAdder matched = new LongAdder();
+        LongAdder updated = new LongAdder();
+        int partitions = (candidates.length + TRANSITION_PARTITION - 1) / TRANSITION_PARTITION;
+        IntStream.range(0, partitions).parallel().forEach(partition -> {
+            int end = Math.min(candidates.length, (partition + 1) * TRANSITION_PARTITION);
+            for (int i = partition * TRANSITION_PARTITION; i < end; i++) {
+                transitionOne(candidates[i], managerKey, filter, newStatus, matched, updated);
+            }
+        });
+        return new StatusTransitionResult(matched.sum(), updated.sum());
     }
 
     /**
      * Deletes a project if the specified manager is authorized to do so.
      * <p>
-     * The project is removed from the ProjectDao and also from the assigned manager's
-     * and builder's project lists.
+     * The project is removed from the assigned builder's and manager's project lists and
+     * then from the ProjectDao, atomically with respect to other writes of the project.
      * </p>
      *
      * @param managerId the ID of the manager attempting to delete the project
@@ -115,20 +388,138 @@ public class ProjectService {
      * @return true if the deletion was successful; false if the project does not exist or the manager is unauthorized
      */
     public boolean deleteProject(String managerId, long projectId) {
-        Project project = ProjectDao.getProjectById(projectId);
-        if (project == null) return false; // project does not exist
+        ProjectSnapshot project = ProjectDao.getProjectSnapshot(projectId); // its builder, read before it is gone
+        if (!ProjectTransactions.delete(projectId, managerId)) return false;
+        projectLists.invalidate(managerId);
+        if (project != null) projectLists.invalidate(project.getAssignedBuilder());
+        return true;
+    }
+
+    /**
+     * Applies a change through {@link ProjectDao#updateIfVersion}, re-reading the project and
+     * retrying when a concurrent update wins, until it succeeds or the project is gone.
+     * The owners' cached project lists are invalidated after a successful change.
+     */
+    private boolean updateWithRetry(long projectId, Predicate<Project> authorized, Consumer<Project> change) {
+        while (true) {
+            Project project = ProjectDao.getProjectById(projectId);
+            if (project == null) return false;           // project does not exist
+            long version = project.getVersion();         // before the check, so a change in between fails the update
+            if (!authorized.test(project)) return false; // user not authorized
+
+            if (ProjectDao.updateIfVersion(projectId, version, change)) {
+                invalidateOwners(project.snapshot());
+                return true;
+            }
+            Thread.yield(); // lost the race; read the newer version and try again
+        }
+    }
 
-        if (!managerId.equals(project.getAssignedProjectManager())) return false; // manager not authorized
+    /**
+     * Drops the cached project lists of a project's manager and builder.
+     */
+    private void invalidateOwners(ProjectSnapshot project) {
+        projectLists.invalidate(project.getAssignedProjectManager());
+        projectLists.invalidate(project.getAssignedBuilder());
+    }
 
-        ProjectDao.removeProject(projectId); // remove project from DAO
+    /**
+     * Serves a user's projects from the cache, or resolves the assigned IDs and caches them.
+     */
+    private List<Project> cachedProjects(String userId, List<Long> assignments) {
+        if (userId == null) return resolveAll(assignments);
+        List<Project> cached = projectLists.get(userId, assignments);
+        if (cached != null) return cached;
 
-        ManagerDao.removeProjectFromManager(managerId, projectId); // remove project from manager's list
+        long generation = projectLists.generation(userId); // both before loading, so a concurrent
+        int stamp = ProjectListCache.stampOf(assignments);  // change keeps this result out of the cache
+        List<Project> projects = resolveAll(assignments);
+        projectLists.put(userId, assignments, stamp, projects, generation);
+        return projects;
+    }
 
-        String builderId = project.getAssignedBuilder();
-        if (builderId != null) {
-            BuilderDao.removeProjectFromBuilder(builderId, projectId); // remove project from builder's list
+    private static List<Project> resolveAll(List<Long> assignments) {
+        List<Project> projects = new ArrayList<>(assignments.size());
+        LongConsumer resolve = id -> {
+            Project project = ProjectDao.getProjectById(id);
+            if (project != null) { // skip if the project was deleted after its ID was read
+                projects.add(project);
+            }
+        };
+        if (assignments instanceof LongIdList) {
+            ((LongIdList) assignments).forEachId(resolve);
+        } else {
+            assignments.forEach(resolve::accept);
         }
+        return projects;
+    }
 
-        return true;
+    /**
+     * Transitions one candidate of {@link #transitionStatus}, retrying when a concurrent
+     * update wins, as long as the project still belongs to the manager and matches.
+     */
+    private void transitionOne(long projectId, int managerKey, ProjectFilter filter, ProjectStatus newStatus,
+                                      LongAdder matched, LongAdder updated) {
+        boolean counted = false;
+        while (true) {
+            Project project = ProjectDao.getProjectById(projectId);
+            if (project == null) return;
+            long version = project.getVersion(); // before the state, so a change in between fails the update
+            ProjectSnapshot state = project.snapshot();
+            if (state.getManagerKey() != managerKey || !filter.matches(state)) return;
+            if (!counted) {
+                matched.increment();
+                counted = true;
+            }
+            if (state.getProjectStatus() == newStatus) return;
+
+            if (ProjectDao.updateIfVersion(projectId, version, p -> p.setProjectStatus(newStatus))) {
+                updated.increment();
+                invalidateOwners(state);
+                return;
+            }
+            Thread.yield(); // lost the race; re-read and re-check the filter
+        }
+    }
+
+    /**
+     * Source of project IDs greater than a cursor, in ascending order.
+     */
+    private interface IdPager {
+        long[] idsAfter(long cursor, int limit);
+    }
+
+    /**
+     * Fills a page from the ID source, fetching one extra ID to tell whether more follow
+     * and topping up when deleted projects leave gaps.
+     */
+    private static ProjectPage page(IdPager pager, Long afterProjectId, int pageSize) {
+        if (pageSize <= 0) throw new IllegalArgumentException("Page size must be positive");
+        List<Project> projects = new ArrayList<>(pageSize);
+        long cursor = afterProjectId == null ? Long.MIN_VALUE : afterProjectId;
+
+        while (true) {
+            int want = pageSize - projects.size();
+            long[] ids = pager.idsAfter(cursor, want + 1);
+            for (long id : ids) {
+                if (projects.size() == pageSize) return new ProjectPage(projects, cursor);
+                cursor = id;
+                Project project = ProjectDao.getProjectById(id);
+                if (project != null) { // skip if the project was deleted after its ID was read
+                    projects.add(project);
+                }
+            }
+            if (ids.length <= want) return new ProjectPage(projects, null);
+        }
+    }
+
+    private static Stream<Project> resolve(long[] ids) {
+        return LongStream.of(ids).mapToObj(ProjectDao::getProjectById).filter(Objects::nonNull);
+    }
+
+    private static final class Shared {
+        static final ProjectListCache PROJECT_LISTS = new ProjectListCache(
+                Integer.getInteger("builderportfolio.projectCache.size", DEFAULT_PROJECT_CACHE_SIZE),
+                Long.getLong("builderportfolio.projectCache.ttlMillis", DEFAULT_PROJECT_CACHE_TTL_MILLIS));
     }
 }
@@ -6,8 +6,8 @@ import com.builderportfolio.model.User;
 import com.builderportfolio.dao.BuilderDao;
 import com.builderportfolio.dao.ManagerDao;
 import com.builderportfolio.dao.UserDao;
-
-import java.util.logging.Logger;
+import com.builderportfolio.logging.AsyncLogger;
+import com.builderportfolio.security.PasswordVerifier;
 
 /**
  * Service class handling user-related business logic, including registration,
@@ -16,45 +16,100 @@ import java.util.logging.Logger;
  * This class interacts with DAO classes to manage users and assign them to
  * role-specific mappings (Project Manager or Builder).
  * </p>
+ * <p>
+ * Passwords are stored as salted hashes made by a {@link PasswordVerifier}, which runs the
+ * hashing on a bounded pool and remembers recent successful logins for a short time.
+ * </p>
  */
 public class UserService {
 
-    private static final Logger logger = Logger.getLogger(UserService.class.getName());
+    /** Structured, asynchronous logger; disabled levels cost a single level check */
+    private static final AsyncLogger logger = AsyncLogger.getLogger(UserService.class);
+
+    private final PasswordVerifier passwords;
+
+    /**
+     * Creates a user service using the shared {@link PasswordVerifier}.
+     */
+    public UserService() {
+        this(PasswordVerifier.shared());
+    }
+
+    /**
+     * Creates a user service using the given password verifier.
+     *
+     * @param passwords hashes new passwords and verifies logins
+     */
+    public UserService(PasswordVerifier passwords) {
+        this.passwords = passwords;
+    }
 
     /**
      * Registers a new user and assigns role-specific DAO entries.
+     * <p>
+     * The user's password is always treated as plain text and replaced by its hash before the
+     * user is stored, even if it looks like a hash; use {@link #registerHashed} for users whose
+     * password was hashed elsewhere.
+     * </p>
      *
      * @param user the User object containing registration details
      * @throws UserAlreadyExistsException if a user with the same email already exists
      */
     public void register(User user) throws UserAlreadyExistsException {
 
-        logger.info("Registration attempt...");
+        logger.info("register.attempt", "role", user.getRole());
+
+        String password = user.getPassword();
+        if (password != null) {
+            user.setPassword(passwords.hash(password)); // never store the plain text
+        }
+        store(user);
+    }
+
+    /**
+     * Registers a user whose password is already a stored hash, such as one restored or
+     * imported from another instance, and assigns role-specific DAO entries.
+     *
+     * @param user the User object, whose password is a hash made by a {@link PasswordVerifier}
+     * @throws IllegalArgumentException   if the password is not a well-formed hash within the
+     *                                    configured maximum cost
+     * @throws UserAlreadyExistsException if a user with the same email already exists
+     */
+    public void registerHashed(User user) throws UserAlreadyExistsException {
+
+        logger.info("register.attempt", "role", user.getRole(), "hashed", true);
 
-        // Check if a user with the same email already exists
-        if (UserDao.exists(user.getUserEmail()) != null) {
-            logger.warning("Registration failed ");
-            throw new UserAlreadyExistsException("User already exists with ID: " + UserDao.exists(user.getUserEmail()));
+        if (!passwords.isAcceptedHash(user.getPassword())) {
+            logger.warning("register.failed", "reason", "password is not an accepted hash");
+            throw new IllegalArgumentException("Password is not an accepted hash");
         }
+        store(user);
+    }
 
-        // Insert user into in-memory UserDao
-        UserDao.insertUser(user.getUserId(), user);
-        logger.info("User inserted into UserDao: " + user.getUserId());
+    private void store(User user) throws UserAlreadyExistsException {
+        // Insert user into in-memory UserDao unless the email is already registered
+        String existingUserId = UserDao.insertIfAbsent(user);
+        if (existingUserId != null) {
+            logger.warning("register.failed", "reason", "email already registered", "existingUserId", existingUserId);
+            throw new UserAlreadyExistsException("User already exists with ID: " + existingUserId);
+        }
 
         // Role-based DAO insertion
         if (user.getSelectedRole() == 1) { // Project Manager
             ManagerDao.insertManager(user.getUserId());
-            logger.info("User added as Project Manager: " + user.getUserId());
         } else { // Builder
             BuilderDao.insertBuilder(user.getUserId());
-            logger.info("User added as Builder: " + user.getUserId());
         }
 
-        logger.info("Registration successful for userId: " + user.getUserId());
+        logger.info("register.success", "userId", user.getUserId(), "role", user.getRole());
     }
 
     /**
      * Authenticates a user based on userId and password.
+     * <p>
+     * A stored legacy plain-text password, or a hash weaker than the configured cost, is
+     * replaced by a fresh hash after a successful login, and the change is journaled.
+     * </p>
      *
      * @param userId   the unique identifier of the user
      * @param password the password entered by the user
@@ -63,24 +118,39 @@ public class UserService {
      */
     public User login(String userId, String password) throws UserNotFoundException {
 
-        logger.info("LoginView attempt for userId: " + userId);
+        logger.info("login.attempt", "userId", userId);
 
         User user = UserDao.getUserbyId(userId);
 
         if (user == null) { // User not found
-            logger.warning("LoginView failed - user not found: " + userId);
+            logger.warning("login.failed", "reason", "user not found", "userId", userId);
             throw new UserNotFoundException("User not found with id " + userId);
         }
 
-        if (!user.getPassword().equals(password)) { // Password mismatch
-            logger.warning("Invalid password for userId: " + userId);
+        String stored = user.getPassword();
+        if (!passwords.verify(userId, password, stored)) { // Password mismatch
+            logger.warning("login.failed", "reason", "invalid password", "userId", userId);
             return null;
         }
+        if (passwords.needsRehash(stored)) {
+            UserDao.updatePassword(userId, passwords.hash(password)); // upgrade legacy plain text or weaker hashes
+        }
 
-        logger.info("LoginView successful for userId: " + userId);
+        logger.info("login.success", "userId", userId);
         return user;
     }
 
+    /**
+     * Checks whether a user is already registered with an email, so that a caller can reject a
+     * duplicate before building a new user.
+     *
+     * @param userEmail the email to look up
+     * @return true if a user is registered with the email
+     */
+    public boolean isEmailRegistered(String userEmail) {
+        return UserDao.exists(userEmail) != null;
+    }
+
     /**
      * Fetches user details by userId.
      * <p>
@@ -0,0 +1,235 @@
+package com.builderportfolio.session;
+
+// Concurrent store of logged-in users keyed by opaque session tokens
+
+import com.builderportfolio.model.User;
+
+import java.security.SecureRandom;
+import java.util.Base64;
+import java.util.Map;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.locks.ReentrantLock;
+import java.util.function.LongSupplier;
+
+/**
+ * Holds the sessions of all logged-in users of one process, each identified by an opaque token.
+ * <p>
+ * Tokens are 256 random bits from {@link SecureRandom}, encoded as URL-safe Base64, so they
+ * reveal nothing about the user and cannot be guessed. Looking a token up is a single
+ * {@link ConcurrentHashMap} read plus a deadline check and takes no lock, so every request
+ * can resolve its user cheaply. A session expires after a period without use; each lookup
+ * pushes its deadline back.
+ * </p>
+ * <p>
+ * Expired sessions are removed by a {@link TimingWheel} rather than by scanning the whole
+ * store. The wheel is advanced by whichever caller first notices that a tick has passed, and
+ * only if no other caller is advancing it already, so there is no background thread and no
+ * caller ever waits for the sweep. Memory is bounded: once the store holds its maximum number
+ * of sessions, creating one evicts the session closest to expiry. Sessions ended early stay in
+ * the wheel until their bucket comes round, so the wheel may hold up to twice the maximum;
+ * creating a session when it is that full first compacts it.
+ * </p>
+ * <p>
+ * The shared instance is configured from the system properties
+ * {@code builderportfolio.session.ttlMillis} and {@code builderportfolio.session.maxSessions},
+ * read when it is first used.
+ * </p>
+ */
+public final class SessionStore {
+
+    /** Default time a session stays valid without being used */
+    public static final long DEFAULT_TTL_MILLIS = TimeUnit.MINUTES.toMillis(30);
+
+    /** Default maximum number of sessions held at once */
+    public static final int DEFAULT_MAX_SESSIONS = 100_000;
+
+    /** Number of wheel ticks per time to live; expiry is accurate to about one tick */
+    private static final int TICKS_PER_TTL = 64;
+
+    private static final int TOKEN_BYTES = 32;
+
+    private static final SecureRandom RANDOM = new SecureRandom();
+
+    private final Map<String, Entry> sessions = new ConcurrentHashMap<>();
+    private final long ttlNanos;
+    private final int maxSessions;
+    private final LongSupplier clock;
+    private final TimingWheel<Entry> wheel;
+
+    /** Held while advancing the wheel or evicting; never waited for by lookups */
+    private final ReentrantLock sweepLock = new ReentrantLock();
+
+    /**
+     * Creates an empty store.
+     *
+     * @param ttlMillis   how long a session stays valid without being used, in milliseconds
+     * @param maxSessions the maximum number of sessions held at once
+     * @throws IllegalArgumentException if either value is not positive
+     */
+    public SessionStore(long ttlMillis, int maxSessions) {
+        this(ttlMillis, maxSessions, System::nanoTime);
+    }
+
+    /**
+     * Creates an empty store reading time from the given clock, for tests.
+     */
+    SessionStore(long ttlMillis, int maxSessions, LongSupplier clock) {
+        if (ttlMillis <= 0) throw new IllegalArgumentException("Session TTL must be positive: " + ttlMillis);
+        if (maxSessions < 1) throw new IllegalArgumentException("Max sessions must be positive: " + maxSessions);
+        this.ttlNanos = TimeUnit.MILLISECONDS.toNanos(ttlMillis);
+        this.maxSessions = maxSessions;
+        this.clock = clock;
+        this.wheel = new TimingWheel<>(Math.max(1, ttlNanos / TICKS_PER_TTL), TICKS_PER_TTL * 2, clock.getAsLong(),
+                entry -> entry.expiresAt, entry -> sessions.get(entry.token) == entry);
+    }
+
+    /**
+     * Returns the store shared by the application, creating it from the system properties on first use.
+     *
+     * @return the shared store
+     */
+    public static SessionStore shared() {
+        return Shared.INSTANCE;
+    }
+
+    /**
+     * Starts a session for a user.
+     *
+     * @param user the logged-in user
+     * @return the new session's token
+     * @throws NullPointerException if user is null
+     */
+    public String create(User user) {
+        if (user == null) throw new NullPointerException("User cannot be null");
+        long now = clock.getAsLong();
+        sweep(now);
+        if (sessions.size() >= maxSessions || isWheelFull()) evict();
+
+        Entry entry = new Entry(newToken(), user, now + ttlNanos);
+        sessions.put(entry.token, entry);
+        wheel.schedule(entry);
+        return entry.token;
+    }
+
+    /**
+     * Resolves a token to its user and extends the session.
+     *
+     * @param token the session token; may be null
+     * @return the user, or null if the token is unknown or its session has expired
+     */
+    public User get(String token) {
+        if (token == null) return null;
+        Entry entry = sessions.get(token);
+        if (entry == null) return null;
+
+        long now = clock.getAsLong();
+        if (now - entry.expiresAt >= 0) {
+            sessions.remove(token, entry);
+            return null;
+        }
+        entry.expiresAt = now + ttlNanos; // the wheel re-reads the deadline when it reaches the entry
+        if (wheel.isBehind(now)) sweep(now);
+        return entry.user;
+    }
+
+    /**
+     * Ends a session.
+     *
+     * @param token the session token; may be null
+     * @return true if a session was ended
+     */
+    public boolean invalidate(String token) {
+        return token != null && sessions.remove(token) != null;
+    }
+
+    /**
+     * Returns the number of sessions held, including expired ones not yet swept.
+     *
+     * @return the number of sessions
+     */
+    public int size() {
+        return sessions.size();
+    }
+
+    /**
+     * Ends every session.
+     */
+    public void clear() {
+        sessions.clear();
+        sweepLock.lock();
+        try {
+            wheel.compact();
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    /**
+     * Returns the number of entries in the wheel, including those of ended sessions, for tests.
+     */
+    int wheelSize() {
+        return wheel.size();
+    }
+
+    /**
+     * Removes sessions the wheel finds expired, unless another thread is already doing so.
+     */
+    private void sweep(long now) {
+        if (!wheel.isBehind(now) || !sweepLock.tryLock()) return;
+        try {
+            wheel.advance(now, entry -> sessions.remove(entry.token, entry));
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private boolean isWheelFull() {
+        return wheel.size() - maxSessions >= maxSessions; // twice the maximum, without overflow
+    }
+
+    /**
+     * Makes room for one session by dropping ended sessions from the wheel, if it is full, and
+     * ending the sessions closest to expiry.
+     */
+    private void evict() {
+        sweepLock.lock();
+        try {
+            if (isWheelFull()) wheel.compact();
+            while (sessions.size() >= maxSessions) {
+                Entry oldest = wheel.pollEarliest();
+                if (oldest == null) break;
+                sessions.remove(oldest.token, oldest);
+            }
+        } finally {
+            sweepLock.unlock();
+        }
+    }
+
+    private static String newToken() {
+        byte[] bytes = new byte[TOKEN_BYTES];
+        RANDOM.nextBytes(bytes);
+        return Base64.getUrlEncoder().withoutPadding().encodeToString(bytes);
+    }
+
+    private static final class Entry {
+        final String token;
+        final User user;
+        volatile long expiresAt;
+
+        Entry(String token, User user, long expiresAt) {
+            this.token = token;
+            this.user = user;
+            this.expiresAt = expiresAt;
+        }
+    }
+
+    /**
+     * Lazily created shared instance.
+     */
+    private static final class Shared {
+        static final SessionStore INSTANCE = new SessionStore(
+                Long.getLong("builderportfolio.session.ttlMillis", DEFAULT_TTL_MILLIS),
+                Integer.getInteger("builderportfolio.session.maxSessions", DEFAULT_MAX_SESSIONS));
+    }
+}
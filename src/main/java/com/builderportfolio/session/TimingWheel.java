@@ -0,0 +1,185 @@
+package com.builderportfolio.session;
+
+// Hashed timing wheel for expiring many entries with coarse deadlines
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Queue;
+import java.util.concurrent.ConcurrentLinkedQueue;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.function.Consumer;
+import java.util.function.Predicate;
+import java.util.function.ToLongFunction;
+
+/**
+ * Hashed timing wheel that finds expired entries without scanning or sorting all of them.
+ * <p>
+ * Time is divided into ticks, and the wheel has a fixed number of buckets used round-robin,
+ * one per tick. An entry is placed in the bucket of the tick its deadline falls in, so
+ * scheduling is a lock-free queue append. {@link #advance(long, Consumer)} walks the
+ * buckets of the ticks that have passed and expires their entries whose deadline is due.
+ * Entries whose deadline moved later, or lies more than one rotation ahead, are placed
+ * again in the bucket of their current deadline; entries no longer live are dropped.
+ * Deadlines are read from the entries each time, so extending one needs no wheel update.
+ * An entry removed before its deadline stays in its bucket until the bucket is reached or
+ * {@link #compact()} drops it; {@link #size()} counts such entries too.
+ * Advancing must not run concurrently with itself; scheduling may run from any thread.
+ * </p>
+ *
+ * @param <E> the type of the entries
+ */
+final class TimingWheel<E> {
+
+    private final long tickNanos;
+    private final int mask;
+    private final Queue<E>[] buckets;
+    private final ToLongFunction<E> deadlineOf;
+    private final Predicate<E> isLive;
+    private final long originNanos;
+
+    /** Entries held in the buckets, live or not */
+    private final AtomicInteger size = new AtomicInteger();
+
+    /** Last tick whose bucket was processed */
+    private volatile long processedTick;
+
+    /**
+     * Creates an empty wheel.
+     *
+     * @param tickNanos   length of a tick in nanoseconds
+     * @param bucketCount number of buckets; rounded up to a power of two
+     * @param nowNanos    current time, the start of tick 0
+     * @param deadlineOf  reads the current deadline of an entry, in {@link System#nanoTime()} terms
+     * @param isLive      tells whether an entry still needs to expire, or was already removed
+     */
+    @SuppressWarnings("unchecked")
+    TimingWheel(long tickNanos, int bucketCount, long nowNanos, ToLongFunction<E> deadlineOf, Predicate<E> isLive) {
+        if (tickNanos <= 0) throw new IllegalArgumentException("Tick must be positive: " + tickNanos);
+        int size = Integer.highestOneBit(Math.max(1, bucketCount - 1)) << 1;
+        this.tickNanos = tickNanos;
+        this.mask = size - 1;
+        this.buckets = new Queue[size];
+        for (int i = 0; i < size; i++) {
+            buckets[i] = new ConcurrentLinkedQueue<>();
+        }
+        this.deadlineOf = deadlineOf;
+        this.isLive = isLive;
+        this.originNanos = nowNanos;
+    }
+
+    /**
+     * Places an entry in the bucket of its current deadline.
+     *
+     * @param entry the entry to schedule
+     */
+    void schedule(E entry) {
+        long tick = Math.max(tickOf(deadlineOf.applyAsLong(entry)), processedTick + 1); // never into a processed bucket
+        buckets[(int) tick & mask].add(entry);
+        size.incrementAndGet();
+    }
+
+    /**
+     * Returns the number of entries held, including those no longer live that have not been
+     * dropped yet.
+     *
+     * @return the number of entries
+     */
+    int size() {
+        return size.get();
+    }
+
+    /**
+     * Drops every entry no longer live from all buckets, rather than waiting for each bucket
+     * to be reached. Must not run concurrently with {@link #advance(long, Consumer)}.
+     */
+    void compact() {
+        for (Queue<E> bucket : buckets) {
+            for (Iterator<E> it = bucket.iterator(); it.hasNext(); ) {
+                if (!isLive.test(it.next())) {
+                    it.remove();
+                    size.decrementAndGet();
+                }
+            }
+        }
+    }
+
+    /**
+     * Checks whether a tick has passed since the last advance, as a cheap test before
+     * calling {@link #advance(long, Consumer)}.
+     *
+     * @param nowNanos the current time
+     * @return true if advancing would process at least one bucket
+     */
+    boolean isBehind(long nowNanos) {
+        return tickOf(nowNanos) > processedTick;
+    }
+
+    /**
+     * Processes the buckets of every tick up to the current one and passes due entries to
+     * the consumer.
+     *
+     * @param nowNanos the current time
+     * @param expired  receives each live entry whose deadline has passed
+     */
+    void advance(long nowNanos, Consumer<? super E> expired) {
+        long target = tickOf(nowNanos);
+        long tick = processedTick;
+        long end = Math.min(target, tick + buckets.length); // one rotation visits every bucket
+        List<E> later = new ArrayList<>();
+        while (tick < end) {
+            tick++;
+            Queue<E> bucket = buckets[(int) tick & mask];
+            for (E entry; (entry = bucket.poll()) != null; ) {
+                size.decrementAndGet();
+                if (!isLive.test(entry)) continue;
+                if (deadlineOf.applyAsLong(entry) - nowNanos <= 0) {
+                    expired.accept(entry);
+                } else {
+                    later.add(entry); // extended, or due in a later rotation
+                }
+            }
+        }
+        processedTick = target;
+        for (E entry : later) {
+            schedule(entry);
+        }
+    }
+
+    /**
+     * Removes and returns a live entry due within the nearest tick that has one. Entries met
+     * on the way whose deadline has moved to a later tick are placed in their new bucket.
+     * Must not run concurrently with {@link #advance(long, Consumer)}.
+     *
+     * @return the entry, or null if the wheel holds no live entries
+     */
+    E pollEarliest() {
+        long tick = processedTick;
+        List<E> later = new ArrayList<>();
+        E found = null;
+        for (int i = 1; i <= buckets.length && found == null; i++) {
+            Queue<E> bucket = buckets[(int) (tick + i) & mask];
+            for (E entry; (entry = bucket.poll()) != null; ) {
+                size.decrementAndGet();
+                if (!isLive.test(entry)) continue;
+                if (tickOf(deadlineOf.applyAsLong(entry)) > tick + i) {
+                    later.add(entry);
+                } else {
+                    found = entry;
+                    break;
+                }
+            }
+        }
+        if (found == null && !later.isEmpty()) {
+            found = later.remove(0); // everything lies beyond one rotation; take any
+        }
+        for (E entry : later) {
+            schedule(entry);
+        }
+        return found;
+    }
+
+    private long tickOf(long nanos) {
+        return Math.floorDiv(nanos - originNanos, tickNanos);
+    }
+}
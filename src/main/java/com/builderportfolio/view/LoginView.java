@@ -1,6 +1,7 @@
 package com.builderportfolio.view;
 
 import com.builderportfolio.exception.UserNotFoundException;
+import com.builderportfolio.model.Role;
 import com.builderportfolio.model.User;
 import com.builderportfolio.view.UserMenuView.BuilderMenu;
 import com.builderportfolio.view.UserMenuView.ManagerMenu;
@@ -44,7 +45,7 @@ public class LoginView {
             System.out.println("Login successful");
 
             // Direct user to the appropriate menu based on role
-            if (ValidationUtil.isManager(userId)) {
+            if (user.getRole() == Role.PROJECT_MANAGER) {
                 new ManagerMenu().show();
             } else {
                 new BuilderMenu().show();
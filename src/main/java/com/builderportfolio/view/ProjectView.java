@@ -4,7 +4,7 @@ import com.builderportfolio.model.*;
 import com.builderportfolio.view.util.*;
 
 import java.time.LocalDate;
-import java.util.List;
+import java.util.function.BiFunction;
 
 /**
  * Handles all project-related interactions in the console UI.
@@ -16,6 +16,9 @@ import java.util.List;
  */
 public class ProjectView {
 
+    /** Number of projects shown per page when listing assigned projects */
+    private static final int PAGE_SIZE = 10;
+
     /**
      * Prompts the manager to input project details and creates a new project.
      * <p>
@@ -46,7 +49,7 @@ public class ProjectView {
         System.out.println("Client Phone:");
         String clientPhone = InputUtil.read();
 
-        Client client = new Client(clientName, clientEmail, clientPhone);
+        Client client = ServiceFactory.projectService().findOrCreateClient(clientName, clientEmail, clientPhone); // reuses a repeat customer
 
         System.out.println("Status (UPCOMING / IN_PROGRESS / COMPLETED):");
         ProjectStatus projectStatus = ProjectStatus.valueOf(InputUtil.read().toUpperCase());
@@ -75,9 +78,9 @@ public class ProjectView {
      * </p>
      */
     public void updateProjectStatus() {
-        List<Project> projects = ServiceFactory.projectService().getBuilderProjects(Session.getUser().getUserId());
-
-        projects.forEach(System.out::println); // display assigned projects
+        ServiceFactory.projectService()
+                .streamBuilderProjects(Session.getUser().getUserId())
+                .forEach(System.out::println); // display assigned projects without building a list
 
         System.out.println("Project ID:");
         long projectId = InputUtil.readInt(); // read project ID to update
@@ -106,4 +109,38 @@ public class ProjectView {
 
         System.out.println(deleted ? "Deleted Project Successfully" : "Failed to delete the Project"); // report result
     }
+
+    /**
+     * Lists the projects managed by the logged-in manager one page at a time.
+     */
+    public void viewManagerProjects() {
+        String managerId = Session.getUser().getUserId();
+        showPages((cursor, size) -> ServiceFactory.projectService().getManagerProjectsPage(managerId, cursor, size));
+    }
+
+    /**
+     * Lists the projects assigned to the logged-in builder one page at a time.
+     */
+    public void viewBuilderProjects() {
+        String builderId = Session.getUser().getUserId();
+        showPages((cursor, size) -> ServiceFactory.projectService().getBuilderProjectsPage(builderId, cursor, size));
+    }
+
+    /**
+     * Prints pages of {@link #PAGE_SIZE} projects until the last page or until the user goes back.
+     */
+    private void showPages(BiFunction<Long, Integer, ProjectPage> pages) {
+        Long cursor = null;
+        do {
+            ProjectPage page = pages.apply(cursor, PAGE_SIZE);
+            page.getProjects().forEach(System.out::println);
+
+            if (!page.hasNext()) return;
+            System.out.println("1. Next Page");
+            System.out.println("2. Back");
+            if (InputUtil.readInt() != 1) return;
+
+            cursor = page.getNextCursor();
+        } while (true);
+    }
 }
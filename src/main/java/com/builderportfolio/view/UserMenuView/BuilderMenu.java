@@ -42,6 +42,10 @@ public class BuilderMenu {
             System.out.println("4. Logout");
 
             choice = InputUtil.readInt(); // safely read numeric input
+            if (choice != 4 && Session.getUser() == null) {
+                System.out.println("Session expired, please login again");
+                return;
+            }
 
             switch (choice) {
                 case 1:
@@ -50,10 +54,8 @@ public class BuilderMenu {
                     break;
 
                 case 2:
-                    // Display all projects assigned to the logged-in builder
-                    ServiceFactory.projectService()
-                            .getBuilderProjects(Session.getUser().getUserId())
-                            .forEach(System.out::println);
+                    // Display projects assigned to the logged-in builder, page by page
+                    new ProjectView().viewBuilderProjects();
                     break;
 
                 case 3:
@@ -44,6 +44,10 @@ public class ManagerMenu {
             System.out.println("5. Logout");
 
             choice = InputUtil.readInt(); // safely read numeric input
+            if (choice != 5 && Session.getUser() == null) {
+                System.out.println("Session expired, please login again");
+                return;
+            }
 
             switch (choice) {
                 case 1:
@@ -57,10 +61,8 @@ public class ManagerMenu {
                     break;
 
                 case 3:
-                    // Display all projects assigned to the logged-in manager
-                    ServiceFactory.projectService()
-                            .getManagerProjects(Session.getUser().getUserId())
-                            .forEach(System.out::println);
+                    // Display projects assigned to the logged-in manager, page by page
+                    new ProjectView().viewManagerProjects();
                     break;
 
                 case 4:
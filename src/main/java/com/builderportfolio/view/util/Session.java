@@ -1,42 +1,55 @@
 package com.builderportfolio.view.util;
 
 import com.builderportfolio.model.User;
+import com.builderportfolio.session.SessionStore;
 
 /**
- * Manages the current logged-in user session in the application.
+ * Manages the logged-in user session of the current thread.
  * <p>
- * Stores the active {@link User} object during the session and provides
- * methods to login, retrieve, and logout the user.
+ * Sessions live in the shared {@link SessionStore}; this class only remembers the token of
+ * the session started on the calling thread, so concurrent clients served by separate
+ * threads each see their own user. A session that expires or is evicted from the store
+ * reads as logged out.
  * </p>
  */
 public class Session {
 
-    /** Stores the currently logged-in user */
-    private static User loggedInUser;
+    /** Token of the session started on each thread */
+    private static final ThreadLocal<String> token = new ThreadLocal<>();
 
     /**
-     * Sets the logged-in user when a login occurs.
+     * Starts a session for the user on the current thread, ending any previous one.
      *
      * @param user the User object to mark as logged in
      */
     public static void login(User user) {
-        loggedInUser = user;
+        logout();
+        token.set(SessionStore.shared().create(user));
     }
 
     /**
-     * Retrieves the currently logged-in user.
+     * Retrieves the logged-in user of the current thread and keeps the session alive.
      *
-     * @return the active User object, or null if no user is logged in
+     * @return the active User object, or null if no user is logged in or the session expired
      */
     public static User getUser() {
-        return loggedInUser;
+        return SessionStore.shared().get(token.get());
     }
 
     /**
-     * Clears the current session, effectively logging out the user.
+     * Returns the token of the current thread's session, for clients that pass it along.
+     *
+     * @return the token, or null if no session was started on this thread
+     */
+    public static String getToken() {
+        return token.get();
+    }
+
+    /**
+     * Ends the current thread's session, effectively logging out the user.
      */
     public static void logout() {
-        loggedInUser = null;
+        SessionStore.shared().invalidate(token.get());
+        token.remove();
     }
 }
-
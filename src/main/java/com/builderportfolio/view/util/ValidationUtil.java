@@ -1,10 +1,14 @@
 package com.builderportfolio.view.util;
 
+import com.builderportfolio.model.Role;
+import com.builderportfolio.model.UserKeys;
+
 /**
  * Utility class for validating user roles based on their userId.
  * <p>
  * Provides methods to determine if a user is a Project Manager or a Builder
- * by checking the prefix of the userId.
+ * from the role recorded in {@link UserKeys}, falling back to the prefix of
+ * the userId for IDs no user was created with.
  * </p>
  */
 public class ValidationUtil {
@@ -19,6 +23,8 @@ public class ValidationUtil {
      * @return true if the userId represents a Project Manager, false otherwise
      */
     public static boolean isManager(String userId) {
+        Role role = UserKeys.roleOf(UserKeys.lookup(userId));
+        if (role != null) return role == Role.PROJECT_MANAGER;
         return userId != null && userId.startsWith("M");
     }
 
@@ -32,6 +38,8 @@ public class ValidationUtil {
      * @return true if the userId represents a Builder, false otherwise
      */
     public static boolean isBuilder(String userId) {
+        Role role = UserKeys.roleOf(UserKeys.lookup(userId));
+        if (role != null) return role == Role.BUILDER;
         return userId != null && userId.startsWith("B");
     }
 }
@@ -0,0 +1,236 @@
+package com.builderportfolio.api;
+
+import com.builderportfolio.dao.ClientDao;
+import com.builderportfolio.model.UserKeys;
+import com.builderportfolio.security.PasswordVerifier;
+import com.builderportfolio.service.ProjectService;
+import com.builderportfolio.service.UserService;
+import com.builderportfolio.session.SessionStore;
+import org.junit.jupiter.api.*;
+
+import java.io.ByteArrayOutputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.OutputStream;
+import java.net.HttpURLConnection;
+import java.net.InetAddress;
+import java.net.InetSocketAddress;
+import java.net.URL;
+import java.nio.charset.StandardCharsets;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Integration test class for {@link ApiServer} on localhost.
+ * <p>
+ * Validates registration and login with session tokens, the project
+ * endpoints with their role checks, error responses, that rejected
+ * requests leave no users or clients behind, and a burst of concurrent
+ * clients.
+ * </p>
+ */
+class ApiServerTest {
+
+    private static ApiServer server;
+    private static PasswordVerifier passwords;
+    private static String managerToken;
+    private static String builderToken;
+    private static String builderId;
+    private static String managerEmail;
+
+    @BeforeAll
+    static void startServer() throws IOException {
+        passwords = new PasswordVerifier(1_000, 2, 16, 100, 60_000);
+        server = new ApiServer(new InetSocketAddress(InetAddress.getLoopbackAddress(), 0),
+                new UserService(passwords), new ProjectService(), new SessionStore(60_000, 1_000));
+        server.start();
+
+        String suffix = Long.toString(System.nanoTime());
+        managerEmail = "apim" + suffix + "@example.com";
+        Reply manager = call("POST", "/api/register", null, "{\"userName\":\"Api Manager\",\"userEmail\":\"" + managerEmail
+                + "\",\"userPhNumber\":\"9000000001\",\"userExperience\":9,\"password\":\"pw1\",\"role\":\"project_manager\"}");
+        Reply builder = call("POST", "/api/register", null, "{\"userName\":\"Api Builder\",\"userEmail\":\"apib" + suffix
+                + "@example.com\",\"userPhNumber\":\"9000000002\",\"userExperience\":4,\"password\":\"pw2\",\"role\":\"BUILDER\"}");
+        assertEquals(201, manager.status);
+        assertEquals(201, builder.status);
+        managerToken = (String) manager.json.get("token");
+        builderId = (String) user(builder).get("userId");
+
+        Reply login = call("POST", "/api/login", null, "{\"userId\":\"" + builderId + "\",\"password\":\"pw2\"}");
+        assertEquals(200, login.status);
+        builderToken = (String) login.json.get("token");
+    }
+
+    @AfterAll
+    static void stopServer() {
+        server.stop(0);
+        passwords.shutdown();
+    }
+
+    /**
+     * Verifies registration and login return tokens and user details but never the password.
+     */
+    @Test
+    void testRegisterAndLogin() throws IOException {
+        assertNotNull(managerToken);
+        assertNotNull(builderToken);
+        assertNotEquals(managerToken, builderToken);
+
+        Reply wrong = call("POST", "/api/login", null, "{\"userId\":\"" + builderId + "\",\"password\":\"nope\"}");
+        Reply unknown = call("POST", "/api/login", null, "{\"userId\":\"B999999\",\"password\":\"pw2\"}");
+        assertEquals(401, wrong.status);
+        assertEquals(401, unknown.status);
+        assertEquals(wrong.json.get("error"), unknown.json.get("error"));
+
+        Reply login = call("POST", "/api/login", null, "{\"userId\":\"" + builderId + "\",\"password\":\"pw2\"}");
+        assertEquals("BUILDER", user(login).get("role"));
+        assertFalse(user(login).containsKey("password"));
+    }
+
+    /**
+     * Ensures a project can be created, listed, updated and deleted by the right roles only.
+     */
+    @Test
+    void testProjectLifecycle() throws IOException {
+        String project = "{\"projectName\":\"Api Tower\",\"description\":\"d\",\"startDate\":\"2025-01-01\","
+                + "\"endDate\":\"2025-12-31\",\"status\":\"UPCOMING\",\"builderId\":\"" + builderId + "\","
+                + "\"clientName\":\"Cli\",\"clientEmail\":\"cli@example.com\",\"clientPhNumber\":\"9000000003\"}";
+        assertEquals(403, call("POST", "/api/projects", builderToken, project).status);
+
+        Reply created = call("POST", "/api/projects", managerToken, project);
+        assertEquals(201, created.status);
+        long id = (Long) created.json.get("projectId");
+        assertEquals(builderId, created.json.get("builderId"));
+
+        Reply listed = call("GET", "/api/projects?size=500", builderToken, null);
+        assertEquals(200, listed.status);
+        assertTrue(listed.body.contains("\"projectId\":" + id + ","));
+
+        String status = "{\"status\":\"IN_PROGRESS\"}";
+        assertEquals(403, call("PUT", "/api/projects/" + id + "/status", managerToken, status).status);
+        assertEquals(204, call("PUT", "/api/projects/" + id + "/status", builderToken, status).status);
+        assertEquals(404, call("PUT", "/api/projects/999999999/status", builderToken, status).status);
+
+        assertEquals(403, call("DELETE", "/api/projects/" + id, builderToken, null).status);
+        assertEquals(204, call("DELETE", "/api/projects/" + id, managerToken, null).status);
+        assertEquals(404, call("DELETE", "/api/projects/" + id, managerToken, null).status);
+    }
+
+    /**
+     * Verifies missing tokens, bad input and wrong methods get the matching error status.
+     */
+    @Test
+    void testErrors() throws IOException {
+        assertEquals(401, call("GET", "/api/projects", null, null).status);
+        assertEquals(401, call("GET", "/api/projects", "forged", null).status);
+        assertEquals(400, call("POST", "/api/login", null, "{not json").status);
+        assertEquals(400, call("POST", "/api/login", null, "{\"userId\":7}").status);
+        assertEquals(400, call("PUT", "/api/projects/abc/status", builderToken, "{}").status);
+        assertEquals(400, call("PUT", "/api/projects/1/status", builderToken, "{\"status\":\"DONE\"}").status);
+        assertEquals(405, call("GET", "/api/login", null, null).status);
+        assertEquals(405, call("GET", "/api/projects/1/status", builderToken, null).status);
+
+        Reply error = call("GET", "/api/projects", null, null);
+        assertNotNull(error.json.get("error"));
+    }
+
+    /**
+     * Ensures a rejected registration or project allocates no user and creates no client,
+     * and a duplicate email is reported without naming the existing user.
+     */
+    @Test
+    void testRejectedRequestsLeaveNoState() throws IOException {
+        int keys = UserKeys.size();
+        Reply duplicate = call("POST", "/api/register", null, "{\"userName\":\"Again\",\"userEmail\":\"" + managerEmail
+                + "\",\"userPhNumber\":\"9000000009\",\"userExperience\":1,\"password\":\"pw\",\"role\":\"BUILDER\"}");
+        assertEquals(409, duplicate.status);
+        assertEquals(ApiServer.EMAIL_TAKEN, duplicate.json.get("error"));
+        Reply incomplete = call("POST", "/api/register", null, "{\"userName\":\"Partial\",\"userEmail\":\"partial"
+                + System.nanoTime() + "@example.com\",\"userPhNumber\":\"9000000010\",\"role\":\"BUILDER\"}");
+        assertEquals(400, incomplete.status);
+        assertEquals(keys, UserKeys.size());
+
+        String unique = Long.toString(System.nanoTime()); // matches no existing client by email or phone
+        String clientEmail = "orphan" + unique + "@example.com";
+        String project = "{\"projectName\":\"Bad Dates\",\"startDate\":\"2025-13-01\",\"endDate\":\"2025-12-31\","
+                + "\"status\":\"UPCOMING\",\"builderId\":\"" + builderId + "\",\"clientName\":\"Orphan\","
+                + "\"clientEmail\":\"" + clientEmail + "\",\"clientPhNumber\":\"" + unique + "\"}";
+        assertEquals(400, call("POST", "/api/projects", managerToken, project).status);
+        assertEquals(400, call("POST", "/api/projects", managerToken,
+                project.replace("2025-13-01", "2025-01-01").replace("UPCOMING", "DONE")).status);
+        assertNull(ClientDao.findByEmail(clientEmail));
+    }
+
+    /**
+     * Ensures many concurrent clients are all served, and logout ends a session.
+     */
+    @Test
+    void testConcurrentClientsAndLogout() throws Exception {
+        ExecutorService clients = Executors.newFixedThreadPool(32);
+        try {
+            List<Future<Integer>> results = new ArrayList<>();
+            for (int i = 0; i < 200; i++) {
+                results.add(clients.submit(() -> call("GET", "/api/projects?size=5", managerToken, null).status));
+            }
+            for (Future<Integer> result : results) {
+                assertEquals(200, result.get(30, TimeUnit.SECONDS));
+            }
+        } finally {
+            clients.shutdown();
+        }
+
+        Reply login = call("POST", "/api/login", null, "{\"userId\":\"" + builderId + "\",\"password\":\"pw2\"}");
+        String token = (String) login.json.get("token");
+        assertEquals(204, call("POST", "/api/logout", token, null).status);
+        assertEquals(401, call("GET", "/api/projects", token, null).status);
+        assertEquals(401, call("POST", "/api/logout", token, null).status);
+    }
+
+    @SuppressWarnings("unchecked")
+    private static Map<String, Object> user(Reply reply) {
+        return (Map<String, Object>) reply.json.get("user");
+    }
+
+    private static Reply call(String method, String path, String token, String body) throws IOException {
+        HttpURLConnection connection = (HttpURLConnection) new URL("http://127.0.0.1:" + server.port() + path).openConnection();
+        connection.setRequestMethod(method);
+        if (token != null) connection.setRequestProperty("Authorization", "Bearer " + token);
+        if (body != null) {
+            connection.setDoOutput(true);
+            try (OutputStream out = connection.getOutputStream()) {
+                out.write(body.getBytes(StandardCharsets.UTF_8));
+            }
+        }
+
+        int status = connection.getResponseCode();
+        InputStream in = status < 400 ? connection.getInputStream() : connection.getErrorStream();
+        ByteArrayOutputStream text = new ByteArrayOutputStream();
+        if (in != null) {
+            try (InputStream stream = in) {
+                byte[] buffer = new byte[4096];
+                for (int n; (n = stream.read(buffer)) != -1; ) text.write(buffer, 0, n);
+            }
+        }
+        String reply = new String(text.toByteArray(), StandardCharsets.UTF_8);
+        return new Reply(status, reply, reply.isEmpty() ? null : Json.parseObject(reply));
+    }
+
+    private static final class Reply {
+        final int status;
+        final String body;
+        final Map<String, Object> json;
+
+        Reply(int status, String body, Map<String, Object> json) {
+            this.status = status;
+            this.body = body;
+            this.json = json;
+        }
+    }
+}
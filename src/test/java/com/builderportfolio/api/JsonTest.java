@@ -0,0 +1,66 @@
+package com.builderportfolio.api;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link Json}.
+ * <p>
+ * Validates parsing of objects with every value type, escaping on
+ * write and rejection of malformed documents.
+ * </p>
+ */
+class JsonTest {
+
+    /**
+     * Verifies every value type is parsed, including nesting and escapes.
+     */
+    @Test
+    void testParse() {
+        Map<String, Object> json = Json.parseObject(
+                " {\"name\":\"A \\\"B\\\"\\u0041\",\"n\":42,\"x\":-1.5,\"ok\":true,\"no\":false,\"none\":null,"
+                        + "\"list\":[1,\"two\"],\"obj\":{}} ");
+
+        assertEquals("A \"B\"A", json.get("name"));
+        assertEquals(42L, json.get("n"));
+        assertEquals(-1.5, json.get("x"));
+        assertEquals(Boolean.TRUE, json.get("ok"));
+        assertEquals(Boolean.FALSE, json.get("no"));
+        assertTrue(json.containsKey("none"));
+        assertNull(json.get("none"));
+        assertEquals(Arrays.asList(1L, "two"), json.get("list"));
+        assertEquals(new LinkedHashMap<String, Object>(), json.get("obj"));
+    }
+
+    /**
+     * Ensures written JSON escapes strings and parses back to the same values.
+     */
+    @Test
+    void testWriteRoundTrip() {
+        Map<String, Object> value = new LinkedHashMap<>();
+        value.put("text", "line\n\"quoted\"\\\u0001");
+        value.put("n", 7L);
+        value.put("list", Arrays.asList(true, null));
+
+        String text = Json.write(value);
+
+        assertEquals("{\"text\":\"line\\n\\\"quoted\\\"\\\\\\u0001\",\"n\":7,\"list\":[true,null]}", text);
+        assertEquals(value, Json.parseObject(text));
+        assertThrows(IllegalArgumentException.class, () -> Json.write(new Object()));
+    }
+
+    /**
+     * Verifies malformed documents are rejected with an IllegalArgumentException.
+     */
+    @Test
+    void testMalformed() {
+        for (String bad : new String[]{"", "[]", "{", "{\"a\"}", "{\"a\":}", "{\"a\":1,}", "{\"a\":\"x}", "{} x", "{\"a\":tru}", "{\"a\":1-2}"}) {
+            assertThrows(IllegalArgumentException.class, () -> Json.parseObject(bad), bad);
+        }
+    }
+}
@@ -0,0 +1,264 @@
+package com.builderportfolio.bulk;
+
+import com.builderportfolio.api.Json;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.User;
+import com.builderportfolio.security.PasswordVerifier;
+import com.builderportfolio.service.ProjectService;
+import com.builderportfolio.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.BufferedInputStream;
+import java.io.BufferedReader;
+import java.io.DataInputStream;
+import java.io.IOException;
+import java.io.InputStream;
+import java.io.InputStreamReader;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.HashMap;
+import java.util.List;
+import java.util.Map;
+import java.util.stream.Collectors;
+import java.util.zip.GZIPInputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link BulkExporter}.
+ * <p>
+ * Validates that every format, with and without compression, carries each
+ * project's fields, client and assignments through a buffer much smaller
+ * than the export, that a CSV export can be imported again, and that a
+ * failed export leaves the previous file in place.
+ * </p>
+ */
+class BulkExporterTest {
+
+    /**
+     * Temporary directory holding the export files.
+     */
+    @TempDir
+    Path dir;
+
+    private final BulkExporter exporter = new BulkExporter(BulkExporter.MIN_BUFFER_BYTES);
+    private UserService userService;
+    private ProjectService projectService;
+    private User manager;
+    private User builder;
+    private Map<Long, Project> created;
+
+    /**
+     * Registers a manager and builder and creates their projects, including
+     * names that need quoting and escaping and a project without dates.
+     */
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(new PasswordVerifier(1_000, 2, 16, 100, 60_000));
+        projectService = new ProjectService();
+        String suffix = Long.toString(System.nanoTime());
+        manager = new User("Export Manager", "expm" + suffix + "@example.com", "9400000001", 7, "pw", 1);
+        builder = new User("Builder, \"Export\"", "expb" + suffix + "@example.com", "9400000002", 3, "pw", 2);
+        userService.register(manager);
+        userService.register(builder);
+        Client client = projectService.findOrCreateClient("Client \u00dcn\u00efc\u00f6d\u00e9 \ud83c\udfe0", "expc" + suffix + "@example.com", "9400000003");
+
+        created = new HashMap<>();
+        for (int i = 0; i < 30; i++) {
+            Project project = projectService.createProject("Export " + i, i % 2 == 0 ? "line, with comma" : null,
+                    LocalDate.of(2025, 1, 1).plusDays(i), LocalDate.of(2025, 12, 31), ProjectStatus.values()[i % 3],
+                    client, builder.getUserId(), manager.getUserId());
+            created.put(project.getProjectId(), project);
+        }
+        Project undated = projectService.createProject("Undated", "", null, null, ProjectStatus.UPCOMING, null,
+                builder.getUserId(), manager.getUserId());
+        created.put(undated.getProjectId(), undated);
+    }
+
+    /**
+     * Verifies a CSV export, plain and gzipped, holds every created project.
+     */
+    @Test
+    void testCsv() throws IOException {
+        for (boolean gzip : new boolean[]{false, true}) {
+            Path file = dir.resolve(gzip ? "projects.csv.gz" : "projects.csv");
+            ExportReport report = exporter.exportProjects(file, BulkFormat.CSV, gzip);
+            List<String> lines = readLines(file, gzip);
+
+            assertEquals(BulkExporter.CSV_HEADER, lines.get(0));
+            assertEquals(report.getProjects(), lines.size() - 1);
+            List<String> header = CsvLine.parse(lines.get(0));
+            Map<Long, Map<String, String>> rows = new HashMap<>();
+            for (String line : lines.subList(1, lines.size())) {
+                List<String> fields = CsvLine.parse(line);
+                assertEquals(header.size(), fields.size(), line);
+                Map<String, String> row = new HashMap<>();
+                for (int i = 0; i < fields.size(); i++) row.put(header.get(i), fields.get(i));
+                rows.put(Long.parseLong(row.get("projectId")), row);
+            }
+            for (Project project : created.values()) {
+                Map<String, String> row = rows.get(project.getProjectId());
+                assertNotNull(row);
+                assertEquals(project.getProjectName(), row.get("projectName"));
+                assertEquals(project.getProjectDescription() == null ? "" : project.getProjectDescription(), row.get("description"));
+                assertEquals(project.getProjectStartDate() == null ? "" : project.getProjectStartDate().toString(), row.get("startDate"));
+                assertEquals(project.getProjectStatus().name(), row.get("status"));
+                assertEquals(builder.getUserName(), row.get("builderName"));
+                assertEquals(manager.getUserId(), row.get("managerId"));
+                Client client = project.getAssignedClient();
+                assertEquals(client == null ? "" : client.getClientName(), row.get("clientName"));
+            }
+            if (!gzip) assertEquals(Files.size(file), report.getBytes());
+            assertFalse(Files.exists(dir.resolve(file.getFileName() + ".tmp")));
+        }
+    }
+
+    /**
+     * Verifies a JSON-lines export holds every created project.
+     */
+    @Test
+    void testJsonLines() throws IOException {
+        Path file = dir.resolve("projects.jsonl");
+        ExportReport report = exporter.exportProjects(file, BulkFormat.JSON_LINES, false);
+
+        List<Map<String, Object>> records = readLines(file, false).stream().map(Json::parseObject).collect(Collectors.toList());
+        assertEquals(report.getProjects(), records.size());
+        Map<Long, Map<String, Object>> byId = new HashMap<>();
+        for (Map<String, Object> record : records) byId.put((Long) record.get("projectId"), record);
+        for (Project project : created.values()) {
+            Map<String, Object> record = byId.get(project.getProjectId());
+            assertEquals(project.getProjectName(), record.get("projectName"));
+            assertEquals(project.getProjectDescription(), record.get("description"));
+            assertEquals(builder.getUserName(), record.get("builderName"));
+            if (project.getAssignedClient() == null) {
+                assertNull(record.get("clientId"));
+                assertNull(record.get("startDate"));
+            } else {
+                assertEquals(project.getAssignedClient().getClientId(), record.get("clientId"));
+                assertEquals("Client \u00dcn\u00efc\u00f6d\u00e9 \ud83c\udfe0", record.get("clientName"));
+            }
+        }
+    }
+
+    /**
+     * Verifies a binary export, plain and gzipped, decodes to every created project.
+     */
+    @Test
+    void testBinary() throws IOException {
+        for (boolean gzip : new boolean[]{false, true}) {
+            Path file = dir.resolve(gzip ? "projects.bin.gz" : "projects.bin");
+            ExportReport report = exporter.exportProjects(file, BulkFormat.BINARY, gzip);
+
+            Map<Long, String[]> decoded = new HashMap<>();
+            try (DataInputStream in = new DataInputStream(new BufferedInputStream(open(file, gzip)))) {
+                assertEquals(BulkExporter.BINARY_MAGIC, in.readInt());
+                assertEquals(BulkExporter.BINARY_VERSION, in.readInt());
+                while (in.readByte() == 1) {
+                    long projectId = in.readLong();
+                    String name = readString(in);
+                    String description = readString(in);
+                    long start = in.readLong();
+                    in.readLong();
+                    byte status = in.readByte();
+                    String builderId = readString(in);
+                    String builderName = readString(in);
+                    readString(in);
+                    readString(in);
+                    long clientId = in.readLong();
+                    String clientName = readString(in);
+                    readString(in);
+                    readString(in);
+                    decoded.put(projectId, new String[]{name, description, Long.toString(start), Byte.toString(status),
+                            builderId, builderName, Long.toString(clientId), clientName});
+                }
+                assertEquals(-1, in.read());
+            }
+            assertEquals(report.getProjects(), decoded.size());
+            for (Project project : created.values()) {
+                String[] fields = decoded.get(project.getProjectId());
+                assertEquals(project.getProjectName(), fields[0]);
+                assertEquals(project.getProjectDescription(), fields[1]);
+                long start = project.getProjectStartDate() == null ? Long.MIN_VALUE : project.getProjectStartDate().toEpochDay();
+                assertEquals(Long.toString(start), fields[2]);
+                assertEquals(Integer.toString(project.getProjectStatus().ordinal()), fields[3]);
+                assertEquals(builder.getUserId(), fields[4]);
+                assertEquals(builder.getUserName(), fields[5]);
+                Client client = project.getAssignedClient();
+                assertEquals(client == null ? "-1" : Long.toString(client.getClientId()), fields[6]);
+                assertEquals(client == null ? null : client.getClientName(), fields[7]);
+            }
+        }
+    }
+
+    /**
+     * Verifies the manager's projects in a CSV export can be imported again.
+     */
+    @Test
+    void testCsvRoundTrip() throws IOException {
+        Path export = dir.resolve("export.csv");
+        exporter.exportProjects(export, BulkFormat.CSV, false);
+        List<String> lines = readLines(export, false);
+        List<String> own = new ArrayList<>();
+        own.add(lines.get(0));
+        for (String line : lines.subList(1, lines.size())) {
+            if (line.contains("," + manager.getUserId() + ",") && !line.contains("Undated")) own.add(line);
+        }
+        Path reimport = Files.write(dir.resolve("reimport.csv"), own, StandardCharsets.UTF_8);
+
+        ImportReport report = new BulkImporter(userService, projectService, 2, 8).importProjects(reimport, BulkFormat.CSV);
+        assertEquals(30, report.getImported(), report.getRejections().toString());
+        assertEquals(61, projectService.getManagerProjects(manager.getUserId()).size());
+    }
+
+    /**
+     * Ensures a failed export leaves the existing file unchanged and no temporary file.
+     */
+    @Test
+    void testFailureKeepsPreviousExport() throws IOException {
+        Path file = dir.resolve("projects.csv");
+        Files.write(file, "previous".getBytes(StandardCharsets.UTF_8));
+        Files.createDirectory(dir.resolve("projects.csv.tmp")); // cannot be opened as a file
+
+        assertThrows(IOException.class, () -> exporter.exportProjects(file, BulkFormat.CSV, true));
+        assertEquals("previous", new String(Files.readAllBytes(file), StandardCharsets.UTF_8));
+        assertThrows(IllegalArgumentException.class, () -> new BulkExporter(BulkExporter.MIN_BUFFER_BYTES - 1));
+        assertThrows(IllegalArgumentException.class, () -> exporter.schedule(file, 0));
+    }
+
+    /**
+     * Verifies UTF-8 lengths, including surrogate pairs and unpaired surrogates.
+     */
+    @Test
+    void testUtf8Length() {
+        for (String s : new String[]{"", "abc", "\u00e9", "\u20ac", "\ud83c\udfe0", "\u00dcn\u00efc\u00f6d\u00e9 \ud83c\udfe0"}) {
+            assertEquals(s.getBytes(StandardCharsets.UTF_8).length, BulkExporter.utf8Length(s), s);
+        }
+        assertEquals(2, BulkExporter.utf8Length("a\ud800"));
+    }
+
+    private static List<String> readLines(Path file, boolean gzip) throws IOException {
+        try (BufferedReader reader = new BufferedReader(new InputStreamReader(open(file, gzip), StandardCharsets.UTF_8))) {
+            return reader.lines().collect(Collectors.toList());
+        }
+    }
+
+    private static InputStream open(Path file, boolean gzip) throws IOException {
+        InputStream in = Files.newInputStream(file);
+        return gzip ? new GZIPInputStream(in) : in;
+    }
+
+    private static String readString(DataInputStream in) throws IOException {
+        int length = in.readInt();
+        if (length < 0) return null;
+        byte[] bytes = new byte[length];
+        in.readFully(bytes);
+        return new String(bytes, StandardCharsets.UTF_8);
+    }
+}
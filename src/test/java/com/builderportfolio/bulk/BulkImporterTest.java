@@ -0,0 +1,223 @@
+package com.builderportfolio.bulk;
+
+import com.builderportfolio.dao.ClientDao;
+import com.builderportfolio.dao.UserDao;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.Role;
+import com.builderportfolio.model.User;
+import com.builderportfolio.security.PasswordHasher;
+import com.builderportfolio.security.PasswordVerifier;
+import com.builderportfolio.service.ProjectService;
+import com.builderportfolio.service.UserService;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.io.OutputStreamWriter;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.zip.GZIPOutputStream;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link BulkImporter}.
+ * <p>
+ * Validates that users and projects are imported from CSV and JSON-lines
+ * files across several chunks and workers, that bad rows are rejected
+ * with their line numbers without stopping the import or creating
+ * clients, and that the report counts every record.
+ * </p>
+ */
+class BulkImporterTest {
+
+    /**
+     * Temporary directory holding the import files.
+     */
+    @TempDir
+    Path dir;
+
+    private UserService userService;
+    private ProjectService projectService;
+    private BulkImporter importer;
+    private String suffix;
+
+    /**
+     * Creates an importer with small chunks so several workers take part.
+     */
+    @BeforeEach
+    void setUp() {
+        userService = new UserService(new PasswordVerifier(1_000, 2, 16, 100, 60_000));
+        projectService = new ProjectService();
+        importer = new BulkImporter(userService, projectService, 2, 4);
+        suffix = Long.toString(System.nanoTime());
+    }
+
+    /**
+     * Verifies users are imported from CSV, and that a duplicate email, an
+     * unknown role and a short row are rejected.
+     */
+    @Test
+    void testImportUsersCsv() throws IOException {
+        Path file = write("users.csv",
+                "userName,userEmail,userPhNumber,userExperience,password,role",
+                "Csv Manager,csvm" + suffix + "@example.com,9100000001,12,pw1,PROJECT_MANAGER",
+                "\"Builder, Csv\",csvb" + suffix + "@example.com,9100000002,3,pw2,builder",
+                "",
+                "Again,csvm" + suffix + "@example.com,9100000003,1,pw3,BUILDER",
+                "Nobody,csvx" + suffix + "@example.com,9100000004,1,pw4,ARCHITECT",
+                "Short,row");
+
+        ImportReport report = importer.importUsers(file, BulkFormat.CSV);
+
+        assertEquals(5, report.getRecords());
+        assertEquals(2, report.getImported());
+        assertEquals(3, report.getRejected());
+        assertEquals(3, report.getRejections().size());
+        assertTrue(report.getRejections().stream().anyMatch(r -> r.startsWith("line 5: ")));
+        assertTrue(report.getRejections().stream().anyMatch(r -> r.startsWith("line 7: ")));
+
+        User manager = UserDao.getUserbyId(UserDao.exists("csvm" + suffix + "@example.com"));
+        assertEquals(Role.PROJECT_MANAGER, manager.getRole());
+        assertEquals(12, manager.getUserExperience());
+        assertTrue(PasswordHasher.isHash(manager.getPassword()));
+        User builder = UserDao.getUserbyId(UserDao.exists("csvb" + suffix + "@example.com"));
+        assertEquals("Builder, Csv", builder.getUserName());
+        assertEquals(Role.BUILDER, builder.getRole());
+        assertNotNull(userService.login(builder.getUserId(), "pw2"));
+    }
+
+    /**
+     * Verifies projects are imported from JSON lines in batches, sharing one
+     * client per customer, and that malformed records and unknown users are
+     * rejected.
+     */
+    @Test
+    void testImportProjectsJsonLines() throws IOException {
+        User manager = new User("Import Manager", "impm" + suffix + "@example.com", "9200000001", 8, "pw", 1);
+        User builder = new User("Import Builder", "impb" + suffix + "@example.com", "9200000002", 2, "pw", 2);
+        userService.register(manager);
+        userService.register(builder);
+
+        List<String> lines = new ArrayList<>();
+        for (int i = 0; i < 20; i++) {
+            lines.add("{\"projectName\":\"Imported " + i + "\",\"startDate\":\"2025-01-01\",\"endDate\":\"2025-06-30\","
+                    + "\"status\":\"upcoming\",\"builderId\":\"" + builder.getUserId() + "\",\"managerId\":\""
+                    + manager.getUserId() + "\",\"clientName\":\"Importer\",\"clientEmail\":\"client" + suffix
+                    + "@example.com\",\"clientPhNumber\":\"9300000001\"}");
+        }
+        lines.add(3, "{\"projectName\":\"Broken\""); // line 4
+        lines.add(10, lines.get(0).replace(builder.getUserId(), "B-unknown")); // line 11
+        lines.add(15, lines.get(0).replace("2025-01-01", "01/01/2025")); // line 16
+        ImportReport report = importer.importProjects(write("projects.jsonl", lines.toArray(new String[0])),
+                BulkFormat.JSON_LINES);
+
+        assertEquals(23, report.getRecords());
+        assertEquals(20, report.getImported());
+        assertEquals(3, report.getRejected());
+        for (String line : Arrays.asList("line 4: ", "line 11: ", "line 16: ")) {
+            assertTrue(report.getRejections().stream().anyMatch(r -> r.startsWith(line)), line);
+        }
+        assertTrue(report.getRecordsPerSecond() > 0);
+
+        List<Project> managed = projectService.getManagerProjects(manager.getUserId());
+        assertEquals(20, managed.size());
+        assertEquals(20, projectService.getBuilderProjects(builder.getUserId()).size());
+        assertEquals(1, managed.stream().map(p -> p.getAssignedClient().getClientId()).distinct().count());
+        assertTrue(managed.stream().allMatch(p -> p.getProjectStatus() == ProjectStatus.UPCOMING));
+    }
+
+    /**
+     * Ensures invalid records are rejected alone, without their chunk, and
+     * create no clients.
+     */
+    @Test
+    void testImportProjects_rejectedRowsCreateNoClients() throws IOException {
+        User manager = new User("Strict Manager", "strm" + suffix + "@example.com", "9200000011", 8, "pw", 1);
+        User builder = new User("Strict Builder", "strb" + suffix + "@example.com", "9200000012", 2, "pw", 2);
+        userService.register(manager);
+        userService.register(builder);
+
+        String valid = "{\"projectName\":\"Strict\",\"startDate\":\"2025-01-01\",\"endDate\":\"2025-06-30\","
+                + "\"status\":\"UPCOMING\",\"builderId\":\"" + builder.getUserId() + "\",\"managerId\":\""
+                + manager.getUserId() + "\",\"clientName\":\"Strict\",\"clientEmail\":\"CLIENT\",\"clientPhNumber\":\"PHONE\"}";
+        List<String> lines = new ArrayList<>();
+        lines.add(client(valid, "ok"));
+        lines.add(client(valid, "noname").replace("\"projectName\":\"Strict\",", "")); // line 2
+        lines.add(client(valid, "status").replace("UPCOMING", "DONE")); // line 3
+        lines.add(client(valid, "nomanager").replace(manager.getUserId(), "")); // line 4, same chunk as a valid row
+        lines.add(client(valid, "ok"));
+
+        ImportReport report = importer.importProjects(write("strict.jsonl", lines.toArray(new String[0])),
+                BulkFormat.JSON_LINES);
+
+        assertEquals(2, report.getImported(), report.getRejections().toString());
+        assertEquals(3, report.getRejected());
+        for (String line : Arrays.asList("line 2: ", "line 3: ", "line 4: ")) {
+            assertTrue(report.getRejections().stream().anyMatch(r -> r.startsWith(line)), line);
+        }
+        assertNotNull(ClientDao.findByEmail("ok" + suffix + "@example.com"));
+        for (String rejected : Arrays.asList("noname", "status", "nomanager")) {
+            assertNull(ClientDao.findByEmail(rejected + suffix + "@example.com"), rejected);
+        }
+        assertEquals(2, projectService.getManagerProjects(manager.getUserId()).size());
+    }
+
+    /**
+     * Verifies a gzip-compressed file is decompressed while it is read.
+     */
+    @Test
+    void testImportGzipped() throws IOException {
+        Path file = dir.resolve("users.jsonl.gz");
+        try (Writer out = new OutputStreamWriter(new GZIPOutputStream(Files.newOutputStream(file)), StandardCharsets.UTF_8)) {
+            out.write("{\"userName\":\"Gz User\",\"userEmail\":\"gz" + suffix + "@example.com\",\"userPhNumber\":\"9500000001\","
+                    + "\"userExperience\":5,\"password\":\"pw\",\"role\":\"BUILDER\"}\n");
+        }
+
+        ImportReport report = importer.importUsers(file, BulkFormat.fromFileName(file));
+
+        assertEquals(1, report.getImported());
+        assertNotNull(UserDao.exists("gz" + suffix + "@example.com"));
+    }
+
+    /**
+     * Verifies the format and compression are inferred from the file extension.
+     */
+    @Test
+    void testFormatFromFileName() {
+        assertEquals(BulkFormat.CSV, BulkFormat.fromFileName(dir.resolve("a.CSV")));
+        assertEquals(BulkFormat.JSON_LINES, BulkFormat.fromFileName(dir.resolve("a.jsonl")));
+        assertEquals(BulkFormat.JSON_LINES, BulkFormat.fromFileName(dir.resolve("a.ndjson")));
+        assertEquals(BulkFormat.BINARY, BulkFormat.fromFileName(dir.resolve("a.bin")));
+        assertEquals(BulkFormat.CSV, BulkFormat.fromFileName(dir.resolve("a.csv.gz")));
+        assertTrue(BulkFormat.isGzipped(dir.resolve("a.jsonl.GZ")));
+        assertFalse(BulkFormat.isGzipped(dir.resolve("a.jsonl")));
+        assertThrows(IllegalArgumentException.class, () -> BulkFormat.fromFileName(dir.resolve("a.txt")));
+    }
+
+    /**
+     * Ensures a missing file and invalid settings are reported.
+     */
+    @Test
+    void testInvalidInput() {
+        assertThrows(IOException.class, () -> importer.importUsers(dir.resolve("missing.csv"), BulkFormat.CSV));
+        assertThrows(IllegalArgumentException.class, () -> importer.importUsers(dir.resolve("users.bin"), BulkFormat.BINARY));
+        assertThrows(IllegalArgumentException.class, () -> new BulkImporter(userService, projectService, 0, 10));
+        assertThrows(IllegalArgumentException.class, () -> new BulkImporter(userService, projectService, 1, 0));
+    }
+
+    private String client(String record, String tag) {
+        return record.replace("CLIENT", tag + suffix + "@example.com").replace("PHONE", tag + suffix);
+    }
+
+    private Path write(String name, String... lines) throws IOException {
+        return Files.write(dir.resolve(name), Arrays.asList(lines), StandardCharsets.UTF_8);
+    }
+}
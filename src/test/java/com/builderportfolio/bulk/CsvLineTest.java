@@ -0,0 +1,61 @@
+package com.builderportfolio.bulk;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link CsvLine}.
+ * <p>
+ * Validates plain and quoted fields, escaped quotes, empty fields, the
+ * rejection of unterminated quotes and that written fields parse back.
+ * </p>
+ */
+class CsvLineTest {
+
+    /**
+     * Verifies plain, quoted and empty fields.
+     */
+    @Test
+    void testParse() {
+        assertEquals(Arrays.asList("a", "b", "c"), CsvLine.parse("a,b,c"));
+        assertEquals(Arrays.asList("Smith, John", "x"), CsvLine.parse("\"Smith, John\",x"));
+        assertEquals(Arrays.asList("say \"hi\"", ""), CsvLine.parse("\"say \"\"hi\"\"\","));
+        assertEquals(Arrays.asList("", "", ""), CsvLine.parse(",,"));
+        assertEquals(Collections.singletonList(""), CsvLine.parse(""));
+        assertEquals(Collections.singletonList("it\"s"), CsvLine.parse("it\"s")); // quotes inside unquoted fields are kept
+    }
+
+    /**
+     * Verifies written fields are quoted only when needed and parse back unchanged.
+     */
+    @Test
+    void testAppend() {
+        StringBuilder line = new StringBuilder();
+        String[] fields = {"plain", "Smith, John", "say \"hi\"", "", "multi\nline"};
+        for (int i = 0; i < fields.length; i++) {
+            if (i > 0) line.append(',');
+            CsvLine.append(fields[i], line);
+        }
+        line.append(',');
+        CsvLine.append(null, line);
+
+        assertTrue(line.toString().startsWith("plain,\"Smith, John\",\"say \"\"hi\"\"\",,"));
+        List<String> expected = new ArrayList<>(Arrays.asList(fields));
+        expected.add("");
+        assertEquals(expected, CsvLine.parse(line.toString()));
+    }
+
+    /**
+     * Ensures an unterminated quoted field is rejected.
+     */
+    @Test
+    void testUnterminatedQuote() {
+        assertThrows(IllegalArgumentException.class, () -> CsvLine.parse("a,\"b"));
+    }
+}
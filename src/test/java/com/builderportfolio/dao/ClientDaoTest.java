@@ -0,0 +1,114 @@
+package com.builderportfolio.dao;
+
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectStatus;
+import org.junit.jupiter.api.*;
+
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link ClientDao} and the projects-by-client index of {@link ProjectDao}.
+ * <p>
+ * Validates that repeat customers are recognised by email or phone number,
+ * that concurrent requests for one customer create a single client, and that
+ * client queries follow saves, client changes and removals.
+ * </p>
+ */
+class ClientDaoTest {
+
+    /**
+     * Verifies a repeat customer is found by email, ignoring case and spaces.
+     */
+    @Test
+    void testFindOrCreate_matchesEmail() {
+        Client first = ClientDao.findOrCreate("Asha", "asha@clients.test", "9000000001");
+        Client again = ClientDao.findOrCreate("Asha K", " ASHA@Clients.test ", "9000000099");
+
+        assertSame(first, again);
+        assertSame(first, ClientDao.getClientById(first.getClientId()));
+        assertEquals("Asha", again.getClientName());
+    }
+
+    /**
+     * Verifies a repeat customer is found by phone number, ignoring formatting.
+     */
+    @Test
+    void testFindOrCreate_matchesPhone() {
+        Client first = ClientDao.findOrCreate("Ravi", "ravi@clients.test", "+91 90000-00002");
+        Client again = ClientDao.findOrCreate("Ravi", "ravi.new@clients.test", "919000000002");
+
+        assertSame(first, again);
+        assertSame(first, ClientDao.findByPhone("(91) 9000000002"));
+        assertNull(ClientDao.findByEmail("ravi.new@clients.test"));
+    }
+
+    /**
+     * Ensures different customers get different clients and blank details are never matched.
+     */
+    @Test
+    void testFindOrCreate_distinctCustomers() {
+        Client one = ClientDao.findOrCreate("One", "one@clients.test", "9000000003");
+        Client two = ClientDao.findOrCreate("Two", "two@clients.test", "9000000004");
+        Client blank1 = ClientDao.findOrCreate("Blank", " ", null);
+        Client blank2 = ClientDao.findOrCreate("Blank", "", "--");
+
+        assertNotSame(one, two);
+        assertNotSame(blank1, blank2);
+        assertNull(ClientDao.findByEmail(" "));
+    }
+
+    /**
+     * Ensures concurrent requests for the same new customer all receive one client.
+     */
+    @Test
+    void testFindOrCreate_concurrentSameCustomer() throws Exception {
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<Client>> results = new CopyOnWriteArrayList<>();
+        for (int i = 0; i < 32; i++) {
+            results.add(pool.submit(() -> {
+                start.await();
+                return ClientDao.findOrCreate("Race", "race@clients.test", "9000000005");
+            }));
+        }
+        start.countDown();
+
+        Set<Client> distinct = ConcurrentHashMap.newKeySet();
+        for (Future<Client> result : results) {
+            distinct.add(result.get(10, TimeUnit.SECONDS));
+        }
+        pool.shutdown();
+        assertEquals(1, distinct.size());
+    }
+
+    /**
+     * Verifies saved projects are registered and found by client, and follow client changes and removal.
+     */
+    @Test
+    void testGetProjectsByClient() {
+        Client client = new Client("Indexed", "indexed@clients.test", "9000000006");
+        Client other = new Client("Other", "other@clients.test", "9000000007");
+        Project a = new Project("A", "Client index", null, null, ProjectStatus.UPCOMING, client, "B-client", "M-client");
+        Project b = new Project("B", "Client index", null, null, ProjectStatus.UPCOMING, client, "B-client", "M-client");
+        ProjectDao.saveProject(a);
+        ProjectDao.saveProject(b);
+
+        assertSame(client, ClientDao.findByEmail("indexed@clients.test"));
+        assertEquals(2, ProjectDao.getProjectsByClient(client.getClientId()).size());
+
+        b.setAssignedClient(other);
+        ProjectDao.saveProject(b);
+        ProjectDao.removeProject(a.getProjectId());
+
+        assertTrue(ProjectDao.getProjectsByClient(client.getClientId()).isEmpty());
+        assertEquals(1, ProjectDao.getProjectsByClient(other.getClientId()).size());
+        assertSame(b, ProjectDao.getProjectsByClient(other.getClientId()).get(0));
+
+        ProjectDao.removeProject(b.getProjectId());
+    }
+}
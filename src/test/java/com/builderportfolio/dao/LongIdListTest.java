@@ -0,0 +1,302 @@
+package com.builderportfolio.dao;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Iterator;
+import java.util.List;
+import java.util.Random;
+import java.util.TreeSet;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link LongIdList}.
+ * <p>
+ * Validates primitive add, contains and remove operations,
+ * duplicate handling, index consistency after many removals,
+ * snapshot iteration, paging by ID while the list changes and
+ * concurrent updates.
+ * </p>
+ */
+class LongIdListTest {
+
+    /**
+     * List under test.
+     */
+    private LongIdList list;
+
+    /**
+     * Creates a fresh list before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        list = new LongIdList();
+    }
+
+    /**
+     * Verifies that added IDs are stored and can be found.
+     */
+    @Test
+    void testAddAndContains() {
+        list.addId(1L);
+        list.addId(2L);
+
+        assertEquals(2, list.size());
+        assertTrue(list.containsId(1L));
+        assertTrue(list.contains(2L));
+        assertFalse(list.containsId(3L));
+    }
+
+    /**
+     * Verifies removal by value keeps the remaining IDs reachable.
+     */
+    @Test
+    void testRemoveId() {
+        list.addId(10L);
+        list.addId(20L);
+        list.addId(30L);
+
+        assertTrue(list.removeId(10L));
+
+        assertEquals(2, list.size());
+        assertFalse(list.containsId(10L));
+        assertTrue(list.containsId(20L));
+        assertTrue(list.containsId(30L));
+        assertTrue(list.removeId(30L));
+        assertTrue(list.removeId(20L));
+        assertTrue(list.isEmpty());
+    }
+
+    /**
+     * Ensures removing a missing ID leaves the list unchanged.
+     */
+    @Test
+    void testRemoveMissingId() {
+        list.addId(5L);
+
+        assertFalse(list.removeId(6L));
+        assertFalse(list.remove("not a long"));
+        assertEquals(1, list.size());
+    }
+
+    /**
+     * Validates that duplicates are counted and removed one at a time.
+     */
+    @Test
+    void testDuplicates() {
+        list.addId(7L);
+        list.addId(8L);
+        list.addId(7L);
+
+        assertTrue(list.removeId(7L));
+        assertTrue(list.containsId(7L));
+        assertEquals(2, list.size());
+
+        assertTrue(list.removeId(7L));
+        assertFalse(list.containsId(7L));
+        assertEquals(1, list.size());
+        assertEquals(8L, list.getId(0));
+    }
+
+    /**
+     * Adds and removes many IDs to exercise index growth and
+     * backward-shift deletion.
+     */
+    @Test
+    void testManyAddsAndRemoves() {
+        for (long id = 1; id <= 10_000; id++) {
+            list.addId(id);
+        }
+        for (long id = 1; id <= 10_000; id += 2) {
+            assertTrue(list.removeId(id));
+        }
+
+        assertEquals(5_000, list.size());
+        for (long id = 1; id <= 10_000; id++) {
+            assertEquals(id % 2 == 0, list.containsId(id));
+        }
+    }
+
+    /**
+     * Ensures the iterator works on a snapshot and is not
+     * affected by later modifications.
+     */
+    @Test
+    void testIteratorIsSnapshot() {
+        list.addId(1L);
+        list.addId(2L);
+
+        Iterator<Long> iterator = list.iterator();
+        list.addId(3L);
+        list.removeId(1L);
+
+        List<Long> seen = new ArrayList<>();
+        iterator.forEachRemaining(seen::add);
+
+        assertEquals(2, seen.size());
+        assertTrue(seen.contains(1L));
+        assertTrue(seen.contains(2L));
+    }
+
+    /**
+     * Verifies {@link LongIdList#forEachId} visits every ID.
+     */
+    @Test
+    void testForEachId() {
+        list.addId(3L);
+        list.addId(4L);
+
+        long[] sum = new long[1];
+        list.forEachId(id -> sum[0] += id);
+
+        assertEquals(7L, sum[0]);
+    }
+
+    /**
+     * Verifies a bulk append stores every ID, counts duplicates and rejects bad runs.
+     */
+    @Test
+    void testAddIds() {
+        list.addId(5L);
+        long[] ids = new long[1_000];
+        for (int i = 0; i < ids.length; i++) {
+            ids[i] = i + 1;
+        }
+
+        list.addIds(ids, 2, 998);
+        list.addIds(ids, 0, 0);
+
+        assertEquals(999, list.size());
+        assertEquals(5L, list.getId(0));
+        assertEquals(3L, list.getId(1));
+        assertTrue(list.containsId(1_000L));
+        assertFalse(list.containsId(2L));
+        assertTrue(list.removeId(5L));
+        assertTrue(list.containsId(5L)); // second occurrence from the run
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addIds(ids, 999, 2));
+        assertThrows(IndexOutOfBoundsException.class, () -> list.addIds(ids, -1, 1));
+    }
+
+    /**
+     * Ensures reading past the end throws an exception.
+     */
+    @Test
+    void testGetOutOfBounds() {
+        assertThrows(IndexOutOfBoundsException.class, () -> list.getId(0));
+    }
+
+    /**
+     * Verifies concurrent adds from several threads are all retained.
+     */
+    @Test
+    void testConcurrentAdds() throws Exception {
+        int threads = 4;
+        int perThread = 5_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            long base = (long) t * perThread;
+            pool.execute(() -> {
+                for (int i = 1; i <= perThread; i++) {
+                    list.addId(base + i);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, list.size());
+        for (long id = 1; id <= threads * perThread; id++) {
+            assertTrue(list.containsId(id));
+        }
+    }
+
+    /**
+     * Verifies idsAfter returns the smallest distinct IDs above the cursor in order.
+     */
+    @Test
+    void testIdsAfter_pagesInOrder() {
+        long[] ids = {42L, 7L, 19L, 7L, 3L, 88L, 19L, 55L};
+        for (long id : ids) {
+            list.addId(id);
+        }
+
+        assertArrayEquals(new long[]{3L, 7L, 19L}, list.idsAfter(Long.MIN_VALUE, 3));
+        assertArrayEquals(new long[]{42L, 55L, 88L}, list.idsAfter(19L, 3));
+        assertArrayEquals(new long[]{88L}, list.idsAfter(55L, 3));
+        assertArrayEquals(new long[0], list.idsAfter(88L, 3));
+        assertArrayEquals(new long[0], list.idsAfter(Long.MIN_VALUE, 0));
+        assertThrows(IllegalArgumentException.class, () -> list.idsAfter(0L, -1));
+    }
+
+    /**
+     * Ensures paging through a large list with idsAfter visits every distinct ID once,
+     * matching the sorted distinct array.
+     */
+    @Test
+    void testIdsAfter_matchesSortedDistinct() {
+        for (long id = 1_000; id > 0; id--) {
+            list.addId(id * 3 % 1_001);
+            if (id % 10 == 0) list.removeId(id * 3 % 1_001);
+        }
+        long[] sorted = list.toSortedDistinctArray();
+
+        List<Long> paged = new ArrayList<>();
+        long cursor = Long.MIN_VALUE;
+        long[] page;
+        while ((page = list.idsAfter(cursor, 37)).length > 0) {
+            for (long id : page) {
+                paged.add(id);
+            }
+            cursor = page[page.length - 1];
+        }
+
+        assertEquals(sorted.length, paged.size());
+        for (int i = 0; i < sorted.length; i++) {
+            assertEquals(sorted[i], (long) paged.get(i));
+        }
+    }
+
+    /**
+     * Verifies pages stay correct while IDs are appended in order, removed,
+     * re-added and inserted out of order between pages.
+     */
+    @Test
+    void testIdsAfter_interleavedChanges() {
+        TreeSet<Long> expected = new TreeSet<>();
+        Random random = new Random(7);
+        long next = 0;
+        for (int round = 0; round < 2_000; round++) {
+            int op = random.nextInt(10);
+            if (op < 6) {
+                next += 1 + random.nextInt(3);
+                list.addId(next);
+                expected.add(next);
+            } else if (op < 9) {
+                long id = random.nextInt((int) next + 1);
+                assertEquals(expected.remove(id), list.removeId(id));
+            } else {
+                long id = random.nextInt((int) next + 1); // a removed ID coming back, or out of order
+                list.addId(id);
+                if (!expected.add(id)) list.removeId(id); // keep the list free of duplicates
+            }
+
+            long cursor = random.nextInt((int) next + 2) - 1;
+            List<Long> want = new ArrayList<>();
+            for (Long id : expected.tailSet(cursor, false)) {
+                if (want.size() == 5) break;
+                want.add(id);
+            }
+            long[] page = list.idsAfter(cursor, 5);
+            assertEquals(want.size(), page.length);
+            for (int i = 0; i < page.length; i++) {
+                assertEquals((long) want.get(i), page[i]);
+            }
+        }
+        assertEquals(expected.size(), list.toSortedDistinctArray().length);
+    }
+}
@@ -0,0 +1,229 @@
+package com.builderportfolio.dao;
+
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.User;
+import com.builderportfolio.service.ProjectService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.HashSet;
+import java.util.Map;
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link MappedProjectStore}.
+ * <p>
+ * Validates that projects round-trip through the mapped file including
+ * null fields, that updates and removals are reflected, that a failed
+ * write leaves the record unchanged, that the store grows across chunks
+ * and that it works as the {@link ProjectDao} backend.
+ * </p>
+ */
+class MappedProjectStoreTest {
+
+    /**
+     * Temporary directory holding the backing file.
+     */
+    @TempDir
+    Path dir;
+
+    private MappedProjectStore store;
+
+    /**
+     * Opens a store with small chunks so growth is exercised.
+     */
+    @BeforeEach
+    void setUp() throws IOException {
+        store = new MappedProjectStore(dir.resolve("projects.map"), 4096);
+    }
+
+    /**
+     * Closes the store and restores the default DAO backend.
+     */
+    @AfterEach
+    void tearDown() throws IOException {
+        ProjectDao.useBackend(new ConcurrentHashMap<Long, Project>());
+        store.close();
+    }
+
+    /**
+     * Verifies that every field of a project is read back unchanged.
+     */
+    @Test
+    void testPutAndGet_allFields() {
+        Client client = new Client("Client \u00C4", "client@gmail.com", "9876543210");
+        Project project = new Project("Tower", "Forty floors", LocalDate.of(2025, 1, 1), LocalDate.of(2026, 12, 31),
+                ProjectStatus.IN_PROGRESS, client, "B1", "M1");
+
+        assertNull(store.put(project.getProjectId(), project));
+        Project read = store.get(project.getProjectId());
+
+        assertNotSame(project, read);
+        assertEquals(project.toString(), read.toString());
+        assertEquals("Client \u00C4", read.getAssignedClient().getClientName());
+        assertEquals(client.getClientId(), read.getAssignedClient().getClientId());
+    }
+
+    /**
+     * Ensures null fields round-trip as null.
+     */
+    @Test
+    void testPutAndGet_nullFields() {
+        Project project = new Project(null, null, null, null, null, null, null, null);
+        store.put(project.getProjectId(), project);
+
+        Project read = store.get(project.getProjectId());
+        assertNull(read.getProjectName());
+        assertNull(read.getProjectStartDate());
+        assertNull(read.getProjectStatus());
+        assertNull(read.getAssignedClient());
+        assertNull(read.getAssignedProjectManager());
+    }
+
+    /**
+     * Verifies that a saved change replaces the stored record and returns the previous value.
+     */
+    @Test
+    void testPut_update() {
+        Project project = new Project("Old", "Desc", null, null, ProjectStatus.UPCOMING, null, "B1", "M1");
+        store.put(project.getProjectId(), project);
+
+        project.setProjectName("New");
+        project.setProjectStatus(ProjectStatus.COMPLETED);
+        Project previous = store.put(project.getProjectId(), project);
+
+        assertEquals("Old", previous.getProjectName());
+        assertEquals("New", store.get(project.getProjectId()).getProjectName());
+        assertEquals(ProjectStatus.COMPLETED, store.get(project.getProjectId()).getProjectStatus());
+        assertEquals(1, store.size());
+    }
+
+    /**
+     * Verifies removal and that the freed record is reused.
+     */
+    @Test
+    void testRemove() {
+        Project first = new Project("First", null, null, null, null, null, null, null);
+        Project second = new Project("Second", null, null, null, null, null, null, null);
+        store.put(first.getProjectId(), first);
+
+        assertEquals("First", store.remove(first.getProjectId()).getProjectName());
+        assertNull(store.get(first.getProjectId()));
+        assertNull(store.remove(first.getProjectId()));
+
+        store.put(second.getProjectId(), second);
+        assertEquals(1, store.size());
+        assertEquals("Second", store.get(second.getProjectId()).getProjectName());
+    }
+
+    /**
+     * Verifies that the store grows over many chunks and iterates every project.
+     */
+    @Test
+    void testGrowthAndIteration() throws IOException {
+        int count = 2_000;
+        for (int i = 0; i < count; i++) {
+            Project project = new Project(i, "Project " + i, "Description " + i, LocalDate.ofEpochDay(i), null,
+                    ProjectStatus.UPCOMING, null, "B" + (i % 7), null);
+            store.put(project.getProjectId(), project);
+        }
+
+        assertEquals(count, store.size());
+        assertTrue(Files.size(dir.resolve("projects.map")) > 4096L * 10);
+        assertEquals("Project 1234", store.get(1234L).getProjectName());
+        assertEquals("B2", store.get(1234L).getAssignedBuilder());
+
+        Set<Long> seen = new HashSet<>();
+        for (Map.Entry<Long, Project> entry : store.entrySet()) {
+            assertEquals((long) entry.getKey(), entry.getValue().getProjectId());
+            seen.add(entry.getKey());
+        }
+        assertEquals(count, seen.size());
+
+        store.clear();
+        assertEquals(0, store.size());
+        assertNull(store.get(1234L));
+    }
+
+    /**
+     * Ensures a project whose strings do not fit into a chunk is rejected
+     * without leaving a partial entry behind.
+     */
+    @Test
+    void testPut_tooLarge() {
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 5000; i++) description.append('x');
+        Project project = new Project("Huge", description.toString(), null, null, null, null, null, null);
+
+        assertThrows(IllegalArgumentException.class, () -> store.put(project.getProjectId(), project));
+        assertFalse(store.containsKey(project.getProjectId()));
+        assertEquals(0, store.size());
+    }
+
+    /**
+     * Ensures an update whose strings do not fit leaves the stored project unchanged.
+     */
+    @Test
+    void testUpdate_tooLargeKeepsRecord() {
+        Project project = new Project("Kept", "Small", LocalDate.of(2025, 1, 1), null, ProjectStatus.UPCOMING,
+                null, "B-keep", "M-keep");
+        store.put(project.getProjectId(), project);
+
+        StringBuilder description = new StringBuilder();
+        for (int i = 0; i < 5000; i++) description.append('x');
+        project.setProjectDescription(description.toString());
+        project.setProjectStatus(ProjectStatus.COMPLETED);
+        assertThrows(IllegalArgumentException.class, () -> store.put(project.getProjectId(), project));
+
+        Project stored = store.get(project.getProjectId());
+        assertEquals("Small", stored.getProjectDescription());
+        assertEquals(ProjectStatus.UPCOMING, stored.getProjectStatus());
+        assertEquals("Kept", stored.getProjectName());
+    }
+
+    /**
+     * Verifies the service layer works unchanged on top of the mapped backend.
+     */
+    @Test
+    void testAsProjectDaoBackend() {
+        ProjectDao.useBackend(store);
+        ProjectService service = new ProjectService();
+        UserDao.insertUser("B-mapped", new User("B-mapped", "Mapped Builder", "mapped.builder@example.com", "1234567890", 2, "pw", 2)); // gives the builder a key
+
+        Project project = new Project("Mapped", "Desc", LocalDate.now(), LocalDate.now(), ProjectStatus.UPCOMING,
+                null, "B-mapped", "M-mapped");
+        ProjectDao.saveProject(project);
+
+        assertTrue(service.updateProjectStatus("B-mapped", project.getProjectId(), ProjectStatus.IN_PROGRESS));
+        assertEquals(ProjectStatus.IN_PROGRESS, ProjectDao.getProjectById(project.getProjectId()).getProjectStatus());
+
+        ProjectDao.removeProject(project.getProjectId());
+        assertNull(ProjectDao.getProjectById(project.getProjectId()));
+    }
+
+    /**
+     * Verifies the version is stored with the record and checked when
+     * updating through the DAO.
+     */
+    @Test
+    void testUpdateIfVersion_onMappedBackend() {
+        ProjectDao.useBackend(store);
+        Project project = new Project("Mapped", "Desc", null, null, ProjectStatus.UPCOMING, null, "B-mapped", "M-mapped");
+        ProjectDao.saveProject(project);
+        long id = project.getProjectId();
+
+        assertTrue(ProjectDao.updateIfVersion(id, 0, p -> p.setProjectStatus(ProjectStatus.COMPLETED)));
+        assertEquals(1, ProjectDao.getProjectById(id).getVersion());
+        assertFalse(ProjectDao.updateIfVersion(id, 0, p -> p.setProjectStatus(ProjectStatus.UPCOMING)));
+        assertEquals(ProjectStatus.COMPLETED, ProjectDao.getProjectById(id).getProjectStatus());
+    }
+}
@@ -0,0 +1,49 @@
+package com.builderportfolio.dao;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link ProjectClientIndex}.
+ * <p>
+ * Validates moves between clients, removal and that the returned
+ * ID views are read-only.
+ * </p>
+ */
+class ProjectClientIndexTest {
+
+    /**
+     * Verifies a project moves between clients and a client without projects is dropped.
+     */
+    @Test
+    void testUpdate_movesBetweenClients() {
+        ProjectClientIndex index = new ProjectClientIndex();
+
+        index.update(1L, 10L);
+        index.update(2L, 10L);
+        index.update(1L, 20L);
+
+        assertEquals(1, index.projectIds(10L).size());
+        assertTrue(index.projectIds(20L).contains(1L));
+
+        index.update(2L, null);
+        index.remove(1L);
+        index.remove(3L);
+
+        assertTrue(index.projectIds(10L).isEmpty());
+        assertTrue(index.projectIds(20L).isEmpty());
+    }
+
+    /**
+     * Verifies the returned ID view cannot be modified.
+     */
+    @Test
+    void testProjectIds_readOnly() {
+        ProjectClientIndex index = new ProjectClientIndex();
+        index.update(1L, 10L);
+
+        assertThrows(UnsupportedOperationException.class, () -> index.projectIds(10L).add(2L));
+        assertThrows(UnsupportedOperationException.class, () -> index.projectIds(99L).add(2L));
+    }
+}
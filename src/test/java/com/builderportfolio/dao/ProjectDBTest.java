@@ -147,10 +147,18 @@ package com.builderportfolio.dao;
 
 import com.builderportfolio.model.Client;
 import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectSnapshot;
 import com.builderportfolio.model.ProjectStatus;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -413,4 +421,211 @@ class ProjectDBTest {
 
         assertTrue(stored.getProjectStartDate().isAfter(stored.getProjectEndDate()));
     }
+
+    /**
+     * Verifies that the status index and counters follow a project
+     * through a status change and its removal.
+     */
+    @Test
+    @Order(11)
+    void testGetProjectsByStatus_followsStatusChanges() {
+        long upcomingBefore = ProjectDao.countProjectsByStatus(ProjectStatus.UPCOMING);
+        long completedBefore = ProjectDao.countProjectsByStatus(ProjectStatus.COMPLETED);
+        Project project = new Project("Indexed", "Status index", LocalDate.now(), LocalDate.now(),
+                ProjectStatus.UPCOMING, client, "B1", "M1");
+
+        ProjectDao.saveProject(project);
+        assertTrue(ProjectDao.getProjectsByStatus(ProjectStatus.UPCOMING).contains(project));
+        assertEquals(upcomingBefore + 1, ProjectDao.countProjectsByStatus(ProjectStatus.UPCOMING));
+
+        project.setProjectStatus(ProjectStatus.COMPLETED);
+        ProjectDao.saveProject(project);
+        assertFalse(ProjectDao.getProjectsByStatus(ProjectStatus.UPCOMING).contains(project));
+        assertTrue(ProjectDao.getProjectsByStatus(ProjectStatus.COMPLETED).contains(project));
+        assertEquals(upcomingBefore, ProjectDao.countProjectsByStatus(ProjectStatus.UPCOMING));
+        assertEquals(completedBefore + 1, (long) ProjectDao.getStatusCounts().get(ProjectStatus.COMPLETED));
+
+        ProjectDao.removeProject(project.getProjectId());
+        assertFalse(ProjectDao.getProjectsByStatus(ProjectStatus.COMPLETED).contains(project));
+        assertEquals(completedBefore, ProjectDao.countProjectsByStatus(ProjectStatus.COMPLETED));
+    }
+
+    /**
+     * Ensures projects cleared from the store directly are no longer
+     * returned by the status index.
+     */
+    @Test
+    @Order(12)
+    void testGetProjectsByStatus_afterStoreCleared() {
+        Project project = new Project("Cleared", "Gone", LocalDate.now(), LocalDate.now(),
+                ProjectStatus.IN_PROGRESS, client, "B1", "M1");
+        ProjectDao.saveProject(project);
+
+        ProjectDao.projectsList.clear();
+
+        assertTrue(ProjectDao.getProjectsByStatus(ProjectStatus.IN_PROGRESS).isEmpty());
+        assertEquals(0, ProjectDao.countProjectsByStatus(ProjectStatus.IN_PROGRESS));
+    }
+
+    /**
+     * Ensures a null status is rejected by the status query.
+     */
+    @Test
+    @Order(13)
+    void testGetProjectsByStatus_nullStatus() {
+        assertThrows(NullPointerException.class, () -> ProjectDao.getProjectsByStatus(null));
+    }
+
+    /**
+     * Verifies overlap, starts-within and ends-within queries,
+     * including inclusive boundaries and result ordering.
+     */
+    @Test
+    @Order(14)
+    void testDateRangeQueries() {
+        Project early = new Project("Early", "", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 10), ProjectStatus.UPCOMING, client, "B1", "M1");
+        Project longRunning = new Project("Long", "", LocalDate.of(2024, 1, 1), LocalDate.of(2026, 1, 1), ProjectStatus.IN_PROGRESS, client, "B1", "M1");
+        Project late = new Project("Late", "", LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 5), ProjectStatus.UPCOMING, client, "B1", "M1");
+        ProjectDao.saveProject(early);
+        ProjectDao.saveProject(longRunning);
+        ProjectDao.saveProject(late);
+
+        List<Project> active = ProjectDao.getProjectsActiveBetween(LocalDate.of(2025, 1, 10), LocalDate.of(2025, 1, 20));
+        assertEquals(Arrays.asList(longRunning, early), active);
+
+        assertEquals(Arrays.asList(early, late),
+                ProjectDao.getProjectsStartingBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 2, 1)));
+        assertEquals(Collections.singletonList(late),
+                ProjectDao.getProjectsEndingBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 2, 7)));
+        assertTrue(ProjectDao.getProjectsActiveBetween(LocalDate.of(2027, 1, 1), LocalDate.of(2027, 12, 31)).isEmpty());
+    }
+
+    /**
+     * Ensures saved date changes move a project in the date index and
+     * removed projects disappear from it.
+     */
+    @Test
+    @Order(15)
+    void testDateRangeQueries_followChangesAndRemoval() {
+        Project project = new Project("Moving", "", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31), ProjectStatus.UPCOMING, client, "B1", "M1");
+        ProjectDao.saveProject(project);
+
+        project.setProjectEndDate(LocalDate.of(2025, 6, 30));
+        assertTrue(ProjectDao.getProjectsEndingBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 31)).isEmpty());
+
+        ProjectDao.saveProject(project);
+        assertEquals(Collections.singletonList(project),
+                ProjectDao.getProjectsEndingBetween(LocalDate.of(2025, 6, 1), LocalDate.of(2025, 6, 30)));
+        assertEquals(Collections.singletonList(project),
+                ProjectDao.getProjectsActiveBetween(LocalDate.of(2025, 5, 1), LocalDate.of(2025, 5, 1)));
+
+        ProjectDao.removeProject(project.getProjectId());
+        assertTrue(ProjectDao.getProjectsActiveBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31)).isEmpty());
+    }
+
+    /**
+     * Ensures invalid ranges are rejected and projects without dates are skipped.
+     */
+    @Test
+    @Order(16)
+    void testDateRangeQueries_invalidRangeAndNullDates() {
+        ProjectDao.saveProject(new Project("Undated", "", null, null, ProjectStatus.UPCOMING, client, "B1", "M1"));
+
+        assertThrows(IllegalArgumentException.class,
+                () -> ProjectDao.getProjectsActiveBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)));
+        assertThrows(NullPointerException.class, () -> ProjectDao.getProjectsEndingBetween(null, LocalDate.now()));
+        assertTrue(ProjectDao.getProjectsStartingBetween(LocalDate.MIN, LocalDate.MAX).isEmpty());
+    }
+
+    /**
+     * Verifies that an update based on an outdated version is refused
+     * and that committed updates advance the version.
+     */
+    @Test
+    @Order(17)
+    void testUpdateIfVersion_staleVersionRefused() {
+        Project project = new Project("Versioned", "", null, null, ProjectStatus.UPCOMING, client, "B1", "M1");
+        ProjectDao.saveProject(project);
+        long id = project.getProjectId();
+
+        assertEquals(0, project.getVersion());
+        assertTrue(ProjectDao.updateIfVersion(id, 0, p -> p.setProjectStatus(ProjectStatus.IN_PROGRESS)));
+        assertEquals(1, project.getVersion());
+
+        assertFalse(ProjectDao.updateIfVersion(id, 0, p -> p.setProjectStatus(ProjectStatus.COMPLETED)));
+        assertEquals(ProjectStatus.IN_PROGRESS, project.getProjectStatus());
+        assertEquals(1, ProjectDao.countProjectsByStatus(ProjectStatus.IN_PROGRESS));
+
+        ProjectDao.removeProject(id);
+        assertFalse(ProjectDao.updateIfVersion(id, 1, p -> p.setProjectStatus(ProjectStatus.COMPLETED)));
+        assertNull(ProjectDao.getProjectById(id));
+    }
+
+    /**
+     * Ensures contended read-modify-write updates retried on version
+     * conflicts never lose an update.
+     */
+    @Test
+    @Order(18)
+    void testUpdateIfVersion_concurrentRetriesLoseNothing() throws Exception {
+        Project project = new Project("0", "", null, null, ProjectStatus.UPCOMING, client, "B1", "M1");
+        ProjectDao.saveProject(project);
+        long id = project.getProjectId();
+        int threads = 8;
+        int updatesPerThread = 2_000;
+
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < updatesPerThread; i++) {
+                    while (true) {
+                        Project current = ProjectDao.getProjectById(id);
+                        long version = current.getVersion();
+                        String next = String.valueOf(Integer.parseInt(current.getProjectName()) + 1);
+                        if (ProjectDao.updateIfVersion(id, version, p -> p.setProjectName(next))) break;
+                    }
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(20, TimeUnit.SECONDS));
+
+        assertEquals(threads * updatesPerThread, project.getVersion());
+        assertEquals(String.valueOf(threads * updatesPerThread), project.getProjectName());
+    }
+
+    /**
+     * Ensures readers of a snapshot never observe the start date of one
+     * update together with the end date of another.
+     */
+    @Test
+    @Order(19)
+    void testUpdateIfVersion_readersSeeWholeUpdates() throws Exception {
+        Project project = new Project("Dates", "", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 1, 1),
+                ProjectStatus.UPCOMING, client, "B1", "M1");
+        ProjectDao.saveProject(project);
+        long id = project.getProjectId();
+        AtomicInteger tornReads = new AtomicInteger();
+
+        Thread writer = new Thread(() -> {
+            for (int day = 1; day <= 5_000; day++) {
+                LocalDate date = LocalDate.of(2025, 1, 1).plusDays(day);
+                while (!ProjectDao.updateIfVersion(id, project.getVersion(), p -> {
+                    p.setProjectStartDate(date);
+                    p.setProjectEndDate(date);
+                })) {
+                    Thread.yield();
+                }
+            }
+        });
+        writer.start();
+        while (writer.isAlive()) {
+            ProjectSnapshot snapshot = ProjectDao.getProjectSnapshot(id);
+            if (!snapshot.getProjectStartDate().equals(snapshot.getProjectEndDate())) tornReads.incrementAndGet();
+        }
+        writer.join();
+
+        assertEquals(0, tornReads.get());
+        assertEquals(LocalDate.of(2025, 1, 1).plusDays(5_000), project.getProjectEndDate());
+    }
 }
@@ -0,0 +1,162 @@
+package com.builderportfolio.dao;
+
+import org.junit.jupiter.api.*;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.HashMap;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Map;
+import java.util.Random;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link ProjectDateIndex}.
+ * <p>
+ * Validates range queries on start and end dates, overlap queries
+ * against long spans and a full scan, updates, removal and concurrent
+ * indexing of projects sharing the same day.
+ * </p>
+ */
+class ProjectDateIndexTest {
+
+    private static final LocalDate DAY = LocalDate.of(2025, 6, 1);
+
+    /**
+     * Verifies starts-within and ends-within queries are inclusive and ordered.
+     */
+    @Test
+    void testStartAndEndRanges() {
+        ProjectDateIndex index = new ProjectDateIndex();
+        index.update(1L, DAY, DAY.plusDays(5));
+        index.update(2L, DAY.plusDays(1), DAY.plusDays(2));
+        index.update(3L, DAY.plusDays(10), null);
+
+        assertEquals(Arrays.asList(1L, 2L), starting(index, DAY, DAY.plusDays(1)));
+        assertEquals(Arrays.asList(2L, 1L), ending(index, DAY, DAY.plusDays(5)));
+        assertEquals(Collections.singletonList(3L), starting(index, DAY.plusDays(10), DAY.plusDays(10)));
+    }
+
+    /**
+     * Verifies overlap queries find long projects that started well before
+     * the range, and that removing the longest project narrows the scan
+     * without losing results.
+     */
+    @Test
+    void testActiveBetween_longestSpan() {
+        ProjectDateIndex index = new ProjectDateIndex();
+        index.update(1L, DAY.minusYears(3), DAY.plusYears(3));
+        index.update(2L, DAY.minusDays(10), DAY.minusDays(1));
+        index.update(3L, DAY.minusDays(2), DAY);
+
+        assertEquals(Arrays.asList(1L, 3L), active(index, DAY, DAY.plusDays(1)));
+
+        index.remove(1L);
+        assertEquals(Collections.singletonList(3L), active(index, DAY, DAY.plusDays(1)));
+        assertEquals(Arrays.asList(2L, 3L), active(index, DAY.minusDays(1), DAY.minusDays(1)));
+    }
+
+    /**
+     * Verifies overlap queries match a full scan across random inserts, moves
+     * and removals, including inverted date pairs.
+     */
+    @Test
+    void testActiveBetween_matchesScan() {
+        ProjectDateIndex index = new ProjectDateIndex();
+        Map<Long, long[]> expected = new HashMap<>();
+        Random random = new Random(42);
+        for (int i = 0; i < 5_000; i++) {
+            long id = random.nextInt(1_000);
+            if (random.nextInt(4) == 0) {
+                index.remove(id);
+                expected.remove(id);
+            } else {
+                long start = random.nextInt(2_000);
+                long end = start + random.nextInt(random.nextInt(10) == 0 ? 1_500 : 30) - 5;
+                index.update(id, LocalDate.ofEpochDay(start), LocalDate.ofEpochDay(end));
+                expected.put(id, new long[]{start, end});
+            }
+        }
+
+        for (int q = 0; q < 200; q++) {
+            long from = random.nextInt(2_100);
+            long to = from + random.nextInt(50);
+            List<Long> scanned = new ArrayList<>();
+            for (Map.Entry<Long, long[]> entry : expected.entrySet()) {
+                if (entry.getValue()[0] <= to && entry.getValue()[1] >= from) scanned.add(entry.getKey());
+            }
+            List<Long> found = active(index, LocalDate.ofEpochDay(from), LocalDate.ofEpochDay(to));
+            assertEquals(found.size(), new HashSet<>(found).size());
+            Collections.sort(found);
+            Collections.sort(scanned);
+            assertEquals(scanned, found);
+        }
+    }
+
+    /**
+     * Ensures a changed date moves the project and an unchanged one is a no-op.
+     */
+    @Test
+    void testUpdate_movesProject() {
+        ProjectDateIndex index = new ProjectDateIndex();
+        index.update(1L, DAY, DAY.plusDays(1));
+        index.update(1L, DAY, DAY.plusDays(1));
+        index.update(1L, DAY.plusDays(20), DAY.plusDays(21));
+
+        assertTrue(starting(index, DAY, DAY.plusDays(1)).isEmpty());
+        assertEquals(Collections.singletonList(1L), starting(index, DAY.plusDays(20), DAY.plusDays(20)));
+
+        index.update(1L, null, null);
+        assertTrue(active(index, LocalDate.MIN, LocalDate.MAX).isEmpty());
+    }
+
+    /**
+     * Ensures concurrent inserts and removals of projects on the same day
+     * leave exactly the surviving projects in the index.
+     */
+    @Test
+    void testConcurrentUpdatesSameDay() throws Exception {
+        ProjectDateIndex index = new ProjectDateIndex();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            long base = t * 10_000L;
+            pool.execute(() -> {
+                for (long id = base; id < base + 2_000; id++) {
+                    index.update(id, DAY, DAY);
+                    if (id % 2 == 0) index.remove(id);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(8 * 1_000, starting(index, DAY, DAY).size());
+        assertEquals(8 * 1_000, active(index, DAY, DAY).size());
+    }
+
+    private static List<Long> starting(ProjectDateIndex index, LocalDate from, LocalDate to) {
+        List<Long> ids = new ArrayList<>();
+        index.forEachStartingBetween(from, to, ids::add);
+        return ids;
+    }
+
+    private static List<Long> ending(ProjectDateIndex index, LocalDate from, LocalDate to) {
+        List<Long> ids = new ArrayList<>();
+        index.forEachEndingBetween(from, to, ids::add);
+        return ids;
+    }
+
+    private static List<Long> active(ProjectDateIndex index, LocalDate from, LocalDate to) {
+        List<Long> ids = new ArrayList<>();
+        index.forEachActiveBetween(from, to, ids::add);
+        return ids;
+    }
+}
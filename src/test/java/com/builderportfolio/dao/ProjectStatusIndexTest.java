@@ -0,0 +1,94 @@
+package com.builderportfolio.dao;
+
+import com.builderportfolio.model.ProjectStatus;
+import org.junit.jupiter.api.*;
+
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ThreadLocalRandom;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link ProjectStatusIndex}.
+ * <p>
+ * Validates status transitions, removal, null statuses and that the
+ * per-status counters stay consistent under concurrent updates.
+ * </p>
+ */
+class ProjectStatusIndexTest {
+
+    /**
+     * Verifies that a project moves between statuses and is counted once.
+     */
+    @Test
+    void testUpdate_movesBetweenStatuses() {
+        ProjectStatusIndex index = new ProjectStatusIndex();
+
+        index.update(1L, ProjectStatus.UPCOMING);
+        index.update(1L, ProjectStatus.UPCOMING);
+        assertEquals(1, index.count(ProjectStatus.UPCOMING));
+
+        index.update(1L, ProjectStatus.IN_PROGRESS);
+        assertEquals(0, index.count(ProjectStatus.UPCOMING));
+        assertEquals(1, index.count(ProjectStatus.IN_PROGRESS));
+        assertTrue(index.projectIds(ProjectStatus.IN_PROGRESS).contains(1L));
+    }
+
+    /**
+     * Ensures a null status and removal take the project out of the index.
+     */
+    @Test
+    void testNullStatusAndRemove() {
+        ProjectStatusIndex index = new ProjectStatusIndex();
+        index.update(1L, ProjectStatus.COMPLETED);
+        index.update(2L, ProjectStatus.COMPLETED);
+
+        index.update(1L, null);
+        index.remove(2L);
+        index.remove(3L);
+
+        assertEquals(0, index.count(ProjectStatus.COMPLETED));
+        assertTrue(index.projectIds(ProjectStatus.COMPLETED).isEmpty());
+    }
+
+    /**
+     * Verifies the returned ID view cannot be modified.
+     */
+    @Test
+    void testProjectIds_readOnly() {
+        ProjectStatusIndex index = new ProjectStatusIndex();
+        assertThrows(UnsupportedOperationException.class, () -> index.projectIds(ProjectStatus.UPCOMING).add(1L));
+    }
+
+    /**
+     * Ensures counters match the sets after many concurrent transitions
+     * of the same projects.
+     */
+    @Test
+    void testConcurrentTransitions_countsConsistent() throws Exception {
+        ProjectStatusIndex index = new ProjectStatusIndex();
+        ProjectStatus[] statuses = ProjectStatus.values();
+        int projects = 100;
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+
+        for (int t = 0; t < 8; t++) {
+            pool.execute(() -> {
+                ThreadLocalRandom random = ThreadLocalRandom.current();
+                for (int i = 0; i < 20_000; i++) {
+                    index.update(random.nextInt(projects), statuses[random.nextInt(statuses.length)]);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        long total = 0;
+        for (ProjectStatus status : statuses) {
+            assertEquals(index.projectIds(status).size(), index.count(status));
+            total += index.count(status);
+        }
+        assertEquals(projects, total);
+    }
+}
@@ -0,0 +1,211 @@
+package com.builderportfolio.dao;
+
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectStatus;
+import org.junit.jupiter.api.*;
+
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link ProjectTransactions}.
+ * <p>
+ * Validates that creation rolls back on a failed assignment, that
+ * deletion removes the project from every store, that an update is
+ * journaled before its version claim is released, and that concurrent
+ * updates can neither resurrect a deleted project nor leave an
+ * assignment pointing at a missing one.
+ * </p>
+ */
+class ProjectTransactionsTest {
+
+    private final Client client = new Client("Tx Client", "tx@example.com", "1234567890");
+
+    /**
+     * Verifies a created project is stored and assigned to both users.
+     */
+    @Test
+    void testCreate_assignsBoth() {
+        Project project = project("B-tx-1", "M-tx-1");
+        ProjectTransactions.create(project);
+
+        assertSame(project, ProjectDao.getProjectById(project.getProjectId()));
+        assertTrue(ManagerDao.getProjectIds("M-tx-1").contains(project.getProjectId()));
+        assertTrue(BuilderDao.getProjectIds("B-tx-1").contains(project.getProjectId()));
+    }
+
+    /**
+     * Ensures a missing builder or manager is rejected before anything is written.
+     */
+    @Test
+    void testCreate_invalidAssignmentLeavesNoTrace() {
+        Project noBuilder = project(null, "M-tx-2");
+        assertThrows(IllegalArgumentException.class, () -> ProjectTransactions.create(noBuilder));
+        Project noManager = project("B-tx-2", null);
+        assertThrows(NullPointerException.class, () -> ProjectTransactions.create(noManager));
+
+        assertNull(ProjectDao.getProjectById(noBuilder.getProjectId()));
+        assertNull(ProjectDao.getProjectById(noManager.getProjectId()));
+        assertTrue(ManagerDao.getProjectIds("M-tx-2").isEmpty());
+        assertTrue(BuilderDao.getProjectIds("B-tx-2").isEmpty());
+    }
+
+    /**
+     * Verifies a batch is stored and assigned grouped by owner, and a bad entry rejects it whole.
+     */
+    @Test
+    void testCreateAll_groupsAndValidates() {
+        List<Project> batch = Arrays.asList(project("B-tx-5", "M-tx-5"), project("B-tx-6", "M-tx-5"),
+                project("B-tx-5", "M-tx-5"));
+        ProjectTransactions.createAll(batch);
+
+        for (Project project : batch) {
+            assertSame(project, ProjectDao.getProjectById(project.getProjectId()));
+        }
+        assertEquals(Arrays.asList(batch.get(0).getProjectId(), batch.get(1).getProjectId(), batch.get(2).getProjectId()),
+                ManagerDao.getProjectIds("M-tx-5"));
+        assertEquals(Arrays.asList(batch.get(0).getProjectId(), batch.get(2).getProjectId()), BuilderDao.getProjectIds("B-tx-5"));
+        assertEquals(Collections.singletonList(batch.get(1).getProjectId()), BuilderDao.getProjectIds("B-tx-6"));
+
+        List<Project> invalid = Arrays.asList(project("B-tx-7", "M-tx-7"), project(null, "M-tx-7"));
+        assertThrows(IllegalArgumentException.class, () -> ProjectTransactions.createAll(invalid));
+        assertNull(ProjectDao.getProjectById(invalid.get(0).getProjectId()));
+        assertTrue(ManagerDao.getProjectIds("M-tx-7").isEmpty());
+        assertTrue(BuilderDao.getProjectIds("B-tx-7").isEmpty());
+    }
+
+    /**
+     * Verifies deletion checks the manager and removes the project everywhere.
+     */
+    @Test
+    void testDelete_removesEverywhere() {
+        Project project = project("B-tx-3", "M-tx-3");
+        ProjectTransactions.create(project);
+        long id = project.getProjectId();
+
+        assertFalse(ProjectTransactions.delete(id, "M-other"));
+        assertTrue(ProjectTransactions.delete(id, "M-tx-3"));
+        assertFalse(ProjectTransactions.delete(id, "M-tx-3"));
+
+        assertNull(ProjectDao.getProjectById(id));
+        assertFalse(ManagerDao.getProjectIds("M-tx-3").contains(id));
+        assertFalse(BuilderDao.getProjectIds("B-tx-3").contains(id));
+        assertFalse(ProjectTransactions.update(id, p -> true));
+    }
+
+    /**
+     * Verifies an update is journaled while its version claim is still held,
+     * so no versioned update can slip in before the change is recorded, and
+     * before the new state is published.
+     */
+    @Test
+    void testUpdate_journaledUnderClaim() {
+        Project project = project("B-tx-5", "M-tx-5");
+        ProjectTransactions.create(project);
+        long version = project.getVersion();
+        AtomicInteger claimedSaves = new AtomicInteger();
+        Journals.install(new DaoJournal() {
+            @Override
+            public void projectSaved(Project saved) {
+                Project stored = ProjectDao.getProjectById(saved.getProjectId());
+                if (stored.tryBeginUpdate(stored.getVersion())) {
+                    stored.endUpdate(false); // the claim was free: a versioned update could have interleaved
+                } else if (stored.getProjectStatus() != saved.getProjectStatus()) { // not yet published
+                    claimedSaves.incrementAndGet();
+                }
+            }
+        });
+        try {
+            assertTrue(ProjectTransactions.update(project.getProjectId(), p -> {
+                p.setProjectStatus(ProjectStatus.IN_PROGRESS);
+                return true;
+            }));
+        } finally {
+            Journals.uninstall();
+        }
+
+        assertEquals(1, claimedSaves.get());
+        assertEquals(version + 1, project.getVersion());
+        assertEquals(ProjectStatus.IN_PROGRESS, project.getProjectStatus());
+        assertTrue(ProjectDao.updateIfVersion(project.getProjectId(), version + 1, p -> p.setProjectStatus(ProjectStatus.COMPLETED)));
+    }
+
+    /**
+     * Ensures updates racing with deletes never bring a deleted project back,
+     * and that every assigned ID always resolves to a stored project.
+     */
+    @Test
+    void testConcurrentUpdateAndDelete() throws Exception {
+        int projects = 2_000;
+        long[] ids = new long[projects];
+        for (int i = 0; i < projects; i++) {
+            Project project = project("B-tx-4", "M-tx-4");
+            ProjectTransactions.create(project);
+            ids[i] = project.getProjectId();
+        }
+
+        ExecutorService pool = Executors.newFixedThreadPool(3);
+        CountDownLatch start = new CountDownLatch(1);
+        AtomicInteger danglingIds = new AtomicInteger();
+        pool.execute(() -> {
+            await(start);
+            for (long id : ids) {
+                ProjectTransactions.delete(id, "M-tx-4");
+            }
+        });
+        pool.execute(() -> {
+            await(start);
+            for (int round = 0; round < 3; round++) {
+                for (long id : ids) {
+                    ProjectTransactions.update(id, p -> {
+                        p.setProjectStatus(ProjectStatus.COMPLETED);
+                        return true;
+                    });
+                }
+            }
+        });
+        pool.execute(() -> {
+            await(start);
+            for (int round = 0; round < 20; round++) {
+                // an ID is unassigned before its project is removed, so it must not be missing while still assigned
+                for (long id : ManagerDao.getSortedProjectIds("M-tx-4")) {
+                    if (ProjectDao.getProjectById(id) == null && ManagerDao.getProjectIds("M-tx-4").contains(id)) {
+                        danglingIds.incrementAndGet();
+                    }
+                }
+            }
+        });
+        start.countDown();
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(20, TimeUnit.SECONDS));
+
+        assertEquals(0, danglingIds.get());
+
+        for (long id : ids) {
+            assertNull(ProjectDao.getProjectById(id));
+        }
+        assertTrue(ManagerDao.getProjectIds("M-tx-4").isEmpty());
+        assertTrue(BuilderDao.getProjectIds("B-tx-4").isEmpty());
+    }
+
+    private Project project(String builderId, String managerId) {
+        return new Project("Tx", "Transaction test", null, null, ProjectStatus.UPCOMING, client, builderId, managerId);
+    }
+
+    private static void await(CountDownLatch latch) {
+        try {
+            latch.await();
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
@@ -85,6 +85,13 @@ package com.builderportfolio.dao;
 import com.builderportfolio.model.User;
 import org.junit.jupiter.api.*;
 
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
 import static org.junit.jupiter.api.Assertions.*;
 
 /**
@@ -213,4 +220,79 @@ class UserDBTest {
     void testGetUserById_emptyUserId() {
         assertNull(UserDao.getUserbyId(""));
     }
+
+    // -------------------- Email Index Tests --------------------
+
+    /**
+     * Verifies that email lookups ignore case and
+     * surrounding whitespace.
+     */
+    @Test
+    void testExists_normalizedEmail() {
+        User user = new User("Case", "Case.Check@Gmail.com", "1212121212", 2, "pass", 1);
+        UserDao.insertUser(user.getUserId(), user);
+
+        assertEquals(user.getUserId(), UserDao.exists("  case.check@gmail.COM "));
+    }
+
+    /**
+     * Ensures {@link UserDao#insertIfAbsent(User)} rejects
+     * a second user with an already registered email.
+     */
+    @Test
+    void testInsertIfAbsent_duplicateEmail() {
+        User first = new User("First", "dup@gmail.com", "1111111111", 3, "pass", 1);
+        User second = new User("Second", "DUP@gmail.com", "2222222222", 4, "pass", 2);
+
+        assertNull(UserDao.insertIfAbsent(first));
+        assertEquals(first.getUserId(), UserDao.insertIfAbsent(second));
+        assertNull(UserDao.getUserbyId(second.getUserId()));
+    }
+
+    /**
+     * Verifies that an index entry left behind by a user
+     * removed from the store does not block a new registration.
+     */
+    @Test
+    void testInsertIfAbsent_afterStoreCleared() {
+        User first = new User("First", "reuse@gmail.com", "1111111111", 3, "pass", 1);
+        UserDao.insertIfAbsent(first);
+
+        UserDao.users.clear();
+        User second = new User("Second", "reuse@gmail.com", "2222222222", 4, "pass", 1);
+
+        assertNull(UserDao.exists("reuse@gmail.com"));
+        assertNull(UserDao.insertIfAbsent(second));
+        assertEquals(second.getUserId(), UserDao.exists("reuse@gmail.com"));
+    }
+
+    /**
+     * Ensures that concurrent registrations with the same
+     * email result in exactly one stored user.
+     */
+    @Test
+    void testInsertIfAbsent_concurrentSameEmail() throws Exception {
+        int threads = 8;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        CountDownLatch start = new CountDownLatch(1);
+        List<Future<String>> results = new ArrayList<>();
+
+        for (int i = 0; i < threads; i++) {
+            User user = new User("Racer" + i, "race@gmail.com", "3333333333", 1, "pass", 2);
+            results.add(pool.submit(() -> {
+                start.await();
+                return UserDao.insertIfAbsent(user);
+            }));
+        }
+        start.countDown();
+
+        int inserted = 0;
+        for (Future<String> result : results) {
+            if (result.get() == null) inserted++;
+        }
+        pool.shutdown();
+
+        assertEquals(1, inserted);
+        assertEquals(1, UserDao.users.size());
+    }
 }
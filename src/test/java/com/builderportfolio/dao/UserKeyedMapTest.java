@@ -0,0 +1,111 @@
+package com.builderportfolio.dao;
+
+import com.builderportfolio.model.UserKeys;
+import org.junit.jupiter.api.*;
+
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link UserKeyedMap}.
+ * <p>
+ * Validates that it behaves like a concurrent map keyed by user ID,
+ * that lookups by key and by ID agree, and that unknown IDs are never
+ * assigned a key by a read.
+ * </p>
+ */
+class UserKeyedMapTest {
+
+    /**
+     * Verifies the basic map operations and lookups by key.
+     */
+    @Test
+    void testMapOperations() {
+        UserKeyedMap<String> map = new UserKeyedMap<>();
+
+        assertNull(map.put("U-map-1", "a"));
+        assertEquals("a", map.put("U-map-1", "b"));
+        assertEquals("b", map.putIfAbsent("U-map-1", "c"));
+        assertNull(map.putIfAbsent("U-map-2", "x"));
+        assertEquals(2, map.size());
+
+        assertEquals("b", map.getByKey(UserKeys.lookup("U-map-1")));
+        assertTrue(map.containsKey("U-map-2"));
+        assertFalse(map.replace("U-map-2", "y", "z"));
+        assertTrue(map.replace("U-map-2", "x", "z"));
+        assertFalse(map.remove("U-map-2", "x"));
+        assertTrue(map.remove("U-map-2", "z"));
+        assertEquals("b", map.remove("U-map-1"));
+
+        assertTrue(map.isEmpty());
+        assertNull(map.getByKey(UserKeys.NO_USER));
+    }
+
+    /**
+     * Ensures reads of unknown IDs neither find anything nor assign a key, and null keys are rejected.
+     */
+    @Test
+    void testUnknownAndNullKeys() {
+        UserKeyedMap<String> map = new UserKeyedMap<>();
+
+        assertNull(map.get("U-map-never-stored"));
+        assertNull(map.remove("U-map-never-stored"));
+        assertEquals(UserKeys.NO_USER, UserKeys.lookup("U-map-never-stored"));
+        assertNull(map.get(42));
+
+        assertThrows(NullPointerException.class, () -> map.put(null, "a"));
+        assertThrows(NullPointerException.class, () -> map.get(null));
+        assertThrows(NullPointerException.class, () -> map.computeIfAbsent(null, k -> "a"));
+    }
+
+    /**
+     * Verifies iteration, equality with a plain map and clearing.
+     */
+    @Test
+    void testIterationAndClear() {
+        UserKeyedMap<Integer> map = new UserKeyedMap<>();
+        Map<String, Integer> expected = new HashMap<>();
+        for (int i = 0; i < 100; i++) {
+            map.put("U-iter-" + i, i);
+            expected.put("U-iter-" + i, i);
+        }
+
+        assertEquals(expected, map);
+        map.entrySet().removeIf(e -> e.getValue() % 2 == 0);
+        assertEquals(50, map.size());
+        assertFalse(map.containsKey("U-iter-0"));
+
+        map.clear();
+        assertTrue(map.isEmpty());
+        assertFalse(map.entrySet().iterator().hasNext());
+    }
+
+    /**
+     * Ensures concurrent first-time insertions of the same ID keep exactly one value.
+     */
+    @Test
+    void testConcurrentPutIfAbsent() throws Exception {
+        UserKeyedMap<Integer> map = new UserKeyedMap<>();
+        AtomicInteger winners = new AtomicInteger();
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        for (int t = 0; t < 8; t++) {
+            int thread = t;
+            pool.execute(() -> {
+                for (int i = 0; i < 1_000; i++) {
+                    if (map.putIfAbsent("U-race-" + i, thread) == null) winners.incrementAndGet();
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(20, TimeUnit.SECONDS));
+
+        assertEquals(1_000, winners.get());
+        assertEquals(1_000, map.size());
+    }
+}
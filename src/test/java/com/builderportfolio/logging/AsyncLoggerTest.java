@@ -0,0 +1,127 @@
+package com.builderportfolio.logging;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+import java.util.logging.Handler;
+import java.util.logging.Level;
+import java.util.logging.LogRecord;
+import java.util.logging.Logger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link AsyncLogger}.
+ * <p>
+ * Validates that events reach the {@code java.util.logging} logger of the
+ * same name formatted as structured fields, that disabled levels are not
+ * queued, and that concurrent producers lose no events and keep their order.
+ * </p>
+ */
+class AsyncLoggerTest {
+
+    private final AsyncLogger logger = AsyncLogger.getLogger(AsyncLoggerTest.class);
+
+    /** Strong reference so the level and handler survive GC of the logger */
+    private final Logger target = Logger.getLogger(AsyncLoggerTest.class.getName());
+
+    private final List<LogRecord> records = Collections.synchronizedList(new ArrayList<>());
+
+    private final Handler capture = new Handler() {
+        @Override
+        public void publish(LogRecord record) {
+            records.add(record);
+        }
+
+        @Override
+        public void flush() {
+        }
+
+        @Override
+        public void close() {
+        }
+    };
+
+    @BeforeEach
+    void setUp() {
+        target.setUseParentHandlers(false);
+        target.setLevel(Level.INFO);
+        target.addHandler(capture);
+    }
+
+    @AfterEach
+    void tearDown() {
+        target.removeHandler(capture);
+        target.setUseParentHandlers(true);
+        target.setLevel(null);
+    }
+
+    /**
+     * Verifies events are formatted as name plus key=value fields with their level and source.
+     */
+    @Test
+    void testEventFormatting() {
+        logger.info("login.success", "userId", "M1");
+        logger.warning("login.failed", "reason", "invalid password", "userId", "B2");
+        logger.info("tick");
+        assertTrue(AsyncLogger.flush());
+
+        assertEquals(3, records.size());
+        assertEquals("login.success userId=M1", records.get(0).getMessage());
+        assertEquals(Level.INFO, records.get(0).getLevel());
+        assertEquals(AsyncLoggerTest.class.getName(), records.get(0).getLoggerName());
+        assertEquals("login.failed reason=invalid password userId=B2", records.get(1).getMessage());
+        assertEquals(Level.WARNING, records.get(1).getLevel());
+        assertEquals("tick", records.get(2).getMessage());
+    }
+
+    /**
+     * Ensures events below the logger's level are discarded before reaching the ring.
+     */
+    @Test
+    void testDisabledLevel() {
+        target.setLevel(Level.WARNING);
+
+        assertFalse(logger.isLoggable(Level.INFO));
+        logger.info("login.attempt", "userId", "M1");
+        logger.warning("login.failed", "userId", "M1");
+        assertTrue(AsyncLogger.flush());
+
+        assertEquals(1, records.size());
+        assertEquals("login.failed userId=M1", records.get(0).getMessage());
+    }
+
+    /**
+     * Verifies events from concurrent producers all arrive, in order per producer.
+     */
+    @Test
+    void testConcurrentProducers() throws Exception {
+        int threads = 4;
+        int perThread = 1_000; // well below the ring capacity, so nothing is dropped
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+        for (int t = 0; t < threads; t++) {
+            String producer = "p" + t;
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    logger.info("seq", "producer", producer, "n", i);
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(20, TimeUnit.SECONDS));
+        assertTrue(AsyncLogger.flush());
+
+        assertEquals(threads * perThread, records.size());
+        int[] next = new int[threads];
+        for (LogRecord record : records) {
+            String[] fields = record.getMessage().split(" ");
+            int producer = Integer.parseInt(fields[1].substring("producer=p".length()));
+            assertEquals("n=" + next[producer]++, fields[2]);
+        }
+    }
+}
@@ -0,0 +1,97 @@
+package com.builderportfolio.model;
+
+import org.junit.jupiter.api.*;
+
+import java.util.Set;
+import java.util.concurrent.ConcurrentHashMap;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link IdSequence}.
+ * <p>
+ * Validates sequential allocation, block reservation,
+ * resuming from a high-water mark and uniqueness
+ * under concurrent allocation.
+ * </p>
+ */
+class IdSequenceTest {
+
+    /**
+     * Verifies IDs start at 1 and increase by one.
+     */
+    @Test
+    void testNext_sequential() {
+        IdSequence sequence = new IdSequence();
+
+        assertEquals(1L, sequence.next());
+        assertEquals(2L, sequence.next());
+        assertEquals(2L, sequence.current());
+    }
+
+    /**
+     * Verifies a reserved block is skipped by later allocations.
+     */
+    @Test
+    void testReserve_block() {
+        IdSequence sequence = new IdSequence();
+        sequence.next();
+
+        long first = sequence.reserve(10);
+
+        assertEquals(2L, first);
+        assertEquals(11L, sequence.current());
+        assertEquals(12L, sequence.next());
+    }
+
+    /**
+     * Ensures reserving a non-positive count is rejected.
+     */
+    @Test
+    void testReserve_invalidCount() {
+        assertThrows(IllegalArgumentException.class, () -> new IdSequence().reserve(0));
+    }
+
+    /**
+     * Verifies the sequence resumes after a persisted high-water mark
+     * and never moves backwards.
+     */
+    @Test
+    void testAdvanceTo() {
+        IdSequence sequence = new IdSequence();
+
+        sequence.advanceTo(100L);
+        assertEquals(101L, sequence.next());
+
+        sequence.advanceTo(50L);
+        assertEquals(102L, sequence.next());
+    }
+
+    /**
+     * Ensures concurrent allocation never hands out the same ID twice.
+     */
+    @Test
+    void testNext_concurrentUnique() throws Exception {
+        IdSequence sequence = new IdSequence();
+        Set<Long> ids = ConcurrentHashMap.newKeySet();
+        int threads = 8;
+        int perThread = 10_000;
+        ExecutorService pool = Executors.newFixedThreadPool(threads);
+
+        for (int t = 0; t < threads; t++) {
+            pool.execute(() -> {
+                for (int i = 0; i < perThread; i++) {
+                    ids.add(sequence.next());
+                }
+            });
+        }
+        pool.shutdown();
+        assertTrue(pool.awaitTermination(10, TimeUnit.SECONDS));
+
+        assertEquals(threads * perThread, ids.size());
+        assertEquals(threads * perThread, sequence.current());
+    }
+}
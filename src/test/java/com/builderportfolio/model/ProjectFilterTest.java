@@ -0,0 +1,83 @@
+package com.builderportfolio.model;
+
+import com.builderportfolio.dao.UserDao;
+import org.junit.jupiter.api.Test;
+
+import java.time.LocalDate;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link ProjectFilter}.
+ * <p>
+ * Validates that each condition narrows the match, that conditions
+ * combine, that unregistered builders assign no key, and that invalid
+ * conditions are rejected.
+ * </p>
+ */
+class ProjectFilterTest {
+
+    static {
+        builder("B-filter-1");
+        builder("B-filter-2");
+    }
+
+    private final ProjectSnapshot project = new ProjectSnapshot(1, "Filtered", null, LocalDate.of(2025, 3, 1),
+            LocalDate.of(2025, 9, 1), ProjectStatus.UPCOMING, null, "B-filter-1", "M-filter-1");
+
+    /**
+     * Verifies every condition alone and combined.
+     */
+    @Test
+    void testMatches() {
+        assertTrue(ProjectFilter.any().matches(project));
+        assertTrue(ProjectFilter.any().withStatus(ProjectStatus.UPCOMING).matches(project));
+        assertFalse(ProjectFilter.any().withStatus(ProjectStatus.COMPLETED).matches(project));
+        assertTrue(ProjectFilter.any().withStartBetween(LocalDate.of(2025, 3, 1), LocalDate.of(2025, 3, 1)).matches(project));
+        assertFalse(ProjectFilter.any().withStartBetween(LocalDate.of(2025, 3, 2), LocalDate.of(2026, 1, 1)).matches(project));
+        assertTrue(ProjectFilter.any().withBuilder("B-filter-1").matches(project));
+        assertFalse(ProjectFilter.any().withBuilder("B-filter-2").matches(project));
+        assertFalse(ProjectFilter.any().withBuilder("B-filter-unknown").matches(project));
+
+        ProjectFilter combined = ProjectFilter.any().withStatus(ProjectStatus.UPCOMING).withBuilder("B-filter-1")
+                .withStartBetween(LocalDate.of(2025, 1, 1), LocalDate.of(2025, 12, 31));
+        assertTrue(combined.matches(project));
+        assertFalse(combined.matches(project.withProjectStatus(ProjectStatus.IN_PROGRESS)));
+        assertFalse(combined.matches(project.withProjectStartDate(null)));
+    }
+
+    /**
+     * Verifies a project naming an unregistered builder assigns no key and
+     * matches the builder filter once that builder is registered.
+     */
+    @Test
+    void testUnregisteredBuilder() {
+        int size = UserKeys.size();
+        ProjectSnapshot pending = project.withAssignedBuilder("B-filter-pending");
+
+        assertEquals(size, UserKeys.size());
+        assertEquals("B-filter-pending", pending.getAssignedBuilder());
+        assertEquals(UserKeys.NO_USER, pending.getBuilderKey());
+        assertFalse(ProjectFilter.any().withBuilder("B-filter-pending").matches(pending));
+
+        builder("B-filter-pending");
+        assertTrue(ProjectFilter.any().withBuilder("B-filter-pending").matches(pending));
+        assertEquals(pending, project.withAssignedBuilder("B-filter-pending"));
+    }
+
+    /**
+     * Ensures invalid conditions are rejected.
+     */
+    @Test
+    void testInvalidConditions() {
+        assertThrows(NullPointerException.class, () -> ProjectFilter.any().withStatus(null));
+        assertThrows(NullPointerException.class, () -> ProjectFilter.any().withBuilder(null));
+        assertThrows(NullPointerException.class, () -> ProjectFilter.any().withStartBetween(null, LocalDate.now()));
+        assertThrows(IllegalArgumentException.class,
+                () -> ProjectFilter.any().withStartBetween(LocalDate.of(2025, 2, 1), LocalDate.of(2025, 1, 1)));
+    }
+
+    private static void builder(String userId) {
+        UserDao.insertUser(userId, new User(userId, "Filter Builder", userId + "@example.com", "1234567890", 2, "pw", 2));
+    }
+}
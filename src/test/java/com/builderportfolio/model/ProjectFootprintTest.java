@@ -0,0 +1,119 @@
+package com.builderportfolio.model;
+
+import com.builderportfolio.dao.UserDao;
+import org.junit.jupiter.api.*;
+import org.openjdk.jol.info.GraphLayout;
+
+import java.time.LocalDate;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Memory footprint test for the compact {@link Project} representation.
+ * <p>
+ * Uses JOL to measure the retained size of many projects and compares it
+ * with the previous layout, which held two {@link LocalDate}s, a status
+ * reference and its own builder and manager ID strings per project.
+ * Names, descriptions and the client are shared in both cases so that only
+ * the per-project overhead is compared.
+ * </p>
+ */
+class ProjectFootprintTest {
+
+    private static final int PROJECTS = 10_000;
+
+    /**
+     * Verifies the compact layout needs less than half the memory per project
+     * of the previous field-per-object layout.
+     */
+    @Test
+    void testCompactLayout_atLeastHalvesFootprint() {
+        Client client = new Client("Footprint", "footprint@example.com", "1234567890");
+        LocalDate start = LocalDate.of(2025, 1, 1);
+        for (int i = 0; i < 50; i++) {
+            // projects refer to stored users, whose IDs have keys
+            UserDao.insertUser("B-fp-" + i, new User("B-fp-" + i, "Footprint Builder", "fp.b" + i + "@example.com", "1234567890", 1, "pw", 2));
+            UserDao.insertUser("M-fp-" + i, new User("M-fp-" + i, "Footprint Manager", "fp.m" + i + "@example.com", "1234567890", 1, "pw", 1));
+        }
+
+        List<Project> compact = new ArrayList<>(PROJECTS);
+        List<LegacyProject> legacy = new ArrayList<>(PROJECTS);
+        for (int i = 0; i < PROJECTS; i++) {
+            // IDs typed at the console arrive as a new String for every project
+            String builderId = new String("B-fp-" + (i % 50));
+            String managerId = new String("M-fp-" + (i % 20));
+            LocalDate projectStart = start.plusDays(i % 365);
+            LocalDate projectEnd = projectStart.plusDays(90);
+
+            compact.add(new Project(1_000_000L + i, "Project", "Description", projectStart, projectEnd,
+                    ProjectStatus.IN_PROGRESS, client, builderId, managerId));
+            legacy.add(new LegacyProject(1_000_000L + i, "Project", "Description", projectStart.plusDays(0),
+                    projectEnd.plusDays(0), ProjectStatus.IN_PROGRESS, client, builderId, managerId));
+        }
+
+        long compactPerProject = perProject(compact, "Project", "Description", client);
+        long legacyPerProject = perProject(legacy, "Project", "Description", client);
+
+        assertTrue(compactPerProject * 2 <= legacyPerProject,
+                "compact " + compactPerProject + " bytes vs legacy " + legacyPerProject + " bytes per project");
+    }
+
+    /**
+     * Ensures the compact fields read back exactly, including missing values.
+     */
+    @Test
+    void testCompactLayout_roundTrip() {
+        Project full = new Project(2_000_000L, "Name", "Desc", LocalDate.of(1969, 12, 31), LocalDate.of(2100, 2, 28),
+                ProjectStatus.COMPLETED, null, "B-footprint", "M-footprint");
+        Project empty = new Project(2_000_001L, null, null, null, null, null, null, null, null);
+
+        assertEquals(LocalDate.of(1969, 12, 31), full.getProjectStartDate());
+        assertEquals(LocalDate.of(2100, 2, 28), full.getProjectEndDate());
+        assertEquals(ProjectStatus.COMPLETED, full.getProjectStatus());
+        assertEquals("B-footprint", full.getAssignedBuilder());
+        assertEquals("M-footprint", full.getAssignedProjectManager());
+
+        assertNull(empty.getProjectStartDate());
+        assertNull(empty.getProjectStatus());
+        assertNull(empty.getAssignedBuilder());
+        assertThrows(IllegalArgumentException.class, () -> full.setProjectEndDate(LocalDate.MAX));
+    }
+
+    /**
+     * Average retained bytes per element, excluding the list and the objects all elements share.
+     */
+    private static long perProject(List<?> projects, Object... shared) {
+        long total = GraphLayout.parseInstance(projects.toArray()).totalSize();
+        long sharedSize = GraphLayout.parseInstance(shared).totalSize();
+        return (total - sharedSize) / projects.size();
+    }
+
+    /**
+     * The previous layout of a project, one object per field value.
+     */
+    private static final class LegacyProject {
+        final long projectId;
+        final String projectName;
+        final String projectDescription;
+        final LocalDate projectStartDate;
+        final LocalDate projectEndDate;
+        final ProjectStatus projectStatus;
+        final Client assignedClient;
+        final String assignedBuilder;
+        final String assignedProjectManager;
+
+        LegacyProject(long projectId, String projectName, String projectDescription, LocalDate projectStartDate, LocalDate projectEndDate, ProjectStatus projectStatus, Client assignedClient, String assignedBuilder, String assignedProjectManager) {
+            this.projectId = projectId;
+            this.projectName = projectName;
+            this.projectDescription = projectDescription;
+            this.projectStartDate = projectStartDate;
+            this.projectEndDate = projectEndDate;
+            this.projectStatus = projectStatus;
+            this.assignedClient = assignedClient;
+            this.assignedBuilder = assignedBuilder;
+            this.assignedProjectManager = assignedProjectManager;
+        }
+    }
+}
@@ -305,4 +305,64 @@ public class ProjectTest {
         project.setProjectStatus(null);
         assertNull(project.getProjectStatus());
     }
+
+    /**
+     * Verifies a setter publishes a new snapshot and leaves snapshots
+     * taken earlier unchanged.
+     */
+    @Test
+    @Order(9)
+    void testSnapshot_unchangedBySetters() {
+        Project local = new Project("Tower", "Office tower", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30),
+                ProjectStatus.UPCOMING, client, "B1", "M1");
+        ProjectSnapshot before = local.snapshot();
+
+        local.setProjectStatus(ProjectStatus.COMPLETED);
+
+        assertEquals(ProjectStatus.UPCOMING, before.getProjectStatus());
+        assertEquals(ProjectStatus.COMPLETED, local.snapshot().getProjectStatus());
+        assertEquals(before.withProjectStatus(ProjectStatus.COMPLETED), local.snapshot());
+        assertEquals(local.toString(), local.snapshot().toString());
+    }
+
+    /**
+     * Ensures replaceState swaps all fields at once and rejects a
+     * snapshot of another project.
+     */
+    @Test
+    @Order(10)
+    void testReplaceState() {
+        Project local = new Project("Depot", "", null, null, ProjectStatus.UPCOMING, null, "B1", "M1");
+        ProjectSnapshot next = local.snapshot()
+                .withProjectStartDate(LocalDate.of(2026, 1, 1))
+                .withProjectEndDate(LocalDate.of(2026, 2, 1));
+
+        local.replaceState(next);
+        assertSame(next, local.snapshot());
+        assertEquals(LocalDate.of(2026, 2, 1), local.getProjectEndDate());
+
+        Project other = new Project("Other", "", null, null, null, null, null, null);
+        assertThrows(IllegalArgumentException.class, () -> local.replaceState(other.snapshot()));
+    }
+
+    /**
+     * Ensures concurrent setters of different fields never overwrite
+     * each other's change.
+     */
+    @Test
+    @Order(11)
+    void testConcurrentSetters_noLostFields() throws Exception {
+        for (int round = 0; round < 200; round++) {
+            Project local = new Project("Shared", "", null, null, null, null, null, null);
+            Thread status = new Thread(() -> local.setProjectStatus(ProjectStatus.IN_PROGRESS));
+            Thread builder = new Thread(() -> local.setAssignedBuilder("B7"));
+            status.start();
+            builder.start();
+            status.join();
+            builder.join();
+
+            assertEquals(ProjectStatus.IN_PROGRESS, local.getProjectStatus());
+            assertEquals("B7", local.getAssignedBuilder());
+        }
+    }
 }
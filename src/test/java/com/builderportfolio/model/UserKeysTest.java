@@ -0,0 +1,68 @@
+package com.builderportfolio.model;
+
+import com.builderportfolio.dao.UserDao;
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link UserKeys}.
+ * <p>
+ * Validates that keys are stable in both directions, that lookups never
+ * assign keys, and that a user gets its key and role when it is stored,
+ * not when it is constructed.
+ * </p>
+ */
+class UserKeysTest {
+
+    /**
+     * Verifies a key maps back to its user ID and is reused on later calls.
+     */
+    @Test
+    void testKeyOf_bidirectional() {
+        int key = UserKeys.keyOf("U-keys-1");
+
+        assertEquals(key, UserKeys.keyOf(new String("U-keys-1")));
+        assertEquals(key, UserKeys.lookup("U-keys-1"));
+        assertEquals("U-keys-1", UserKeys.userIdOf(key));
+        assertTrue(key < UserKeys.size());
+        assertEquals(UserKeys.NO_USER, UserKeys.keyOf(null));
+        assertNull(UserKeys.userIdOf(UserKeys.NO_USER));
+    }
+
+    /**
+     * Ensures lookups of unknown IDs do not assign a key.
+     */
+    @Test
+    void testLookup_doesNotAssign() {
+        int size = UserKeys.size();
+
+        assertEquals(UserKeys.NO_USER, UserKeys.lookup("U-keys-unknown"));
+        assertEquals(size, UserKeys.size());
+        assertNull(UserKeys.roleOf(UserKeys.lookup("U-keys-unknown")));
+    }
+
+    /**
+     * Verifies storing a user records its key and role, and that a user
+     * that is only constructed, or rejected as a duplicate, gets no key.
+     */
+    @Test
+    void testUser_recordsRole() {
+        User manager = new User("Key Manager", "keys.m@example.com", "1234567890", 3, "pw", 1);
+        User builder = new User("Key Builder", "keys.b@example.com", "1234567890", 3, "pw", 2);
+        assertEquals(UserKeys.NO_USER, manager.getUserKey());
+
+        UserDao.insertIfAbsent(manager);
+        UserDao.insertIfAbsent(builder);
+        assertEquals(manager.getUserId(), UserKeys.userIdOf(manager.getUserKey()));
+        assertEquals(Role.PROJECT_MANAGER, UserKeys.roleOf(manager.getUserKey()));
+        assertEquals(Role.BUILDER, UserKeys.roleOf(builder.getUserKey()));
+        assertEquals(Role.BUILDER, builder.getRole());
+
+        int size = UserKeys.size();
+        User duplicate = new User("Key Again", "KEYS.M@example.com", "1234567890", 3, "pw", 2);
+        assertEquals(manager.getUserId(), UserDao.insertIfAbsent(duplicate));
+        assertEquals(UserKeys.NO_USER, duplicate.getUserKey());
+        assertEquals(size, UserKeys.size());
+    }
+}
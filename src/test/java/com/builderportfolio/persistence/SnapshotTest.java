@@ -0,0 +1,228 @@
+package com.builderportfolio.persistence;
+
+import com.builderportfolio.dao.BuilderDao;
+import com.builderportfolio.dao.ManagerDao;
+import com.builderportfolio.dao.ProjectDao;
+import com.builderportfolio.dao.UserDao;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.User;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.time.LocalDate;
+import java.util.Arrays;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link Snapshot} and snapshot handling in {@link PersistenceManager}.
+ * <p>
+ * Validates that a snapshot restores every DAO, that changes made after
+ * it are replayed from the log, that records covered by both the snapshot
+ * and its first log segment are applied once, and that corrupt snapshots
+ * are rejected.
+ * </p>
+ */
+class SnapshotTest {
+
+    /**
+     * Temporary data directory for each test.
+     */
+    @TempDir
+    Path dataDir;
+
+    /**
+     * Persistence manager opened by the current test, if any.
+     */
+    private PersistenceManager persistence;
+
+    /**
+     * Resets all static DAOs before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        clearDaos();
+    }
+
+    /**
+     * Closes the log and resets the DAOs after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (persistence != null) {
+            persistence.close();
+        }
+        clearDaos();
+    }
+
+    /**
+     * Verifies that users, projects, shared clients and assignments are
+     * restored from a snapshot and that covered log segments are deleted.
+     */
+    @Test
+    void testSnapshot_restoresAllDaos() throws IOException {
+        persistence = open();
+        User manager = new User("Snap Manager", "snap.manager@gmail.com", "1111111111", 5, "pass", 1);
+        UserDao.insertUser(manager.getUserId(), manager);
+        Client client = new Client("Client", "client@gmail.com", "3333333333");
+        Project first = saveAssigned("First", client, "B-snap", manager.getUserId());
+        Project second = saveAssigned("Second", client, "B-snap", manager.getUserId());
+
+        long walSegment = persistence.snapshot();
+
+        assertEquals(1, Snapshot.listSnapshots(dataDir).size());
+        assertEquals(walSegment, (long) WriteAheadLog.listSegments(dataDir).get(0));
+
+        restart();
+
+        assertEquals(manager.getUserId(), UserDao.exists("snap.manager@gmail.com"));
+        Project restoredFirst = ProjectDao.getProjectById(first.getProjectId());
+        Project restoredSecond = ProjectDao.getProjectById(second.getProjectId());
+        assertEquals("First", restoredFirst.getProjectName());
+        assertEquals(LocalDate.of(2025, 6, 30), restoredFirst.getProjectEndDate());
+        assertSame(restoredFirst.getAssignedClient(), restoredSecond.getAssignedClient());
+        assertEquals("client@gmail.com", restoredFirst.getAssignedClient().getClientEmail());
+        assertEquals(2, BuilderDao.getProjectIds("B-snap").size());
+        assertEquals(2, ManagerDao.getProjectIds(manager.getUserId()).size());
+    }
+
+    /**
+     * Verifies that changes made after a snapshot are replayed on top of it.
+     */
+    @Test
+    void testSnapshot_thenLogReplay() throws IOException {
+        persistence = open();
+        Project project = saveAssigned("Before", null, "B-after", "M-after");
+        persistence.snapshot();
+
+        project.setProjectStatus(ProjectStatus.COMPLETED);
+        ProjectDao.saveProject(project);
+        ManagerDao.removeProjectFromManager("M-after", project.getProjectId());
+
+        restart();
+
+        assertEquals(ProjectStatus.COMPLETED, ProjectDao.getProjectById(project.getProjectId()).getProjectStatus());
+        assertTrue(ManagerDao.getProjectIds("M-after").isEmpty());
+        assertEquals(1, BuilderDao.getProjectIds("B-after").size());
+    }
+
+    /**
+     * Ensures records that reached both the snapshot and its first log
+     * segment are not applied twice.
+     */
+    @Test
+    void testSnapshot_overlappingSegmentIsIdempotent() throws IOException {
+        persistence = open();
+        long walSegment = persistence.writeAheadLog().rotate();
+        BuilderDao.insertBuilder("B-overlap");
+        BuilderDao.addProjectToBuilder("B-overlap", 7L);
+        ManagerDao.addProjectToManager("M-overlap", 7L);
+        Snapshot.write(dataDir, walSegment); // already contains the changes logged in walSegment
+
+        restart();
+
+        assertEquals(1, BuilderDao.getProjectIds("B-overlap").size());
+        assertEquals(1, ManagerDao.getProjectIds("M-overlap").size());
+    }
+
+    /**
+     * Ensures strings longer than 64 KB are written to and restored from a snapshot.
+     */
+    @Test
+    void testSnapshot_longStrings() throws IOException {
+        persistence = open();
+        char[] chars = new char[70_000];
+        Arrays.fill(chars, '\u00e9');
+        String name = new String(chars);
+        Project project = saveAssigned(name, new Client(name, null, null), "B-" + name, "M-long");
+        persistence.snapshot();
+
+        restart();
+
+        Project restored = ProjectDao.getProjectById(project.getProjectId());
+        assertEquals(name, restored.getProjectName());
+        assertEquals(name, restored.getAssignedClient().getClientName());
+        assertEquals(1, BuilderDao.getProjectIds("B-" + name).size());
+    }
+
+    /**
+     * Verifies that a snapshot larger than one section is restored completely
+     * and that the ID sequence is not rewound by deleted projects.
+     */
+    @Test
+    void testSnapshot_manySections() throws IOException {
+        persistence = open(1_000, 10_000, false);
+        int count = Snapshot.SECTION_RECORDS * 2 + 100;
+        for (int i = 0; i < count; i++) {
+            ProjectDao.saveProject(new Project("P" + i, null, null, null, ProjectStatus.UPCOMING, null, null, null));
+        }
+        Project last = new Project("Last", null, null, null, null, null, null, null);
+        ProjectDao.saveProject(last);
+        ProjectDao.removeProject(last.getProjectId());
+        persistence.snapshot();
+
+        restart();
+
+        assertEquals(count, ProjectDao.projectsList.size());
+        assertTrue(Project.idSequence().current() >= last.getProjectId());
+    }
+
+    /**
+     * Ensures a snapshot with a corrupted section is rejected instead of
+     * silently restoring partial data.
+     */
+    @Test
+    void testRestore_corruptSnapshot() throws IOException {
+        persistence = open();
+        UserDao.insertUser("M-corrupt", new User("Name", "corrupt@gmail.com", "1", 1, "pass", 1));
+        long walSegment = persistence.snapshot();
+        persistence.close();
+        persistence = null;
+
+        Path file = Snapshot.snapshotPath(dataDir, walSegment);
+        byte[] bytes = Files.readAllBytes(file);
+        bytes[bytes.length - 5] ^= 0x7F; // inside the last section's payload
+        Files.write(file, bytes);
+
+        clearDaos();
+        assertThrows(IOException.class, () -> Snapshot.restoreLatest(dataDir, 2));
+    }
+
+    private Project saveAssigned(String name, Client client, String builderId, String managerId) {
+        Project project = new Project(name, "Description", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30),
+                ProjectStatus.UPCOMING, client, builderId, managerId);
+        ProjectDao.saveProject(project);
+        BuilderDao.addProjectToBuilder(builderId, project.getProjectId());
+        ManagerDao.addProjectToManager(managerId, project.getProjectId());
+        return project;
+    }
+
+    private PersistenceManager open() throws IOException {
+        return open(PersistenceManager.DEFAULT_GROUP_COMMIT_SIZE, PersistenceManager.DEFAULT_GROUP_COMMIT_MILLIS, true);
+    }
+
+    private PersistenceManager open(int groupCommitSize, long groupCommitMillis, boolean waitForSync) throws IOException {
+        return PersistenceManager.open(dataDir, groupCommitSize, groupCommitMillis, waitForSync, 0);
+    }
+
+    /**
+     * Simulates a restart: closes the log, clears memory and recovers from disk.
+     */
+    private void restart() throws IOException {
+        persistence.close();
+        clearDaos();
+        persistence = open();
+    }
+
+    private static void clearDaos() {
+        UserDao.users.clear();
+        ProjectDao.projectsList.clear();
+        BuilderDao.builderProjects.clear();
+        ManagerDao.managerProjects.clear();
+    }
+}
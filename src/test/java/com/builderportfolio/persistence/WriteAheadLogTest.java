@@ -0,0 +1,278 @@
+package com.builderportfolio.persistence;
+
+import com.builderportfolio.dao.BuilderDao;
+import com.builderportfolio.dao.ManagerDao;
+import com.builderportfolio.dao.ProjectDao;
+import com.builderportfolio.dao.UserDao;
+import com.builderportfolio.model.Client;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.User;
+import com.builderportfolio.security.PasswordHasher;
+import com.builderportfolio.security.PasswordVerifier;
+import com.builderportfolio.service.ProjectService;
+import com.builderportfolio.service.UserService;
+import org.junit.jupiter.api.*;
+import org.junit.jupiter.api.io.TempDir;
+
+import java.io.IOException;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.time.LocalDate;
+import java.util.Arrays;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link WriteAheadLog} and {@link PersistenceManager}.
+ * <p>
+ * Validates that DAO mutations are journaled and replayed
+ * after a restart, including passwords rehashed on login,
+ * that a change the log refuses is not applied in memory,
+ * that null fields round-trip, that torn
+ * records at the end of a segment are ignored, and that
+ * asynchronous group commit flushes on close.
+ * </p>
+ */
+class WriteAheadLogTest {
+
+    /**
+     * Temporary data directory for each test.
+     */
+    @TempDir
+    Path dataDir;
+
+    /**
+     * Persistence manager opened by the current test, if any.
+     */
+    private PersistenceManager persistence;
+
+    /**
+     * Resets all static DAOs before each test.
+     */
+    @BeforeEach
+    void setUp() {
+        clearDaos();
+    }
+
+    /**
+     * Closes the log and resets the DAOs after each test.
+     */
+    @AfterEach
+    void tearDown() {
+        if (persistence != null) {
+            persistence.close();
+        }
+        clearDaos();
+    }
+
+    /**
+     * Verifies that users, projects and assignments created through
+     * the services are restored after a restart.
+     */
+    @Test
+    void testReplay_restoresServiceState() throws IOException {
+        persistence = PersistenceManager.open(dataDir);
+        UserService userService = new UserService();
+        ProjectService projectService = new ProjectService();
+
+        User manager = new User("Wal Manager", "wal.manager@gmail.com", "1111111111", 5, "pass", 1);
+        User builder = new User("Wal Builder", "wal.builder@gmail.com", "2222222222", 3, "pass", 2);
+        userService.register(manager);
+        userService.register(builder);
+
+        Client client = new Client("Client", "client@gmail.com", "3333333333");
+        projectService.createProject("Kept", "Stays", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30),
+                ProjectStatus.UPCOMING, client, builder.getUserId(), manager.getUserId());
+        projectService.createProject("Deleted", "Goes", LocalDate.of(2025, 2, 1), LocalDate.of(2025, 3, 1),
+                ProjectStatus.UPCOMING, client, builder.getUserId(), manager.getUserId());
+
+        List<Project> created = projectService.getManagerProjects(manager.getUserId());
+        Project kept = created.get(0).getProjectName().equals("Kept") ? created.get(0) : created.get(1);
+        Project deleted = kept == created.get(0) ? created.get(1) : created.get(0);
+        projectService.updateProjectStatus(builder.getUserId(), kept.getProjectId(), ProjectStatus.IN_PROGRESS);
+        projectService.deleteProject(manager.getUserId(), deleted.getProjectId());
+
+        restart();
+
+        assertEquals("wal.manager@gmail.com", UserDao.getUserbyId(manager.getUserId()).getUserEmail());
+        assertEquals(builder.getUserId(), UserDao.exists("wal.builder@gmail.com"));
+
+        Project restored = ProjectDao.getProjectById(kept.getProjectId());
+        assertNotNull(restored);
+        assertEquals(ProjectStatus.IN_PROGRESS, restored.getProjectStatus());
+        assertEquals(LocalDate.of(2025, 6, 30), restored.getProjectEndDate());
+        assertEquals("client@gmail.com", restored.getAssignedClient().getClientEmail());
+        assertNull(ProjectDao.getProjectById(deleted.getProjectId()));
+
+        assertEquals(1, ManagerDao.getProjectIds(manager.getUserId()).size());
+        assertEquals(1, BuilderDao.getProjectIds(builder.getUserId()).size());
+        assertTrue(BuilderDao.getProjectIds(builder.getUserId()).contains(kept.getProjectId()));
+    }
+
+    /**
+     * Ensures that null fields survive a round trip through the log.
+     */
+    @Test
+    void testReplay_nullFields() throws IOException {
+        persistence = PersistenceManager.open(dataDir);
+
+        Project project = new Project(null, null, null, null, null, null, null, null);
+        ProjectDao.saveProject(project);
+
+        restart();
+
+        Project restored = ProjectDao.getProjectById(project.getProjectId());
+        assertNotNull(restored);
+        assertNull(restored.getProjectName());
+        assertNull(restored.getProjectStartDate());
+        assertNull(restored.getProjectStatus());
+        assertNull(restored.getAssignedClient());
+        assertNull(restored.getAssignedBuilder());
+    }
+
+    /**
+     * Ensures strings longer than 64 KB, which modified UTF-8 cannot hold,
+     * are logged and replayed intact.
+     */
+    @Test
+    void testReplay_longStrings() throws IOException {
+        persistence = PersistenceManager.open(dataDir);
+        char[] chars = new char[70_000];
+        Arrays.fill(chars, '\u00e9');
+        String description = new String(chars);
+
+        Project project = new Project("Long", description, null, null, null, null, "B-long-" + description, null);
+        ProjectDao.saveProject(project);
+        BuilderDao.addProjectToBuilder("B-long-" + description, project.getProjectId());
+
+        restart();
+
+        assertEquals(description, ProjectDao.getProjectById(project.getProjectId()).getProjectDescription());
+        assertEquals(1, BuilderDao.getProjectIds("B-long-" + description).size());
+    }
+
+    /**
+     * Verifies a legacy password rehashed on login stays hashed after a restart.
+     */
+    @Test
+    void testReplay_rehashedPassword() throws IOException {
+        persistence = PersistenceManager.open(dataDir);
+        User legacy = new User("Legacy", "wal-legacy@example.com", "123", 1, "plain", 2);
+        UserDao.insertUser(legacy.getUserId(), legacy); // stored as restored from old data
+        UserService userService = new UserService(new PasswordVerifier(1_000, 1, 4, 0, 60_000));
+        assertNotNull(userService.login(legacy.getUserId(), "plain"));
+
+        restart();
+
+        String stored = UserDao.getUserbyId(legacy.getUserId()).getPassword();
+        assertTrue(PasswordHasher.isHash(stored));
+        assertEquals(legacy.getPassword(), stored);
+        assertNotNull(userService.login(legacy.getUserId(), "plain"));
+    }
+
+    /**
+     * Ensures changes are not applied in memory once the log refuses their records.
+     */
+    @Test
+    void testClosedLog_changesNotApplied() throws IOException {
+        persistence = PersistenceManager.open(dataDir);
+        persistence.writeAheadLog().close(); // still installed as the journal
+
+        Project project = new Project("Refused", null, null, null, ProjectStatus.UPCOMING, null, "B-refused", "M-refused");
+        assertThrows(IllegalStateException.class, () -> ProjectDao.saveProject(project));
+        assertNull(ProjectDao.getProjectById(project.getProjectId()));
+        assertThrows(IllegalStateException.class, () -> BuilderDao.addProjectToBuilder("B-refused", project.getProjectId()));
+        assertThrows(IllegalStateException.class, () -> ManagerDao.addProjectsToManager("M-refused", new long[]{project.getProjectId()}, 0, 1));
+        assertTrue(BuilderDao.getProjectIds("B-refused").isEmpty());
+        assertTrue(ManagerDao.getProjectIds("M-refused").isEmpty());
+
+        User user = new User("Refused", "refused@example.com", "123", 1, "pw", 2);
+        assertThrows(IllegalStateException.class, () -> UserDao.insertIfAbsent(user));
+        assertNull(UserDao.exists("refused@example.com"));
+        assertNull(UserDao.getUserbyId(user.getUserId()));
+    }
+
+    /**
+     * Verifies that ID sequences resume past restored IDs.
+     */
+    @Test
+    void testReplay_advancesIdSequences() throws IOException {
+        persistence = PersistenceManager.open(dataDir);
+        Project project = new Project("P", "D", LocalDate.now(), LocalDate.now(), ProjectStatus.UPCOMING, null, "B1", "M1");
+        ProjectDao.saveProject(project);
+
+        restart();
+
+        assertTrue(Project.idSequence().current() >= project.getProjectId());
+    }
+
+    /**
+     * Ensures a record torn by a crash at the end of a segment
+     * is ignored while earlier records are still applied.
+     */
+    @Test
+    void testReplay_ignoresTornTail() throws IOException {
+        persistence = PersistenceManager.open(dataDir);
+        BuilderDao.insertBuilder("B-torn");
+        BuilderDao.addProjectToBuilder("B-torn", 42L);
+        persistence.close();
+        persistence = null;
+
+        Path segment = WriteAheadLog.segmentPath(dataDir, 1);
+        Files.write(segment, new byte[]{0, 0, 0, 40, 1, 2, 3}, StandardOpenOption.APPEND); // incomplete record
+
+        clearDaos();
+        assertEquals(2, WriteAheadLog.replay(dataDir));
+        assertTrue(BuilderDao.getProjectIds("B-torn").contains(42L));
+    }
+
+    /**
+     * Verifies that each restart writes to a new segment.
+     */
+    @Test
+    void testNewSegmentPerOpen() throws IOException {
+        persistence = PersistenceManager.open(dataDir);
+        ManagerDao.insertManager("M-seg");
+
+        restart();
+
+        assertEquals(2, persistence.writeAheadLog().currentSegment());
+        assertEquals(2, WriteAheadLog.listSegments(dataDir).size());
+        assertTrue(ManagerDao.managerProjects.containsKey("M-seg"));
+    }
+
+    /**
+     * Ensures records appended without waiting for fsync
+     * are flushed when the log is closed.
+     */
+    @Test
+    void testAsyncGroupCommit_flushedOnClose() throws IOException {
+        persistence = PersistenceManager.open(dataDir, 1_000, 10_000, false);
+        for (long id = 1; id <= 500; id++) {
+            ManagerDao.addProjectToManager("M-async", id);
+        }
+
+        restart();
+
+        assertEquals(500, ManagerDao.getProjectIds("M-async").size());
+    }
+
+    /**
+     * Simulates a restart: closes the log, clears memory and recovers from disk.
+     */
+    private void restart() throws IOException {
+        persistence.close();
+        clearDaos();
+        persistence = PersistenceManager.open(dataDir);
+    }
+
+    private static void clearDaos() {
+        UserDao.users.clear();
+        ProjectDao.projectsList.clear();
+        BuilderDao.builderProjects.clear();
+        ManagerDao.managerProjects.clear();
+    }
+}
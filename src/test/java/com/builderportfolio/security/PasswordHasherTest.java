@@ -0,0 +1,92 @@
+package com.builderportfolio.security;
+
+import org.junit.jupiter.api.*;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link PasswordHasher}.
+ * <p>
+ * Validates salted hashing, verification across cost changes, the
+ * maximum accepted cost, legacy plain-text values and malformed stored
+ * hashes.
+ * </p>
+ */
+class PasswordHasherTest {
+
+    private final PasswordHasher hasher = new PasswordHasher(1_000);
+
+    /**
+     * Verifies hashes are salted, self-describing and verify only the right password.
+     */
+    @Test
+    void testHashAndVerify() {
+        String first = hasher.hash("secret");
+        String second = hasher.hash("secret");
+
+        assertNotEquals(first, second);
+        assertTrue(first.startsWith("pbkdf2-sha256:1000:"));
+        assertTrue(PasswordHasher.isHash(first));
+        assertTrue(hasher.verify("secret", first));
+        assertTrue(hasher.verify("secret", second));
+        assertFalse(hasher.verify("Secret", first));
+        assertFalse(hasher.verify(null, first));
+        assertFalse(hasher.verify("secret", null));
+    }
+
+    /**
+     * Ensures a hash made with another cost still verifies and is flagged for rehashing.
+     */
+    @Test
+    void testCostChange() {
+        String weak = new PasswordHasher(500).hash("secret");
+
+        assertTrue(hasher.verify("secret", weak));
+        assertTrue(hasher.needsRehash(weak));
+        assertFalse(hasher.needsRehash(hasher.hash("secret")));
+        assertFalse(new PasswordHasher(500).needsRehash(hasher.hash("secret")));
+    }
+
+    /**
+     * Verifies legacy plain-text values are compared exactly and always need rehashing.
+     */
+    @Test
+    void testLegacyPlainText() {
+        assertTrue(hasher.verify("plain", "plain"));
+        assertFalse(hasher.verify("plain", "Plain"));
+        assertTrue(hasher.needsRehash("plain"));
+        assertFalse(hasher.needsRehash(null));
+    }
+
+    /**
+     * Ensures malformed hashes and invalid costs are rejected rather than throwing.
+     */
+    @Test
+    void testMalformedHash() {
+        assertFalse(hasher.verify("secret", "pbkdf2-sha256:abc:AAAA:AAAA"));
+        assertFalse(hasher.verify("secret", "pbkdf2-sha256:1000:%%%:AAAA"));
+        assertFalse(hasher.verify("secret", "pbkdf2-sha256:1000"));
+        assertFalse(hasher.verify("secret", "pbkdf2-sha256:0:AAAA:AAAA"));
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(0));
+    }
+
+    /**
+     * Ensures a hash costing more than the maximum is neither verified nor accepted.
+     */
+    @Test
+    void testMaxIterations() {
+        PasswordHasher capped = new PasswordHasher(500, 1_000);
+        String costly = new PasswordHasher(2_000).hash("secret");
+
+        assertFalse(capped.verify("secret", costly));
+        assertTrue(capped.needsRehash(costly));
+        assertFalse(capped.isAcceptedHash(costly));
+        assertFalse(capped.isAcceptedHash("pbkdf2-sha256:1000000000:AAAA:AAAA"));
+        assertFalse(capped.isAcceptedHash("pbkdf2-sha256:1000:AAAA:AAAA")); // hash too short
+        assertFalse(capped.isAcceptedHash("plain"));
+        assertTrue(capped.isAcceptedHash(hasher.hash("secret")));
+        assertTrue(capped.verify("secret", hasher.hash("secret")));
+        assertEquals(PasswordVerifier.DEFAULT_MAX_ITERATIONS, hasher.getMaxIterations());
+        assertThrows(IllegalArgumentException.class, () -> new PasswordHasher(1_000, 999));
+    }
+}
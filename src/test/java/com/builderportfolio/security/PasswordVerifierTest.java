@@ -0,0 +1,111 @@
+package com.builderportfolio.security;
+
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link PasswordVerifier} and {@link VerifiedCredentialCache}.
+ * <p>
+ * Validates verification through the bounded pool, that the cache only
+ * remembers successful logins for the current stored hash, expiry and the
+ * size bound, and that a burst larger than the pool is served completely.
+ * </p>
+ */
+class PasswordVerifierTest {
+
+    private PasswordVerifier verifier;
+
+    @BeforeEach
+    void setUp() {
+        verifier = new PasswordVerifier(1_000, 2, 4, 100, 60_000);
+    }
+
+    @AfterEach
+    void tearDown() {
+        verifier.shutdown();
+    }
+
+    /**
+     * Verifies hashing and verification round-trip and wrong passwords fail.
+     */
+    @Test
+    void testHashAndVerify() {
+        String stored = verifier.hash("secret");
+
+        assertTrue(verifier.verify("U1", "secret", stored));
+        assertTrue(verifier.verify("U1", "secret", stored)); // cached
+        assertFalse(verifier.verify("U1", "wrong", stored));
+        assertFalse(verifier.verify("U1", null, stored));
+        assertFalse(verifier.verify("U1", "secret", null));
+    }
+
+    /**
+     * Ensures a cached login does not survive a change of the stored hash or an explicit forget.
+     */
+    @Test
+    void testCacheBoundToStoredHash() {
+        VerifiedCredentialCache cache = new VerifiedCredentialCache(10, 60_000);
+        cache.remember("U1", "secret", "hash-1");
+
+        assertTrue(cache.isVerified("U1", "secret", "hash-1"));
+        assertFalse(cache.isVerified("U1", "secret", "hash-2"));
+        assertFalse(cache.isVerified("U1", "other", "hash-1"));
+        assertFalse(cache.isVerified("U2", "secret", "hash-1"));
+
+        cache.forget("U1");
+        assertFalse(cache.isVerified("U1", "secret", "hash-1"));
+    }
+
+    /**
+     * Verifies entries expire and the cache never grows past its bound.
+     */
+    @Test
+    void testCacheExpiryAndBound() throws InterruptedException {
+        VerifiedCredentialCache expiring = new VerifiedCredentialCache(10, 1);
+        expiring.remember("U1", "secret", "hash");
+        Thread.sleep(5);
+        assertFalse(expiring.isVerified("U1", "secret", "hash"));
+
+        VerifiedCredentialCache bounded = new VerifiedCredentialCache(8, 60_000);
+        for (int i = 0; i < 100; i++) {
+            bounded.remember("U" + i, "secret", "hash");
+        }
+        assertTrue(bounded.size() <= 8);
+        assertTrue(bounded.isVerified("U99", "secret", "hash"));
+
+        VerifiedCredentialCache disabled = new VerifiedCredentialCache(0, 60_000);
+        disabled.remember("U1", "secret", "hash");
+        assertFalse(disabled.isVerified("U1", "secret", "hash"));
+    }
+
+    /**
+     * Ensures a burst of logins larger than the pool and its queue all complete correctly.
+     */
+    @Test
+    void testBurstLargerThanPool() throws Exception {
+        String stored = verifier.hash("secret");
+        PasswordVerifier uncached = new PasswordVerifier(1_000, 2, 1, 0, 0);
+        ExecutorService callers = Executors.newFixedThreadPool(16);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int i = 0; i < 64; i++) {
+                String password = i % 2 == 0 ? "secret" : "wrong";
+                results.add(callers.submit(() -> uncached.verify("U1", password, stored)));
+            }
+            for (int i = 0; i < results.size(); i++) {
+                assertEquals(i % 2 == 0, results.get(i).get(20, TimeUnit.SECONDS));
+            }
+        } finally {
+            callers.shutdown();
+            uncached.shutdown();
+        }
+    }
+}
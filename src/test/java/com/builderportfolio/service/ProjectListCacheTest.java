@@ -0,0 +1,121 @@
+package com.builderportfolio.service;
+
+import com.builderportfolio.dao.LongIdList;
+import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectStatus;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.List;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link ProjectListCache}.
+ * <p>
+ * Validates hits and copies, expiry, the size bound, that a load
+ * overlapping an invalidation is not stored, and that changes made to an
+ * assignment list around the service are detected.
+ * </p>
+ */
+class ProjectListCacheTest {
+
+    private final AtomicLong now = new AtomicLong();
+    private final ProjectListCache cache = new ProjectListCache(3, 1_000, now::get);
+    private final List<Project> projects = Collections.singletonList(
+            new Project("Listed", null, null, null, ProjectStatus.UPCOMING, null, "B-list-1", "M-list-1"));
+
+    /**
+     * Verifies a stored list is returned as a fresh copy until it expires.
+     */
+    @Test
+    void testHitAndExpiry() {
+        LongIdList ids = assignments(1L);
+        cache.put("M-list-1", ids, ProjectListCache.stampOf(ids), projects, cache.generation("M-list-1"));
+
+        List<Project> hit = cache.get("M-list-1", ids);
+        assertEquals(projects, hit);
+        hit.clear();
+        assertEquals(projects, cache.get("M-list-1", ids));
+
+        now.addAndGet(TimeUnit.MILLISECONDS.toNanos(1_001));
+        assertNull(cache.get("M-list-1", ids));
+        assertEquals(0, cache.size());
+    }
+
+    /**
+     * Ensures a load that began before an invalidation is not stored.
+     */
+    @Test
+    void testInvalidationDuringLoad() {
+        LongIdList ids = assignments(1L);
+        long generation = cache.generation("M-list-1");
+        int stamp = ProjectListCache.stampOf(ids);
+        cache.invalidate("M-list-1"); // a change commits while the list is being resolved
+
+        cache.put("M-list-1", ids, stamp, projects, generation);
+        assertNull(cache.get("M-list-1", ids));
+
+        cache.put("M-list-1", ids, stamp, projects, cache.generation("M-list-1"));
+        assertNotNull(cache.get("M-list-1", ids));
+        cache.invalidate("M-list-1");
+        assertNull(cache.get("M-list-1", ids));
+        cache.invalidate(null);
+    }
+
+    /**
+     * Verifies an entry is ignored once its assignment list changes or is replaced.
+     */
+    @Test
+    void testAssignmentChanges() {
+        LongIdList ids = assignments(1L);
+        cache.put("M-list-1", ids, ProjectListCache.stampOf(ids), projects, cache.generation("M-list-1"));
+
+        ids.addId(2L);
+        assertNull(cache.get("M-list-1", ids));
+        cache.put("M-list-1", ids, ProjectListCache.stampOf(ids), projects, cache.generation("M-list-1"));
+        assertNull(cache.get("M-list-1", assignments(1L, 2L)));
+
+        List<Long> untracked = new ArrayList<>(Arrays.asList(1L, 2L));
+        assertEquals(ProjectListCache.UNTRACKED, ProjectListCache.stampOf(untracked));
+        cache.put("B-list-1", untracked, ProjectListCache.stampOf(untracked), projects, cache.generation("B-list-1"));
+        assertFalse(cache.contains("B-list-1"));
+    }
+
+    /**
+     * Verifies the cache never holds more than its maximum number of users.
+     */
+    @Test
+    void testSizeBound() {
+        for (int i = 0; i < 10; i++) {
+            LongIdList ids = assignments(i);
+            cache.put("M-bound-" + i, ids, ProjectListCache.stampOf(ids), projects, cache.generation("M-bound-" + i));
+            assertTrue(cache.size() <= 3);
+        }
+        assertTrue(cache.contains("M-bound-9"));
+
+        ProjectListCache disabled = new ProjectListCache(0, 1_000);
+        LongIdList ids = assignments(1L);
+        disabled.put("M-list-1", ids, ProjectListCache.stampOf(ids), projects, disabled.generation("M-list-1"));
+        assertEquals(0, disabled.size());
+    }
+
+    /**
+     * Ensures invalid settings are rejected.
+     */
+    @Test
+    void testInvalidSettings() {
+        assertThrows(IllegalArgumentException.class, () -> new ProjectListCache(-1, 1_000));
+        assertThrows(IllegalArgumentException.class, () -> new ProjectListCache(10, 0));
+    }
+
+    private static LongIdList assignments(long... ids) {
+        LongIdList list = new LongIdList();
+        list.addIds(ids, 0, ids.length);
+        return list;
+    }
+}
@@ -155,14 +155,20 @@ package com.builderportfolio.service;
 
 import com.builderportfolio.dao.ProjectDao;
 import com.builderportfolio.model.Client;
+import com.builderportfolio.model.NewProject;
 import com.builderportfolio.model.Project;
+import com.builderportfolio.model.ProjectFilter;
+import com.builderportfolio.model.ProjectPage;
 import com.builderportfolio.model.ProjectStatus;
+import com.builderportfolio.model.StatusTransitionResult;
 import com.builderportfolio.dao.BuilderDao;
 import com.builderportfolio.dao.ManagerDao;
 import org.junit.jupiter.api.*;
 
 import java.time.LocalDate;
+import java.util.ArrayList;
 import java.util.List;
+import java.util.stream.Collectors;
 
 import static org.junit.jupiter.api.Assertions.*;
 
@@ -430,4 +436,210 @@ class ProjectServiceTest {
         assertNotNull(projects);
         assertTrue(projects.isEmpty());
     }
+
+    /**
+     * Verifies that updating project dates moves the project
+     * in the date-range queries.
+     */
+    @Test
+    @Order(13)
+    void testUpdateProjectDates_Success() {
+        projectService.createProject("Dated", "Date index", LocalDate.of(2030, 1, 1), LocalDate.of(2030, 1, 31),
+                ProjectStatus.UPCOMING, client, "B-dates", "M-dates");
+        Project project = projectService.getManagerProjects("M-dates").get(0);
+
+        assertTrue(projectService.getProjectsEndingBetween(LocalDate.of(2030, 1, 27), LocalDate.of(2030, 2, 2)).contains(project));
+
+        assertTrue(projectService.updateProjectDates("M-dates", project.getProjectId(), LocalDate.of(2030, 3, 1), LocalDate.of(2030, 3, 31)));
+
+        assertFalse(projectService.getProjectsEndingBetween(LocalDate.of(2030, 1, 27), LocalDate.of(2030, 2, 2)).contains(project));
+        assertFalse(projectService.getProjectsActiveBetween(LocalDate.of(2030, 1, 1), LocalDate.of(2030, 2, 28)).contains(project));
+        assertTrue(projectService.getProjectsActiveBetween(LocalDate.of(2030, 3, 15), LocalDate.of(2030, 3, 15)).contains(project));
+    }
+
+    /**
+     * Ensures a manager cannot update dates of another manager's project.
+     */
+    @Test
+    @Order(14)
+    void testUpdateProjectDates_Failure_WrongManager() {
+        Project project = projectService.getManagerProjects("M-dates").get(0);
+
+        assertFalse(projectService.updateProjectDates("M999", project.getProjectId(), LocalDate.now(), LocalDate.now()));
+        assertFalse(projectService.updateProjectDates("M-dates", 999999L, LocalDate.now(), LocalDate.now()));
+        assertEquals(LocalDate.of(2030, 3, 1), project.getProjectStartDate());
+    }
+
+    /**
+     * Verifies cursor paging walks a manager's projects in ID order,
+     * skipping deleted projects without returning short pages.
+     */
+    @Test
+    @Order(15)
+    void testGetManagerProjectsPage() {
+        for (int i = 0; i < 7; i++) {
+            projectService.createProject("Paged " + i, "Paging", null, null, ProjectStatus.UPCOMING, client, "B-page", "M-page");
+        }
+        List<Project> all = projectService.getManagerProjects("M-page");
+        assertTrue(projectService.deleteProject("M-page", all.get(2).getProjectId()));
+
+        ProjectPage first = projectService.getManagerProjectsPage("M-page", null, 3);
+        assertEquals(3, first.getProjects().size());
+        assertTrue(first.hasNext());
+
+        ProjectPage second = projectService.getManagerProjectsPage("M-page", first.getNextCursor(), 3);
+        assertEquals(3, second.getProjects().size());
+        assertFalse(second.hasNext());
+        assertEquals(all.get(6).getProjectId(), second.getProjects().get(2).getProjectId());
+
+        long previous = Long.MIN_VALUE;
+        for (ProjectPage page : new ProjectPage[]{first, second}) {
+            for (Project project : page.getProjects()) {
+                assertTrue(project.getProjectId() > previous);
+                previous = project.getProjectId();
+            }
+        }
+        assertThrows(IllegalArgumentException.class, () -> projectService.getManagerProjectsPage("M-page", null, 0));
+    }
+
+    /**
+     * Verifies builder streams are ordered, can stop early and are empty for unknown users.
+     */
+    @Test
+    @Order(16)
+    void testStreamBuilderProjects() {
+        List<Project> streamed = projectService.streamBuilderProjects("B-page").collect(Collectors.toList());
+
+        assertEquals(6, streamed.size());
+        assertEquals(streamed.subList(0, 2), projectService.streamBuilderProjects("B-page").limit(2).collect(Collectors.toList()));
+        assertEquals(streamed.subList(0, 4), projectService.getBuilderProjectsPage("B-page", null, 4).getProjects());
+        assertEquals(0, projectService.streamManagerProjects("M999").count());
+        assertFalse(projectService.getBuilderProjectsPage("B999", null, 5).hasNext());
+    }
+
+    /**
+     * Verifies a batch gets consecutive IDs in order and is visible to both users' listings.
+     */
+    @Test
+    @Order(17)
+    void testCreateProjects() {
+        List<NewProject> batch = new ArrayList<>();
+        for (int i = 0; i < 300; i++) {
+            batch.add(new NewProject("Bulk " + i, "Onboarded", LocalDate.of(2025, 1, 1), LocalDate.of(2025, 6, 30),
+                    ProjectStatus.UPCOMING, client, i % 2 == 0 ? "B-bulk-1" : "B-bulk-2", "M-bulk"));
+        }
+
+        List<Project> created = projectService.createProjects(batch);
+
+        assertEquals(300, created.size());
+        for (int i = 1; i < created.size(); i++) {
+            assertEquals(created.get(0).getProjectId() + i, created.get(i).getProjectId());
+        }
+        assertEquals("Bulk 299", created.get(299).getProjectName());
+        assertEquals(300, projectService.getManagerProjects("M-bulk").size());
+        assertEquals(150, projectService.getBuilderProjects("B-bulk-2").size());
+        assertTrue(projectService.createProjects(new ArrayList<NewProject>()).isEmpty());
+
+        long next = Project.idSequence().current();
+        List<NewProject> invalid = new ArrayList<>(batch.subList(0, 2));
+        invalid.add(new NewProject("No manager", null, null, null, ProjectStatus.UPCOMING, client, "B-bulk-1", null));
+        assertThrows(NullPointerException.class, () -> projectService.createProjects(invalid));
+        assertEquals(next, Project.idSequence().current());
+        assertEquals(300, projectService.getManagerProjects("M-bulk").size());
+    }
+
+    /**
+     * Verifies a bulk transition changes exactly the manager's matching projects, in
+     * parallel partitions, and keeps the status index in step.
+     */
+    @Test
+    @Order(18)
+    void testTransitionStatus() {
+        List<NewProject> batch = new ArrayList<>();
+        for (int i = 0; i < 3_000; i++) {
+            LocalDate start = i % 2 == 0 ? LocalDate.of(2025, 1, 1) : LocalDate.of(2030, 1, 1);
+            batch.add(new NewProject("Flip " + i, null, start, start.plusMonths(6),
+                    i % 3 == 0 ? ProjectStatus.COMPLETED : ProjectStatus.UPCOMING, client,
+                    i % 4 == 0 ? "B-flip-1" : "B-flip-2", "M-flip"));
+        }
+        List<Project> created = projectService.createProjects(batch);
+        projectService.createProject("Other manager", null, LocalDate.of(2025, 1, 1), null, ProjectStatus.UPCOMING, client, "B-flip-1", "M-flip-other");
+        long inProgressBefore = projectService.getStatusCounts().get(ProjectStatus.IN_PROGRESS);
+
+        ProjectFilter started = ProjectFilter.any().withStatus(ProjectStatus.UPCOMING)
+                .withStartBetween(LocalDate.of(2000, 1, 1), LocalDate.of(2026, 1, 1));
+        StatusTransitionResult result = projectService.transitionStatus("M-flip", started, ProjectStatus.IN_PROGRESS);
+
+        long expected = 0;
+        for (int i = 0; i < created.size(); i++) {
+            boolean flipped = i % 2 == 0 && i % 3 != 0;
+            if (flipped) expected++;
+            ProjectStatus unchanged = i % 3 == 0 ? ProjectStatus.COMPLETED : ProjectStatus.UPCOMING;
+            assertEquals(flipped ? ProjectStatus.IN_PROGRESS : unchanged, created.get(i).getProjectStatus());
+        }
+        assertEquals(expected, result.getMatched());
+        assertEquals(expected, result.getUpdated());
+        assertEquals(inProgressBefore + expected, (long) projectService.getStatusCounts().get(ProjectStatus.IN_PROGRESS));
+        assertEquals(ProjectStatus.UPCOMING, projectService.getManagerProjects("M-flip-other").get(0).getProjectStatus());
+
+        StatusTransitionResult again = projectService.transitionStatus("M-flip", started, ProjectStatus.IN_PROGRESS);
+        assertEquals(0, again.getMatched());
+
+        StatusTransitionResult oneBuilder = projectService.transitionStatus("M-flip",
+                ProjectFilter.any().withStatus(ProjectStatus.IN_PROGRESS).withBuilder("B-flip-1"), ProjectStatus.IN_PROGRESS);
+        assertEquals(oneBuilder.getMatched(), created.stream().filter(p -> p.getProjectStatus() == ProjectStatus.IN_PROGRESS
+                && p.getAssignedBuilder().equals("B-flip-1")).count());
+        assertEquals(0, oneBuilder.getUpdated()); // already in the target status
+
+        assertEquals(0, projectService.transitionStatus("M-unknown", ProjectFilter.any(), ProjectStatus.COMPLETED).getMatched());
+    }
+
+    /**
+     * Verifies project lists are served from the cache and that each change
+     * invalidates only the affected manager and builder.
+     */
+    @Test
+    @Order(19)
+    void testProjectListCacheInvalidation() {
+        ProjectListCache cache = new ProjectListCache(100, 60_000);
+        ProjectService cached = new ProjectService(cache);
+        Project first = cached.createProject("Cached 1", null, LocalDate.of(2025, 1, 1), null, ProjectStatus.UPCOMING, client, "B-cache-1", "M-cache-1");
+        Project second = cached.createProject("Cached 2", null, LocalDate.of(2025, 1, 1), null, ProjectStatus.UPCOMING, client, "B-cache-2", "M-cache-2");
+        String[] users = {"M-cache-1", "B-cache-1", "M-cache-2", "B-cache-2"};
+        for (String user : users) {
+            assertEquals(1, user.startsWith("M") ? cached.getManagerProjects(user).size() : cached.getBuilderProjects(user).size());
+            assertTrue(cache.contains(user));
+        }
+
+        List<Project> returned = cached.getManagerProjects("M-cache-1");
+        returned.clear(); // callers get their own copy
+        assertEquals(1, cached.getManagerProjects("M-cache-1").size());
+
+        assertTrue(cached.updateProjectStatus("B-cache-1", first.getProjectId(), ProjectStatus.IN_PROGRESS));
+        assertFalse(cache.contains("M-cache-1"));
+        assertFalse(cache.contains("B-cache-1"));
+        assertTrue(cache.contains("M-cache-2"));
+        assertTrue(cache.contains("B-cache-2"));
+        assertEquals(ProjectStatus.IN_PROGRESS, cached.getManagerProjects("M-cache-1").get(0).getProjectStatus());
+        cached.getBuilderProjects("B-cache-1");
+
+        assertTrue(cached.deleteProject("M-cache-2", second.getProjectId()));
+        assertFalse(cache.contains("M-cache-2"));
+        assertFalse(cache.contains("B-cache-2"));
+        assertTrue(cache.contains("M-cache-1"));
+        assertTrue(cached.getManagerProjects("M-cache-2").isEmpty());
+        assertTrue(cached.getBuilderProjects("B-cache-2").isEmpty());
+
+        cached.createProject("Cached 3", null, LocalDate.of(2025, 1, 1), null, ProjectStatus.UPCOMING, client, "B-cache-2", "M-cache-1");
+        assertFalse(cache.contains("M-cache-1"));
+        assertFalse(cache.contains("B-cache-2"));
+        assertTrue(cache.contains("B-cache-1"));
+        assertTrue(cache.contains("M-cache-2"));
+        assertEquals(2, cached.getManagerProjects("M-cache-1").size());
+
+        Project direct = new Project("Direct", null, null, null, ProjectStatus.UPCOMING, client, "B-cache-1", "M-cache-1");
+        ProjectDao.saveProject(direct);
+        ManagerDao.addProjectToManager("M-cache-1", direct.getProjectId()); // around the service
+        assertEquals(3, cached.getManagerProjects("M-cache-1").size());
+    }
 }
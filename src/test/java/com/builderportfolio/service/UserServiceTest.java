@@ -123,6 +123,7 @@ import com.builderportfolio.exception.UserNotFoundException;
 import com.builderportfolio.model.User;
 import com.builderportfolio.dao.BuilderDao;
 import com.builderportfolio.dao.ManagerDao;
+import com.builderportfolio.security.PasswordHasher;
 import org.junit.jupiter.api.*;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -134,6 +135,7 @@ import static org.junit.jupiter.api.Assertions.*;
  * <ul>
  *   <li>User registration for managers and builders</li>
  *   <li>Duplicate user registration handling</li>
+ *   <li>Password hashing, including hash-shaped and pre-hashed passwords</li>
  *   <li>User login success and failure scenarios</li>
  *   <li>User detail retrieval</li>
  *   <li>Null and invalid input handling</li>
@@ -346,5 +348,67 @@ class UserServiceTest {
         assertNotNull(UserDao.getUserbyId(invalidRoleUser.getUserId()));
         // Invalid role does not block registration
     }
-}
 
+    /**
+     * Verifies the password is stored as a salted hash and still
+     * authenticates the user.
+     */
+    @Test
+    @Order(11)
+    void testRegister_StoresHashedPassword() throws Exception {
+
+        User user = new User("Hash", "hash@gmail.com", "123", 1, "hashme", 1);
+        userService.register(user);
+
+        String stored = UserDao.getUserbyId(user.getUserId()).getPassword();
+        assertTrue(PasswordHasher.isHash(stored));
+        assertFalse(stored.contains("hashme"));
+        assertFalse(user.toString().contains("hashme"));
+
+        assertNotNull(userService.login(user.getUserId(), "hashme"));
+        assertNotNull(userService.login(user.getUserId(), "hashme")); // served by the credential cache
+        assertNull(userService.login(user.getUserId(), "hashMe"));
+    }
+
+    /**
+     * Ensures a legacy plain-text password still logs in and is
+     * replaced by a hash afterwards.
+     */
+    @Test
+    @Order(12)
+    void testLogin_UpgradesLegacyPassword() throws Exception {
+
+        User legacy = new User("Legacy", "legacy@gmail.com", "123", 1, "plain", 2);
+        UserDao.insertUser(legacy.getUserId(), legacy); // stored as restored from old data
+
+        assertNull(userService.login(legacy.getUserId(), "wrong"));
+        assertNotNull(userService.login(legacy.getUserId(), "plain"));
+        assertTrue(PasswordHasher.isHash(legacy.getPassword()));
+        assertNotNull(userService.login(legacy.getUserId(), "plain"));
+    }
+
+    /**
+     * Ensures a password shaped like a hash is still hashed on registration,
+     * and that only accepted hashes can be registered as they are.
+     */
+    @Test
+    @Order(13)
+    void testRegister_HashesHashShapedPassword() throws Exception {
+
+        String crafted = "pbkdf2-sha256:2000000000:AAAA:AAAA";
+        User user = new User("Crafted", "crafted@gmail.com", "123", 1, crafted, 2);
+        userService.register(user);
+
+        assertNotEquals(crafted, user.getPassword());
+        assertNotNull(userService.login(user.getUserId(), crafted));
+
+        User costly = new User("Costly", "costly@gmail.com", "123", 1, crafted, 2);
+        assertThrows(IllegalArgumentException.class, () -> userService.registerHashed(costly));
+        assertNull(UserDao.exists("costly@gmail.com"));
+
+        User restored = new User("Restored", "restored@gmail.com", "123", 1, user.getPassword(), 2);
+        userService.registerHashed(restored);
+        assertEquals(user.getPassword(), restored.getPassword());
+        assertNotNull(userService.login(restored.getUserId(), crafted));
+    }
+}
@@ -0,0 +1,191 @@
+package com.builderportfolio.session;
+
+import com.builderportfolio.model.User;
+import org.junit.jupiter.api.*;
+
+import java.util.ArrayList;
+import java.util.HashSet;
+import java.util.List;
+import java.util.Set;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicLong;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * Unit test class for {@link SessionStore} and {@link TimingWheel}.
+ * <p>
+ * Validates token lookup and invalidation, idle expiry with sliding
+ * deadlines, that the wheel sweeps expired sessions without lookups,
+ * the size bound, that ended sessions do not accumulate in the wheel,
+ * and concurrent use from many threads.
+ * </p>
+ */
+class SessionStoreTest {
+
+    private static final long MINUTE_NANOS = TimeUnit.MINUTES.toNanos(1);
+
+    private final AtomicLong now = new AtomicLong(1_000);
+    private final User builder = new User("Bob", "bob@example.com", "9876543210", 5, "secret", 2);
+    private final User manager = new User("Mia", "mia@example.com", "9876543211", 8, "secret", 1);
+
+    /**
+     * Verifies tokens are opaque, distinct and resolve to their user until invalidated.
+     */
+    @Test
+    void testCreateGetInvalidate() {
+        SessionStore store = new SessionStore(60_000, 10, now::get);
+        String first = store.create(builder);
+        String second = store.create(manager);
+
+        assertNotEquals(first, second);
+        assertEquals(43, first.length());
+        assertFalse(first.contains(builder.getUserId()));
+        assertSame(builder, store.get(first));
+        assertSame(manager, store.get(second));
+        assertNull(store.get("unknown"));
+        assertNull(store.get(null));
+
+        assertTrue(store.invalidate(first));
+        assertFalse(store.invalidate(first));
+        assertNull(store.get(first));
+        assertEquals(1, store.size());
+        assertThrows(NullPointerException.class, () -> store.create(null));
+    }
+
+    /**
+     * Ensures an idle session expires and a used one has its deadline pushed back.
+     */
+    @Test
+    void testSlidingExpiry() {
+        SessionStore store = new SessionStore(60_000, 10, now::get);
+        String idle = store.create(builder);
+        String active = store.create(manager);
+
+        for (int i = 0; i < 4; i++) {
+            now.addAndGet(MINUTE_NANOS / 2);
+            assertSame(manager, store.get(active));
+        }
+        assertNull(store.get(idle));
+        assertSame(manager, store.get(active));
+
+        now.addAndGet(MINUTE_NANOS);
+        assertNull(store.get(active));
+    }
+
+    /**
+     * Verifies the wheel removes expired sessions that are never looked up again.
+     */
+    @Test
+    void testWheelSweepsExpired() {
+        SessionStore store = new SessionStore(60_000, 1_000, now::get);
+        for (int i = 0; i < 100; i++) {
+            store.create(builder);
+        }
+        assertEquals(100, store.size());
+
+        now.addAndGet(2 * MINUTE_NANOS);
+        String fresh = store.create(manager); // any call past a tick advances the wheel
+        assertEquals(1, store.size());
+        assertSame(manager, store.get(fresh));
+    }
+
+    /**
+     * Ensures the store never exceeds its bound and evicts the session closest to expiry.
+     */
+    @Test
+    void testBoundEvictsOldest() {
+        SessionStore store = new SessionStore(60_000, 3, now::get);
+        String oldest = store.create(builder);
+        now.addAndGet(MINUTE_NANOS / 4);
+        String middle = store.create(builder);
+        now.addAndGet(MINUTE_NANOS / 4);
+        String newest = store.create(builder);
+        now.addAndGet(MINUTE_NANOS / 4);
+
+        assertSame(builder, store.get(oldest)); // now due last
+        String extra = store.create(manager);
+
+        assertEquals(3, store.size());
+        assertNull(store.get(middle));
+        assertSame(builder, store.get(oldest));
+        assertSame(builder, store.get(newest));
+        assertSame(manager, store.get(extra));
+    }
+
+    /**
+     * Verifies sessions ended before expiry do not pile up in the wheel under
+     * repeated login and logout, and that clearing the store empties it.
+     */
+    @Test
+    void testEndedSessionsLeaveWheel() {
+        SessionStore store = new SessionStore(60_000, 4, now::get);
+        String kept = store.create(manager);
+        for (int i = 0; i < 1_000; i++) {
+            assertTrue(store.invalidate(store.create(builder)));
+            assertTrue(store.wheelSize() <= 8, "wheel holds " + store.wheelSize());
+        }
+        assertSame(manager, store.get(kept));
+        assertEquals(1, store.size());
+
+        store.clear();
+        assertEquals(0, store.wheelSize());
+    }
+
+    /**
+     * Verifies entries due more than one rotation ahead survive until their deadline.
+     */
+    @Test
+    void testWheelLaterRotation() {
+        List<Long> deadlines = new ArrayList<>();
+        deadlines.add(100L);
+        deadlines.add(1_000L);
+        Set<Integer> live = new HashSet<>();
+        live.add(0);
+        live.add(1);
+        List<Integer> expired = new ArrayList<>();
+        TimingWheel<Integer> wheel = new TimingWheel<>(10, 4, 0, i -> deadlines.get(i), live::contains);
+        wheel.schedule(0);
+        wheel.schedule(1);
+
+        assertFalse(wheel.isBehind(5));
+        wheel.advance(150, expired::add);
+        assertEquals(java.util.Collections.singletonList(0), expired);
+
+        live.remove(0);
+        wheel.advance(999, expired::add);
+        assertEquals(1, expired.size());
+        wheel.advance(1_000, expired::add);
+        assertEquals(java.util.Arrays.asList(0, 1), expired);
+    }
+
+    /**
+     * Ensures many threads can create, resolve and end sessions concurrently.
+     */
+    @Test
+    void testConcurrentUse() throws Exception {
+        SessionStore store = new SessionStore(60_000, 100_000);
+        ExecutorService pool = Executors.newFixedThreadPool(8);
+        try {
+            List<Future<Boolean>> results = new ArrayList<>();
+            for (int t = 0; t < 8; t++) {
+                results.add(pool.submit(() -> {
+                    for (int i = 0; i < 2_000; i++) {
+                        String token = store.create(builder);
+                        if (store.get(token) != builder || !store.invalidate(token)) return false;
+                    }
+                    return true;
+                }));
+            }
+            for (Future<Boolean> result : results) {
+                assertTrue(result.get(20, TimeUnit.SECONDS));
+            }
+            assertEquals(0, store.size());
+        } finally {
+            pool.shutdown();
+        }
+    }
+}